@@ -37,6 +37,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -44,6 +45,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -105,6 +107,13 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
   private final List<SimpleLoadBalancerStateListener>                                    _listeners;
 
   private volatile long                                                                  _delayedExecution;
+
+  /**
+   * Window in milliseconds over which updates of the same property are coalesced, 0 to apply every update.
+   */
+  private volatile long                                                                  _updateCoalescingWindow;
+  private final AtomicBoolean                                                            _pendingUpdatesScheduled;
+  private final AtomicLong                                                               _coalescedUpdateCount;
   /**
    * Map from service name => uri => tracker client.
    */
@@ -305,6 +314,9 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     _listeners =
         Collections.synchronizedList(new ArrayList<SimpleLoadBalancerStateListener>());
     _delayedExecution = 1000;
+    _updateCoalescingWindow = 0;
+    _pendingUpdatesScheduled = new AtomicBoolean(false);
+    _coalescedUpdateCount = new AtomicLong(0);
     _sslContext = sslContext;
     _sslParameters = sslParameters;
     _isSSLEnabled = isSSLEnabled;
@@ -588,6 +600,58 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     _delayedExecution = delayedExecution;
   }
 
+  public long getUpdateCoalescingWindow()
+  {
+    return _updateCoalescingWindow;
+  }
+
+  /**
+   * Coalesce the updates of uri, cluster and service properties received within a window. The first update
+   * of a window schedules the end of the window, at which the latest value of each updated property is
+   * applied, clusters before services before uris. An update is therefore never applied later than the
+   * window after it is received, however many updates follow it.
+   * <p/>
+   * The initial values and the removals of properties are always applied immediately.
+   *
+   * @param updateCoalescingWindow window in milliseconds, 0 to apply every update as it is received
+   */
+  public void setUpdateCoalescingWindow(long updateCoalescingWindow)
+  {
+    if (updateCoalescingWindow < 0)
+    {
+      throw new IllegalArgumentException("Update coalescing window cannot be negative: " + updateCoalescingWindow);
+    }
+    _updateCoalescingWindow = updateCoalescingWindow;
+  }
+
+  /**
+   * @return number of updates that have been superseded by a later update of the same property within a window
+   */
+  public long getCoalescedUpdateCount()
+  {
+    return _coalescedUpdateCount.get();
+  }
+
+  private void schedulePendingUpdates()
+  {
+    if (_pendingUpdatesScheduled.compareAndSet(false, true))
+    {
+      _executor.schedule(new PropertyEvent("apply pending updates")
+      {
+        @Override
+        public void innerRun()
+        {
+          _pendingUpdatesScheduled.set(false);
+
+          // services depend on their clusters, and uris on the services of their clusters
+          _clusterSubscriber.applyPendingPuts();
+          _serviceSubscriber.applyPendingPuts();
+          _uriSubscriber.applyPendingPuts();
+        }
+      }, _updateCoalescingWindow, TimeUnit.MILLISECONDS);
+    }
+  }
+
   @Override
   public TrackerClient getClient(String serviceName, URI uri)
   {
@@ -709,6 +773,11 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     private final PropertyEventBus<T>                                                     _eventBus;
     private final ConcurrentMap<String, ClosableQueue<LoadBalancerStateListenerCallback>> _waiters =
                                                                                                        new ConcurrentHashMap<String, ClosableQueue<LoadBalancerStateListenerCallback>>();
+    /**
+     * Latest value of each property whose update waits for the end of the coalescing window.
+     */
+    private final Map<String, T>                                                          _pendingPuts =
+                                                                                                       new LinkedHashMap<String, T>();
 
     public AbstractLoadBalancerSubscriber(int type, PropertyEventBus<T> eventBus)
     {
@@ -767,6 +836,58 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     {
       trace(_log, _name, ".onAdd: ", propertyName, ": ", propertyValue);
 
+      if (_updateCoalescingWindow > 0)
+      {
+        final boolean superseded;
+        synchronized (_pendingPuts)
+        {
+          superseded = _pendingPuts.containsKey(propertyName);
+          _pendingPuts.put(propertyName, propertyValue);
+        }
+        if (superseded)
+        {
+          _coalescedUpdateCount.incrementAndGet();
+        }
+        schedulePendingUpdates();
+      }
+      else
+      {
+        applyPut(propertyName, propertyValue);
+      }
+    }
+
+    void applyPendingPuts()
+    {
+      final Map<String, T> pendingPuts;
+      synchronized (_pendingPuts)
+      {
+        pendingPuts = new LinkedHashMap<String, T>(_pendingPuts);
+        _pendingPuts.clear();
+      }
+
+      for (Map.Entry<String, T> pendingPut : pendingPuts.entrySet())
+      {
+        try
+        {
+          applyPut(pendingPut.getKey(), pendingPut.getValue());
+        }
+        catch (RuntimeException e)
+        {
+          _log.error(_name + " failed to apply update of " + pendingPut.getKey(), e);
+        }
+      }
+    }
+
+    private void removePendingPut(String propertyName)
+    {
+      synchronized (_pendingPuts)
+      {
+        _pendingPuts.remove(propertyName);
+      }
+    }
+
+    private void applyPut(final String propertyName, final T propertyValue)
+    {
       handlePut(propertyName, propertyValue);
 
       // if bad properties are received, then onInitialize()::handlePut might throw an exception and
@@ -790,6 +911,7 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     {
       trace(_log, _name, ".onInitialize: ", propertyName, ": ", propertyValue);
 
+      removePendingPut(propertyName);
       handlePut(propertyName, propertyValue);
 
       for (LoadBalancerStateListenerCallback waiter : _waiters.get(propertyName).close())
@@ -803,6 +925,7 @@ public class SimpleLoadBalancerState implements LoadBalancerState, ClientFactory
     {
       trace(_log, _name, ".onRemove: ", propertyName);
 
+      removePendingPut(propertyName);
       handleRemove(propertyName);
 
       // if we are removing this property, ensure that its corresponding queue is closed and
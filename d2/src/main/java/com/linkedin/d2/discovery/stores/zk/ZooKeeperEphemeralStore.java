@@ -16,10 +16,14 @@
 
 package com.linkedin.d2.discovery.stores.zk;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -27,6 +31,7 @@ import org.apache.zookeeper.AsyncCallback;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.WatchedEvent;
+import org.apache.zookeeper.Watcher;
 import org.apache.zookeeper.ZooDefs;
 import org.apache.zookeeper.data.Stat;
 import org.slf4j.Logger;
@@ -53,6 +58,12 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
   private final boolean _watchChildNodes;
   private static final Pattern PATH_PATTERN    = Pattern.compile("(.*)/(.*)$");
 
+  // values of the children of the published properties, only accessed by the ZooKeeper event thread
+  // except for removing the property when publishing stops
+  private final ConcurrentMap<String, Map<String, T>> _childrenCache = new ConcurrentHashMap<String, Map<String, T>>();
+  private final AtomicLong _childReadCount = new AtomicLong();
+  private final AtomicLong _childReadSavedCount = new AtomicLong();
+
   public ZooKeeperEphemeralStore(ZKConnection client,
                                  PropertySerializer<T> serializer,
                                  ZooKeeperPropertyMerger<T> merger,
@@ -72,6 +83,14 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
     _watchChildNodes = watchChildNodes;
   }
 
+  @Override
+  public void start(Callback<None> callback)
+  {
+    // the children are read again from the new session
+    _childrenCache.clear();
+    super.start(callback);
+  }
+
   @Override
   public void put(final String prop, final T value, final Callback<None> callback)
   {
@@ -262,6 +281,61 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
     }
   }
 
+  /**
+   * Merge the children of a published property from the cached values, reading only the children that
+   * were added since the last time. The cached values are only kept up to date by the watches of the children,
+   * so this is only used when they are watched.
+   */
+  private void getMergedChildrenDelta(String path, List<String> children, ZKStoreWatcher watcher, final Callback<T> callback)
+  {
+    final String propertyName = getPropertyForPath(path);
+    Map<String, T> cachedChildren = _childrenCache.get(propertyName);
+    if (cachedChildren == null)
+    {
+      cachedChildren = new HashMap<String, T>();
+      // publishing may have been stopped while the children were being read
+      if (watcher.containsWatch(propertyName))
+      {
+        _childrenCache.put(propertyName, cachedChildren);
+      }
+    }
+
+    final Map<String, T> currentChildren = cachedChildren;
+    currentChildren.keySet().retainAll(children);
+    final List<String> addedChildren = new ArrayList<String>();
+    for (String child : children)
+    {
+      if (!currentChildren.containsKey(child))
+      {
+        addedChildren.add(child);
+      }
+    }
+    _childReadCount.addAndGet(addedChildren.size());
+    _childReadSavedCount.addAndGet(children.size() - addedChildren.size());
+
+    if (addedChildren.isEmpty())
+    {
+      _log.debug("getMergedChildrenDelta: no new children of {}", children);
+      callback.onSuccess(_merger.merge(propertyName, new ArrayList<T>(currentChildren.values())));
+      return;
+    }
+
+    _log.debug("getMergedChildrenDelta: collecting {}", addedChildren);
+    ChildCollector collector = new ChildCollector(addedChildren.size(), new CallbackAdapter<T,Map<String,T>>(callback)
+    {
+      @Override
+      protected T convertResponse(Map<String,T> response) throws Exception
+      {
+        currentChildren.putAll(response);
+        return _merger.merge(propertyName, new ArrayList<T>(currentChildren.values()));
+      }
+    });
+    for (String child : addedChildren)
+    {
+      _zk.getData(path + "/" + child, (_watchChildNodes) ? watcher : null, collector, null);
+    }
+  }
+
   @Override
   public void startPublishing(final String prop)
   {
@@ -293,6 +367,7 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
     trace(_log, "unregister: ", prop);
 
     _zkStoreWatcher.cancelWatch(prop);
+    _childrenCache.remove(prop);
   }
 
   public int getListenerCount()
@@ -300,6 +375,22 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
     return _zkStoreWatcher.getWatchCount();
   }
 
+  /**
+   * @return number of child nodes read to publish the watched properties
+   */
+  public long getChildReadCount()
+  {
+    return _childReadCount.get();
+  }
+
+  /**
+   * @return number of child node reads saved by reusing the values of the unchanged children
+   */
+  public long getChildReadSavedCount()
+  {
+    return _childReadSavedCount.get();
+  }
+
   // Note ChildrenCallback is compatible with a ZK 3.2 server; Children2Callback is
   // compatible only with ZK 3.3+ server.
   private class ZKStoreWatcher extends ZooKeeperStore<T>.ZKStoreWatcher
@@ -362,8 +453,19 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
     @Override
     public void processWatch(final String propertyName, WatchedEvent watchedEvent)
     {
+      final String propertyPath = getPath(propertyName);
+      if (watchedEvent.getType() == Watcher.Event.EventType.NodeDataChanged && !propertyPath.equals(watchedEvent.getPath()))
+      {
+        // the data of a child has changed, read it again
+        final Map<String, T> cachedChildren = _childrenCache.get(propertyName);
+        if (cachedChildren != null)
+        {
+          cachedChildren.remove(watchedEvent.getPath().substring(propertyPath.length() + 1));
+        }
+      }
+
       // Reset the watch
-      _zk.getChildren(getPath(propertyName), this, this, false);
+      _zk.getChildren(propertyPath, this, this, false);
     }
 
     @Override
@@ -376,7 +478,7 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
       switch (code)
       {
         case OK:
-          getMergedChildren(path, children, this, new Callback<T>()
+          final Callback<T> callback = new Callback<T>()
           {
             @Override
             public void onSuccess(T value)
@@ -403,12 +505,23 @@ public class ZooKeeperEphemeralStore<T> extends ZooKeeperStore<T>
                 _log.debug("{}: published init", path);
               }
             }
-          });
+          };
 
+          if (_watchChildNodes)
+          {
+            getMergedChildrenDelta(path, children, this, callback);
+          }
+          else
+          {
+            // without child watches, the cached values of the children could be stale
+            _childReadCount.addAndGet(children.size());
+            getMergedChildren(path, children, this, callback);
+          }
           break;
 
         case NONODE:
           // The node whose children we are monitoring is gone; set an exists watch on it
+          _childrenCache.remove(property);
           _log.debug("{}: node is not present, calling exists", path);
           _zk.exists(path, this, this, false);
           if (init)
@@ -29,6 +29,7 @@ import com.linkedin.d2.discovery.stores.file.FileStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperEphemeralStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperPermanentStore;
 import com.linkedin.d2.discovery.stores.zk.ZooKeeperTogglingStore;
+import com.linkedin.r2.filter.metrics.RestMetrics;
 
 import javax.management.MBeanServer;
 import javax.management.MalformedObjectNameException;
@@ -184,6 +185,13 @@ public class JmxManager
     return this;
   }
 
+  public synchronized JmxManager registerRestMetrics(String name, RestMetrics metrics)
+  {
+    checkReg(new RestMetricsJmx(metrics), name);
+
+    return this;
+  }
+
   public synchronized JmxManager unregister(String name)
   {
     ObjectName oName;
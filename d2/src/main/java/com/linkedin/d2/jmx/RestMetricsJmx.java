@@ -0,0 +1,86 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.jmx;
+
+import com.linkedin.r2.filter.metrics.RestMethodStats;
+import com.linkedin.r2.filter.metrics.RestMetrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class RestMetricsJmx implements RestMetricsJmxMBean
+{
+  private final RestMetrics _metrics;
+
+  public RestMetricsJmx(RestMetrics metrics)
+  {
+    _metrics = metrics;
+  }
+
+  @Override
+  public int getInFlightRequestCount()
+  {
+    return _metrics.getInFlightRequestCount();
+  }
+
+  @Override
+  public Map<String, Integer> getInFlightRequestCounts()
+  {
+    return _metrics.getInFlightRequestCounts();
+  }
+
+  @Override
+  public long getRequestCount()
+  {
+    long count = 0;
+    for (RestMethodStats stats : _metrics.getMethodStats())
+    {
+      count += stats.getCount();
+    }
+    return count;
+  }
+
+  @Override
+  public long getErrorCount()
+  {
+    long count = 0;
+    for (RestMethodStats stats : _metrics.getMethodStats())
+    {
+      count += stats.getErrorCount();
+    }
+    return count;
+  }
+
+  @Override
+  public List<String> getMethods()
+  {
+    final List<String> methods = new ArrayList<String>();
+    for (RestMethodStats stats : _metrics.getMethodStats())
+    {
+      methods.add(stats.getService() + "/" + stats.getMethod());
+    }
+    return methods;
+  }
+
+  @Override
+  public String getMethodStats(String service, String method)
+  {
+    final RestMethodStats stats = _metrics.getMethodStats(service, method);
+    return stats == null ? null : stats.toString();
+  }
+}
@@ -0,0 +1,53 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.d2.jmx;
+
+import java.util.List;
+import java.util.Map;
+
+public interface RestMetricsJmxMBean
+{
+  /**
+   * @return number of requests in flight
+   */
+  int getInFlightRequestCount();
+
+  /**
+   * @return number of requests in flight of each service
+   */
+  Map<String, Integer> getInFlightRequestCounts();
+
+  /**
+   * @return number of completed requests of all methods
+   */
+  long getRequestCount();
+
+  /**
+   * @return number of failed requests of all methods
+   */
+  long getErrorCount();
+
+  /**
+   * @return the tracked methods, as service/method
+   */
+  List<String> getMethods();
+
+  /**
+   * @return String representation of the metrics of the method, or null if it has no completed requests
+   */
+  String getMethodStats(String service, String method);
+}
@@ -149,6 +149,24 @@ public class SimpleLoadBalancerStateJmx implements SimpleLoadBalancerStateJmxMBe
     _state.setDelayedExecution(milliseconds);
   }
 
+  @Override
+  public long getUpdateCoalescingWindow()
+  {
+    return _state.getUpdateCoalescingWindow();
+  }
+
+  @Override
+  public void setUpdateCoalescingWindow(long milliseconds)
+  {
+    _state.setUpdateCoalescingWindow(milliseconds);
+  }
+
+  @Override
+  public long getCoalescedUpdateCount()
+  {
+    return _state.getCoalescedUpdateCount();
+  }
+
   @Override
   public String getServerUrisForServiceName(String serviceName)
   {
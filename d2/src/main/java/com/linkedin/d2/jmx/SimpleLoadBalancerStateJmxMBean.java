@@ -61,6 +61,12 @@ public interface SimpleLoadBalancerStateJmxMBean
 
   void setDelayedExecution(long milliseconds);
 
+  long getUpdateCoalescingWindow();
+
+  void setUpdateCoalescingWindow(long milliseconds);
+
+  long getCoalescedUpdateCount();
+
   /**
    * @param serviceName this can be obtained through serviceProperty
    * @return returns a list of tracker clients URI (this will include banned URI for the cluster)
@@ -22,5 +22,9 @@ public interface ZooKeeperEphemeralStoreJmxMBean extends ZooKeeperStoreJmxMBean
 {
   int getListenerCount();
 
+  long getChildReadCount();
+
+  long getChildReadSavedCount();
+
   void removePartial(String listenTo, String discoveryProperties) throws PropertyStoreException;
 }
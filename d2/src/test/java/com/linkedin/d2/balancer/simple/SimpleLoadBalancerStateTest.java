@@ -51,6 +51,7 @@ import com.linkedin.util.clock.SystemClock;
 
 import java.security.NoSuchAlgorithmException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -922,6 +923,95 @@ public class SimpleLoadBalancerStateTest
     }
   }
 
+  @Test(groups = { "small", "back-end" })
+  public void testCoalescedUpdates()
+  {
+    reset();
+
+    final DeferredScheduleExecutorService executorService = new DeferredScheduleExecutorService();
+    _state = new SimpleLoadBalancerState(executorService,
+                                         _uriRegistry,
+                                         _clusterRegistry,
+                                         _serviceRegistry,
+                                         _clientFactories,
+                                         _loadBalancerStrategyFactories);
+    _state.setUpdateCoalescingWindow(100);
+
+    URI uri1 = URI.create("http://cluster-1/test1");
+    URI uri2 = URI.create("http://cluster-1/test2");
+    Map<Integer, PartitionData> partitionData = new HashMap<Integer, PartitionData>(1);
+    partitionData.put(DefaultPartitionAccessor.DEFAULT_PARTITION_ID, new PartitionData(1d));
+    Map<URI, Map<Integer, PartitionData>> uriData1 = new HashMap<URI, Map<Integer, PartitionData>>();
+    uriData1.put(uri1, partitionData);
+    Map<URI, Map<Integer, PartitionData>> uriData2 = new HashMap<URI, Map<Integer, PartitionData>>();
+    uriData2.put(uri2, partitionData);
+    Map<URI, Map<Integer, PartitionData>> uriData12 = new HashMap<URI, Map<Integer, PartitionData>>(uriData1);
+    uriData12.putAll(uriData2);
+
+    // initial values are applied immediately
+    _state.listenToCluster("cluster-1", new NullStateListenerCallback());
+    assertTrue(_state.isListeningToCluster("cluster-1"));
+    assertNull(_state.getUriProperties("cluster-1").getProperty());
+    assertTrue(executorService._scheduled.isEmpty());
+
+    _clusterRegistry.put("cluster-1", new ClusterProperties("cluster-1", Collections.singletonList("http")));
+    _uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData1));
+    _uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData12));
+    _uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData2));
+
+    // the updates wait for the end of the window, which has been scheduled only once
+    assertNull(_state.getUriProperties("cluster-1").getProperty());
+    assertNull(_state.getClusterProperties("cluster-1").getProperty());
+    assertEquals(executorService._scheduled.size(), 1);
+    assertEquals(_state.getCoalescedUpdateCount(), 2);
+
+    long version = _state.getVersion();
+    executorService.runScheduled();
+    assertEquals(_state.getUriProperties("cluster-1").getProperty().Uris(), Collections.singleton(uri2));
+    assertEquals(_state.getClusterProperties("cluster-1").getProperty().getPrioritizedSchemes(),
+                 Collections.singletonList("http"));
+    // one for cluster properties, and one for uri properties
+    assertEquals(_state.getVersion(), version + 2);
+
+    // a removal drops the pending update of the property
+    _uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData1));
+    _uriRegistry.remove("cluster-1");
+    assertNull(_state.getUriProperties("cluster-1"));
+    executorService.runScheduled();
+    assertNull(_state.getUriProperties("cluster-1"));
+
+    // without a window every update is applied immediately
+    _state.setUpdateCoalescingWindow(0);
+    _uriRegistry.put("cluster-1", new UriProperties("cluster-1", uriData12));
+    assertEquals(_state.getUriProperties("cluster-1").getProperty().Uris(), uriData12.keySet());
+    assertTrue(executorService._scheduled.isEmpty());
+  }
+
+  /**
+   * Runs the scheduled commands only when asked to, and the other commands immediately.
+   */
+  private static class DeferredScheduleExecutorService extends SynchronousExecutorService
+  {
+    private final List<Runnable> _scheduled = new ArrayList<Runnable>();
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit)
+    {
+      _scheduled.add(command);
+      return null;
+    }
+
+    private void runScheduled()
+    {
+      final List<Runnable> scheduled = new ArrayList<Runnable>(_scheduled);
+      _scheduled.clear();
+      for (Runnable command : scheduled)
+      {
+        command.run();
+      }
+    }
+  }
+
   @Test(groups = { "small", "back-end" })
   public void testVersion() throws URISyntaxException
   {
@@ -23,16 +23,25 @@ import static org.testng.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 
+import org.apache.zookeeper.KeeperException;
 import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Test;
 
+import com.linkedin.d2.discovery.event.PropertyEventBus;
+import com.linkedin.d2.discovery.event.PropertyEventPublisher;
+import com.linkedin.d2.discovery.event.PropertyEventSubscriber;
 import com.linkedin.d2.discovery.event.PropertyEventThread.PropertyEventShutdownCallback;
 import com.linkedin.d2.discovery.stores.PropertyStore;
 import com.linkedin.d2.discovery.stores.PropertyStoreException;
@@ -80,6 +89,12 @@ public class ZooKeeperEphemeralStoreTest
 
   public ZooKeeperEphemeralStore<String> getStore()
           throws IOException, PropertyStoreException, InterruptedException, ExecutionException
+  {
+    return getStore(false);
+  }
+
+  public ZooKeeperEphemeralStore<String> getStore(boolean watchChildNodes)
+          throws IOException, PropertyStoreException, InterruptedException, ExecutionException
   {
     ZKConnection client = new ZKConnection("localhost:" + _port, 5000);
     client.start();
@@ -89,7 +104,8 @@ public class ZooKeeperEphemeralStoreTest
             client,
             new PropertyStringSerializer(),
             new PropertyStringMerger(),
-            "/test-path");
+            "/test-path",
+            watchChildNodes);
     FutureCallback<None> callback = new FutureCallback<None>();
     store.start(callback);
     callback.get();
@@ -136,6 +152,78 @@ public class ZooKeeperEphemeralStoreTest
     }
   }
 
+  @Test(groups = { "small", "back-end" })
+  public void testPublishChildDelta()
+          throws InterruptedException, IOException, PropertyStoreException, ExecutionException
+  {
+    ZooKeeperEphemeralStore<String> publisher = getStore(true);
+    ZooKeeperEphemeralStore<String> store = getStore();
+    LatestValueBus bus = new LatestValueBus();
+    publisher.setBus(bus);
+
+    store.put("delta-1", "1");
+    store.put("delta-1", "2");
+    publisher.startPublishing("delta-1");
+    bus.await("1", "2");
+    assertEquals(publisher.getChildReadCount(), 2);
+    assertEquals(publisher.getChildReadSavedCount(), 0);
+
+    // only the added child is read
+    store.put("delta-1", "3");
+    bus.await("1", "2", "3");
+    assertEquals(publisher.getChildReadCount(), 3);
+    assertEquals(publisher.getChildReadSavedCount(), 2);
+
+    // the removed child is dropped without reading the others
+    store.removePartial("delta-1", "1");
+    bus.await("2", "3");
+    assertEquals(publisher.getChildReadCount(), 3);
+    assertEquals(publisher.getChildReadSavedCount(), 4);
+
+    publisher.stopPublishing("delta-1");
+  }
+
+  @Test(groups = { "small", "back-end" })
+  public void testPublishChildDataChangeWithoutChildWatches()
+          throws InterruptedException, IOException, PropertyStoreException, ExecutionException, KeeperException
+  {
+    ZooKeeperEphemeralStore<String> publisher = getStore(false);
+    ZooKeeperEphemeralStore<String> store = getStore();
+    LatestValueBus bus = new LatestValueBus();
+    publisher.setBus(bus);
+
+    store.put("nodelta-1", "1");
+    store.put("nodelta-1", "2");
+    publisher.startPublishing("nodelta-1");
+    bus.await("1", "2");
+
+    // the change is not watched, but the children are all read again when they change
+    ZKConnection client = new ZKConnection("localhost:" + _port, 5000);
+    client.start();
+    try
+    {
+      ZooKeeper zk = client.getZooKeeper();
+      for (String child : zk.getChildren("/test-path/nodelta-1", false))
+      {
+        String childPath = "/test-path/nodelta-1/" + child;
+        if ("1".equals(new String(zk.getData(childPath, false, null), "UTF-8")))
+        {
+          zk.setData(childPath, "9".getBytes("UTF-8"), -1);
+        }
+      }
+    }
+    finally
+    {
+      client.shutdown();
+    }
+
+    store.put("nodelta-1", "3");
+    bus.await("9", "2", "3");
+    assertEquals(publisher.getChildReadSavedCount(), 0);
+
+    publisher.stopPublishing("nodelta-1");
+  }
+
   @Test(groups = { "small", "back-end" })
   public void testShutdown()
           throws InterruptedException, IOException, PropertyStoreException, ExecutionException
@@ -159,6 +247,69 @@ public class ZooKeeperEphemeralStoreTest
     }
   }
 
+  private static class LatestValueBus implements PropertyEventBus<String>
+  {
+    private final BlockingQueue<Set<String>> _values = new LinkedBlockingQueue<Set<String>>();
+
+    public void await(String... expected) throws InterruptedException
+    {
+      Set<String> expectedValue = new HashSet<String>(Arrays.asList(expected));
+      Set<String> value;
+      do
+      {
+        value = _values.poll(10, TimeUnit.SECONDS);
+        if (value == null)
+        {
+          fail("Timed out waiting for " + expectedValue);
+        }
+      }
+      while (!value.equals(expectedValue));
+    }
+
+    @Override
+    public void publishInitialize(String prop, String value)
+    {
+      publishAdd(prop, value);
+    }
+
+    @Override
+    public void publishAdd(String prop, String value)
+    {
+      _values.add(value == null ? new HashSet<String>() : new HashSet<String>(Arrays.asList(value.split(","))));
+    }
+
+    @Override
+    public void publishRemove(String prop)
+    {
+      publishAdd(prop, null);
+    }
+
+    @Override
+    public void register(PropertyEventSubscriber<String> subscriber)
+    {
+    }
+
+    @Override
+    public void unregister(PropertyEventSubscriber<String> subscriber)
+    {
+    }
+
+    @Override
+    public void register(Set<String> propertyNames, PropertyEventSubscriber<String> subscriber)
+    {
+    }
+
+    @Override
+    public void unregister(Set<String> propertyNames, PropertyEventSubscriber<String> subscriber)
+    {
+    }
+
+    @Override
+    public void setPublisher(PropertyEventPublisher<String> publisher)
+    {
+    }
+  }
+
   public static class PropertyStringMerger implements ZooKeeperPropertyMerger<String>
   {
     @Override
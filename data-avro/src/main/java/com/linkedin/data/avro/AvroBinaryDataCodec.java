@@ -0,0 +1,1042 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.avro;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.DataCodec;
+import com.linkedin.data.element.DataElement;
+import com.linkedin.data.message.Message;
+import com.linkedin.data.message.MessageList;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.DataSchemaConstants;
+import com.linkedin.data.schema.EnumDataSchema;
+import com.linkedin.data.schema.FixedDataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * {@link DataCodec} that writes {@link DataMap}s conforming to a {@link RecordDataSchema} to Avro binary data
+ * and reads them back, without building an intermediate Avro {@link org.apache.avro.generic.GenericRecord}.
+ * <p>
+ *
+ * The output is the same Avro binary data that {@link DataTranslator#dataMapToGenericRecord(DataMap, RecordDataSchema, Schema)}
+ * followed by a {@link GenericDatumWriter} produces, and the input is translated the same way as
+ * {@link DataTranslator#genericRecordToDataMap(org.apache.avro.generic.GenericRecord, RecordDataSchema, Schema)} does.
+ * Optional fields that are absent are written as null, and records with an Avro override are translated by their
+ * {@link CustomDataTranslator}.
+ * <p>
+ *
+ * The Pegasus and Avro schemas are compiled once when the codec is constructed. The codec is thread-safe.
+ * {@link DataList}s are lists of {@link DataMap}s of the record schema, which are written as an Avro array of the
+ * record schema.
+ */
+public class AvroBinaryDataCodec implements DataCodec
+{
+  /**
+   * Construct a codec for the provided {@link RecordDataSchema}, using the Avro {@link Schema}
+   * translated from it by {@link SchemaTranslator#dataToAvroSchema(DataSchema)}.
+   *
+   * @param dataSchema provides the {@link RecordDataSchema} of the {@link DataMap}s.
+   */
+  public AvroBinaryDataCodec(RecordDataSchema dataSchema)
+  {
+    this(dataSchema, SchemaTranslator.dataToAvroSchema(dataSchema));
+  }
+
+  /**
+   * Construct a codec for the provided {@link RecordDataSchema} and Avro {@link Schema}.
+   *
+   * <p>
+   * The provided Avro {@link Schema} should be generated from a record schema that
+   * is compatible with the provided {@link RecordDataSchema} using {@link SchemaTranslator}.
+   *
+   * @param dataSchema provides the {@link RecordDataSchema} of the {@link DataMap}s.
+   * @param avroSchema provides the Avro {@link Schema} of the binary data.
+   * @throws IllegalArgumentException if the schemas are not compatible.
+   */
+  public AvroBinaryDataCodec(RecordDataSchema dataSchema, Schema avroSchema)
+  {
+    _avroSchema = avroSchema;
+    _root = new Compiler().compile(dataSchema, avroSchema);
+    _listRoot = new ArrayNode(_root, null);
+  }
+
+  /**
+   * Return the Avro {@link Schema} of the binary data.
+   *
+   * @return the Avro {@link Schema} of the binary data.
+   */
+  public Schema getAvroSchema()
+  {
+    return _avroSchema;
+  }
+
+  @Override
+  public byte[] mapToBytes(DataMap map) throws IOException
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeMap(map, out);
+    return out.toByteArray();
+  }
+
+  @Override
+  public byte[] listToBytes(DataList list) throws IOException
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    writeList(list, out);
+    return out.toByteArray();
+  }
+
+  @Override
+  public DataMap bytesToMap(byte[] input) throws IOException
+  {
+    return (DataMap) read(_root, input);
+  }
+
+  @Override
+  public DataList bytesToList(byte[] input) throws IOException
+  {
+    return (DataList) read(_listRoot, input);
+  }
+
+  @Override
+  public void writeMap(DataMap map, OutputStream out) throws IOException
+  {
+    write(_root, map, out);
+  }
+
+  @Override
+  public DataMap readMap(InputStream in) throws IOException
+  {
+    return bytesToMap(readBytes(in));
+  }
+
+  @Override
+  public void writeList(DataList list, OutputStream out) throws IOException
+  {
+    write(_listRoot, list, out);
+  }
+
+  @Override
+  public DataList readList(InputStream in) throws IOException
+  {
+    return bytesToList(readBytes(in));
+  }
+
+  private void write(Node node, Object value, OutputStream out) throws IOException
+  {
+    final Encoder encoder = _avroAdapter.createBinaryEncoder(out);
+    final Context context = new Context();
+    try
+    {
+      node.write(context, value, encoder);
+    }
+    catch (RuntimeException e)
+    {
+      throw context.exception(e);
+    }
+    encoder.flush();
+  }
+
+  private Object read(Node node, byte[] input) throws IOException
+  {
+    final Decoder decoder = _avroAdapter.createBinaryDecoder(input);
+    final Context context = new Context();
+    try
+    {
+      return node.read(context, decoder);
+    }
+    catch (RuntimeException e)
+    {
+      throw context.exception(e);
+    }
+  }
+
+  private static byte[] readBytes(InputStream in) throws IOException
+  {
+    // the Avro binary decoder of the adapter reads from a byte array
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[4096];
+    int read;
+    while ((read = in.read(buffer)) != -1)
+    {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static String unionMemberName(Schema member)
+  {
+    switch (member.getType())
+    {
+      case ENUM:
+      case FIXED:
+      case RECORD:
+        return member.getFullName();
+      default:
+        return member.getType().toString().toLowerCase();
+    }
+  }
+
+  private static byte[] translateBytes(Object value)
+  {
+    return (value.getClass() == ByteString.class) ?
+      ((ByteString) value).copyBytes() :
+      Data.stringToBytes((String) value, true);
+  }
+
+  /**
+   * State of a single read or write, which tracks the path to the value being processed.
+   */
+  private static class Context implements DataTranslatorContext
+  {
+    @Override
+    public void appendMessage(String format, Object... args)
+    {
+      _messageList.add(new Message(_path.toArray(), format, args));
+    }
+
+    private DataTranslationException fail(String format, Object... args)
+    {
+      appendMessage(format, args);
+      return exception(null);
+    }
+
+    private void checkMessages() throws DataTranslationException
+    {
+      if (_messageList.isEmpty() == false)
+      {
+        throw new DataTranslationException("Error processing " + pathToString(_messageList.get(0).getPath()), _messageList);
+      }
+    }
+
+    private DataTranslationException exception(RuntimeException e)
+    {
+      return new DataTranslationException("Error processing " + pathToString(_path.toArray()), _messageList, e);
+    }
+
+    private static String pathToString(Object[] path)
+    {
+      final StringBuilder sb = new StringBuilder();
+      for (Object o : path)
+      {
+        sb.append(DataElement.SEPARATOR);
+        sb.append(o);
+      }
+      return sb.toString();
+    }
+
+    private final Deque<Object> _path = new ArrayDeque<Object>();
+    private final MessageList<Message> _messageList = new MessageList<Message>();
+    private Utf8 _utf8 = new Utf8();
+  }
+
+  /**
+   * Writes and reads values of a pair of Pegasus and Avro schemas.
+   */
+  private static abstract class Node
+  {
+    abstract void write(Context context, Object value, Encoder encoder) throws IOException;
+
+    abstract Object read(Context context, Decoder decoder) throws IOException;
+  }
+
+  private static class Compiler
+  {
+    private Node compile(DataSchema dataSchema, Schema avroSchema)
+    {
+      final AvroOverride avroOverride = _avroOverrideMap.getAvroOverride(dataSchema);
+      checkMessages();
+      if (avroOverride != null)
+      {
+        return new OverrideNode(avroOverride.getCustomDataTranslator(), dataSchema, avroSchema);
+      }
+
+      final DataSchema dereferencedDataSchema = dataSchema.getDereferencedDataSchema();
+      switch (dereferencedDataSchema.getType())
+      {
+        case NULL:
+          return NULL_NODE;
+        case BOOLEAN:
+          return BOOLEAN_NODE;
+        case INT:
+          return INT_NODE;
+        case LONG:
+          return LONG_NODE;
+        case FLOAT:
+          return FLOAT_NODE;
+        case DOUBLE:
+          return DOUBLE_NODE;
+        case STRING:
+          return STRING_NODE;
+        case BYTES:
+          return BYTES_NODE;
+        case ENUM:
+          return new EnumNode((EnumDataSchema) dereferencedDataSchema, avroSchema);
+        case FIXED:
+          return new FixedNode((FixedDataSchema) dereferencedDataSchema);
+        case MAP:
+          return new MapNode(compile(((MapDataSchema) dereferencedDataSchema).getValues(), avroSchema.getValueType()));
+        case ARRAY:
+          final DataSchema itemsSchema = ((ArrayDataSchema) dereferencedDataSchema).getItems();
+          final Node itemNode = compile(itemsSchema, avroSchema.getElementType());
+          return new ArrayNode(itemNode, _avroOverrideMap.getAvroOverride(itemsSchema) == null ? itemsSchema.getDereferencedType() : null);
+        case RECORD:
+          RecordNode recordNode = _recordNodes.get(avroSchema);
+          if (recordNode == null)
+          {
+            // register before compiling the fields, which may refer back to this record
+            recordNode = new RecordNode();
+            _recordNodes.put(avroSchema, recordNode);
+            recordNode._fields = compileFields((RecordDataSchema) dereferencedDataSchema, avroSchema);
+          }
+          return recordNode;
+        case UNION:
+          return compileUnion((UnionDataSchema) dereferencedDataSchema, avroSchema, false);
+        default:
+          throw new IllegalArgumentException("schema type unknown " + dereferencedDataSchema.getType());
+      }
+    }
+
+    private FieldNode[] compileFields(RecordDataSchema recordDataSchema, Schema avroSchema)
+    {
+      final List<FieldNode> fields = new ArrayList<FieldNode>();
+      // Avro binary data holds the fields in the order of the Avro schema
+      for (Schema.Field avroField : avroSchema.getFields())
+      {
+        final RecordDataSchema.Field field = recordDataSchema.getField(avroField.name());
+        if (field == null)
+        {
+          throw new IllegalArgumentException("Avro field " + avroField.name() + " is not a field of " + recordDataSchema.getFullName());
+        }
+        final DataSchema fieldDataSchema = field.getType();
+        final Schema fieldAvroSchema = avroField.schema();
+        final FieldNode fieldNode = new FieldNode(field.getName(), field.getOptional());
+        if (field.getOptional() && fieldDataSchema.getDereferencedType() != DataSchema.Type.UNION)
+        {
+          // Avro schema should be union with 2 types: null and the field's type.
+          fieldNode._nullIndex = findUnionMember(DataSchemaConstants.NULL_DATA_SCHEMA, fieldAvroSchema);
+          fieldNode._valueIndex = findUnionMember(fieldDataSchema, fieldAvroSchema);
+          fieldNode._node = compile(fieldDataSchema, fieldAvroSchema.getTypes().get(fieldNode._valueIndex));
+        }
+        else if (field.getOptional())
+        {
+          // Avro schema of an optional union field always has a null member for absent fields
+          fieldNode._node = compileUnion((UnionDataSchema) fieldDataSchema.getDereferencedDataSchema(), fieldAvroSchema, true);
+        }
+        else
+        {
+          fieldNode._node = compile(fieldDataSchema, fieldAvroSchema);
+        }
+        fields.add(fieldNode);
+      }
+      return fields.toArray(new FieldNode[fields.size()]);
+    }
+
+    private UnionNode compileUnion(UnionDataSchema unionDataSchema, Schema avroSchema, boolean optional)
+    {
+      final List<Schema> avroMembers = avroSchema.getTypes();
+      final UnionMember[] members = new UnionMember[avroMembers.size()];
+      final Map<String, UnionMember> memberKeys = new HashMap<String, UnionMember>();
+      for (DataSchema memberDataSchema : unionDataSchema.getTypes())
+      {
+        final int index = findUnionMember(memberDataSchema, avroSchema);
+        final UnionMember member = new UnionMember(index, memberDataSchema.getUnionMemberKey(), memberDataSchema.getType() == DataSchema.Type.NULL);
+        member._node = compile(memberDataSchema, avroMembers.get(index));
+        members[index] = member;
+        memberKeys.put(member._key, member);
+      }
+      if (optional && memberKeys.containsKey(DataSchemaConstants.NULL_TYPE) == false)
+      {
+        final int index = findUnionMember(DataSchemaConstants.NULL_DATA_SCHEMA, avroSchema);
+        final UnionMember member = new UnionMember(index, DataSchemaConstants.NULL_TYPE, true);
+        member._node = NULL_NODE;
+        members[index] = member;
+        memberKeys.put(member._key, member);
+      }
+      return new UnionNode(members, memberKeys);
+    }
+
+    private int findUnionMember(DataSchema dataSchema, Schema avroSchema)
+    {
+      final AvroOverride avroOverride = _avroOverrideMap.getAvroOverride(dataSchema);
+      final String key = (avroOverride == null ? dataSchema.getUnionMemberKey() : avroOverride.getAvroSchemaFullName());
+      final List<Schema> members = avroSchema.getTypes();
+      for (int i = 0; i < members.size(); i++)
+      {
+        if (unionMemberName(members.get(i)).equals(key))
+        {
+          return i;
+        }
+      }
+      throw new IllegalArgumentException("cannot find " + key + " in union " + avroSchema);
+    }
+
+    private void checkMessages()
+    {
+      if (_messages.isEmpty() == false)
+      {
+        throw new IllegalArgumentException("Invalid Avro override: " + _messages);
+      }
+    }
+
+    private final List<String> _messages = new ArrayList<String>();
+    private final AvroOverrideMap _avroOverrideMap = new AvroOverrideMap(new AvroOverrideFactory()
+    {
+      {
+        setInstantiateCustomDataTranslator(true);
+      }
+
+      @Override
+      void emitMessage(String format, Object... args)
+      {
+        _messages.add(String.format(format, args));
+      }
+    });
+    private final Map<Schema, RecordNode> _recordNodes = new IdentityHashMap<Schema, RecordNode>();
+  }
+
+  private static final Node NULL_NODE = new Node()
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      if (value != Data.NULL)
+      {
+        throw context.fail("value must be null for null schema");
+      }
+      encoder.writeNull();
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      decoder.readNull();
+      return Data.NULL;
+    }
+  };
+
+  private static final Node BOOLEAN_NODE = new Node()
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      encoder.writeBoolean((Boolean) value);
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      return decoder.readBoolean();
+    }
+  };
+
+  private static final Node INT_NODE = new Node()
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      encoder.writeInt(((Number) value).intValue());
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      return decoder.readInt();
+    }
+  };
+
+  private static final Node LONG_NODE = new Node()
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      encoder.writeLong(((Number) value).longValue());
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      return decoder.readLong();
+    }
+  };
+
+  private static final Node FLOAT_NODE = new Node()
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      encoder.writeFloat(((Number) value).floatValue());
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      return decoder.readFloat();
+    }
+  };
+
+  private static final Node DOUBLE_NODE = new Node()
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      encoder.writeDouble(((Number) value).doubleValue());
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      return decoder.readDouble();
+    }
+  };
+
+  private static final Node STRING_NODE = new Node()
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      // Avro strings are written as their UTF-8 bytes, which avoids allocating a Utf8
+      final byte[] bytes = ((String) value).getBytes(Data.UTF_8_CHARSET);
+      encoder.writeBytes(bytes, 0, bytes.length);
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      context._utf8 = decoder.readString(context._utf8);
+      return context._utf8.toString();
+    }
+  };
+
+  private static final Node BYTES_NODE = new Node()
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      final byte[] bytes = translateBytes(value);
+      encoder.writeBytes(bytes, 0, bytes.length);
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      final ByteBuffer byteBuffer = decoder.readBytes(null);
+      return ByteString.copy(byteBuffer);
+    }
+  };
+
+  private static class EnumNode extends Node
+  {
+    private EnumNode(EnumDataSchema enumDataSchema, Schema avroSchema)
+    {
+      _enumDataSchema = enumDataSchema;
+      _avroSymbols = avroSchema.getEnumSymbols();
+      for (String symbol : enumDataSchema.getSymbols())
+      {
+        if (avroSchema.hasEnumSymbol(symbol))
+        {
+          _ordinals.put(symbol, avroSchema.getEnumOrdinal(symbol));
+        }
+      }
+    }
+
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      final String symbol = value.toString();
+      final Integer ordinal = _ordinals.get(symbol);
+      if (ordinal == null)
+      {
+        throw context.fail("enum value %1$s not one of %2$s", symbol, _enumDataSchema.getSymbols());
+      }
+      encoder.writeEnum(ordinal);
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      final String symbol = _avroSymbols.get(decoder.readEnum());
+      if (_ordinals.containsKey(symbol) == false)
+      {
+        throw context.fail("enum value %1$s not one of %2$s", symbol, _enumDataSchema.getSymbols());
+      }
+      return symbol;
+    }
+
+    private final EnumDataSchema _enumDataSchema;
+    private final List<String> _avroSymbols;
+    private final Map<String, Integer> _ordinals = new HashMap<String, Integer>();
+  }
+
+  private static class FixedNode extends Node
+  {
+    private FixedNode(FixedDataSchema fixedDataSchema)
+    {
+      _size = fixedDataSchema.getSize();
+    }
+
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      final byte[] bytes = translateBytes(value);
+      if (bytes.length != _size)
+      {
+        throw context.fail("ByteString size %1$d != FixedDataSchema size %2$d", bytes.length, _size);
+      }
+      encoder.writeFixed(bytes);
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      final byte[] bytes = new byte[_size];
+      decoder.readFixed(bytes);
+      return ByteString.copy(bytes);
+    }
+
+    private final int _size;
+  }
+
+  private static class MapNode extends Node
+  {
+    private MapNode(Node valueNode)
+    {
+      _valueNode = valueNode;
+    }
+
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      final DataMap map = (DataMap) value;
+      encoder.writeMapStart();
+      encoder.setItemCount(map.size());
+      for (Map.Entry<String, Object> entry : map.entrySet())
+      {
+        final String key = entry.getKey();
+        encoder.startItem();
+        STRING_NODE.write(context, key, encoder);
+        context._path.addLast(key);
+        _valueNode.write(context, entry.getValue(), encoder);
+        context._path.removeLast();
+      }
+      encoder.writeMapEnd();
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      long count = decoder.readMapStart();
+      final DataMap map = new DataMap((int) count);
+      while (count != 0)
+      {
+        for (long i = 0; i < count; i++)
+        {
+          final String key = (String) STRING_NODE.read(context, decoder);
+          context._path.addLast(key);
+          map.put(key, _valueNode.read(context, decoder));
+          context._path.removeLast();
+        }
+        count = decoder.mapNext();
+      }
+      return map;
+    }
+
+    private final Node _valueNode;
+  }
+
+  private static class ArrayNode extends Node
+  {
+    /**
+     * @param itemType provides the type of primitive items that are read into a {@link DataList} without boxing,
+     *                 or null if the items are translated by the item node.
+     */
+    private ArrayNode(Node itemNode, DataSchema.Type itemType)
+    {
+      _itemNode = itemNode;
+      _itemType = itemType;
+    }
+
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      final DataList list = (DataList) value;
+      final int size = list.size();
+      encoder.writeArrayStart();
+      encoder.setItemCount(size);
+      for (int i = 0; i < size; i++)
+      {
+        encoder.startItem();
+        context._path.addLast(i);
+        if (_itemType == DataSchema.Type.INT || _itemType == DataSchema.Type.LONG || _itemType == DataSchema.Type.DOUBLE)
+        {
+          writePrimitiveItem(context, list, i, encoder);
+        }
+        else
+        {
+          _itemNode.write(context, list.get(i), encoder);
+        }
+        context._path.removeLast();
+      }
+      encoder.writeArrayEnd();
+    }
+
+    /**
+     * Write the item without boxing if the list holds primitives of the item type. Items of other types are written
+     * by the item node, which converts any {@link Number} like it does for record fields.
+     */
+    private void writePrimitiveItem(Context context, DataList list, int index, Encoder encoder) throws IOException
+    {
+      try
+      {
+        if (_itemType == DataSchema.Type.INT)
+        {
+          encoder.writeInt(list.getInt(index));
+        }
+        else if (_itemType == DataSchema.Type.LONG)
+        {
+          encoder.writeLong(list.getLong(index));
+        }
+        else
+        {
+          encoder.writeDouble(list.getDouble(index));
+        }
+      }
+      catch (ClassCastException e)
+      {
+        _itemNode.write(context, list.get(index), encoder);
+      }
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      long count = decoder.readArrayStart();
+      if (_itemType == DataSchema.Type.INT)
+      {
+        int[] values = new int[(int) count];
+        int size = 0;
+        for (; count != 0; count = decoder.arrayNext())
+        {
+          if (size + count > values.length)
+          {
+            final int[] grown = new int[(int) Math.max(size + count, values.length * 2)];
+            System.arraycopy(values, 0, grown, 0, size);
+            values = grown;
+          }
+          for (long i = 0; i < count; i++)
+          {
+            values[size++] = decoder.readInt();
+          }
+        }
+        return DataList.fromInts(values, size);
+      }
+      else if (_itemType == DataSchema.Type.LONG)
+      {
+        long[] values = new long[(int) count];
+        int size = 0;
+        for (; count != 0; count = decoder.arrayNext())
+        {
+          if (size + count > values.length)
+          {
+            final long[] grown = new long[(int) Math.max(size + count, values.length * 2)];
+            System.arraycopy(values, 0, grown, 0, size);
+            values = grown;
+          }
+          for (long i = 0; i < count; i++)
+          {
+            values[size++] = decoder.readLong();
+          }
+        }
+        return DataList.fromLongs(values, size);
+      }
+      else if (_itemType == DataSchema.Type.DOUBLE)
+      {
+        double[] values = new double[(int) count];
+        int size = 0;
+        for (; count != 0; count = decoder.arrayNext())
+        {
+          if (size + count > values.length)
+          {
+            final double[] grown = new double[(int) Math.max(size + count, values.length * 2)];
+            System.arraycopy(values, 0, grown, 0, size);
+            values = grown;
+          }
+          for (long i = 0; i < count; i++)
+          {
+            values[size++] = decoder.readDouble();
+          }
+        }
+        return DataList.fromDoubles(values, size);
+      }
+
+      final DataList list = new DataList((int) count);
+      for (; count != 0; count = decoder.arrayNext())
+      {
+        for (long i = 0; i < count; i++)
+        {
+          context._path.addLast(list.size());
+          list.add(_itemNode.read(context, decoder));
+          context._path.removeLast();
+        }
+      }
+      return list;
+    }
+
+    private final Node _itemNode;
+    private final DataSchema.Type _itemType;
+  }
+
+  private static class FieldNode
+  {
+    private FieldNode(String name, boolean optional)
+    {
+      _name = name;
+      _optional = optional;
+    }
+
+    private final String _name;
+    private final boolean _optional;
+    private Node _node;
+    // union indexes of optional fields that are not unions, or -1
+    private int _nullIndex = -1;
+    private int _valueIndex = -1;
+  }
+
+  private static class RecordNode extends Node
+  {
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      final DataMap map = (DataMap) value;
+      for (FieldNode field : _fields)
+      {
+        context._path.addLast(field._name);
+        Object fieldValue = map.get(field._name);
+        if (field._valueIndex >= 0)
+        {
+          if (fieldValue == null)
+          {
+            encoder.writeIndex(field._nullIndex);
+            encoder.writeNull();
+          }
+          else
+          {
+            encoder.writeIndex(field._valueIndex);
+            field._node.write(context, fieldValue, encoder);
+          }
+        }
+        else
+        {
+          if (fieldValue == null)
+          {
+            if (field._optional == false)
+            {
+              throw context.fail("required field is absent");
+            }
+            // field is not present
+            fieldValue = Data.NULL;
+          }
+          field._node.write(context, fieldValue, encoder);
+        }
+        context._path.removeLast();
+      }
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      final DataMap map = DataMap.compact(_fields.length);
+      for (FieldNode field : _fields)
+      {
+        context._path.addLast(field._name);
+        if (field._valueIndex >= 0)
+        {
+          final int index = decoder.readIndex();
+          if (index == field._valueIndex)
+          {
+            map.put(field._name, field._node.read(context, decoder));
+          }
+          else if (index == field._nullIndex)
+          {
+            decoder.readNull();
+          }
+          else
+          {
+            throw context.fail("union index %1$d is neither null nor the field's type", index);
+          }
+        }
+        else
+        {
+          final Object fieldValue = field._node.read(context, decoder);
+          if (field._optional == false || fieldValue != Data.NULL)
+          {
+            map.put(field._name, fieldValue);
+          }
+        }
+        context._path.removeLast();
+      }
+      return map;
+    }
+
+    private FieldNode[] _fields;
+  }
+
+  private static class UnionMember
+  {
+    private UnionMember(int index, String key, boolean isNull)
+    {
+      _index = index;
+      _key = key;
+      _isNull = isNull;
+    }
+
+    private final int _index;
+    private final String _key;
+    private final boolean _isNull;
+    private Node _node;
+  }
+
+  private static class UnionNode extends Node
+  {
+    private UnionNode(UnionMember[] members, Map<String, UnionMember> memberKeys)
+    {
+      _members = members;
+      _memberKeys = memberKeys;
+    }
+
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      final String key;
+      final Object memberValue;
+      if (value == Data.NULL)
+      {
+        key = DataSchemaConstants.NULL_TYPE;
+        memberValue = Data.NULL;
+      }
+      else if (value instanceof DataMap && ((DataMap) value).size() == 1)
+      {
+        final Map.Entry<String, Object> entry = ((DataMap) value).entrySet().iterator().next();
+        key = entry.getKey();
+        memberValue = entry.getValue();
+      }
+      else
+      {
+        throw context.fail("union value must be null or a map with exactly one entry, but is %1$s", value);
+      }
+      final UnionMember member = _memberKeys.get(key);
+      if (member == null)
+      {
+        throw context.fail("cannot find %1$s in union", key);
+      }
+      encoder.writeIndex(member._index);
+      context._path.addLast(key);
+      member._node.write(context, memberValue, encoder);
+      context._path.removeLast();
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      final int index = decoder.readIndex();
+      final UnionMember member = index < _members.length ? _members[index] : null;
+      if (member == null)
+      {
+        throw context.fail("cannot find union member with index %1$d", index);
+      }
+      if (member._isNull)
+      {
+        decoder.readNull();
+        return Data.NULL;
+      }
+      final DataMap map = new DataMap(1);
+      context._path.addLast(member._key);
+      map.put(member._key, member._node.read(context, decoder));
+      context._path.removeLast();
+      return map;
+    }
+
+    // indexed by the Avro union index
+    private final UnionMember[] _members;
+    private final Map<String, UnionMember> _memberKeys;
+  }
+
+  /**
+   * Translates records with an Avro override through their {@link CustomDataTranslator} and Avro generic data.
+   */
+  private static class OverrideNode extends Node
+  {
+    private OverrideNode(CustomDataTranslator customDataTranslator, DataSchema dataSchema, Schema avroSchema)
+    {
+      _customDataTranslator = customDataTranslator;
+      _dataSchema = dataSchema;
+      _avroSchema = avroSchema;
+    }
+
+    @Override
+    void write(Context context, Object value, Encoder encoder) throws IOException
+    {
+      final Object avroValue = _customDataTranslator.dataToAvroGeneric(context, value, _dataSchema, _avroSchema);
+      context.checkMessages();
+      new GenericDatumWriter<Object>(_avroSchema).write(avroValue, encoder);
+    }
+
+    @Override
+    Object read(Context context, Decoder decoder) throws IOException
+    {
+      final Object avroValue = new GenericDatumReader<Object>(_avroSchema).read(null, decoder);
+      final Object value = _customDataTranslator.avroGenericToData(context, avroValue, _avroSchema, _dataSchema);
+      context.checkMessages();
+      return value;
+    }
+
+    private final CustomDataTranslator _customDataTranslator;
+    private final DataSchema _dataSchema;
+    private final Schema _avroSchema;
+  }
+
+  private final AvroAdapter _avroAdapter = AvroAdapterFinder.getAvroAdapter();
+  private final Schema _avroSchema;
+  private final Node _root;
+  private final Node _listRoot;
+}
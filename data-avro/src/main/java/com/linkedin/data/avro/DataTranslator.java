@@ -285,7 +285,7 @@ public class DataTranslator implements DataTranslatorContext
         case RECORD:
           GenericRecord record = (GenericRecord) value;
           RecordDataSchema recordDataSchema = (RecordDataSchema) dereferencedDataSchema;
-          dataMap = new DataMap(avroSchema.getFields().size());
+          dataMap = DataMap.compact(recordDataSchema.getFields().size());
           for (RecordDataSchema.Field field : recordDataSchema.getFields())
           {
             String fieldName = field.getName();
@@ -0,0 +1,244 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.avro;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.avro.util.AvroUtil;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.SchemaParser;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.avro.Schema;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestAvroBinaryDataCodec
+{
+  static final String SCHEMA =
+    "{\n" +
+    "  \"type\" : \"record\",\n" +
+    "  \"name\" : \"Foo\",\n" +
+    "  \"namespace\" : \"com.linkedin.data.avro.test\",\n" +
+    "  \"fields\" : [\n" +
+    "    { \"name\" : \"int\", \"type\" : \"int\" },\n" +
+    "    { \"name\" : \"long\", \"type\" : \"long\", \"optional\" : true },\n" +
+    "    { \"name\" : \"float\", \"type\" : \"float\", \"optional\" : true },\n" +
+    "    { \"name\" : \"double\", \"type\" : \"double\", \"optional\" : true },\n" +
+    "    { \"name\" : \"boolean\", \"type\" : \"boolean\", \"optional\" : true },\n" +
+    "    { \"name\" : \"string\", \"type\" : { \"type\" : \"typeref\", \"name\" : \"StringRef\", \"ref\" : \"string\" } },\n" +
+    "    { \"name\" : \"bytes\", \"type\" : \"bytes\", \"optional\" : true },\n" +
+    "    { \"name\" : \"enum\", \"type\" : { \"type\" : \"enum\", \"name\" : \"Fruits\", \"symbols\" : [ \"APPLE\", \"ORANGE\" ] }, \"optional\" : true },\n" +
+    "    { \"name\" : \"fixed\", \"type\" : { \"type\" : \"fixed\", \"name\" : \"MD5\", \"size\" : 4 }, \"optional\" : true },\n" +
+    "    { \"name\" : \"ints\", \"type\" : { \"type\" : \"array\", \"items\" : \"int\" }, \"optional\" : true },\n" +
+    "    { \"name\" : \"longs\", \"type\" : { \"type\" : \"array\", \"items\" : \"long\" }, \"optional\" : true },\n" +
+    "    { \"name\" : \"doubles\", \"type\" : { \"type\" : \"array\", \"items\" : \"double\" }, \"optional\" : true },\n" +
+    "    { \"name\" : \"strings\", \"type\" : { \"type\" : \"array\", \"items\" : \"string\" }, \"optional\" : true },\n" +
+    "    { \"name\" : \"map\", \"type\" : { \"type\" : \"map\", \"values\" : \"Fruits\" }, \"optional\" : true },\n" +
+    "    { \"name\" : \"next\", \"type\" : \"Foo\", \"optional\" : true },\n" +
+    "    { \"name\" : \"union\", \"type\" : [ \"null\", \"int\", \"string\", \"Foo\" ] },\n" +
+    "    { \"name\" : \"optionalUnion\", \"type\" : [ \"long\", \"MD5\" ], \"optional\" : true }\n" +
+    "  ]\n" +
+    "}\n";
+
+  private static final String[] INPUTS =
+  {
+    "{ \"int\" : 1, \"string\" : \"a\", \"union\" : null }",
+    "{ \"int\" : -1, \"long\" : 9000000000, \"float\" : 1.5, \"double\" : -2.5, \"boolean\" : true, \"string\" : \"caf\\u00e9\", " +
+    "\"bytes\" : \"\\u0000\\u00ff\", \"enum\" : \"ORANGE\", \"fixed\" : \"abcd\", " +
+    "\"ints\" : [ 1, -2, 300000 ], \"longs\" : [ 1, 9000000000 ], \"doubles\" : [ 0.5 ], \"strings\" : [ \"x\", \"\" ], " +
+    "\"map\" : { \"k\" : \"APPLE\" }, \"union\" : { \"string\" : \"s\" }, \"optionalUnion\" : { \"com.linkedin.data.avro.test.MD5\" : \"wxyz\" } }",
+    "{ \"int\" : 2, \"string\" : \"b\", \"ints\" : [], \"map\" : {}, \"union\" : { \"com.linkedin.data.avro.test.Foo\" : { \"int\" : 3, \"string\" : \"c\", \"union\" : { \"int\" : 4 } } }, " +
+    "\"next\" : { \"int\" : 5, \"string\" : \"d\", \"union\" : null, \"next\" : { \"int\" : 6, \"string\" : \"e\", \"union\" : null, \"optionalUnion\" : { \"long\" : 7 } } } }"
+  };
+
+  @Test
+  public void testMatchesTranslator() throws IOException
+  {
+    final RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+    final AvroBinaryDataCodec codec = new AvroBinaryDataCodec(schema);
+    final Schema avroSchema = codec.getAvroSchema();
+    assertEquals(avroSchema, SchemaTranslator.dataToAvroSchema(schema));
+
+    for (String input : INPUTS)
+    {
+      final DataMap map = TestUtil.dataMapFromString(input);
+      final byte[] bytes = codec.mapToBytes(map);
+      final byte[] expectedBytes = AvroUtil.bytesFromGenericRecord(DataTranslator.dataMapToGenericRecord(map, schema, avroSchema));
+      assertEquals(bytes, expectedBytes, input);
+
+      final DataMap expected = DataTranslator.genericRecordToDataMap(AvroUtil.genericRecordFromBytes(bytes, avroSchema), schema, avroSchema);
+      assertEquals(codec.bytesToMap(bytes), expected);
+      assertEquals(codec.readMap(new ByteArrayInputStream(bytes)), expected);
+      assertEquals(codec.mapToBytes(codec.bytesToMap(bytes)), bytes);
+    }
+  }
+
+  @Test
+  public void testRecordsUseCompactStorage() throws IOException
+  {
+    final RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+    final AvroBinaryDataCodec codec = new AvroBinaryDataCodec(schema);
+    final byte[] bytes = codec.mapToBytes(TestUtil.dataMapFromString(INPUTS[2]));
+
+    final DataMap map = codec.bytesToMap(bytes);
+    assertTrue(map.isCompact());
+    assertTrue(map.getDataMap("next").isCompact());
+    assertFalse(map.getDataMap("map").isCompact());
+    for (String key : map.keySet())
+    {
+      assertSame(key, schema.getField(key).getName());
+    }
+
+    final DataMap translated = DataTranslator.genericRecordToDataMap(AvroUtil.genericRecordFromBytes(bytes, codec.getAvroSchema()), schema, codec.getAvroSchema());
+    assertTrue(translated.isCompact());
+    assertTrue(translated.getDataMap("next").isCompact());
+    assertEquals(translated, map);
+  }
+
+  @Test
+  public void testList() throws IOException
+  {
+    final RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+    final AvroBinaryDataCodec codec = new AvroBinaryDataCodec(schema);
+    final Schema avroSchema = codec.getAvroSchema();
+
+    // an Avro array is written as a block with the zig-zag encoded item count, the items and an empty block
+    final DataList list = new DataList();
+    final DataList expected = new DataList();
+    final ByteArrayOutputStream expectedBytes = new ByteArrayOutputStream();
+    expectedBytes.write(INPUTS.length * 2);
+    for (String input : INPUTS)
+    {
+      final DataMap map = TestUtil.dataMapFromString(input);
+      list.add(map);
+      final byte[] mapBytes = AvroUtil.bytesFromGenericRecord(DataTranslator.dataMapToGenericRecord(map, schema, avroSchema));
+      expectedBytes.write(mapBytes);
+      expected.add(DataTranslator.genericRecordToDataMap(AvroUtil.genericRecordFromBytes(mapBytes, avroSchema), schema, avroSchema));
+    }
+    expectedBytes.write(0);
+
+    final byte[] bytes = codec.listToBytes(list);
+    assertEquals(bytes, expectedBytes.toByteArray());
+    assertEquals(codec.bytesToList(bytes), expected);
+    assertEquals(codec.readList(new ByteArrayInputStream(bytes)), expected);
+
+    final byte[] emptyBytes = codec.listToBytes(new DataList());
+    assertEquals(emptyBytes, new byte[] { 0 });
+    assertEquals(codec.bytesToList(emptyBytes), new DataList());
+  }
+
+  @Test
+  public void testMapWithSeveralEntries() throws IOException
+  {
+    final RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+    final AvroBinaryDataCodec codec = new AvroBinaryDataCodec(schema);
+    final DataMap map = TestUtil.dataMapFromString(
+      "{ \"int\" : 1, \"string\" : \"a\", \"union\" : null, \"map\" : { \"a\" : \"APPLE\", \"b\" : \"ORANGE\", \"c\" : \"APPLE\" } }");
+
+    // the entries may be written in a different order than the translator, so compare the decoded maps
+    final Schema avroSchema = codec.getAvroSchema();
+    final byte[] expectedBytes = AvroUtil.bytesFromGenericRecord(DataTranslator.dataMapToGenericRecord(map, schema, avroSchema));
+    assertEquals(codec.bytesToMap(expectedBytes), map);
+    assertEquals(codec.bytesToMap(codec.mapToBytes(map)), map);
+  }
+
+  @Test
+  public void testAvroOverride() throws IOException
+  {
+    final String schemaText =
+      "{\n" +
+      "  \"type\" : \"record\",\n" +
+      "  \"name\" : \"AnyRecord\",\n" +
+      "  \"namespace\" : \"com.linkedin.data.avro.test\",\n" +
+      "  \"fields\" : [],\n" +
+      "  \"avro\" : {\n" +
+      "    \"translator\" : { \"class\" : \"com.linkedin.data.avro.AnyRecordTranslator\" },\n" +
+      "    \"schema\" : {\n" +
+      "      \"type\" : \"record\",\n" +
+      "      \"name\" : \"AvroAnyRecord\",\n" +
+      "      \"namespace\" : \"com.linkedin.data.avro.test.avro\",\n" +
+      "      \"fields\" : [ { \"name\" : \"type\", \"type\" : \"string\" }, { \"name\" : \"value\", \"type\" : \"string\" } ]\n" +
+      "    }\n" +
+      "  }\n" +
+      "}\n" +
+      "{\n" +
+      "  \"type\" : \"record\",\n" +
+      "  \"name\" : \"Bar\",\n" +
+      "  \"namespace\" : \"com.linkedin.data.avro.test\",\n" +
+      "  \"fields\" : [\n" +
+      "    { \"name\" : \"any\", \"type\" : \"AnyRecord\", \"optional\" : true },\n" +
+      "    { \"name\" : \"array\", \"type\" : { \"type\" : \"array\", \"items\" : \"AnyRecord\" } },\n" +
+      "    { \"name\" : \"union\", \"type\" : [ \"AnyRecord\", \"string\" ] }\n" +
+      "  ]\n" +
+      "}";
+    final SchemaParser parser = TestUtil.schemaParserFromString(schemaText);
+    assertFalse(parser.hasError(), parser.errorMessage());
+    final RecordDataSchema schema = (RecordDataSchema) parser.topLevelDataSchemas().get(1);
+    final AvroBinaryDataCodec codec = new AvroBinaryDataCodec(schema);
+    final Schema avroSchema = codec.getAvroSchema();
+
+    final DataMap map = TestUtil.dataMapFromString(
+      "{ \"any\" : { \"Foo\" : { \"int\" : 1 } }, \"array\" : [ { \"Bar\" : { \"int\" : 2 } } ], " +
+      "\"union\" : { \"com.linkedin.data.avro.test.AnyRecord\" : { \"Foo\" : { \"int\" : 3 } } } }");
+    final byte[] bytes = codec.mapToBytes(map);
+    assertEquals(bytes, AvroUtil.bytesFromGenericRecord(DataTranslator.dataMapToGenericRecord(map, schema, avroSchema)));
+    assertEquals(codec.bytesToMap(bytes), map);
+  }
+
+  @Test
+  public void testErrors() throws IOException
+  {
+    final RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+    final AvroBinaryDataCodec codec = new AvroBinaryDataCodec(schema);
+
+    final String[][] inputs =
+    {
+      { "{ \"string\" : \"a\", \"union\" : null }", "Error processing /int" },
+      { "{ \"int\" : \"x\", \"string\" : \"a\", \"union\" : null }", "Error processing /int" },
+      { "{ \"int\" : 1, \"string\" : \"a\", \"union\" : null, \"enum\" : \"PEAR\" }", "enum value PEAR not one of [APPLE, ORANGE]" },
+      { "{ \"int\" : 1, \"string\" : \"a\", \"union\" : null, \"fixed\" : \"abc\" }", "ByteString size 3 != FixedDataSchema size 4" },
+      { "{ \"int\" : 1, \"string\" : \"a\", \"union\" : { \"boolean\" : true } }", "Error processing /union" },
+      { "{ \"int\" : 1, \"string\" : \"a\", \"union\" : {} }", "union value must be null or a map with exactly one entry" },
+      { "{ \"int\" : 1, \"string\" : \"a\", \"union\" : { \"int\" : 1, \"string\" : \"s\" } }", "union value must be null or a map with exactly one entry" },
+      { "{ \"int\" : 1, \"string\" : \"a\", \"union\" : 1 }", "union value must be null or a map with exactly one entry" },
+      { "{ \"int\" : 1, \"string\" : \"a\", \"union\" : null, \"next\" : { \"int\" : 1, \"union\" : null } }", "Error processing /next/string" },
+      { "{ \"int\" : 1, \"string\" : \"a\", \"union\" : null, \"strings\" : [ \"x\", 1 ] }", "Error processing /strings/1" }
+    };
+    for (String[] row : inputs)
+    {
+      try
+      {
+        codec.mapToBytes(TestUtil.dataMapFromString(row[0]));
+        fail("Expected DataTranslationException for " + row[0]);
+      }
+      catch (DataTranslationException e)
+      {
+        assertTrue(e.getMessage().contains(row[1]), e.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.avro;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.avro.util.AvroUtil;
+import com.linkedin.data.schema.RecordDataSchema;
+import java.io.IOException;
+import java.io.PrintStream;
+import org.apache.avro.Schema;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+
+/**
+ * Compares the throughput of {@link AvroBinaryDataCodec} with translating through Avro
+ * {@link org.apache.avro.generic.GenericRecord}s by {@link DataTranslator}. Run {@link #main(String[])}
+ * for the measurements, the test only verifies that both paths produce the same data.
+ */
+public class TestAvroBinaryDataCodecPerformance
+{
+  private static int _numRecords = 100;
+  private static int _numIterations = 1;
+  private static boolean _testOnly = true;
+
+  private static final PrintStream out = System.out;
+  private static final String INPUT =
+    "{ \"int\" : -1, \"long\" : 9000000000, \"double\" : -2.5, \"boolean\" : true, \"string\" : \"some string\", " +
+    "\"enum\" : \"ORANGE\", \"ints\" : [ 1, -2, 300000, 4, 5, 6, 7, 8 ], \"strings\" : [ \"x\", \"y\", \"z\" ], " +
+    "\"map\" : { \"k\" : \"APPLE\" }, \"union\" : { \"string\" : \"s\" }, " +
+    "\"next\" : { \"int\" : 5, \"string\" : \"d\", \"union\" : { \"int\" : 4 }, \"doubles\" : [ 0.5, 1.5, 2.5 ] } }";
+
+  public static void main(String args[]) throws IOException
+  {
+    TestAvroBinaryDataCodecPerformance test = new TestAvroBinaryDataCodecPerformance();
+    _numRecords = 100000;
+    _numIterations = 10;
+    _testOnly = false;
+    test.run();
+  }
+
+  @Test
+  public void run() throws IOException
+  {
+    final RecordDataSchema schema = (RecordDataSchema) TestUtil.dataSchemaFromString(TestAvroBinaryDataCodec.SCHEMA);
+    final AvroBinaryDataCodec codec = new AvroBinaryDataCodec(schema);
+    final Schema avroSchema = codec.getAvroSchema();
+    final DataMap input = TestUtil.dataMapFromString(INPUT);
+    final byte[] bytes = codec.mapToBytes(input);
+
+    for (boolean direct : new boolean[] { false, true })
+    {
+      // warm up before measuring
+      encode(codec, schema, avroSchema, input, direct);
+      decode(codec, schema, avroSchema, bytes, direct);
+
+      long startTime = System.nanoTime();
+      long size = 0;
+      for (int i = 0; i < _numIterations; i++)
+      {
+        size += encode(codec, schema, avroSchema, input, direct);
+      }
+      final long encodeTime = System.nanoTime() - startTime;
+
+      startTime = System.nanoTime();
+      DataMap decoded = null;
+      for (int i = 0; i < _numIterations; i++)
+      {
+        decoded = decode(codec, schema, avroSchema, bytes, direct);
+      }
+      final long decodeTime = System.nanoTime() - startTime;
+
+      assertEquals(size, (long) _numIterations * _numRecords * bytes.length);
+      assertEquals(decoded, codec.bytesToMap(bytes));
+      if (_testOnly == false)
+      {
+        final long count = (long) _numIterations * _numRecords;
+        out.println((direct ? "codec      " : "translator ") +
+                    " encode ns/record " + encodeTime / count +
+                    " decode ns/record " + decodeTime / count);
+      }
+    }
+  }
+
+  private static long encode(AvroBinaryDataCodec codec, RecordDataSchema schema, Schema avroSchema, DataMap input, boolean direct)
+    throws IOException
+  {
+    long size = 0;
+    for (int i = 0; i < _numRecords; i++)
+    {
+      final byte[] bytes = direct ?
+        codec.mapToBytes(input) :
+        AvroUtil.bytesFromGenericRecord(DataTranslator.dataMapToGenericRecord(input, schema, avroSchema));
+      size += bytes.length;
+    }
+    return size;
+  }
+
+  private static DataMap decode(AvroBinaryDataCodec codec, RecordDataSchema schema, Schema avroSchema, byte[] bytes, boolean direct)
+    throws IOException
+  {
+    DataMap map = null;
+    for (int i = 0; i < _numRecords; i++)
+    {
+      map = direct ?
+        codec.bytesToMap(bytes) :
+        DataTranslator.genericRecordToDataMap(AvroUtil.genericRecordFromBytes(bytes, avroSchema), schema, avroSchema);
+    }
+    return map;
+  }
+}
@@ -41,7 +41,7 @@ public class CopyFilter extends AbstractFilter
       return EMPTY_DATALIST;
     }
 
-    final int end = Math.min(data.size(), start + count);
+    final int end = (int) Math.min(data.size(), (long) start + count);
     final int size = Math.max(end - start, 0);
     final DataList resultList =  new DataList(size);
 
@@ -0,0 +1,257 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.collections.CheckedUtil;
+
+import java.util.Map;
+
+
+/**
+ * Immutable, pre-compiled form of a projection mask that produces the same result as
+ * {@link CopyFilter} but does not re-interpret the mask for every filtered object.
+ *
+ * <p>A plan is compiled once from a mask {@link DataMap} and can then be applied to any number of
+ * data objects, e.g. to every entity of a batch or collection response. Mask nodes that only
+ * contain positive field selections are compiled into arrays of field names and nested sub-plans,
+ * and array nodes that only contain a range and/or a wildcard are compiled into a range plus an
+ * element sub-plan. Any other mask node (negative masks, default modes set by wildcards on records,
+ * escaped field names, ...) is applied by delegating to {@link CopyFilter} with a private read-only
+ * copy of that part of the mask, so the result is always identical to filtering with the original
+ * mask.
+ *
+ * <p>Instances are thread-safe and do not keep references to the mask they were compiled from.
+ */
+public class ProjectionPlan
+{
+  /**
+   * Compile the given mask.
+   *
+   * @param mask mask in the {@link com.linkedin.data.transform.filter.request.MaskTree} data representation
+   * @return compiled plan for the mask
+   */
+  public static ProjectionPlan compile(DataMap mask)
+  {
+    if (mask == null)
+    {
+      throw new IllegalArgumentException("Mask cannot be null");
+    }
+
+    return new ProjectionPlan(mask);
+  }
+
+  /**
+   * Apply the plan to the given data object, producing a filtered copy of it.
+   * The input is not modified.
+   *
+   * @param data {@link DataMap} or {@link DataList} to filter
+   * @return filtered copy of the input, with the same semantics as {@link CopyFilter#filter(Object, DataMap)}
+   */
+  public Object project(Object data)
+  {
+    if (data != null)
+    {
+      if (data.getClass() == DataMap.class)
+      {
+        if (_fieldNames != null)
+        {
+          return projectDataMap((DataMap) data);
+        }
+      }
+      else if (data.getClass() == DataList.class)
+      {
+        if (_listCompiled)
+        {
+          return projectDataList((DataList) data);
+        }
+      }
+    }
+
+    return new CopyFilter().filter(data, _mask);
+  }
+
+  /**
+   * @return true if both record and array data are filtered without falling back to {@link CopyFilter} at the top level
+   */
+  public boolean isFullyCompiled()
+  {
+    return _fieldNames != null && _listCompiled;
+  }
+
+  private ProjectionPlan(DataMap mask)
+  {
+    final DataMap maskCopy = copyReadOnly(mask);
+    _mask = maskCopy;
+
+    // record form: every entry is a positive selection or a nested selection
+    String[] fieldNames = null;
+    ProjectionPlan[] fieldPlans = null;
+    if (isPositiveOnly(maskCopy, new DefaultNodeModeCalculator()))
+    {
+      fieldNames = new String[maskCopy.size()];
+      fieldPlans = new ProjectionPlan[maskCopy.size()];
+      int i = 0;
+      for (Map.Entry<String, Object> entry : maskCopy.entrySet())
+      {
+        fieldNames[i] = entry.getKey();
+        if (entry.getValue().getClass() == DataMap.class)
+        {
+          fieldPlans[i] = new ProjectionPlan((DataMap) entry.getValue());
+        }
+        ++i;
+      }
+    }
+    _fieldNames = fieldNames;
+    _fieldPlans = fieldPlans;
+
+    // array form: only range and wildcard are consulted for arrays
+    final Object start = maskCopy.get(FilterConstants.START);
+    final Object count = maskCopy.get(FilterConstants.COUNT);
+    final Object wildcard = maskCopy.get(FilterConstants.WILDCARD);
+    final boolean validStart = start == null || (start.getClass() == Integer.class && (Integer) start >= 0);
+    final boolean validCount = count == null || (count.getClass() == Integer.class && (Integer) count >= 0);
+    final boolean validWildcard = wildcard == null || FilterConstants.POSITIVE.equals(wildcard) || wildcard.getClass() == DataMap.class;
+
+    _listCompiled = validStart && validCount && validWildcard;
+    _start = (start == null || !validStart) ? 0 : (Integer) start;
+    _count = (count == null || !validCount) ? Integer.MAX_VALUE : (Integer) count;
+    _elementPlan = (validWildcard && wildcard != null && wildcard.getClass() == DataMap.class) ?
+        new ProjectionPlan((DataMap) wildcard) : null;
+  }
+
+  private DataMap projectDataMap(DataMap data)
+  {
+    final Object[] values = new Object[_fieldNames.length];
+    int found = 0;
+    for (int i = 0; i < _fieldNames.length; ++i)
+    {
+      final Object value = data.get(_fieldNames[i]);
+      if (value != null && _fieldPlans[i] != null && !(value instanceof DataComplex))
+      {
+        // complex mask for a primitive value, let CopyFilter report the error
+        return (DataMap) new CopyFilter().filter(data, _mask);
+      }
+      values[i] = value;
+      if (value != null)
+      {
+        ++found;
+      }
+    }
+
+    final DataMap result = new DataMap((int) (found / 0.75f) + 1);
+    for (int i = 0; i < _fieldNames.length; ++i)
+    {
+      final Object value = values[i];
+      if (value != null)
+      {
+        final ProjectionPlan fieldPlan = _fieldPlans[i];
+        CheckedUtil.putWithoutChecking(result, _fieldNames[i], fieldPlan == null ? value : fieldPlan.project(value));
+      }
+    }
+
+    return result;
+  }
+
+  private DataList projectDataList(DataList data)
+  {
+    final int end = (int) Math.min(data.size(), (long) _start + _count);
+    final int size = Math.max(end - _start, 0);
+    if (_elementPlan != null)
+    {
+      for (int i = 0; i < data.size(); ++i)
+      {
+        if (!(data.get(i) instanceof DataComplex))
+        {
+          // complex mask for a primitive element, let CopyFilter report the error
+          return (DataList) new CopyFilter().filter(data, _mask);
+        }
+      }
+    }
+
+    final DataList result = new DataList(size);
+    for (int i = _start; i < end; ++i)
+    {
+      final Object original = data.get(i);
+      CheckedUtil.addWithoutChecking(result, _elementPlan == null ? original : _elementPlan.project(original));
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns true if the mask node selects fields only by explicit positive masks, i.e. by 1 or by nested
+   * masks that do not hide the field. For such a node every unselected field is removed and every
+   * selected field is either copied or filtered by its nested mask.
+   */
+  private static boolean isPositiveOnly(DataMap mask, DefaultNodeModeCalculator modeCalculator)
+  {
+    if (mask.isEmpty())
+    {
+      return false;
+    }
+
+    for (Map.Entry<String, Object> entry : mask.entrySet())
+    {
+      if (entry.getKey().indexOf('$') >= 0)
+      {
+        return false;
+      }
+
+      final Object value = entry.getValue();
+      if (value.getClass() == DataMap.class)
+      {
+        final NodeMode childMode = modeCalculator.getDefaultNodeMode((DataMap) value);
+        if (childMode != NodeMode.HIDE_LOW && childMode != NodeMode.SHOW_HIGH)
+        {
+          return false;
+        }
+      }
+      else if (!FilterConstants.POSITIVE.equals(value))
+      {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  private static DataMap copyReadOnly(DataMap mask)
+  {
+    try
+    {
+      final DataMap copy = mask.copy();
+      copy.makeReadOnly();
+      return copy;
+    }
+    catch (CloneNotSupportedException e)
+    {
+      throw new IllegalArgumentException("Mask cannot be copied: " + mask, e);
+    }
+  }
+
+  private final DataMap _mask;
+  private final String[] _fieldNames;
+  private final ProjectionPlan[] _fieldPlans;
+  private final boolean _listCompiled;
+  private final int _start;
+  private final int _count;
+  private final ProjectionPlan _elementPlan;
+}
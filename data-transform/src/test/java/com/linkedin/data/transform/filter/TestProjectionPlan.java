@@ -0,0 +1,81 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.transform.filter;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.transform.DataProcessingException;
+
+import java.io.IOException;
+
+import org.testng.annotations.Test;
+
+import static com.linkedin.data.TestUtil.dataMapFromString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Runs the {@link TestFilterOnData} cases through {@link ProjectionPlan} and compares the result with {@link CopyFilter}.
+ */
+public class TestProjectionPlan extends TestFilterOnData
+{
+  @Override
+  protected void genericFilterTest(DataMap data, DataMap filter, DataMap expected, String description) throws DataProcessingException
+  {
+    final String dataBefore = data.toString();
+    final Object copyFiltered = new CopyFilter().filter(data, filter);
+    final ProjectionPlan plan = ProjectionPlan.compile(filter);
+    final Object projected = plan.project(data);
+    assertEquals(projected, copyFiltered, "The following test failed: \n" + description  +
+        "\nData: " + dataBefore + "\nFilter: " + filter +
+        "\nExpected: " + copyFiltered + "\nActual result: " + projected);
+    assertEquals(data.toString(), dataBefore, "Input data must not be modified");
+  }
+
+  @Test
+  public void testPlanIsReusable() throws IOException
+  {
+    final DataMap mask = dataMapFromString("{\"a\": 1, \"b\": {\"c\": 1}, \"l\": {\"$*\": {\"x\": 1}, \"$start\": 1}}");
+    final ProjectionPlan plan = ProjectionPlan.compile(mask);
+    assertTrue(plan.isFullyCompiled());
+
+    // later changes to the mask do not affect the plan
+    mask.put("d", 1);
+
+    final DataMap first = dataMapFromString("{\"a\": 1, \"b\": {\"c\": 2, \"d\": 3}, \"d\": 4, \"l\": [{\"x\": 1, \"y\": 2}, {\"x\": 3, \"y\": 4}]}");
+    final DataMap second = dataMapFromString("{\"a\": 5, \"e\": 6}");
+
+    assertEquals(plan.project(first), dataMapFromString("{\"a\": 1, \"b\": {\"c\": 2}, \"l\": [{\"x\": 3}]}"));
+    assertEquals(plan.project(second), dataMapFromString("{\"a\": 5}"));
+  }
+
+  @Test
+  public void testFallbackForNegativeMask() throws IOException
+  {
+    final ProjectionPlan plan = ProjectionPlan.compile(dataMapFromString("{\"a\": 0}"));
+    assertFalse(plan.isFullyCompiled());
+    assertEquals(plan.project(dataMapFromString("{\"a\": 1, \"b\": 2}")), dataMapFromString("{\"b\": 2}"));
+  }
+
+  @Test(expectedExceptions = RuntimeException.class)
+  public void testComplexMaskOnPrimitive() throws IOException
+  {
+    ProjectionPlan.compile(dataMapFromString("{\"a\": {\"b\": 1}}")).project(dataMapFromString("{\"a\": 1}"));
+  }
+}
@@ -17,6 +17,7 @@
 package com.linkedin.data;
 
 
+import com.linkedin.data.collections.LazyMap;
 import com.linkedin.util.ArgumentUtil;
 import java.io.IOException;
 import java.nio.charset.Charset;
@@ -583,6 +584,13 @@ public class Data
    * the parent object is reachable from the new object.  Throws NullPointerException
    * if the value object is null.
    *
+   * The parent object can only be reachable from the new object if the parent object
+   * is itself a value of some complex object. Complex objects record when they are
+   * added as a value, so that the new object is only searched for the parent object
+   * when the parent object has been added as a value. Objects built bottom up, such as
+   * by templates and codecs, are therefore checked in constant time, and so are empty
+   * or primitive-only objects added top down.
+   *
    * @see #isAllowed(Object)
    *
    * @param parent is the object about to add the value object.
@@ -602,10 +610,11 @@ public class Data
     else if (isComplex(value))
     {
       // check reachability
-      if (parent == value || reachable((DataComplex) value, parent))
+      if (parent == value || (isContained(parent) && reachable((DataComplex) value, parent)))
       {
         throw new IllegalArgumentException("Adding value to Data object will result in a loop");
       }
+      markContained(value);
     }
     else
     {
@@ -626,6 +635,13 @@ public class Data
    */
   private static boolean reachable(DataComplex source, Object destination)
   {
+    final LazyMap<String, Object> lazyStorage =
+        source instanceof DataMap ? ((DataMap) source).getLazyStorage() : null;
+    if (lazyStorage != null)
+    {
+      return reachable(lazyStorage, destination);
+    }
+
     Collection<Object> values = source.values();
     for (Object value : values)
     {
@@ -637,6 +653,52 @@ public class Data
     return false;
   }
 
+  /**
+   * Values that have not been decoded yet are skipped rather than decoded, because the
+   * objects that they decode to cannot be reachable from anything yet.
+   */
+  private static boolean reachable(LazyMap<String, Object> source, Object destination)
+  {
+    for (String key : source.keySet())
+    {
+      if (source.getEncoded(key) != null)
+      {
+        continue;
+      }
+      final Object value = source.get(key);
+      if (value == destination ||
+          value instanceof DataComplex && reachable((DataComplex) value, destination)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Record that a complex object has been added as a value of another complex object.
+   * {@link DataMap} and {@link DataList} do so whenever they add a value, checked or not.
+   * Codecs that make complex objects values by other means, such as lazily decoded values,
+   * must call this method for them, or cycles through them may not be detected.
+   *
+   * @param value is the value that has been added, which is ignored if it is not complex.
+   */
+  public static void markContained(Object value)
+  {
+    if (value instanceof DataMap)
+    {
+      ((DataMap) value).setContained();
+    }
+    else if (value instanceof DataList)
+    {
+      ((DataList) value).setContained();
+    }
+  }
+
+  private static boolean isContained(DataComplex complex)
+  {
+    return complex instanceof DataMap ? ((DataMap) complex).isContained() : ((DataList) complex).isContained();
+  }
+
   /**
    * Return whether the input object is Data object.
    *
@@ -16,9 +16,16 @@
 
 package com.linkedin.data;
 
+import com.linkedin.data.collections.BooleanListStorage;
 import com.linkedin.data.collections.CheckedList;
 import com.linkedin.data.collections.CommonList;
+import com.linkedin.data.collections.DoubleListStorage;
+import com.linkedin.data.collections.FloatListStorage;
+import com.linkedin.data.collections.IntListStorage;
 import com.linkedin.data.collections.ListChecker;
+import com.linkedin.data.collections.ListStorage;
+import com.linkedin.data.collections.LongListStorage;
+import com.linkedin.data.collections.PrimitiveListStorage;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.IdentityHashMap;
@@ -51,6 +58,12 @@ import java.util.Map;
  * is lazy and may be delayed until the {@link DataList} is about to be modified.
  * <p>
  *
+ * A {@link DataList} created by {@link #fromInts(int[], int)} and the other primitive factory
+ * methods holds its values in an array of primitives. The values are boxed when they are accessed
+ * as objects, and can be read without boxing by {@link #getInt(int)} and the other primitive accessors.
+ * Adding a value of another type moves the values to a general purpose storage.
+ * <p>
+ *
  * @author slim
  */
 public final class DataList extends CheckedList<Object> implements DataComplex
@@ -83,6 +96,76 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     super(initialCapacity, _checker);
   }
 
+  private DataList(ListStorage<Object> storage)
+  {
+    super(storage, _checker);
+  }
+
+  /**
+   * Construct a {@link DataList} of {@link Integer}s that holds the first size values of the array without boxing them.
+   * The array is not copied and must not be modified afterwards.
+   *
+   * @param values provides the values.
+   * @param size provides the number of values in use.
+   * @return a new {@link DataList} holding the values.
+   */
+  public static DataList fromInts(int[] values, int size)
+  {
+    return new DataList(new IntListStorage(values, size));
+  }
+
+  /**
+   * Construct a {@link DataList} of {@link Long}s that holds the first size values of the array without boxing them.
+   * The array is not copied and must not be modified afterwards.
+   *
+   * @param values provides the values.
+   * @param size provides the number of values in use.
+   * @return a new {@link DataList} holding the values.
+   */
+  public static DataList fromLongs(long[] values, int size)
+  {
+    return new DataList(new LongListStorage(values, size));
+  }
+
+  /**
+   * Construct a {@link DataList} of {@link Float}s that holds the first size values of the array without boxing them.
+   * The array is not copied and must not be modified afterwards.
+   *
+   * @param values provides the values.
+   * @param size provides the number of values in use.
+   * @return a new {@link DataList} holding the values.
+   */
+  public static DataList fromFloats(float[] values, int size)
+  {
+    return new DataList(new FloatListStorage(values, size));
+  }
+
+  /**
+   * Construct a {@link DataList} of {@link Double}s that holds the first size values of the array without boxing them.
+   * The array is not copied and must not be modified afterwards.
+   *
+   * @param values provides the values.
+   * @param size provides the number of values in use.
+   * @return a new {@link DataList} holding the values.
+   */
+  public static DataList fromDoubles(double[] values, int size)
+  {
+    return new DataList(new DoubleListStorage(values, size));
+  }
+
+  /**
+   * Construct a {@link DataList} of {@link Boolean}s that holds the first size values of the array without boxing them.
+   * The array is not copied and must not be modified afterwards.
+   *
+   * @param values provides the values.
+   * @param size provides the number of values in use.
+   * @return a new {@link DataList} holding the values.
+   */
+  public static DataList fromBooleans(boolean[] values, int size)
+  {
+    return new DataList(new BooleanListStorage(values, size));
+  }
+
   @Override
   public Object get(int index)
   {
@@ -96,6 +179,7 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     DataList o = (DataList) super.clone();
     o._madeReadOnly = false;
     o._instrumented = false;
+    o._contained = false;
     o._accessList = null;
     return o;
   }
@@ -130,9 +214,12 @@ public final class DataList extends CheckedList<Object> implements DataComplex
   @Override
   public void makeReadOnly()
   {
-    for (Object o : this)
+    if (!(getStorage() instanceof PrimitiveListStorage))
     {
-      Data.makeReadOnly(o);
+      for (Object o : this)
+      {
+        Data.makeReadOnly(o);
+      }
     }
     setReadOnly();
     _madeReadOnly = true;
@@ -166,6 +253,104 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     return (DataMap) get(index);
   }
 
+  /**
+   * Returns the element at the specified position as an int.
+   * The element is read without boxing if the list holds ints, otherwise it is cast to {@link Integer}
+   * like {@link DataMap#getInteger(String)} does, so elements of other types are not converted.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position as an int.
+   * @throws ClassCastException if the element is not an {@link Integer}.
+   */
+  public int getInt(int index)
+  {
+    instrumentAccess(index);
+    final ListStorage<Object> storage = getStorage();
+    if (storage instanceof IntListStorage)
+    {
+      return ((IntListStorage) storage).getInt(index);
+    }
+    return (Integer) super.get(index);
+  }
+
+  /**
+   * Returns the element at the specified position as a long.
+   * The element is read without boxing if the list holds longs, otherwise it is cast to {@link Long}
+   * like {@link DataMap#getLong(String)} does, so elements of other types are not converted.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position as a long.
+   * @throws ClassCastException if the element is not a {@link Long}.
+   */
+  public long getLong(int index)
+  {
+    instrumentAccess(index);
+    final ListStorage<Object> storage = getStorage();
+    if (storage instanceof LongListStorage)
+    {
+      return ((LongListStorage) storage).getLong(index);
+    }
+    return (Long) super.get(index);
+  }
+
+  /**
+   * Returns the element at the specified position as a float.
+   * The element is read without boxing if the list holds floats, otherwise it is cast to {@link Float}
+   * like {@link DataMap#getFloat(String)} does, so elements of other types are not converted.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position as a float.
+   * @throws ClassCastException if the element is not a {@link Float}.
+   */
+  public float getFloat(int index)
+  {
+    instrumentAccess(index);
+    final ListStorage<Object> storage = getStorage();
+    if (storage instanceof FloatListStorage)
+    {
+      return ((FloatListStorage) storage).getFloat(index);
+    }
+    return (Float) super.get(index);
+  }
+
+  /**
+   * Returns the element at the specified position as a double.
+   * The element is read without boxing if the list holds doubles, otherwise it is cast to {@link Double}
+   * like {@link DataMap#getDouble(String)} does, so elements of other types are not converted.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position as a double.
+   * @throws ClassCastException if the element is not a {@link Double}.
+   */
+  public double getDouble(int index)
+  {
+    instrumentAccess(index);
+    final ListStorage<Object> storage = getStorage();
+    if (storage instanceof DoubleListStorage)
+    {
+      return ((DoubleListStorage) storage).getDouble(index);
+    }
+    return (Double) super.get(index);
+  }
+
+  /**
+   * Returns the element at the specified position as a boolean.
+   * The element is read without boxing if the list holds booleans, otherwise it is cast to a {@link Boolean}.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position as a boolean.
+   */
+  public boolean getBoolean(int index)
+  {
+    instrumentAccess(index);
+    final ListStorage<Object> storage = getStorage();
+    if (storage instanceof BooleanListStorage)
+    {
+      return ((BooleanListStorage) storage).getBoolean(index);
+    }
+    return (Boolean) super.get(index);
+  }
+
   @Override
   public void startInstrumentingAccess()
   {
@@ -219,6 +404,33 @@ public final class DataList extends CheckedList<Object> implements DataComplex
     return _dataComplexHashCode;
   }
 
+  @Override
+  protected boolean addWithoutChecking(Object element)
+  {
+    Data.markContained(element);
+    return super.addWithoutChecking(element);
+  }
+
+  @Override
+  protected Object setWithoutChecking(int index, Object element)
+  {
+    Data.markContained(element);
+    return super.setWithoutChecking(index, element);
+  }
+
+  /**
+   * @return whether this object has been added as a value of another complex object.
+   */
+  boolean isContained()
+  {
+    return _contained;
+  }
+
+  void setContained()
+  {
+    _contained = true;
+  }
+
   // Unit test use only
   void disableChecker()
   {
@@ -262,6 +474,7 @@ public final class DataList extends CheckedList<Object> implements DataComplex
 
   private boolean _madeReadOnly = false;
   private boolean _instrumented = false;
+  private boolean _contained = false;
   private ArrayList<Integer> _accessList;
   private int _dataComplexHashCode = DataComplexHashCode.nextHashCode();
 }
\ No newline at end of file
@@ -18,6 +18,8 @@ package com.linkedin.data;
 
 import com.linkedin.data.collections.CheckedMap;
 import com.linkedin.data.collections.CommonMap;
+import com.linkedin.data.collections.CompactHashMap;
+import com.linkedin.data.collections.LazyMap;
 import com.linkedin.data.collections.MapChecker;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
@@ -112,12 +114,81 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
     super(initialCapacity, loadFactor, _checker);
   }
 
+  /**
+   * Constructs an empty {@link DataMap} backed by a {@link CompactHashMap}.
+   *
+   * @param expectedSize provides the expected number of entries.
+   * @param compact whether the entries are stored in a {@link CompactHashMap}.
+   */
+  private DataMap(int expectedSize, boolean compact)
+  {
+    super(expectedSize, _checker, compact);
+  }
+
+  /**
+   * Constructs an empty {@link DataMap} whose entries are stored in a {@link CompactHashMap}.
+   * <p>
+   *
+   * Small maps such as records with a few fields use much less memory than with the default
+   * {@link HashMap} storage, lookups with interned keys such as schema field names are faster,
+   * and cloning is constant time until either copy is modified. The map switches to a
+   * {@link HashMap} when it grows beyond {@link CompactHashMap#MAX_COMPACT_SIZE} entries.
+   * The iteration order differs from a {@link DataMap} constructed with the default storage.
+   * Schema-aware codecs decode records into such maps, keyed by the field names of the schema.
+   *
+   * @param expectedSize provides the expected number of entries.
+   * @return a new empty {@link DataMap} with compact storage.
+   */
+  public static DataMap compact(int expectedSize)
+  {
+    return new DataMap(expectedSize, true);
+  }
+
+  /**
+   * Constructs a {@link DataMap} whose entries are stored in the specified {@link LazyMap}.
+   *
+   * @param storage provides the storage of the entries.
+   */
+  private DataMap(LazyMap<String, Object> storage)
+  {
+    super(_checker, storage);
+  }
+
+  /**
+   * Constructs a {@link DataMap} whose values are decoded on first access from the encoded
+   * values of the specified {@link LazyMap}. This is intended for codecs. The values of
+   * the {@link LazyMap} must be Data objects, and the {@link LazyMap} must not be referenced
+   * elsewhere.
+   *
+   * @param storage provides the storage of the entries.
+   * @return a new {@link DataMap} backed by the {@link LazyMap}.
+   */
+  public static DataMap lazy(LazyMap<String, Object> storage)
+  {
+    return new DataMap(storage);
+  }
+
+  /**
+   * Returns the {@link LazyMap} that stores the entries of this map, so that a codec
+   * may copy the encoded form of values that have not been decoded. The returned map
+   * must not be modified.
+   *
+   * @return the {@link LazyMap} that stores the entries, or null if the map is not lazily decoded.
+   */
+  @SuppressWarnings("unchecked")
+  public LazyMap<String, Object> getLazyStorage()
+  {
+    final Map<String, Object> storage = getObject();
+    return storage instanceof LazyMap ? (LazyMap<String, Object>) storage : null;
+  }
+
   @Override
   public DataMap clone() throws CloneNotSupportedException
   {
     DataMap o = (DataMap) super.clone();
     o._madeReadOnly = false;
     o._instrumented = false;
+    o._contained = false;
     o._accessMap = null;
     return o;
   }
@@ -145,6 +216,30 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
   @Override
   public void copyReferencedObjects(IdentityHashMap<DataComplex, DataComplex> alreadyCopied) throws CloneNotSupportedException
   {
+    final LazyMap<String, Object> lazyStorage = getLazyStorage();
+    if (lazyStorage != null)
+    {
+      for (String key : lazyStorage.keySet().toArray(new String[lazyStorage.size()]))
+      {
+        Object encoded = lazyStorage.getEncoded(key);
+        if (encoded != null)
+        {
+          // the copy decodes its own value instead of sharing the value decoded by this map
+          lazyStorage.putEncoded(key, encoded);
+        }
+        else
+        {
+          Object value = lazyStorage.get(key);
+          Object valueCopy = Data.copy(value, alreadyCopied);
+          if (value != valueCopy)
+          {
+            putWithoutChecking(key, valueCopy);
+          }
+        }
+      }
+      return;
+    }
+
     for (Map.Entry<String,?> e : entrySet())
     {
       Object value = e.getValue();
@@ -161,9 +256,17 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
   {
     if (!_madeReadOnly)
     {
-      for (Map.Entry<String,?> e : entrySet())
+      final LazyMap<String, Object> lazyStorage = getLazyStorage();
+      if (lazyStorage != null)
+      {
+        lazyStorage.makeValuesReadOnly();
+      }
+      else
       {
-        Data.makeReadOnly(e.getValue());
+        for (Map.Entry<String,?> e : entrySet())
+        {
+          Data.makeReadOnly(e.getValue());
+        }
       }
       setReadOnly();
       _madeReadOnly = true;
@@ -388,6 +491,26 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
     return _dataComplexHashCode;
   }
 
+  @Override
+  protected Object putWithoutChecking(String key, Object value)
+  {
+    Data.markContained(value);
+    return super.putWithoutChecking(key, value);
+  }
+
+  /**
+   * @return whether this object has been added as a value of another complex object.
+   */
+  boolean isContained()
+  {
+    return _contained;
+  }
+
+  void setContained()
+  {
+    _contained = true;
+  }
+
   // Unit test use only
   void disableChecker()
   {
@@ -424,6 +547,7 @@ public final class DataMap extends CheckedMap<String,Object> implements DataComp
 
   private boolean _madeReadOnly = false;
   private boolean _instrumented = false;
+  private boolean _contained = false;
   private Map<String, Integer> _accessMap;
   private int _dataComplexHashCode = DataComplexHashCode.nextHashCode();
 }
@@ -23,6 +23,7 @@ import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.collections.CheckedUtil;
+import com.linkedin.data.collections.LazyMap;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
@@ -31,7 +32,9 @@ import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
 import java.util.ArrayDeque;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.IdentityHashMap;
 import java.util.List;
@@ -147,6 +150,48 @@ public class JacksonDataCodec implements TextDataCodec
     }
   }
 
+  /**
+   * Decode a JSON object lazily.
+   * <p>
+   *
+   * Only the top level of the object is decoded. Nested objects and arrays are indexed by their
+   * offsets in the input and decoded on first access, each again one level at a time, so that reading
+   * a few fields or forwarding the map costs much less than decoding all of it. When the returned map
+   * is encoded by this codec without a pretty printer, nested objects and arrays that have not been
+   * accessed, or the whole map if nothing has been accessed, are copied from the input instead of
+   * being encoded again.
+   * <p>
+   *
+   * The input must be UTF-8 encoded. It is not copied: the returned map references it, and nested
+   * values are decoded from slices of it. Duplicate keys in a nested object are reported on the nested
+   * object when it is decoded. Input that contains comments, or numbers that do not fit in a long, is
+   * decoded eagerly by {@link #readMap(InputStream)}.
+   *
+   * @param input provides the UTF-8 encoded JSON object.
+   * @return the lazily decoded {@link DataMap}.
+   * @throws IOException if the input is not valid JSON.
+   */
+  public DataMap readLazyMap(ByteString input) throws IOException
+  {
+    if (_allowComments && containsComment(input))
+    {
+      return readMap(input.asInputStream());
+    }
+
+    final Parser parser = new Parser();
+    JsonParser jsonParser = null;
+    try
+    {
+      jsonParser = _jsonFactory.createParser(input.asInputStream());
+      final DataMap map = parser.parseLazy(jsonParser, _jsonFactory, input);
+      return map == null ? readMap(input.asInputStream()) : map;
+    }
+    finally
+    {
+      closeJsonParserQuietly(jsonParser);
+    }
+  }
+
   @Override
   public DataMap stringToMap(String input) throws IOException
   {
@@ -256,7 +301,7 @@ public class JacksonDataCodec implements TextDataCodec
     try
     {
       JsonTraverseCallback callback = new JsonTraverseCallback(generator);
-      Data.traverse(object, callback);
+      traverse(object, callback, generator);
       generator.flush();
     }
     catch (IOException e)
@@ -426,7 +471,203 @@ public class JacksonDataCodec implements TextDataCodec
   public void objectToJsonGenerator(Object object, JsonGenerator generator) throws IOException
   {
     JsonTraverseCallback callback = new JsonTraverseCallback(generator);
-    Data.traverse(object, callback);
+    traverse(object, callback, generator);
+  }
+
+  private static void traverse(Object object, JsonTraverseCallback callback, JsonGenerator generator) throws IOException
+  {
+    if (generator.getPrettyPrinter() == null)
+    {
+      traverseLazyMaps(object, callback, generator);
+    }
+    else
+    {
+      Data.traverse(object, callback);
+    }
+  }
+
+  /**
+   * Same as {@link Data#traverse(Object, Data.TraverseCallback)}, except that the JSON of lazily
+   * decoded maps and of their values that have not been decoded is copied from their input.
+   */
+  private static void traverseLazyMaps(Object object, JsonTraverseCallback callback, JsonGenerator generator) throws IOException
+  {
+    final Class<?> clazz = object == null ? null : object.getClass();
+    if (clazz == DataMap.class)
+    {
+      final DataMap map = (DataMap) object;
+      final LazyMap<String, Object> lazyStorage = map.getLazyStorage();
+      if (lazyStorage instanceof LazyJsonMap && lazyStorage.isPristine())
+      {
+        generator.writeRawValue(((LazyJsonMap) lazyStorage).json());
+      }
+      else if (map.isEmpty())
+      {
+        callback.emptyMap();
+      }
+      else if (lazyStorage instanceof LazyJsonMap)
+      {
+        final LazyJsonMap lazyJsonMap = (LazyJsonMap) lazyStorage;
+        callback.startMap(map);
+        for (String key : lazyJsonMap.keySet())
+        {
+          callback.key(key);
+          final Object encoded = lazyJsonMap.getEncoded(key);
+          if (encoded == null)
+          {
+            traverseLazyMaps(lazyJsonMap.get(key), callback, generator);
+          }
+          else
+          {
+            generator.writeRawValue(lazyJsonMap.json((Range) encoded));
+          }
+        }
+        callback.endMap();
+      }
+      else
+      {
+        callback.startMap(map);
+        for (Map.Entry<String, Object> entry : callback.orderMap(map))
+        {
+          callback.key(entry.getKey());
+          traverseLazyMaps(entry.getValue(), callback, generator);
+        }
+        callback.endMap();
+      }
+    }
+    else if (clazz == DataList.class)
+    {
+      final DataList list = (DataList) object;
+      if (list.isEmpty())
+      {
+        callback.emptyList();
+      }
+      else
+      {
+        callback.startList(list);
+        int index = 0;
+        for (Object element : list)
+        {
+          callback.index(index);
+          ++index;
+          traverseLazyMaps(element, callback, generator);
+        }
+        callback.endList();
+      }
+    }
+    else
+    {
+      Data.traverse(object, callback);
+    }
+  }
+
+  /**
+   * Return whether the JSON contains a comment, which is a slash outside of strings.
+   */
+  private static boolean containsComment(ByteString input)
+  {
+    final ByteBuffer buffer = input.asByteBuffer();
+    boolean inString = false;
+    for (int i = buffer.position(); i < buffer.limit(); i++)
+    {
+      final byte b = buffer.get(i);
+      if (inString)
+      {
+        if (b == '\\')
+        {
+          i++;
+        }
+        else if (b == '"')
+        {
+          inString = false;
+        }
+      }
+      else if (b == '"')
+      {
+        inString = true;
+      }
+      else if (b == '/')
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Offsets of a JSON object or array in the input of a lazily decoded map.
+   */
+  private static final class Range
+  {
+    private Range(int start, int end)
+    {
+      _start = start;
+      _end = end;
+    }
+
+    private final int _start;
+    private final int _end;
+  }
+
+  /**
+   * Storage of a lazily decoded map, whose encoded values are the {@link Range}s of nested objects and arrays.
+   */
+  private static final class LazyJsonMap extends LazyMap<String, Object>
+  {
+    private LazyJsonMap(JsonFactory jsonFactory, ByteString input, int start)
+    {
+      super(0);
+      _jsonFactory = jsonFactory;
+      _input = input;
+      _start = start;
+    }
+
+    @Override
+    protected Object decode(Object encoded)
+    {
+      final Range range = (Range) encoded;
+      JsonParser jsonParser = null;
+      try
+      {
+        jsonParser = _jsonFactory.createParser(_input.slice(range._start, range._end - range._start).asInputStream());
+        final Object value = new Parser().parseLazyValue(jsonParser, _jsonFactory, _input, range._start);
+        Data.markContained(value);
+        return value;
+      }
+      catch (IOException e)
+      {
+        // the input has been parsed when this map was decoded
+        throw new IllegalStateException("Failed to decode lazily decoded JSON", e);
+      }
+      finally
+      {
+        closeJsonParserQuietly(jsonParser);
+      }
+    }
+
+    @Override
+    protected void makeReadOnly(Object value)
+    {
+      if (value instanceof DataComplex)
+      {
+        ((DataComplex) value).makeReadOnly();
+      }
+    }
+
+    private String json()
+    {
+      return _input.slice(_start, _end - _start).asString(Data.UTF_8_CHARSET);
+    }
+
+    private String json(Range range)
+    {
+      return _input.slice(range._start, range._end - range._start).asString(Data.UTF_8_CHARSET);
+    }
+
+    private final JsonFactory _jsonFactory;
+    private final ByteString _input;
+    private final int _start;
+    private int _end;
   }
 
   protected static class JsonTraverseCallback implements Data.TraverseCallback
@@ -579,12 +820,22 @@ public class JacksonDataCodec implements TextDataCodec
 
   private static class Parser
   {
+    private static final int INITIAL_PRIMITIVE_ARRAY_CAPACITY = 16;
+    private static final int MAX_INT_TEXT_LENGTH_WITHIN_LONG = 18;
+
     private StringBuilder _errorBuilder = null;
     private JsonParser _parser = null;
     private boolean _debug = false;
     private Deque<Object> _nameStack = null;
     private Map<Object, DataLocation> _locationMap = null;
 
+    // set when decoding lazily
+    private JsonFactory _jsonFactory = null;
+    private ByteString _lazyInput = null;
+    private int _lazyOffset = 0;
+    private boolean _validating = false;
+    private boolean _unsupportedNumber = false;
+
     Parser()
     {
       this(false);
@@ -669,8 +920,7 @@ public class JacksonDataCodec implements TextDataCodec
           throw new DataDecodingException("JSON text for array must start with \"[\".\"");
         }
 
-        final DataList list = new DataList();
-        parseDataList(list);
+        final DataList list = parseDataList();
         if (_errorBuilder != null)
         {
           //list.addError(_errorBuilder.toString());
@@ -685,6 +935,140 @@ public class JacksonDataCodec implements TextDataCodec
       return result;
     }
 
+    /**
+     * Decode the top level of the JSON object in the input.
+     *
+     * Nested values are scanned for numbers the eager parser would report as errors, and if there are any,
+     * null is returned so that the caller decodes the input eagerly.
+     */
+    DataMap parseLazy(JsonParser parser, JsonFactory jsonFactory, ByteString input) throws IOException
+    {
+      _parser = parser;
+      _jsonFactory = jsonFactory;
+      _lazyInput = input;
+      _lazyOffset = 0;
+      _validating = true;
+
+      if (!JsonToken.START_OBJECT.equals(_parser.nextToken()))
+      {
+        throw new DataDecodingException("JSON text for object must start with \"{\".\"");
+      }
+
+      final DataMap map = parseLazyDataMap();
+      if (_unsupportedNumber)
+      {
+        return null;
+      }
+      if (_errorBuilder != null)
+      {
+        map.addError(_errorBuilder.toString());
+      }
+      return map;
+    }
+
+    /**
+     * Decode the top level of the JSON object or array that starts at the offset of the input.
+     */
+    Object parseLazyValue(JsonParser parser, JsonFactory jsonFactory, ByteString input, int offset) throws IOException
+    {
+      _parser = parser;
+      _jsonFactory = jsonFactory;
+      _lazyInput = input;
+      _lazyOffset = offset;
+
+      final JsonToken token = _parser.nextToken();
+      return JsonToken.START_OBJECT.equals(token) ? parseLazyDataMap() : parseDataList();
+    }
+
+    private DataMap parseLazyDataMap() throws IOException
+    {
+      final LazyJsonMap storage = new LazyJsonMap(_jsonFactory, _lazyInput, currentLazyOffset() - 1);
+      StringBuilder duplicates = null;
+      while (_parser.nextToken() != JsonToken.END_OBJECT)
+      {
+        final String key = _parser.getCurrentName();
+        final JsonToken token = _parser.nextToken();
+        if (storage.containsKey(key))
+        {
+          if (duplicates == null)
+          {
+            duplicates = new StringBuilder();
+          }
+          duplicates.append(new Location(_parser.getTokenLocation())).append(": \"").append(key).append("\" defined more than once.\n");
+        }
+
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY)
+        {
+          final int start = currentLazyOffset() - 1;
+          skipLazyValue();
+          storage.putEncoded(key, new Range(start, currentLazyOffset()));
+        }
+        else
+        {
+          final Object value = parsePrimitive(token);
+          if (value != null)
+          {
+            storage.putDecoded(key, value);
+          }
+        }
+      }
+      storage._end = currentLazyOffset();
+
+      final DataMap map = DataMap.lazy(storage);
+      if (duplicates != null)
+      {
+        map.addError(duplicates.toString());
+      }
+      return map;
+    }
+
+    private void skipLazyValue() throws IOException
+    {
+      if (!_validating)
+      {
+        _parser.skipChildren();
+        return;
+      }
+
+      int depth = 1;
+      while (depth > 0)
+      {
+        final JsonToken token = _parser.nextToken();
+        if (token == null)
+        {
+          throw new DataDecodingException("Missing JSON token");
+        }
+        switch (token)
+        {
+          case START_OBJECT:
+          case START_ARRAY:
+            depth++;
+            break;
+          case END_OBJECT:
+          case END_ARRAY:
+            depth--;
+            break;
+          case VALUE_NUMBER_INT:
+            // only numbers with as many digits as a long may not fit in a long
+            if (_parser.getTextLength() > MAX_INT_TEXT_LENGTH_WITHIN_LONG && _parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER)
+            {
+              _unsupportedNumber = true;
+            }
+            break;
+          default:
+            break;
+        }
+      }
+    }
+
+    /**
+     * Offset in the lazily decoded input that follows the current token.
+     */
+    private int currentLazyOffset()
+    {
+      return _lazyOffset + (int) _parser.getCurrentLocation().getByteOffset();
+    }
+
     private DataLocation currentDataLocation()
     {
       return _locationMap == null ? null : new Location(_parser.getTokenLocation());
@@ -710,16 +1094,23 @@ public class JacksonDataCodec implements TextDataCodec
       switch (token)
       {
         case START_OBJECT:
-          DataMap childMap = new DataMap();
-          value = childMap;
-          updateParent(parentList, parentMap, name, childMap);
-          parseDataMap(childMap);
+          if (_lazyInput != null)
+          {
+            value = parseLazyDataMap();
+            updateParent(parentList, parentMap, name, value);
+          }
+          else
+          {
+            DataMap childMap = new DataMap();
+            value = childMap;
+            updateParent(parentList, parentMap, name, childMap);
+            parseDataMap(childMap);
+          }
           break;
         case START_ARRAY:
-          DataList childList = new DataList();
+          DataList childList = parseDataList();
           value = childList;
           updateParent(parentList, parentMap, name, childList);
-          parseDataList(childList);
           break;
         default:
           value = parsePrimitive(token);
@@ -824,11 +1215,51 @@ public class JacksonDataCodec implements TextDataCodec
       }
     }
 
-    private void parseDataList(DataList list) throws IOException
+    private DataList parseDataList() throws IOException
     {
-      JsonToken token;
-      int index = 0;
-      while ((token = _parser.nextToken()) != JsonToken.END_ARRAY)
+      JsonToken token = _parser.nextToken();
+      final DataList list;
+      // arrays of ints or doubles are stored without boxing, unless the location of each value is needed
+      if (_locationMap == null && token == JsonToken.VALUE_NUMBER_INT && _parser.getNumberType() == JsonParser.NumberType.INT)
+      {
+        int[] values = new int[INITIAL_PRIMITIVE_ARRAY_CAPACITY];
+        int size = 0;
+        do
+        {
+          if (size == values.length)
+          {
+            values = Arrays.copyOf(values, size + (size >> 1));
+          }
+          values[size++] = _parser.getIntValue();
+          token = _parser.nextToken();
+        }
+        while (token == JsonToken.VALUE_NUMBER_INT && _parser.getNumberType() == JsonParser.NumberType.INT);
+        list = DataList.fromInts(values, size);
+      }
+      else if (_locationMap == null && token == JsonToken.VALUE_NUMBER_FLOAT && _parser.getNumberType() == JsonParser.NumberType.DOUBLE)
+      {
+        double[] values = new double[INITIAL_PRIMITIVE_ARRAY_CAPACITY];
+        int size = 0;
+        do
+        {
+          if (size == values.length)
+          {
+            values = Arrays.copyOf(values, size + (size >> 1));
+          }
+          values[size++] = _parser.getDoubleValue();
+          token = _parser.nextToken();
+        }
+        while (token == JsonToken.VALUE_NUMBER_FLOAT && _parser.getNumberType() == JsonParser.NumberType.DOUBLE);
+        list = DataList.fromDoubles(values, size);
+      }
+      else
+      {
+        list = new DataList();
+      }
+
+      // the remaining elements, if any, are added as objects
+      int index = list.size();
+      while (token != JsonToken.END_ARRAY)
       {
         if (_debug)
         {
@@ -840,7 +1271,9 @@ public class JacksonDataCodec implements TextDataCodec
         {
           _nameStack.removeLast();
         }
+        token = _parser.nextToken();
       }
+      return list;
     }
 
     private void error(JsonToken token, JsonParser.NumberType type) throws IOException
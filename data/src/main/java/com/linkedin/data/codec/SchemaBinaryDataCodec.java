@@ -0,0 +1,924 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.collections.IdentityLruCache;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.EnumDataSchema;
+import com.linkedin.data.schema.FixedDataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Binary codec that uses the {@link RecordDataSchema}s shared by both ends to leave field names off the wire.
+ *
+ * <p>
+ * Every value starts with a one byte tag. Integers and longs are zig-zag varints, and lengths and counts
+ * are varints. When a {@link DataMap} is known to be a record, it is encoded as the ordinals of its fields
+ * in the {@link RecordDataSchema} instead of their names. The full name and a fingerprint of each record
+ * schema are written once per message, the first time the schema is used, and later records refer to it
+ * by its index. Fields that are not in the schema are written with their names. Enum symbols are written
+ * as their index in the {@link EnumDataSchema}, and union members as their index in the
+ * {@link UnionDataSchema}.
+ *
+ * <p>
+ * The encoder follows the schemas of the fields of records. {@link #mapToBytes(DataMap, RecordDataSchema)}
+ * and {@link #writeMap(DataMap, RecordDataSchema, OutputStream)} also take a record schema that is used for
+ * any map outside of a record whose keys are all fields of the schema, such as the top-level entity or the
+ * elements of a collection response. Data that does not conform to the schemas is still encoded,
+ * field names are only omitted where the schemas match the data.
+ *
+ * <p>
+ * The decoder only finds record schemas by their full names among the schemas it already knows: the record
+ * schema passed to {@link #bytesToMap(byte[], RecordDataSchema)} or {@link #readMap(InputStream, RecordDataSchema)},
+ * the schemas passed to {@link #SchemaBinaryDataCodec(Collection)}, and the record schemas reachable from them.
+ * Names read from the input are never used to load classes. The fingerprint is a SHA-256 digest of the parts of
+ * the schema that affect the encoding, namely the field names and types, enum symbols and union members, so
+ * documentation and properties may differ. A message encoded with a schema whose fingerprint differs from the
+ * decoder's schema of the same name fails to decode.
+ */
+public class SchemaBinaryDataCodec implements DataCodec
+{
+  static final byte VERSION = 2;
+
+  static final byte NULL = 0;
+  static final byte TRUE = 1;
+  static final byte FALSE = 2;
+  static final byte INT = 3;
+  static final byte LONG = 4;
+  static final byte FLOAT = 5;
+  static final byte DOUBLE = 6;
+  static final byte STRING = 7;
+  static final byte BYTES = 8;
+  static final byte MAP = 9;
+  static final byte LIST = 10;
+  static final byte RECORD = 11;
+  static final byte ENUM = 12;
+  static final byte UNION = 13;
+
+  static final int FINGERPRINT_LENGTH = 32;
+
+  private static final int CACHE_SIZE = 1000;
+  private static final IdentityLruCache<RecordDataSchema, byte[]> _fingerprints =
+    new IdentityLruCache<RecordDataSchema, byte[]>(CACHE_SIZE);
+  private static final IdentityLruCache<RecordDataSchema, Map<String, RecordDataSchema>> _reachableSchemas =
+    new IdentityLruCache<RecordDataSchema, Map<String, RecordDataSchema>>(CACHE_SIZE);
+
+  /**
+   * Construct a codec that decodes records whose schemas are passed to the decoding methods.
+   */
+  public SchemaBinaryDataCodec()
+  {
+    this(Collections.<RecordDataSchema>emptyList());
+  }
+
+  /**
+   * Construct a codec that also decodes records of the provided schemas and of the record schemas reachable
+   * from them.
+   *
+   * @param knownSchemas provides the record schemas known to the decoder.
+   */
+  public SchemaBinaryDataCodec(Collection<RecordDataSchema> knownSchemas)
+  {
+    final Map<String, RecordDataSchema> schemas = new HashMap<String, RecordDataSchema>();
+    for (RecordDataSchema schema : knownSchemas)
+    {
+      schemas.putAll(reachableSchemas(schema));
+    }
+    _knownSchemas = schemas;
+  }
+
+  /**
+   * Serialize a {@link DataMap} that conforms to the provided {@link RecordDataSchema} to a byte array.
+   *
+   * @param map to serialize.
+   * @param schema provides the {@link RecordDataSchema} of the map, may be null.
+   * @return the output serialized from the {@link DataMap}.
+   * @throws IOException if there is a serialization error.
+   */
+  public byte[] mapToBytes(DataMap map, RecordDataSchema schema) throws IOException
+  {
+    final Encoder encoder = new Encoder(schema);
+    encoder.writeValue(map, null);
+    return encoder.toByteArray();
+  }
+
+  /**
+   * Writes a {@link DataMap} that conforms to the provided {@link RecordDataSchema} to the supplied {@link OutputStream}.
+   *
+   * @param map the map to write to {@code out}
+   * @param schema provides the {@link RecordDataSchema} of the map, may be null.
+   * @param out the {@link OutputStream} to write to
+   * @throws IOException if there is an error during serialization
+   */
+  public void writeMap(DataMap map, RecordDataSchema schema, OutputStream out) throws IOException
+  {
+    out.write(mapToBytes(map, schema));
+  }
+
+  @Override
+  public byte[] mapToBytes(DataMap map) throws IOException
+  {
+    return mapToBytes(map, null);
+  }
+
+  @Override
+  public byte[] listToBytes(DataList list) throws IOException
+  {
+    final Encoder encoder = new Encoder(null);
+    encoder.writeValue(list, null);
+    return encoder.toByteArray();
+  }
+
+  /**
+   * Deserialize a byte array to a {@link DataMap}, resolving the records in the input against the provided
+   * {@link RecordDataSchema} and the schemas reachable from it in addition to the known schemas of this codec.
+   *
+   * @param input to deserialize.
+   * @param schema provides the {@link RecordDataSchema} the input was encoded with, may be null.
+   * @return the {@link DataMap} deserialized from the input.
+   * @throws IOException if there is a deserialization error.
+   */
+  public DataMap bytesToMap(byte[] input, RecordDataSchema schema) throws IOException
+  {
+    final Object value = new Decoder(input, schema).readRoot();
+    if (value instanceof DataMap == false)
+    {
+      throw new DataDecodingException("Input is not a DataMap");
+    }
+    return (DataMap) value;
+  }
+
+  /**
+   * Reads a {@link DataMap} encoded with the provided {@link RecordDataSchema} from the supplied {@link InputStream}.
+   *
+   * @param in the {@link InputStream} to read from
+   * @param schema provides the {@link RecordDataSchema} the input was encoded with, may be null.
+   * @return the {@link DataMap} read from the input.
+   * @throws IOException if there is an error during deserialization
+   */
+  public DataMap readMap(InputStream in, RecordDataSchema schema) throws IOException
+  {
+    return bytesToMap(readFully(in), schema);
+  }
+
+  @Override
+  public DataMap bytesToMap(byte[] input) throws IOException
+  {
+    return bytesToMap(input, null);
+  }
+
+  @Override
+  public DataList bytesToList(byte[] input) throws IOException
+  {
+    final Object value = new Decoder(input, null).readRoot();
+    if (value instanceof DataList == false)
+    {
+      throw new DataDecodingException("Input is not a DataList");
+    }
+    return (DataList) value;
+  }
+
+  @Override
+  public void writeMap(DataMap map, OutputStream out) throws IOException
+  {
+    out.write(mapToBytes(map));
+  }
+
+  @Override
+  public DataMap readMap(InputStream in) throws IOException
+  {
+    return bytesToMap(readFully(in));
+  }
+
+  @Override
+  public void writeList(DataList list, OutputStream out) throws IOException
+  {
+    out.write(listToBytes(list));
+  }
+
+  @Override
+  public DataList readList(InputStream in) throws IOException
+  {
+    return bytesToList(readFully(in));
+  }
+
+  /**
+   * @return the record schemas reachable from the provided schema, including itself, by their full names.
+   */
+  private static Map<String, RecordDataSchema> reachableSchemas(RecordDataSchema schema)
+  {
+    Map<String, RecordDataSchema> schemas = _reachableSchemas.get(schema);
+    if (schemas == null)
+    {
+      schemas = new HashMap<String, RecordDataSchema>();
+      addReachableSchemas(schema, schemas);
+      _reachableSchemas.put(schema, schemas);
+    }
+    return schemas;
+  }
+
+  private static void addReachableSchemas(DataSchema schema, Map<String, RecordDataSchema> schemas)
+  {
+    final DataSchema dereferenced = schema.getDereferencedDataSchema();
+    switch (dereferenced.getType())
+    {
+      case RECORD:
+        final RecordDataSchema recordSchema = (RecordDataSchema) dereferenced;
+        if (!schemas.containsKey(recordSchema.getFullName()))
+        {
+          schemas.put(recordSchema.getFullName(), recordSchema);
+          for (RecordDataSchema.Field field : recordSchema.getFields())
+          {
+            addReachableSchemas(field.getType(), schemas);
+          }
+        }
+        break;
+      case ARRAY:
+        addReachableSchemas(((ArrayDataSchema) dereferenced).getItems(), schemas);
+        break;
+      case MAP:
+        addReachableSchemas(((MapDataSchema) dereferenced).getValues(), schemas);
+        break;
+      case UNION:
+        for (DataSchema member : ((UnionDataSchema) dereferenced).getTypes())
+        {
+          addReachableSchemas(member, schemas);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * @return SHA-256 digest of the canonical form of the record schema.
+   */
+  static byte[] fingerprint(RecordDataSchema schema)
+  {
+    byte[] fingerprint = _fingerprints.get(schema);
+    if (fingerprint == null)
+    {
+      final StringBuilder canonical = new StringBuilder();
+      canonical.append("record ").append(schema.getFullName()).append(" {");
+      for (RecordDataSchema.Field field : schema.getFields())
+      {
+        canonical.append(field.getName()).append(": ");
+        appendCanonical(field.getType(), canonical);
+        canonical.append("; ");
+      }
+      canonical.append('}');
+
+      try
+      {
+        fingerprint = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(Data.UTF_8_CHARSET));
+      }
+      catch (NoSuchAlgorithmException e)
+      {
+        throw new IllegalStateException(e);
+      }
+      _fingerprints.put(schema, fingerprint);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * Append the parts of the schema that affect the encoding. Records are appended by name only, because each
+   * record schema is written to the message with its own fingerprint.
+   */
+  private static void appendCanonical(DataSchema schema, StringBuilder canonical)
+  {
+    final DataSchema dereferenced = schema.getDereferencedDataSchema();
+    switch (dereferenced.getType())
+    {
+      case RECORD:
+        canonical.append(((RecordDataSchema) dereferenced).getFullName());
+        break;
+      case ENUM:
+        final EnumDataSchema enumSchema = (EnumDataSchema) dereferenced;
+        canonical.append("enum ").append(enumSchema.getFullName()).append(' ').append(enumSchema.getSymbols());
+        break;
+      case FIXED:
+        final FixedDataSchema fixedSchema = (FixedDataSchema) dereferenced;
+        canonical.append("fixed ").append(fixedSchema.getFullName()).append('(').append(fixedSchema.getSize()).append(')');
+        break;
+      case ARRAY:
+        canonical.append("array<");
+        appendCanonical(((ArrayDataSchema) dereferenced).getItems(), canonical);
+        canonical.append('>');
+        break;
+      case MAP:
+        canonical.append("map<");
+        appendCanonical(((MapDataSchema) dereferenced).getValues(), canonical);
+        canonical.append('>');
+        break;
+      case UNION:
+        canonical.append("union [");
+        for (DataSchema member : ((UnionDataSchema) dereferenced).getTypes())
+        {
+          canonical.append(member.getUnionMemberKey()).append(' ');
+          appendCanonical(member, canonical);
+          canonical.append(", ");
+        }
+        canonical.append(']');
+        break;
+      default:
+        canonical.append(dereferenced.getType().name().toLowerCase());
+        break;
+    }
+  }
+
+  private static byte[] readFully(InputStream in) throws IOException
+  {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[4096];
+    int read;
+    while ((read = in.read(buffer)) != -1)
+    {
+      out.write(buffer, 0, read);
+    }
+    return out.toByteArray();
+  }
+
+  private static DataSchema dereference(DataSchema schema)
+  {
+    return schema == null ? null : schema.getDereferencedDataSchema();
+  }
+
+  private static class Encoder
+  {
+    private Encoder(RecordDataSchema hint)
+    {
+      _hint = hint;
+      _bytes[_size++] = VERSION;
+    }
+
+    /**
+     * @param schema provides the dereferenced schema of the value, or null if the schema is not known.
+     */
+    private void writeValue(Object value, DataSchema schema) throws DataEncodingException
+    {
+      final Class<?> clazz = value.getClass();
+      if (clazz == String.class)
+      {
+        if (schema != null && schema.getType() == DataSchema.Type.ENUM)
+        {
+          final int index = ((EnumDataSchema) schema).index((String) value);
+          if (index >= 0)
+          {
+            writeByte(ENUM);
+            writeVarint(index);
+            return;
+          }
+        }
+        writeByte(STRING);
+        writeString((String) value);
+      }
+      else if (clazz == Integer.class)
+      {
+        writeByte(INT);
+        writeVarint(zigZag((Integer) value));
+      }
+      else if (clazz == Long.class)
+      {
+        writeByte(LONG);
+        writeVarlong(zigZag((Long) value));
+      }
+      else if (clazz == Boolean.class)
+      {
+        writeByte((Boolean) value ? TRUE : FALSE);
+      }
+      else if (clazz == Double.class)
+      {
+        writeByte(DOUBLE);
+        writeFixedLong(Double.doubleToRawLongBits((Double) value));
+      }
+      else if (clazz == Float.class)
+      {
+        writeByte(FLOAT);
+        writeFixedInt(Float.floatToRawIntBits((Float) value));
+      }
+      else if (clazz == DataMap.class)
+      {
+        writeMap((DataMap) value, schema);
+      }
+      else if (clazz == DataList.class)
+      {
+        final DataList list = (DataList) value;
+        final DataSchema itemsSchema = schema != null && schema.getType() == DataSchema.Type.ARRAY ?
+          dereference(((ArrayDataSchema) schema).getItems()) : null;
+        writeByte(LIST);
+        writeVarint(list.size());
+        for (Object item : list)
+        {
+          writeValue(item, itemsSchema);
+        }
+      }
+      else if (clazz == ByteString.class)
+      {
+        final ByteString byteString = (ByteString) value;
+        writeByte(BYTES);
+        writeVarint(byteString.length());
+        ensureCapacity(byteString.length());
+        byteString.copyBytes(_bytes, _size);
+        _size += byteString.length();
+      }
+      else if (value == Data.NULL)
+      {
+        writeByte(NULL);
+      }
+      else
+      {
+        throw new DataEncodingException("Unknown data type " + clazz.getName());
+      }
+    }
+
+    private void writeMap(DataMap map, DataSchema schema) throws DataEncodingException
+    {
+      if (schema == null && _hint != null && matchesHint(map))
+      {
+        schema = _hint;
+      }
+
+      if (schema != null && schema.getType() == DataSchema.Type.RECORD)
+      {
+        writeRecord(map, (RecordDataSchema) schema);
+        return;
+      }
+
+      if (schema != null && schema.getType() == DataSchema.Type.UNION && map.size() == 1)
+      {
+        final Map.Entry<String, Object> entry = map.entrySet().iterator().next();
+        final UnionDataSchema unionSchema = (UnionDataSchema) schema;
+        final int index = unionSchema.index(entry.getKey());
+        if (index >= 0)
+        {
+          writeByte(UNION);
+          writeVarint(index);
+          writeValue(entry.getValue(), dereference(unionSchema.getTypes().get(index)));
+          return;
+        }
+      }
+
+      final DataSchema valuesSchema = schema != null && schema.getType() == DataSchema.Type.MAP ?
+        dereference(((MapDataSchema) schema).getValues()) : null;
+      writeByte(MAP);
+      writeVarint(map.size());
+      for (Map.Entry<String, Object> entry : map.entrySet())
+      {
+        writeString(entry.getKey());
+        writeValue(entry.getValue(), valuesSchema);
+      }
+    }
+
+    private boolean matchesHint(DataMap map)
+    {
+      if (map.isEmpty())
+      {
+        return false;
+      }
+      for (String key : map.keySet())
+      {
+        if (_hint.index(key) < 0)
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void writeRecord(DataMap map, RecordDataSchema schema) throws DataEncodingException
+    {
+      writeByte(RECORD);
+      final Integer ref = _schemaRefs.get(schema);
+      if (ref == null)
+      {
+        // first use of the schema in this message, define it
+        final int newRef = _schemaRefs.size();
+        _schemaRefs.put(schema, newRef);
+        writeVarint(newRef);
+        writeString(schema.getFullName());
+        final byte[] fingerprint = fingerprint(schema);
+        ensureCapacity(fingerprint.length);
+        System.arraycopy(fingerprint, 0, _bytes, _size, fingerprint.length);
+        _size += fingerprint.length;
+      }
+      else
+      {
+        writeVarint(ref);
+      }
+
+      final List<RecordDataSchema.Field> fields = schema.getFields();
+      writeVarint(map.size());
+      for (Map.Entry<String, Object> entry : map.entrySet())
+      {
+        final int index = schema.index(entry.getKey());
+        if (index >= 0)
+        {
+          writeVarint(index + 1);
+          writeValue(entry.getValue(), dereference(fields.get(index).getType()));
+        }
+        else
+        {
+          writeVarint(0);
+          writeString(entry.getKey());
+          writeValue(entry.getValue(), null);
+        }
+      }
+    }
+
+    private void writeString(String value)
+    {
+      final int length = value.length();
+      ensureCapacity(length + 5);
+      // ASCII strings are written directly, others are encoded to UTF-8 first
+      final int start = _size;
+      writeVarint(length);
+      final int offset = _size;
+      for (int i = 0; i < length; i++)
+      {
+        final char c = value.charAt(i);
+        if (c >= 0x80)
+        {
+          _size = start;
+          final byte[] utf8 = value.getBytes(Data.UTF_8_CHARSET);
+          writeVarint(utf8.length);
+          ensureCapacity(utf8.length);
+          System.arraycopy(utf8, 0, _bytes, _size, utf8.length);
+          _size += utf8.length;
+          return;
+        }
+        _bytes[offset + i] = (byte) c;
+      }
+      _size = offset + length;
+    }
+
+    private void writeByte(byte b)
+    {
+      ensureCapacity(1);
+      _bytes[_size++] = b;
+    }
+
+    private void writeVarint(int value)
+    {
+      ensureCapacity(5);
+      while ((value & ~0x7F) != 0)
+      {
+        _bytes[_size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      _bytes[_size++] = (byte) value;
+    }
+
+    private void writeVarlong(long value)
+    {
+      ensureCapacity(10);
+      while ((value & ~0x7FL) != 0)
+      {
+        _bytes[_size++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      _bytes[_size++] = (byte) value;
+    }
+
+    private void writeFixedInt(int value)
+    {
+      ensureCapacity(4);
+      for (int shift = 24; shift >= 0; shift -= 8)
+      {
+        _bytes[_size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void writeFixedLong(long value)
+    {
+      ensureCapacity(8);
+      for (int shift = 56; shift >= 0; shift -= 8)
+      {
+        _bytes[_size++] = (byte) (value >>> shift);
+      }
+    }
+
+    private void ensureCapacity(int length)
+    {
+      if (_size + length > _bytes.length)
+      {
+        _bytes = Arrays.copyOf(_bytes, Math.max(_size + length, _bytes.length * 2));
+      }
+    }
+
+    private byte[] toByteArray()
+    {
+      return Arrays.copyOf(_bytes, _size);
+    }
+
+    private static int zigZag(int value)
+    {
+      return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigZag(long value)
+    {
+      return (value << 1) ^ (value >> 63);
+    }
+
+    private final RecordDataSchema _hint;
+    private final Map<RecordDataSchema, Integer> _schemaRefs = new IdentityHashMap<RecordDataSchema, Integer>();
+    private byte[] _bytes = new byte[256];
+    private int _size;
+  }
+
+  private class Decoder
+  {
+    private Decoder(byte[] bytes, RecordDataSchema schema)
+    {
+      _bytes = bytes;
+      _schemas = schema == null ? Collections.<String, RecordDataSchema>emptyMap() : reachableSchemas(schema);
+    }
+
+    private Object readRoot() throws DataDecodingException
+    {
+      try
+      {
+        final byte version = _bytes[_pos++];
+        if (version != VERSION)
+        {
+          throw new DataDecodingException("Unsupported version " + version);
+        }
+        final Object value = readValue(null);
+        if (_pos != _bytes.length)
+        {
+          throw new DataDecodingException("Unexpected data after position " + _pos);
+        }
+        return value;
+      }
+      catch (ArrayIndexOutOfBoundsException e)
+      {
+        throw new DataDecodingException("Unexpected end of input", e);
+      }
+    }
+
+    /**
+     * @param schema provides the dereferenced schema of the value, or null if the schema is not known.
+     */
+    private Object readValue(DataSchema schema) throws DataDecodingException
+    {
+      final byte tag = _bytes[_pos++];
+      switch (tag)
+      {
+        case NULL:
+          return Data.NULL;
+        case TRUE:
+          return Boolean.TRUE;
+        case FALSE:
+          return Boolean.FALSE;
+        case INT:
+          final int i = readVarint();
+          return (i >>> 1) ^ -(i & 1);
+        case LONG:
+          final long l = readVarlong();
+          return (l >>> 1) ^ -(l & 1);
+        case FLOAT:
+          return Float.intBitsToFloat(readFixedInt());
+        case DOUBLE:
+          return Double.longBitsToDouble(readFixedLong());
+        case STRING:
+          return readString();
+        case BYTES:
+          final int length = readLength();
+          final ByteString byteString = ByteString.copy(_bytes, _pos, length);
+          _pos += length;
+          return byteString;
+        case MAP:
+          final DataSchema valuesSchema = schema != null && schema.getType() == DataSchema.Type.MAP ?
+            dereference(((MapDataSchema) schema).getValues()) : null;
+          final int size = readLength();
+          final DataMap map = new DataMap(size * 4 / 3 + 1);
+          for (int n = 0; n < size; n++)
+          {
+            final String key = readString();
+            map.put(key, readValue(valuesSchema));
+          }
+          return map;
+        case LIST:
+          final DataSchema itemsSchema = schema != null && schema.getType() == DataSchema.Type.ARRAY ?
+            dereference(((ArrayDataSchema) schema).getItems()) : null;
+          final int count = readLength();
+          final DataList list = new DataList(count);
+          for (int n = 0; n < count; n++)
+          {
+            list.add(readValue(itemsSchema));
+          }
+          return list;
+        case RECORD:
+          return readRecord();
+        case ENUM:
+          if (schema == null || schema.getType() != DataSchema.Type.ENUM)
+          {
+            throw new DataDecodingException("Enum symbol without an enum schema at position " + _pos);
+          }
+          final List<String> symbols = ((EnumDataSchema) schema).getSymbols();
+          final int symbol = readVarint();
+          if (symbol < 0 || symbol >= symbols.size())
+          {
+            throw new DataDecodingException("Invalid enum symbol index " + symbol + " at position " + _pos);
+          }
+          return symbols.get(symbol);
+        case UNION:
+          if (schema == null || schema.getType() != DataSchema.Type.UNION)
+          {
+            throw new DataDecodingException("Union member without a union schema at position " + _pos);
+          }
+          final List<DataSchema> members = ((UnionDataSchema) schema).getTypes();
+          final int member = readVarint();
+          if (member < 0 || member >= members.size())
+          {
+            throw new DataDecodingException("Invalid union member index " + member + " at position " + _pos);
+          }
+          final DataMap union = new DataMap(2);
+          union.put(members.get(member).getUnionMemberKey(), readValue(dereference(members.get(member))));
+          return union;
+        default:
+          throw new DataDecodingException("Unknown tag " + tag + " at position " + (_pos - 1));
+      }
+    }
+
+    private DataMap readRecord() throws DataDecodingException
+    {
+      final int ref = readVarint();
+      final RecordDataSchema schema;
+      if (ref == _schemaRefs.size())
+      {
+        final String fullName = readString();
+        if (_pos + FINGERPRINT_LENGTH > _bytes.length)
+        {
+          throw new DataDecodingException("Unexpected end of input");
+        }
+        final byte[] fingerprint = Arrays.copyOfRange(_bytes, _pos, _pos + FINGERPRINT_LENGTH);
+        _pos += FINGERPRINT_LENGTH;
+        schema = lookupSchema(fullName);
+        if (!Arrays.equals(fingerprint(schema), fingerprint))
+        {
+          throw new DataDecodingException("Record schema " + fullName + " differs from the schema of the encoder");
+        }
+        _schemaRefs.add(schema);
+      }
+      else if (ref >= 0 && ref < _schemaRefs.size())
+      {
+        schema = _schemaRefs.get(ref);
+      }
+      else
+      {
+        throw new DataDecodingException("Invalid record schema reference " + ref + " at position " + _pos);
+      }
+
+      final List<RecordDataSchema.Field> fields = schema.getFields();
+      final int size = readLength();
+      final DataMap map = DataMap.compact(size);
+      for (int n = 0; n < size; n++)
+      {
+        final int ordinal = readVarint();
+        if (ordinal == 0)
+        {
+          final String key = readString();
+          map.put(key, readValue(null));
+        }
+        else if (ordinal > 0 && ordinal <= fields.size())
+        {
+          final RecordDataSchema.Field field = fields.get(ordinal - 1);
+          map.put(field.getName(), readValue(dereference(field.getType())));
+        }
+        else
+        {
+          throw new DataDecodingException("Invalid field ordinal " + ordinal + " of " + schema.getFullName());
+        }
+      }
+      return map;
+    }
+
+    private String readString() throws DataDecodingException
+    {
+      final int length = readLength();
+      final String value = new String(_bytes, _pos, length, Data.UTF_8_CHARSET);
+      _pos += length;
+      return value;
+    }
+
+    private int readLength() throws DataDecodingException
+    {
+      final int length = readVarint();
+      if (length < 0 || length > _bytes.length - _pos)
+      {
+        throw new DataDecodingException("Invalid length " + length + " at position " + _pos);
+      }
+      return length;
+    }
+
+    private int readVarint()
+    {
+      int value = 0;
+      for (int shift = 0; shift < 32; shift += 7)
+      {
+        final byte b = _bytes[_pos++];
+        value |= (b & 0x7F) << shift;
+        if (b >= 0)
+        {
+          break;
+        }
+      }
+      return value;
+    }
+
+    private long readVarlong()
+    {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7)
+      {
+        final byte b = _bytes[_pos++];
+        value |= (long) (b & 0x7F) << shift;
+        if (b >= 0)
+        {
+          break;
+        }
+      }
+      return value;
+    }
+
+    private RecordDataSchema lookupSchema(String fullName) throws DataDecodingException
+    {
+      RecordDataSchema schema = _schemas.get(fullName);
+      if (schema == null)
+      {
+        schema = _knownSchemas.get(fullName);
+        if (schema == null)
+        {
+          throw new DataDecodingException("Unable to find record schema " + fullName);
+        }
+      }
+      return schema;
+    }
+
+    private int readFixedInt()
+    {
+      int value = 0;
+      for (int n = 0; n < 4; n++)
+      {
+        value = (value << 8) | (_bytes[_pos++] & 0xFF);
+      }
+      return value;
+    }
+
+    private long readFixedLong()
+    {
+      long value = 0;
+      for (int n = 0; n < 8; n++)
+      {
+        value = (value << 8) | (_bytes[_pos++] & 0xFF);
+      }
+      return value;
+    }
+
+    private final byte[] _bytes;
+    private final Map<String, RecordDataSchema> _schemas;
+    private final List<RecordDataSchema> _schemaRefs = new ArrayList<RecordDataSchema>();
+    private int _pos;
+  }
+
+  private final Map<String, RecordDataSchema> _knownSchemas;
+}
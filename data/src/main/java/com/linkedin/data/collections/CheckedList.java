@@ -32,7 +32,10 @@ import java.util.List;
  *
  * The underlying list implementation is {@link ArrayList}. It delegates
  * list operations to the underlying [@link ArrayList} associated
- * with this {@link CheckedList}.
+ * with this {@link CheckedList}. A subclass may instead provide a
+ * {@link ListStorage} that holds primitive values without boxing them,
+ * which is replaced by an {@link ArrayList} when an element
+ * it does not accept is added.
  * <p>
  *
  * A {@link CheckedList} may be marked read-only to disable mutations,
@@ -115,11 +118,28 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
     _list = new InternalList<E>(initialCapacity);
   }
 
+  /**
+   * Construct a new list with the elements held by the specified storage and
+   * the specified {@link ListChecker}.
+   *
+   * The elements of the storage are not checked, and the storage must
+   * not be used otherwise afterwards.
+   *
+   * @param storage provides the elements of the list.
+   * @param checker provides the {@link ListChecker}.
+   */
+  protected CheckedList(ListStorage<E> storage, ListChecker<E> checker)
+  {
+    _checker = checker;
+    _list = storage;
+  }
+
   @Override
   public boolean add(E e)
   {
     check(e);
     checkMutability();
+    prepareStorage(e);
     return _list.add(e);
   }
 
@@ -128,6 +148,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   {
     check(element);
     checkMutability();
+    prepareStorage(element);
     _list.add(index, element);
   }
 
@@ -136,6 +157,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   {
     checkAll(c);
     checkMutability();
+    prepareStorageForAll(c);
     return _list.addAll(c);
   }
 
@@ -144,6 +166,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   {
     checkAll(c);
     checkMutability();
+    prepareStorageForAll(c);
     return _list.addAll(index, c);
   }
 
@@ -159,7 +182,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   public CheckedList<E> clone() throws CloneNotSupportedException
   {
     CheckedList<E> o = (CheckedList<E>) super.clone();
-    o._list = (InternalList<E>) _list.clone();
+    o._list = _list.copy();
     o._readOnly = false;
     return o;
   }
@@ -252,6 +275,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   {
     check(element);
     checkMutability();
+    prepareStorage(element);
     return _list.set(index, element);
   }
 
@@ -309,6 +333,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   protected boolean addWithoutChecking(E element)
   {
     checkMutability();
+    prepareStorage(element);
     return _list.add(element);
   }
 
@@ -324,6 +349,7 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
   protected E setWithoutChecking(int index, E element)
   {
     checkMutability();
+    prepareStorage(element);
     return _list.set(index, element);
   }
 
@@ -347,6 +373,29 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
     }
   }
 
+  private final void prepareStorage(Object element)
+  {
+    if (_list.getClass() != InternalList.class && !_list.accepts(element))
+    {
+      _list = new InternalList<E>(_list);
+    }
+  }
+
+  private final void prepareStorageForAll(Collection<?> c)
+  {
+    if (_list.getClass() != InternalList.class)
+    {
+      for (Object element : c)
+      {
+        if (!_list.accepts(element))
+        {
+          _list = new InternalList<E>(_list);
+          return;
+        }
+      }
+    }
+  }
+
   private final void check(E e)
   {
     if (_checker != null)
@@ -389,8 +438,18 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
     return _list;
   }
 
+  /**
+   * Returns the storage that currently holds the elements. It must not be modified.
+   *
+   * @return the storage of the elements.
+   */
+  protected final ListStorage<E> getStorage()
+  {
+    return _list;
+  }
+
   @SuppressWarnings("serial")
-  private static class InternalList<E> extends ArrayList<E>
+  private static class InternalList<E> extends ArrayList<E> implements ListStorage<E>
   {
     public InternalList()
     {
@@ -408,9 +467,20 @@ public class CheckedList<E> extends AbstractList<E> implements CommonList<E>, Cl
     {
       super.removeRange(fromIndex, toIndex);
     }
+    @Override
+    public boolean accepts(Object element)
+    {
+      return true;
+    }
+    @Override
+    @SuppressWarnings("unchecked")
+    public InternalList<E> copy()
+    {
+      return (InternalList<E>) clone();
+    }
   }
 
   protected ListChecker<E> _checker;
   private boolean _readOnly = false;
-  private InternalList<E> _list;
+  private ListStorage<E> _list;
 }
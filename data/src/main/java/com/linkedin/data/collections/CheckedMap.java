@@ -30,8 +30,10 @@ import java.util.Set;
  * keys and values being stored into the {@link CheckedMap}.
  * <p>
  *
- * The underlying map implementation is {@link HashMap}. It delegates
- * map operations to the underlying {@link HashMap} associated
+ * The underlying map implementation is {@link HashMap}, or {@link CompactHashMap}
+ * if the map is constructed with compact storage, or a {@link LazyMap} provided
+ * by a decoder. It delegates
+ * map operations to the underlying map associated
  * with this {@link CheckedMap}.
  * <P>
  *
@@ -152,6 +154,39 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
     _map = new HashMap<K,V>(initialCapacity, loadFactor);
   }
 
+  /**
+   * Construct an empty map with the specified expected size and {@link MapChecker}.
+   *
+   * A compact map stores its entries in a {@link CompactHashMap}, which uses less
+   * memory than a {@link HashMap} for small maps and is copied lazily when cloned.
+   *
+   * @param expectedSize provides the expected number of entries.
+   * @param checker provides the {@link MapChecker}.
+   * @param compact whether the entries are stored in a {@link CompactHashMap}
+   *                instead of a {@link HashMap}.
+   *
+   * @see CompactHashMap
+   */
+  public CheckedMap(int expectedSize, MapChecker<K,V> checker, boolean compact)
+  {
+    _checker = checker;
+    _map = compact ? new CompactHashMap<K,V>(expectedSize) : new HashMap<K,V>(expectedSize * 4 / 3 + 1);
+  }
+
+  /**
+   * Construct a map with the specified {@link MapChecker} whose entries are stored
+   * in the specified {@link LazyMap}. The {@link LazyMap} is not copied and must not
+   * be referenced elsewhere.
+   *
+   * @param checker provides the {@link MapChecker}.
+   * @param storage provides the storage of the entries.
+   */
+  protected CheckedMap(MapChecker<K,V> checker, LazyMap<K,V> storage)
+  {
+    _checker = checker;
+    _map = storage;
+  }
+
   @Override
   public void clear()
   {
@@ -164,7 +199,18 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
   public CheckedMap<K,V> clone() throws CloneNotSupportedException
   {
     CheckedMap<K,V> o = (CheckedMap<K,V>) super.clone();
-    o._map = (HashMap<K,V>) _map.clone();
+    if (_map instanceof CompactHashMap)
+    {
+      o._map = ((CompactHashMap<K,V>) _map).clone();
+    }
+    else if (_map instanceof LazyMap)
+    {
+      o._map = ((LazyMap<K,V>) _map).clone();
+    }
+    else
+    {
+      o._map = (Map<K,V>) ((HashMap<K,V>) _map).clone();
+    }
     o._readOnly = false;
     return o;
   }
@@ -273,6 +319,16 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
     return Collections.unmodifiableCollection(_map.values());
   }
 
+  /**
+   * Return whether the entries are stored in a {@link CompactHashMap}.
+   *
+   * @return true if the entries are stored in a {@link CompactHashMap}.
+   */
+  public boolean isCompact()
+  {
+    return _map instanceof CompactHashMap;
+  }
+
   @Override
   public boolean isReadOnly()
   {
@@ -366,5 +422,5 @@ public class CheckedMap<K,V> implements CommonMap<K,V>, Cloneable
 
   private boolean _readOnly = false;
   protected MapChecker<K,V> _checker;
-  private HashMap<K,V> _map;
+  private Map<K,V> _map;
 }
@@ -0,0 +1,614 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * Map with a compact open-addressing storage for small maps.
+ * <p>
+ *
+ * Up to {@link #MAX_COMPACT_SIZE} entries are stored in a single array of alternating keys and values,
+ * using linear probing, so that an entry costs two array slots instead of a {@link HashMap} node and a
+ * table slot. Keys are compared by identity before {@link Object#equals(Object)}, which makes lookups
+ * with interned keys, such as the field names of a record schema, cheap. When the map grows beyond
+ * {@link #MAX_COMPACT_SIZE} entries, the entries are moved to a {@link HashMap} and the map stays backed
+ * by the {@link HashMap} until it is cleared.
+ * <p>
+ *
+ * Cloning is copy-on-write. The clone shares the storage with this map, and whichever of them is
+ * mutated first copies the storage.
+ * <p>
+ *
+ * The {@link #entrySet}, {@link #keySet} and {@link #values} views are unmodifiable. Their iteration
+ * order is unspecified and differs from {@link HashMap}.
+ * <p>
+ *
+ * This class is not thread-safe.
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the values.
+ */
+public final class CompactHashMap<K, V> extends AbstractMap<K, V> implements Cloneable
+{
+  /**
+   * Maximum number of entries kept in the compact storage.
+   */
+  public static final int MAX_COMPACT_SIZE = 16;
+
+  /**
+   * Construct an empty map. The storage is allocated on the first put.
+   */
+  public CompactHashMap()
+  {
+    _table = EMPTY_TABLE;
+  }
+
+  /**
+   * Construct an empty map that holds the expected number of entries without growing.
+   *
+   * @param expectedSize provides the expected number of entries.
+   */
+  public CompactHashMap(int expectedSize)
+  {
+    if (expectedSize < 0)
+    {
+      throw new IllegalArgumentException("Illegal expected size: " + expectedSize);
+    }
+
+    if (expectedSize == 0)
+    {
+      _table = EMPTY_TABLE;
+    }
+    else if (expectedSize <= MAX_COMPACT_SIZE)
+    {
+      _table = new Object[capacityFor(expectedSize) * 2];
+    }
+    else
+    {
+      _table = EMPTY_TABLE;
+      _overflow = new HashMap<K, V>(expectedSize * 4 / 3 + 1);
+    }
+  }
+
+  /**
+   * Construct a map with the initial entries provided by the specified map.
+   *
+   * @param map provides the initial entries of the new map.
+   */
+  public CompactHashMap(Map<? extends K, ? extends V> map)
+  {
+    this(map.size());
+    putAll(map);
+  }
+
+  @Override
+  public int size()
+  {
+    return _overflow == null ? _size : _overflow.size();
+  }
+
+  @Override
+  public boolean isEmpty()
+  {
+    return size() == 0;
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    return _overflow == null ? indexOf(key) >= 0 : _overflow.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(Object value)
+  {
+    if (_overflow != null)
+    {
+      return _overflow.containsValue(value);
+    }
+
+    final Object[] table = _table;
+    for (int i = 0; i < table.length; i += 2)
+    {
+      if (table[i] != null && (value == null ? table[i + 1] == null : value.equals(table[i + 1])))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V get(Object key)
+  {
+    if (_overflow != null)
+    {
+      return _overflow.get(key);
+    }
+
+    final int index = indexOf(key);
+    return index < 0 ? null : (V) _table[index + 1];
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V put(K key, V value)
+  {
+    ensureExclusive();
+    if (_overflow != null)
+    {
+      return _overflow.put(key, value);
+    }
+
+    final Object maskedKey = maskNull(key);
+    final int index = indexOf(maskedKey);
+    if (index >= 0)
+    {
+      final V previous = (V) _table[index + 1];
+      _table[index + 1] = value;
+      return previous;
+    }
+
+    if (_size == MAX_COMPACT_SIZE)
+    {
+      inflate();
+      return _overflow.put(key, value);
+    }
+
+    final int capacity = _table.length >> 1;
+    if (capacity == 0 || _size + 1 > capacity - (capacity >> 2))
+    {
+      resize(capacityFor(_size + 1));
+    }
+    insert(_table, maskedKey, value);
+    _size++;
+    _modCount++;
+    return null;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public V remove(Object key)
+  {
+    if (_overflow != null)
+    {
+      if (!_overflow.containsKey(key))
+      {
+        return null;
+      }
+      ensureExclusive();
+      return _overflow.remove(key);
+    }
+
+    int index = indexOf(key);
+    if (index < 0)
+    {
+      return null;
+    }
+
+    ensureExclusive();
+    final Object[] table = _table;
+    final V previous = (V) table[index + 1];
+
+    // backward shift deletion keeps every remaining key reachable from its home slot
+    final int mask = table.length - 2;
+    int next = index;
+    while (true)
+    {
+      next = (next + 2) & mask;
+      final Object nextKey = table[next];
+      if (nextKey == null)
+      {
+        break;
+      }
+
+      final int home = slotOf(nextKey, mask);
+      final boolean homeInRange = index <= next ? (index < home && home <= next) : (index < home || home <= next);
+      if (!homeInRange)
+      {
+        table[index] = nextKey;
+        table[index + 1] = table[next + 1];
+        index = next;
+      }
+    }
+    table[index] = null;
+    table[index + 1] = null;
+    _size--;
+    _modCount++;
+    return previous;
+  }
+
+  @Override
+  public void clear()
+  {
+    _table = EMPTY_TABLE;
+    _overflow = null;
+    _size = 0;
+    _shared = false;
+    _modCount++;
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet()
+  {
+    return new EntrySet();
+  }
+
+  @Override
+  public Set<K> keySet()
+  {
+    return new KeySet();
+  }
+
+  @Override
+  public Collection<V> values()
+  {
+    return new Values();
+  }
+
+  /**
+   * Return a shallow copy of this map in constant time. The storage is copied by the first mutation of
+   * either map.
+   *
+   * @return a shallow copy of this map.
+   */
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompactHashMap<K, V> clone()
+  {
+    final CompactHashMap<K, V> o;
+    try
+    {
+      o = (CompactHashMap<K, V>) super.clone();
+    }
+    catch (CloneNotSupportedException e)
+    {
+      throw new IllegalStateException(e);
+    }
+    if (_table.length > 0 || _overflow != null)
+    {
+      _shared = true;
+      o._shared = true;
+    }
+    o._modCount = 0;
+    return o;
+  }
+
+  /**
+   * Unit test use only.
+   *
+   * @return whether the entries are stored in the compact storage.
+   */
+  boolean isCompact()
+  {
+    return _overflow == null;
+  }
+
+  private static int capacityFor(int size)
+  {
+    // keep the load factor at or below 3/4 so that probing always terminates quickly
+    int capacity = MIN_CAPACITY;
+    while (size > capacity - (capacity >> 2))
+    {
+      capacity <<= 1;
+    }
+    return capacity;
+  }
+
+  private static Object maskNull(Object key)
+  {
+    return key == null ? NULL_KEY : key;
+  }
+
+  private static Object unmaskNull(Object key)
+  {
+    return key == NULL_KEY ? null : key;
+  }
+
+  /**
+   * @param maskedKey key with null masked.
+   * @param mask length of the table minus two.
+   * @return index of the home slot of the key in the table.
+   */
+  private static int slotOf(Object maskedKey, int mask)
+  {
+    final int h = maskedKey.hashCode();
+    return ((h ^ (h >>> 16)) << 1) & mask;
+  }
+
+  private static void insert(Object[] table, Object maskedKey, Object value)
+  {
+    final int mask = table.length - 2;
+    int index = slotOf(maskedKey, mask);
+    while (table[index] != null)
+    {
+      index = (index + 2) & mask;
+    }
+    table[index] = maskedKey;
+    table[index + 1] = value;
+  }
+
+  /**
+   * @return index of the key in the table, or -1 if the key is absent.
+   */
+  private int indexOf(Object key)
+  {
+    final Object[] table = _table;
+    if (table.length == 0)
+    {
+      return -1;
+    }
+
+    final Object maskedKey = maskNull(key);
+    final int mask = table.length - 2;
+    int index = slotOf(maskedKey, mask);
+    while (true)
+    {
+      final Object current = table[index];
+      if (current == null)
+      {
+        return -1;
+      }
+      if (current == maskedKey || maskedKey.equals(current))
+      {
+        return index;
+      }
+      index = (index + 2) & mask;
+    }
+  }
+
+  private void resize(int capacity)
+  {
+    final Object[] table = _table;
+    final Object[] newTable = new Object[capacity * 2];
+    for (int i = 0; i < table.length; i += 2)
+    {
+      if (table[i] != null)
+      {
+        insert(newTable, table[i], table[i + 1]);
+      }
+    }
+    _table = newTable;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void inflate()
+  {
+    final Object[] table = _table;
+    final HashMap<K, V> overflow = new HashMap<K, V>(MAX_COMPACT_SIZE * 4);
+    for (int i = 0; i < table.length; i += 2)
+    {
+      if (table[i] != null)
+      {
+        overflow.put((K) unmaskNull(table[i]), (V) table[i + 1]);
+      }
+    }
+    _overflow = overflow;
+    _table = EMPTY_TABLE;
+    _size = 0;
+    _modCount++;
+  }
+
+  private void ensureExclusive()
+  {
+    if (_shared)
+    {
+      if (_overflow != null)
+      {
+        _overflow = new HashMap<K, V>(_overflow);
+      }
+      else
+      {
+        _table = _table.clone();
+      }
+      _shared = false;
+    }
+  }
+
+  private abstract class TableIterator<E> implements Iterator<E>
+  {
+    private TableIterator()
+    {
+      _expectedModCount = _modCount;
+      _next = advance(0);
+    }
+
+    @Override
+    public boolean hasNext()
+    {
+      return _next >= 0;
+    }
+
+    @Override
+    public E next()
+    {
+      if (_modCount != _expectedModCount)
+      {
+        throw new ConcurrentModificationException();
+      }
+      if (_next < 0)
+      {
+        throw new NoSuchElementException();
+      }
+
+      final int index = _next;
+      _next = advance(index + 2);
+      return element(_table, index);
+    }
+
+    @Override
+    public void remove()
+    {
+      throw new UnsupportedOperationException();
+    }
+
+    abstract E element(Object[] table, int index);
+
+    private int advance(int index)
+    {
+      final Object[] table = _table;
+      for (int i = index; i < table.length; i += 2)
+      {
+        if (table[i] != null)
+        {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    private final int _expectedModCount;
+    private int _next;
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<K, V>>
+  {
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator()
+    {
+      if (_overflow != null)
+      {
+        return Collections.unmodifiableMap(_overflow).entrySet().iterator();
+      }
+
+      return new TableIterator<Map.Entry<K, V>>()
+      {
+        @Override
+        @SuppressWarnings("unchecked")
+        Map.Entry<K, V> element(Object[] table, int index)
+        {
+          return new SimpleImmutableEntry<K, V>((K) unmaskNull(table[index]), (V) table[index + 1]);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+      if (!(o instanceof Map.Entry))
+      {
+        return false;
+      }
+      final Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+      final Object key = entry.getKey();
+      if (!containsKey(key))
+      {
+        return false;
+      }
+      final Object value = get(key);
+      return value == null ? entry.getValue() == null : value.equals(entry.getValue());
+    }
+
+    @Override
+    public int size()
+    {
+      return CompactHashMap.this.size();
+    }
+  }
+
+  private final class KeySet extends AbstractSet<K>
+  {
+    @Override
+    public Iterator<K> iterator()
+    {
+      if (_overflow != null)
+      {
+        return Collections.unmodifiableSet(_overflow.keySet()).iterator();
+      }
+
+      return new TableIterator<K>()
+      {
+        @Override
+        @SuppressWarnings("unchecked")
+        K element(Object[] table, int index)
+        {
+          return (K) unmaskNull(table[index]);
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+      return containsKey(o);
+    }
+
+    @Override
+    public int size()
+    {
+      return CompactHashMap.this.size();
+    }
+  }
+
+  private final class Values extends AbstractCollection<V>
+  {
+    @Override
+    public Iterator<V> iterator()
+    {
+      if (_overflow != null)
+      {
+        return Collections.unmodifiableCollection(_overflow.values()).iterator();
+      }
+
+      return new TableIterator<V>()
+      {
+        @Override
+        @SuppressWarnings("unchecked")
+        V element(Object[] table, int index)
+        {
+          return (V) table[index + 1];
+        }
+      };
+    }
+
+    @Override
+    public boolean contains(Object o)
+    {
+      return containsValue(o);
+    }
+
+    @Override
+    public int size()
+    {
+      return CompactHashMap.this.size();
+    }
+  }
+
+  private static final int MIN_CAPACITY = 4;
+  private static final Object[] EMPTY_TABLE = new Object[0];
+  private static final Object NULL_KEY = new Object();
+
+  private Object[] _table;
+  private int _size;
+  private HashMap<K, V> _overflow;
+  private boolean _shared;
+  private int _modCount;
+}
@@ -0,0 +1,107 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.data.collections;
+
+
+import java.util.Arrays;
+
+
+/**
+ * {@link ListStorage} that holds {@link Double}s in a {@code double} array.
+ */
+public final class DoubleListStorage extends PrimitiveListStorage
+{
+  /**
+   * Construct an empty storage with the specified initial capacity.
+   *
+   * @param initialCapacity provides the initial capacity.
+   */
+  public DoubleListStorage(int initialCapacity)
+  {
+    super(0);
+    _values = new double[initialCapacity(initialCapacity)];
+  }
+
+  /**
+   * Construct a storage that holds the first size values of the array.
+   * The array is not copied and must not be modified afterwards.
+   *
+   * @param values provides the values.
+   * @param size provides the number of values in use.
+   */
+  public DoubleListStorage(double[] values, int size)
+  {
+    super(size);
+    checkSize(size, values.length);
+    _values = values;
+  }
+
+  /**
+   * Returns the value at the specified position without boxing it.
+   *
+   * @param index of the value to return.
+   * @return the value at the specified position.
+   */
+  public double getDouble(int index)
+  {
+    checkIndex(index);
+    return _values[index];
+  }
+
+  @Override
+  public boolean accepts(Object element)
+  {
+    return element != null && element.getClass() == Double.class;
+  }
+
+  @Override
+  public DoubleListStorage copy()
+  {
+    return new DoubleListStorage(Arrays.copyOf(_values, _size), _size);
+  }
+
+  @Override
+  Object box(int index)
+  {
+    return _values[index];
+  }
+
+  @Override
+  void store(int index, Object element)
+  {
+    _values[index] = (Double) element;
+  }
+
+  @Override
+  int capacity()
+  {
+    return _values.length;
+  }
+
+  @Override
+  void resize(int capacity)
+  {
+    _values = Arrays.copyOf(_values, capacity);
+  }
+
+  @Override
+  void move(int from, int to, int length)
+  {
+    System.arraycopy(_values, from, _values, to, length);
+  }
+
+  private double[] _values;
+}
@@ -0,0 +1,109 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
+/**
+ * Thread-safe, bounded cache whose keys are compared by identity.
+ *
+ * When the cache is full, the least recently used entry is evicted. This is intended for
+ * values derived from objects such as {@link com.linkedin.data.schema.DataSchema}s, whose
+ * {@link Object#equals(Object)} and {@link Object#hashCode()} are deep and expensive.
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the values.
+ */
+public final class IdentityLruCache<K, V>
+{
+  /**
+   * Constructor.
+   *
+   * @param maxSize maximum number of entries kept in the cache.
+   */
+  public IdentityLruCache(final int maxSize)
+  {
+    if (maxSize <= 0)
+    {
+      throw new IllegalArgumentException("Cache size must be positive: " + maxSize);
+    }
+
+    _map = new LinkedHashMap<IdentityKey, V>(16, 0.75f, true)
+    {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<IdentityKey, V> eldest)
+      {
+        return size() > maxSize;
+      }
+    };
+  }
+
+  /**
+   * @param key of the entry.
+   * @return the cached value for the key, or null if there is none.
+   */
+  public synchronized V get(K key)
+  {
+    return _map.get(new IdentityKey(key));
+  }
+
+  /**
+   * @param key of the entry.
+   * @param value to cache.
+   */
+  public synchronized void put(K key, V value)
+  {
+    _map.put(new IdentityKey(key), value);
+  }
+
+  /**
+   * @return number of entries in the cache.
+   */
+  public synchronized int size()
+  {
+    return _map.size();
+  }
+
+  private static final class IdentityKey
+  {
+    private IdentityKey(Object key)
+    {
+      _key = key;
+    }
+
+    @Override
+    public boolean equals(Object other)
+    {
+      return other instanceof IdentityKey && ((IdentityKey) other)._key == _key;
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return System.identityHashCode(_key);
+    }
+
+    private final Object _key;
+  }
+
+  private final LinkedHashMap<IdentityKey, V> _map;
+}
@@ -0,0 +1,324 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+
+/**
+ * Map whose values may be kept in an encoded form and decoded on first access.
+ * <p>
+ *
+ * A decoder adds entries with {@link #putEncoded(Object, Object)} or {@link #putDecoded(Object, Object)}.
+ * An encoded value is decoded by {@link #decode(Object)} the first time it is read, and the decoded value
+ * is kept for later reads. Decoding does not structurally modify the map, so a map that is no longer
+ * mutated may be read concurrently. Clones share the decoded values with this map, the same way a
+ * shallow copy of a {@link java.util.HashMap} shares its values.
+ * <p>
+ *
+ * {@link #getEncoded(Object)} and {@link #isPristine()} let an encoder copy the encoded form of values
+ * that have not been decoded, instead of encoding them again.
+ * <p>
+ *
+ * The {@link #entrySet}, {@link #keySet} and {@link #values} views are unmodifiable. Iterating the
+ * entries or the values decodes them.
+ *
+ * @param <K> type of the keys.
+ * @param <V> type of the values.
+ */
+public abstract class LazyMap<K, V> extends AbstractMap<K, V> implements Cloneable
+{
+  /**
+   * Construct an empty map.
+   *
+   * @param expectedSize provides the expected number of entries.
+   */
+  protected LazyMap(int expectedSize)
+  {
+    _entries = new CompactHashMap<K, Object>(expectedSize);
+  }
+
+  /**
+   * Decode an encoded value added by {@link #putEncoded(Object, Object)}.
+   *
+   * @param encoded provides the encoded value.
+   * @return the decoded value.
+   */
+  protected abstract V decode(Object encoded);
+
+  /**
+   * Make a decoded value read-only, invoked after {@link #makeValuesReadOnly()}.
+   *
+   * @param value provides the decoded value.
+   */
+  protected abstract void makeReadOnly(V value);
+
+  /**
+   * Add an entry whose value is decoded on first access. Unlike {@link #put(Object, Object)},
+   * this does not make the map modified.
+   *
+   * @param key key of the entry.
+   * @param encoded encoded value of the entry.
+   */
+  public final void putEncoded(K key, Object encoded)
+  {
+    _entries.put(key, new Encoded<V>(this, encoded));
+  }
+
+  /**
+   * Add an entry with a decoded value. Unlike {@link #put(Object, Object)}, this does not make the map modified.
+   *
+   * @param key key of the entry.
+   * @param value value of the entry.
+   */
+  public final void putDecoded(K key, V value)
+  {
+    _entries.put(key, value);
+  }
+
+  /**
+   * Return the encoded value of the key if it has not been decoded.
+   *
+   * @param key key of the entry.
+   * @return the encoded value, or null if the key is absent or the value has been decoded.
+   */
+  public final Object getEncoded(Object key)
+  {
+    final Object value = _entries.get(key);
+    if (value instanceof Encoded)
+    {
+      final Encoded<?> encoded = (Encoded<?>) value;
+      return encoded.isDecoded() ? null : encoded._encoded;
+    }
+    return null;
+  }
+
+  /**
+   * Return whether the map has neither been modified since it was decoded nor had any
+   * of its encoded values decoded, in which case its encoded form is still accurate.
+   *
+   * @return true if the map is pristine.
+   */
+  public final boolean isPristine()
+  {
+    if (_modified)
+    {
+      return false;
+    }
+    for (Object value : _entries.values())
+    {
+      if (value instanceof Encoded && ((Encoded<?>) value).isDecoded())
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Make the decoded values read-only, and the encoded values read-only when they are decoded.
+   */
+  @SuppressWarnings("unchecked")
+  public final void makeValuesReadOnly()
+  {
+    for (Object value : _entries.values())
+    {
+      if (value instanceof Encoded)
+      {
+        ((Encoded<V>) value).makeReadOnly();
+      }
+      else
+      {
+        makeReadOnly((V) value);
+      }
+    }
+  }
+
+  @Override
+  public int size()
+  {
+    return _entries.size();
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    return _entries.containsKey(key);
+  }
+
+  @Override
+  public V get(Object key)
+  {
+    return resolve(_entries.get(key));
+  }
+
+  @Override
+  public V put(K key, V value)
+  {
+    _modified = true;
+    return resolve(_entries.put(key, value));
+  }
+
+  @Override
+  public V remove(Object key)
+  {
+    if (!_entries.containsKey(key))
+    {
+      return null;
+    }
+    _modified = true;
+    return resolve(_entries.remove(key));
+  }
+
+  @Override
+  public void clear()
+  {
+    _modified = true;
+    _entries.clear();
+  }
+
+  @Override
+  public Set<K> keySet()
+  {
+    return Collections.unmodifiableSet(_entries.keySet());
+  }
+
+  @Override
+  public Set<Map.Entry<K, V>> entrySet()
+  {
+    return new AbstractSet<Map.Entry<K, V>>()
+    {
+      @Override
+      public Iterator<Map.Entry<K, V>> iterator()
+      {
+        final Iterator<Map.Entry<K, Object>> iterator = _entries.entrySet().iterator();
+        return new Iterator<Map.Entry<K, V>>()
+        {
+          @Override
+          public boolean hasNext()
+          {
+            return iterator.hasNext();
+          }
+
+          @Override
+          public Map.Entry<K, V> next()
+          {
+            final Map.Entry<K, Object> entry = iterator.next();
+            return new SimpleImmutableEntry<K, V>(entry.getKey(), resolve(entry.getValue()));
+          }
+
+          @Override
+          public void remove()
+          {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+
+      @Override
+      public int size()
+      {
+        return _entries.size();
+      }
+    };
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public LazyMap<K, V> clone()
+  {
+    final LazyMap<K, V> o;
+    try
+    {
+      o = (LazyMap<K, V>) super.clone();
+    }
+    catch (CloneNotSupportedException e)
+    {
+      throw new IllegalStateException(e);
+    }
+    o._entries = _entries.clone();
+    return o;
+  }
+
+  @SuppressWarnings("unchecked")
+  private V resolve(Object value)
+  {
+    return value instanceof Encoded ? ((Encoded<V>) value).get() : (V) value;
+  }
+
+  /**
+   * Holder of an encoded value that decodes it once. Holders are shared by clones.
+   */
+  private static final class Encoded<V>
+  {
+    private Encoded(LazyMap<?, V> decoder, Object encoded)
+    {
+      _decoder = decoder;
+      _encoded = encoded;
+    }
+
+    private boolean isDecoded()
+    {
+      return _value != null;
+    }
+
+    private V get()
+    {
+      V value = _value;
+      if (value == null)
+      {
+        synchronized (this)
+        {
+          value = _value;
+          if (value == null)
+          {
+            value = _decoder.decode(_encoded);
+            if (_readOnly)
+            {
+              _decoder.makeReadOnly(value);
+            }
+            _value = value;
+          }
+        }
+      }
+      return value;
+    }
+
+    private synchronized void makeReadOnly()
+    {
+      _readOnly = true;
+      if (_value != null)
+      {
+        _decoder.makeReadOnly(_value);
+      }
+    }
+
+    private final LazyMap<?, V> _decoder;
+    private final Object _encoded;
+    private volatile V _value;
+    private boolean _readOnly;
+  }
+
+  private CompactHashMap<K, Object> _entries;
+  private boolean _modified;
+}
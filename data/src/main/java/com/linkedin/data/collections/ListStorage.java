@@ -0,0 +1,54 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.data.collections;
+
+
+import java.util.List;
+import java.util.RandomAccess;
+
+
+/**
+ * Storage of the elements of a {@link CheckedList}.
+ * <p>
+ *
+ * A storage may only be able to hold some kinds of elements, e.g. a {@link PrimitiveListStorage}
+ * holds the values of one primitive type in an array of that type. Before an element that
+ * the storage does not accept is added, the {@link CheckedList} moves its elements to
+ * a general purpose storage.
+ *
+ * @param <E> is the type of the elements.
+ */
+public interface ListStorage<E> extends List<E>, RandomAccess
+{
+  /**
+   * @param element to be added.
+   * @return true if the storage can hold the element.
+   */
+  boolean accepts(Object element);
+
+  /**
+   * Removes the elements whose index is between fromIndex, inclusive, and toIndex, exclusive.
+   *
+   * @param fromIndex index of first element to be removed.
+   * @param toIndex index after last element to be removed.
+   */
+  void removeRange(int fromIndex, int toIndex);
+
+  /**
+   * @return a shallow copy of the storage of the same kind.
+   */
+  ListStorage<E> copy();
+}
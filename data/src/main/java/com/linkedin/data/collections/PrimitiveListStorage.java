@@ -0,0 +1,167 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+package com.linkedin.data.collections;
+
+
+import java.util.AbstractList;
+
+
+/**
+ * Base class of the {@link ListStorage}s that hold the values of one primitive type in an array
+ * of that type instead of boxing them.
+ * <p>
+ *
+ * Values are only boxed when they are accessed through the {@link java.util.List} interface.
+ * The primitive accessors of the subclasses return the values without boxing.
+ */
+public abstract class PrimitiveListStorage extends AbstractList<Object> implements ListStorage<Object>
+{
+  PrimitiveListStorage(int size)
+  {
+    _size = size;
+  }
+
+  @Override
+  public Object get(int index)
+  {
+    checkIndex(index);
+    return box(index);
+  }
+
+  @Override
+  public Object set(int index, Object element)
+  {
+    checkIndex(index);
+    final Object previous = box(index);
+    store(index, element);
+    return previous;
+  }
+
+  @Override
+  public boolean add(Object element)
+  {
+    ensureCapacity(_size + 1);
+    store(_size, element);
+    ++_size;
+    ++modCount;
+    return true;
+  }
+
+  @Override
+  public void add(int index, Object element)
+  {
+    if (index < 0 || index > _size)
+    {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+    }
+    ensureCapacity(_size + 1);
+    move(index, index + 1, _size - index);
+    store(index, element);
+    ++_size;
+    ++modCount;
+  }
+
+  @Override
+  public Object remove(int index)
+  {
+    checkIndex(index);
+    final Object previous = box(index);
+    move(index + 1, index, _size - index - 1);
+    --_size;
+    ++modCount;
+    return previous;
+  }
+
+  @Override
+  public void removeRange(int fromIndex, int toIndex)
+  {
+    if (fromIndex < 0 || toIndex > _size || fromIndex > toIndex)
+    {
+      throw new IndexOutOfBoundsException("From index: " + fromIndex + ", to index: " + toIndex + ", Size: " + _size);
+    }
+    move(toIndex, fromIndex, _size - toIndex);
+    _size -= toIndex - fromIndex;
+    ++modCount;
+  }
+
+  @Override
+  public void clear()
+  {
+    _size = 0;
+    ++modCount;
+  }
+
+  @Override
+  public int size()
+  {
+    return _size;
+  }
+
+  final void checkIndex(int index)
+  {
+    if (index < 0 || index >= _size)
+    {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + _size);
+    }
+  }
+
+  final void ensureCapacity(int minCapacity)
+  {
+    final int capacity = capacity();
+    if (minCapacity > capacity)
+    {
+      resize(Math.max(minCapacity, capacity + (capacity >> 1) + 1));
+    }
+  }
+
+  static int initialCapacity(int initialCapacity)
+  {
+    if (initialCapacity < 0)
+    {
+      throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+    }
+    return initialCapacity;
+  }
+
+  static void checkSize(int size, int length)
+  {
+    if (size < 0 || size > length)
+    {
+      throw new IllegalArgumentException("Size " + size + " is not within the array of length " + length);
+    }
+  }
+
+  /**
+   * @return the element at the index, boxed.
+   */
+  abstract Object box(int index);
+
+  /**
+   * Store an element that is accepted by {@link #accepts(Object)} at the index.
+   */
+  abstract void store(int index, Object element);
+
+  abstract int capacity();
+
+  abstract void resize(int capacity);
+
+  /**
+   * Copy the length elements starting at the from index to the to index.
+   */
+  abstract void move(int from, int to, int length);
+
+  int _size;
+}
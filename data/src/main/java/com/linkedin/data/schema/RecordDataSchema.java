@@ -97,6 +97,10 @@ public final class RecordDataSchema extends NamedDataSchema
 
     /**
      * Set the name of the field.
+     * <p>
+     *
+     * The name is interned, so that record maps decoded with one instance of a schema
+     * find the field by identity when accessed with another instance of the same schema.
      *
      * @param name of the field.
      * @param errorMessageBuilder to append error message to.
@@ -110,7 +114,7 @@ public final class RecordDataSchema extends NamedDataSchema
         errorMessageBuilder.append("\"").append(name).append("\" is an invalid field name.\n");
         ok = false;
       }
-      _name = name;
+      _name = name.intern();
       _hasError |= !ok;
       return ok;
     }
@@ -17,6 +17,7 @@
 package com.linkedin.data.schema.resolver;
 
 
+import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.schema.DataSchemaLocation;
 import com.linkedin.data.schema.DataSchemaResolver;
@@ -34,6 +35,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -164,6 +166,27 @@ public abstract class AbstractDataSchemaResolver implements DataSchemaResolver
     _parserFactory = parserFactory;
   }
 
+  /**
+   * Set the cache of parsed schema files to use. Without a cache, which is the default, each
+   * schema file is read and parsed by every resolver that locates it.
+   *
+   * @param schemaFileCache to read parsed schema files from and add them to, or null to disable caching.
+   */
+  public void setSchemaFileCache(SchemaFileCache schemaFileCache)
+  {
+    _schemaFileCache = schemaFileCache;
+  }
+
+  /**
+   * Return the cache of parsed schema files.
+   *
+   * @return the cache of parsed schema files, or null if caching is disabled.
+   */
+  public SchemaFileCache getSchemaFileCache()
+  {
+    return _schemaFileCache;
+  }
+
   protected boolean isBadLocation(DataSchemaLocation location)
   {
     return _badLocations.contains(location);
@@ -241,6 +264,20 @@ public abstract class AbstractDataSchemaResolver implements DataSchemaResolver
       }
 
       //out.println("Location " + location);
+      if (_schemaFileCache != null)
+      {
+        final List<Object> cached = _schemaFileCache.get(location);
+        if (cached != null)
+        {
+          schema = parse(cached, location, name, errorMessageBuilder);
+          if (schema != null)
+          {
+            break;
+          }
+          continue;
+        }
+      }
+
       InputStream inputStream = null;
       try
       {
@@ -288,20 +325,64 @@ public abstract class AbstractDataSchemaResolver implements DataSchemaResolver
    */
   protected NamedDataSchema parse(InputStream inputStream, final DataSchemaLocation location, String name, StringBuilder errorMessageBuilder)
   {
-    NamedDataSchema schema = null;
     SchemaParser parser = _parserFactory.create(this);
     parser.setLocation(location);
     //out.println("start parsing " + location);
 
-    parser.parse(new FilterInputStream(inputStream)
+    final FilterInputStream filterInputStream = new FilterInputStream(inputStream)
     {
       @Override
       public String toString()
       {
         return location.toString();
       }
-    });
+    };
+    if (_schemaFileCache == null)
+    {
+      parser.parse(filterInputStream);
+    }
+    else
+    {
+      List<Object> objects;
+      try
+      {
+        objects = _jsonCodec.parse(filterInputStream, parser.errorMessageBuilder(), parser.dataLocationMap());
+        if (!parser.hasError())
+        {
+          _schemaFileCache.put(location, objects);
+        }
+      }
+      catch (IOException e)
+      {
+        parser.errorMessageBuilder().append(e).append("\n");
+        objects = Collections.emptyList();
+      }
+      parser.parse(objects);
+    }
+
+    return parseResult(parser, location, name, errorMessageBuilder);
+  }
+
+  /**
+   * Parse the JSON objects of a location looking for the specified name.
+   *
+   * @param objects to parse.
+   * @param location of the input source.
+   * @param name to locate.
+   * @param errorMessageBuilder to append error messages to.
+   * @return the {@link NamedDataSchema} is found in the objects, else return null.
+   */
+  protected NamedDataSchema parse(List<Object> objects, DataSchemaLocation location, String name, StringBuilder errorMessageBuilder)
+  {
+    SchemaParser parser = _parserFactory.create(this);
+    parser.setLocation(location);
+    parser.parse(objects);
+    return parseResult(parser, location, name, errorMessageBuilder);
+  }
 
+  private NamedDataSchema parseResult(SchemaParser parser, DataSchemaLocation location, String name, StringBuilder errorMessageBuilder)
+  {
+    NamedDataSchema schema = null;
     if (parser.hasError())
     {
       //out.println(parser.errorMessageBuilder().toString());
@@ -336,6 +417,8 @@ public abstract class AbstractDataSchemaResolver implements DataSchemaResolver
   private final SchemaParserFactory _parserFactory;
   private final Set<DataSchemaLocation> _badLocations = new HashSet<DataSchemaLocation>();
   private final Set<DataSchemaLocation> _resolvedLocations = new HashSet<DataSchemaLocation>();
+  private SchemaFileCache _schemaFileCache;
+  private final JacksonDataCodec _jsonCodec = new JacksonDataCodec();
 
   protected static final PrintStream out = new PrintStream(new FileOutputStream(FileDescriptor.out));
 }
\ No newline at end of file
@@ -193,6 +193,10 @@ public class FileDataSchemaResolver extends AbstractDataSchemaResolver
           JarFile jarFile = _pathToJarFile.get(path);
           if (jarFile == null)
           {
+            if (_pathToJarFile.containsKey(path))
+            {
+              return null;
+            }
             try
             {
               jarFile = new JarFile(path);
@@ -202,6 +206,8 @@ public class FileDataSchemaResolver extends AbstractDataSchemaResolver
               _pathToJarFile.put(path, null);
               return null;
             }
+            // reuse the jar, so that it is opened once and its locations compare equal across lookups
+            _pathToJarFile.put(path, jarFile);
           }
           StringBuilder builder = new StringBuilder();
           // within a JAR file, files are treated as resources. Thus, we should lookup using the resource separator
@@ -0,0 +1,259 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.schema.resolver;
+
+
+import com.linkedin.data.DataComplex;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.schema.DataSchemaLocation;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Thread-safe cache of the parsed JSON content of schema files, which may be shared by any number of
+ * {@link AbstractDataSchemaResolver}s, so that each file is read and tokenized once.
+ * <p>
+ *
+ * Entries are keyed by the location and validated against the last modified time and length of the
+ * location's source file, i.e. the schema file or the jar that contains it. Locations without a source
+ * file are not cached.
+ * <p>
+ *
+ * The cache may be saved to and loaded from a binary index file, so that other processes, such as the
+ * next build, can skip parsing the JSON of the schema files that have not changed.
+ */
+public class SchemaFileCache
+{
+  /**
+   * @return the cache shared by the whole process
+   */
+  public static SchemaFileCache getInstance()
+  {
+    return _instance;
+  }
+
+  /**
+   * Return the cached content of a location.
+   *
+   * @param location of the schema file
+   * @return copy of the parsed JSON objects of the location, or null if the location is not cached
+   *         or its source file has changed since
+   */
+  public List<Object> get(DataSchemaLocation location)
+  {
+    final File sourceFile = location.getSourceFile();
+    if (sourceFile == null)
+    {
+      return null;
+    }
+
+    final String key = location.toString();
+    final Entry entry = _entries.get(key);
+    if (entry == null)
+    {
+      return null;
+    }
+    if (entry._lastModified != sourceFile.lastModified() || entry._length != sourceFile.length())
+    {
+      _entries.remove(key, entry);
+      return null;
+    }
+
+    return copy(entry._objects);
+  }
+
+  /**
+   * Cache the content of a location.
+   *
+   * @param location of the schema file
+   * @param objects parsed JSON objects of the location, which are copied
+   */
+  public void put(DataSchemaLocation location, List<Object> objects)
+  {
+    final File sourceFile = location.getSourceFile();
+    if (sourceFile == null)
+    {
+      return;
+    }
+
+    final DataList copy = new DataList(copy(objects));
+    copy.makeReadOnly();
+    _entries.put(location.toString(), new Entry(sourceFile.lastModified(), sourceFile.length(), copy));
+  }
+
+  /**
+   * @return number of cached locations
+   */
+  public int size()
+  {
+    return _entries.size();
+  }
+
+  /**
+   * Remove all entries.
+   */
+  public void clear()
+  {
+    _entries.clear();
+  }
+
+  /**
+   * Add the entries of an index file previously written by {@link #save(File)}. Entries of files that
+   * have changed since are dropped on access.
+   *
+   * @param indexFile to load
+   * @return true if the index file exists and has been loaded
+   * @throws IOException if the index file cannot be read
+   */
+  public boolean load(File indexFile)
+      throws IOException
+  {
+    if (!indexFile.exists())
+    {
+      return false;
+    }
+
+    final DataMap index;
+    final InputStream in = new FileInputStream(indexFile);
+    try
+    {
+      index = CODEC.readMap(in);
+    }
+    finally
+    {
+      in.close();
+    }
+
+    if (!Integer.valueOf(VERSION).equals(index.get(VERSION_KEY)))
+    {
+      return false;
+    }
+
+    for (Map.Entry<String, Object> indexEntry : index.getDataMap(ENTRIES_KEY).entrySet())
+    {
+      final DataMap entry = (DataMap) indexEntry.getValue();
+      final DataList objects = entry.getDataList(OBJECTS_KEY);
+      objects.makeReadOnly();
+      _entries.putIfAbsent(indexEntry.getKey(), new Entry(entry.getLong(LAST_MODIFIED_KEY), entry.getLong(LENGTH_KEY), objects));
+    }
+    return true;
+  }
+
+  /**
+   * Write all entries to an index file. The file is replaced atomically where supported, so that
+   * concurrent processes never read a partially written index.
+   *
+   * @param indexFile to write
+   * @throws IOException if the index file cannot be written
+   */
+  public void save(File indexFile)
+      throws IOException
+  {
+    final DataMap entries = new DataMap();
+    for (Map.Entry<String, Entry> entry : _entries.entrySet())
+    {
+      final DataMap indexEntry = new DataMap();
+      indexEntry.put(LAST_MODIFIED_KEY, entry.getValue()._lastModified);
+      indexEntry.put(LENGTH_KEY, entry.getValue()._length);
+      indexEntry.put(OBJECTS_KEY, entry.getValue()._objects);
+      entries.put(entry.getKey(), indexEntry);
+    }
+    final DataMap index = new DataMap();
+    index.put(VERSION_KEY, VERSION);
+    index.put(ENTRIES_KEY, entries);
+
+    final File directory = indexFile.getAbsoluteFile().getParentFile();
+    if (!directory.exists() && !directory.mkdirs() && !directory.exists())
+    {
+      throw new IOException(directory + ": cannot create directory");
+    }
+    final File tempFile = File.createTempFile(indexFile.getName(), ".tmp", directory);
+    try
+    {
+      final OutputStream out = new FileOutputStream(tempFile);
+      try
+      {
+        CODEC.writeMap(index, out);
+      }
+      finally
+      {
+        out.close();
+      }
+      if (!tempFile.renameTo(indexFile) && !(indexFile.delete() && tempFile.renameTo(indexFile)))
+      {
+        throw new IOException(indexFile + ": cannot replace index file");
+      }
+    }
+    finally
+    {
+      tempFile.delete();
+    }
+  }
+
+  private static List<Object> copy(List<Object> objects)
+  {
+    final List<Object> copy = new ArrayList<Object>(objects.size());
+    try
+    {
+      for (Object object : objects)
+      {
+        copy.add(object instanceof DataComplex ? ((DataComplex) object).copy() : object);
+      }
+    }
+    catch (CloneNotSupportedException e)
+    {
+      throw new IllegalStateException(e);
+    }
+    return copy;
+  }
+
+  private static class Entry
+  {
+    private Entry(long lastModified, long length, DataList objects)
+    {
+      _lastModified = lastModified;
+      _length = length;
+      _objects = objects;
+    }
+
+    private final long _lastModified;
+    private final long _length;
+    private final DataList _objects;
+  }
+
+  private static final SchemaFileCache _instance = new SchemaFileCache();
+  private static final PsonDataCodec CODEC = new PsonDataCodec();
+  private static final int VERSION = 1;
+  private static final String VERSION_KEY = "version";
+  private static final String ENTRIES_KEY = "entries";
+  private static final String LAST_MODIFIED_KEY = "lastModified";
+  private static final String LENGTH_KEY = "length";
+  private static final String OBJECTS_KEY = "objects";
+
+  private final ConcurrentHashMap<String, Entry> _entries = new ConcurrentHashMap<String, Entry>();
+}
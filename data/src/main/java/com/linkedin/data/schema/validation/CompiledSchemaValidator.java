@@ -0,0 +1,404 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.schema.validation;
+
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.Null;
+import com.linkedin.data.collections.IdentityLruCache;
+import com.linkedin.data.schema.ArrayDataSchema;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.DataSchemaConstants;
+import com.linkedin.data.schema.EnumDataSchema;
+import com.linkedin.data.schema.FixedDataSchema;
+import com.linkedin.data.schema.MapDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.UnionDataSchema;
+
+
+/**
+ * A tree of checkers compiled once per {@link DataSchema} that determines, without allocating
+ * {@link com.linkedin.data.element.DataElement}s or {@link com.linkedin.data.message.Message} paths,
+ * whether a value is valid and needs no fix-up.
+ * <p>
+ *
+ * A checker only answers "valid and unchanged" or "don't know". When it cannot prove that
+ * {@link ValidateDataAgainstSchema} would report no messages and no fixes, the caller falls back
+ * to the full validation, which produces the messages with their paths. Typerefs are
+ * dereferenced at compile time and recursive schemas share the checker of the recursive type.
+ */
+final class CompiledSchemaValidator
+{
+  private static final int CACHE_SIZE = 1024;
+  private static final IdentityLruCache<DataSchema, Checker> _cache = new IdentityLruCache<DataSchema, Checker>(CACHE_SIZE);
+
+  private CompiledSchemaValidator()
+  {
+  }
+
+  /**
+   * Return whether the fast path may be used for the given options.
+   *
+   * Avro union mode and optional fields identified by path are not supported, because they depend
+   * on the position of values in the data rather than on the schema.
+   */
+  static boolean isApplicable(ValidationOptions options)
+  {
+    return !options.isAvroUnionMode() && options.getOptionalFields().isEmpty();
+  }
+
+  /**
+   * Return true if validating the value against the schema with the given options yields no messages
+   * and does not modify the value. A false return value does not imply the value is invalid.
+   */
+  static boolean isValidWithoutFix(Object value, DataSchema schema, ValidationOptions options)
+  {
+    return forSchema(schema).check(value, options);
+  }
+
+  /**
+   * Return the compiled checker of the schema, compiling it if it has not been cached.
+   */
+  static Checker forSchema(DataSchema schema)
+  {
+    Checker checker = _cache.get(schema);
+    if (checker == null)
+    {
+      checker = compile(schema, new IdentityHashMap<DataSchema, Checker>());
+      _cache.put(schema, checker);
+    }
+    return checker;
+  }
+
+  private static Checker compile(DataSchema schema, IdentityHashMap<DataSchema, Checker> compiled)
+  {
+    final DataSchema dereferenced = schema.getDereferencedDataSchema();
+    Checker checker = compiled.get(dereferenced);
+    if (checker != null)
+    {
+      return checker;
+    }
+
+    switch (dereferenced.getType())
+    {
+      case RECORD:
+        final RecordChecker recordChecker = new RecordChecker();
+        compiled.put(dereferenced, recordChecker);
+        recordChecker.init((RecordDataSchema) dereferenced, compiled);
+        checker = recordChecker;
+        break;
+      case ARRAY:
+        final ArrayChecker arrayChecker = new ArrayChecker();
+        compiled.put(dereferenced, arrayChecker);
+        arrayChecker._items = compile(((ArrayDataSchema) dereferenced).getItems(), compiled);
+        checker = arrayChecker;
+        break;
+      case MAP:
+        final MapChecker mapChecker = new MapChecker();
+        compiled.put(dereferenced, mapChecker);
+        mapChecker._values = compile(((MapDataSchema) dereferenced).getValues(), compiled);
+        checker = mapChecker;
+        break;
+      case UNION:
+        final UnionChecker unionChecker = new UnionChecker();
+        compiled.put(dereferenced, unionChecker);
+        unionChecker.init((UnionDataSchema) dereferenced, compiled);
+        checker = unionChecker;
+        break;
+      case ENUM:
+        checker = new EnumChecker((EnumDataSchema) dereferenced);
+        break;
+      case FIXED:
+        checker = new FixedChecker(((FixedDataSchema) dereferenced).getSize());
+        break;
+      case BYTES:
+        checker = new BytesChecker();
+        break;
+      case INT:
+        checker = new PrimitiveChecker(Integer.class);
+        break;
+      case LONG:
+        checker = new PrimitiveChecker(Long.class);
+        break;
+      case FLOAT:
+        checker = new PrimitiveChecker(Float.class);
+        break;
+      case DOUBLE:
+        checker = new PrimitiveChecker(Double.class);
+        break;
+      case STRING:
+        checker = new PrimitiveChecker(String.class);
+        break;
+      case BOOLEAN:
+        checker = new PrimitiveChecker(Boolean.class);
+        break;
+      case NULL:
+        checker = new PrimitiveChecker(Null.class);
+        break;
+      default:
+        checker = UNKNOWN_CHECKER;
+        break;
+    }
+    compiled.put(dereferenced, checker);
+    return checker;
+  }
+
+  abstract static class Checker
+  {
+    abstract boolean check(Object value, ValidationOptions options);
+  }
+
+  private static final Checker UNKNOWN_CHECKER = new Checker()
+  {
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      return false;
+    }
+  };
+
+  private static final class PrimitiveChecker extends Checker
+  {
+    private PrimitiveChecker(Class<?> primitiveClass)
+    {
+      _primitiveClass = primitiveClass;
+    }
+
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      // any other class is either an error or gets coerced
+      return value.getClass() == _primitiveClass;
+    }
+
+    private final Class<?> _primitiveClass;
+  }
+
+  private static final class BytesChecker extends Checker
+  {
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      final Class<?> clazz = value.getClass();
+      if (clazz == ByteString.class)
+      {
+        return true;
+      }
+      // strings are converted to ByteString unless coercion is off
+      return clazz == String.class && options.getCoercionMode() == CoercionMode.OFF && Data.validStringAsBytes((String) value);
+    }
+  }
+
+  private static final class FixedChecker extends Checker
+  {
+    private FixedChecker(int size)
+    {
+      _size = size;
+    }
+
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      final Class<?> clazz = value.getClass();
+      if (clazz == ByteString.class)
+      {
+        return ((ByteString) value).length() == _size;
+      }
+      if (clazz == String.class && options.getCoercionMode() == CoercionMode.OFF)
+      {
+        final String str = (String) value;
+        return str.length() == _size && Data.validStringAsBytes(str);
+      }
+      return false;
+    }
+
+    private final int _size;
+  }
+
+  private static final class EnumChecker extends Checker
+  {
+    private EnumChecker(EnumDataSchema schema)
+    {
+      _schema = schema;
+    }
+
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      return value.getClass() == String.class && _schema.contains((String) value);
+    }
+
+    private final EnumDataSchema _schema;
+  }
+
+  private static final class ArrayChecker extends Checker
+  {
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      if (value.getClass() != DataList.class)
+      {
+        return false;
+      }
+      final DataList list = (DataList) value;
+      for (int i = 0; i < list.size(); i++)
+      {
+        if (!_items.check(list.get(i), options))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private Checker _items;
+  }
+
+  private static final class MapChecker extends Checker
+  {
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      if (value.getClass() != DataMap.class)
+      {
+        return false;
+      }
+      for (Object childValue : ((DataMap) value).values())
+      {
+        if (!_values.check(childValue, options))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private Checker _values;
+  }
+
+  private static final class UnionChecker extends Checker
+  {
+    private void init(UnionDataSchema schema, IdentityHashMap<DataSchema, Checker> compiled)
+    {
+      _allowsNull = schema.getType(DataSchemaConstants.NULL_TYPE) != null;
+      final List<DataSchema> members = schema.getTypes();
+      _members = new HashMap<String, Checker>(members.size() * 2);
+      for (DataSchema member : members)
+      {
+        _members.put(member.getUnionMemberKey(), compile(member, compiled));
+      }
+    }
+
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      if (value == Data.NULL)
+      {
+        return _allowsNull;
+      }
+      if (value.getClass() != DataMap.class)
+      {
+        return false;
+      }
+      final DataMap map = (DataMap) value;
+      if (map.size() != 1)
+      {
+        return false;
+      }
+      final Map.Entry<String, Object> entry = map.entrySet().iterator().next();
+      final Checker member = _members.get(entry.getKey());
+      return member != null && member.check(entry.getValue(), options);
+    }
+
+    private boolean _allowsNull;
+    private Map<String, Checker> _members;
+  }
+
+  private static final class RecordChecker extends Checker
+  {
+    private void init(RecordDataSchema schema, IdentityHashMap<DataSchema, Checker> compiled)
+    {
+      final List<RecordDataSchema.Field> fields = schema.getFields();
+      _fields = new HashMap<String, Checker>(fields.size() * 2);
+      final List<RecordDataSchema.Field> required = new ArrayList<RecordDataSchema.Field>();
+      for (RecordDataSchema.Field field : fields)
+      {
+        _fields.put(field.getName(), compile(field.getType(), compiled));
+        if (!field.getOptional())
+        {
+          required.add(field);
+        }
+      }
+      _requiredNames = new String[required.size()];
+      _requiredHasDefault = new boolean[required.size()];
+      for (int i = 0; i < required.size(); i++)
+      {
+        _requiredNames[i] = required.get(i).getName();
+        _requiredHasDefault[i] = required.get(i).getDefault() != null;
+      }
+    }
+
+    @Override
+    boolean check(Object value, ValidationOptions options)
+    {
+      if (value.getClass() != DataMap.class)
+      {
+        return false;
+      }
+      final DataMap map = (DataMap) value;
+
+      final RequiredMode requiredMode = options.getRequiredMode();
+      if (requiredMode != RequiredMode.IGNORE)
+      {
+        for (int i = 0; i < _requiredNames.length; i++)
+        {
+          if (!map.containsKey(_requiredNames[i]))
+          {
+            // absent field is only accepted without fix-up if the mode allows absent fields with defaults
+            if (requiredMode != RequiredMode.CAN_BE_ABSENT_IF_HAS_DEFAULT || !_requiredHasDefault[i])
+            {
+              return false;
+            }
+          }
+        }
+      }
+
+      for (Map.Entry<String, Object> entry : map.entrySet())
+      {
+        final Checker field = _fields.get(entry.getKey());
+        if (field != null && !field.check(entry.getValue(), options))
+        {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private Map<String, Checker> _fields;
+    private String[] _requiredNames;
+    private boolean[] _requiredHasDefault;
+  }
+}
@@ -47,6 +47,7 @@ import com.linkedin.data.schema.MapDataSchema;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.schema.TyperefDataSchema;
 import com.linkedin.data.schema.UnionDataSchema;
+import com.linkedin.data.schema.validator.DataSchemaAnnotationValidator;
 import com.linkedin.data.schema.validator.Validator;
 import com.linkedin.data.schema.validator.ValidatorContext;
 import com.linkedin.data.template.DataTemplate;
@@ -110,10 +111,40 @@ public final class ValidateDataAgainstSchema
   public static ValidationResult validate(DataElement element, ValidationOptions options, Validator validator)
   {
     State state = new State(options, validator);
+    if (isNoOp(validator, element.getSchema()) && CompiledSchemaValidator.isApplicable(options))
+    {
+      // fast path, only fall back to the full traversal that builds messages if the data may be invalid or needs fixes
+      Object value = element.getValue();
+      DataSchema schema = element.getSchema();
+      if (value != null && schema != null && CompiledSchemaValidator.isValidWithoutFix(value, schema, options))
+      {
+        state._fixed = value;
+        return state;
+      }
+    }
     state.validate(element);
     return state;
   }
 
+  /**
+   * Return true if the validator adds no messages for data of the schema, so that the fast path applies.
+   * Subclasses of {@link DataSchemaAnnotationValidator} may override {@link Validator#validate}, so only the class
+   * itself qualifies.
+   */
+  private static boolean isNoOp(Validator validator, DataSchema schema)
+  {
+    if (validator == null)
+    {
+      return true;
+    }
+    if (validator.getClass() == DataSchemaAnnotationValidator.class)
+    {
+      final DataSchemaAnnotationValidator annotationValidator = (DataSchemaAnnotationValidator) validator;
+      return annotationValidator.getSchema() == schema && annotationValidator.isEmpty();
+    }
+    return false;
+  }
+
   private static class State implements ValidationResult
   {
     private boolean _recursive;
@@ -27,8 +27,10 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.linkedin.data.DataMap;
+import com.linkedin.data.collections.IdentityLruCache;
 import com.linkedin.data.element.DataElement;
 import com.linkedin.data.message.Message;
 import com.linkedin.data.message.MessageList;
@@ -164,6 +166,11 @@ import com.linkedin.data.schema.TyperefDataSchema;
  * {@link #validate(ValidatorContext)} method of this class. Typically, the caller will be
  * {@link com.linkedin.data.schema.validation.ValidateDataAgainstSchema}
  * and this caller performs a post-order traversal of data elements.
+ * <p>
+ *
+ * Instances initialized with the same {@link DataSchema} and without a key-to-class map
+ * share the {@link Validator} instances constructed for that schema, unless a subclass
+ * overrides how {@link Validator} classes are located.
  */
 public class DataSchemaAnnotationValidator implements Validator
 {
@@ -199,10 +206,33 @@ public class DataSchemaAnnotationValidator implements Validator
   private DataSchema _schema = DataSchemaConstants.NULL_DATA_SCHEMA;
   private Map<String, Class<? extends Validator>> _classMap = Collections.emptyMap();
   private Map<Object, List<Validator>> _cache = Collections.emptyMap();
+  private boolean _empty = true;
   private MessageList<Message> _initMessages = new MessageList<Message>();
 
   private static final List<Validator> NO_VALIDATORS = Collections.emptyList();
 
+  private static final int SHARED_CACHE_SIZE = 1024;
+  private static final IdentityLruCache<DataSchema, SharedValidators> _sharedValidators =
+    new IdentityLruCache<DataSchema, SharedValidators>(SHARED_CACHE_SIZE);
+  private static final ConcurrentHashMap<Class<?>, Boolean> _defaultLookupClasses = new ConcurrentHashMap<Class<?>, Boolean>();
+
+  /**
+   * {@link Validator}s built for a schema, shared by all instances initialized with the same schema.
+   */
+  private static class SharedValidators
+  {
+    private final Map<Object, List<Validator>> _cache;
+    private final boolean _empty;
+    private final List<Message> _initMessages;
+
+    private SharedValidators(Map<Object, List<Validator>> cache, boolean empty, List<Message> initMessages)
+    {
+      _cache = cache;
+      _empty = empty;
+      _initMessages = new ArrayList<Message>(initMessages);
+    }
+  }
+
   /**
    * Default constructor.
    */
@@ -274,10 +304,81 @@ public class DataSchemaAnnotationValidator implements Validator
     _initMessages.clear();
     _schema = schema;
     _classMap = classMap;
-    _cache = cacheValidators(_schema);
+    if (classMap.isEmpty() && usesDefaultValidatorLookup(getClass()))
+    {
+      // validators only depend on the schema, so reuse the ones built by other instances for the same schema
+      SharedValidators shared = _sharedValidators.get(schema);
+      if (shared == null)
+      {
+        _cache = cacheValidators(_schema);
+        _empty = hasNoValidators(_cache);
+        _sharedValidators.put(schema, new SharedValidators(_cache, _empty, _initMessages));
+      }
+      else
+      {
+        _cache = shared._cache;
+        _empty = shared._empty;
+        _initMessages.addAll(shared._initMessages);
+      }
+    }
+    else
+    {
+      _cache = cacheValidators(_schema);
+      _empty = hasNoValidators(_cache);
+    }
     return isInitOk();
   }
 
+  private static boolean hasNoValidators(Map<Object, List<Validator>> cache)
+  {
+    for (List<Validator> validatorList : cache.values())
+    {
+      if (validatorList != NO_VALIDATORS)
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Return whether the class locates {@link Validator} classes with the implementation of this class,
+   * i.e. it does not override {@link #locateValidatorClass(String, List, Object)} or
+   * {@link #validatorClassNamesForKey(String)}.
+   */
+  private static boolean usesDefaultValidatorLookup(Class<?> clazz)
+  {
+    Boolean result = _defaultLookupClasses.get(clazz);
+    if (result == null)
+    {
+      result = Boolean.TRUE;
+      for (Class<?> c = clazz; c != DataSchemaAnnotationValidator.class; c = c.getSuperclass())
+      {
+        if (declaresMethod(c, "locateValidatorClass", String.class, List.class, Object.class) ||
+            declaresMethod(c, "validatorClassNamesForKey", String.class))
+        {
+          result = Boolean.FALSE;
+          break;
+        }
+      }
+      _defaultLookupClasses.put(clazz, result);
+    }
+    return result;
+  }
+
+  private static boolean declaresMethod(Class<?> clazz, String name, Class<?>... parameterTypes)
+  {
+    try
+    {
+      clazz.getDeclaredMethod(name, parameterTypes);
+      return true;
+    }
+    catch (NoSuchMethodException e)
+    {
+      return false;
+    }
+  }
+
   /**
    * Return whether initialization is successful.
    *
@@ -288,6 +389,27 @@ public class DataSchemaAnnotationValidator implements Validator
     return _initMessages.isError() == false;
   }
 
+  /**
+   * Return the {@link DataSchema} this validator was initialized with.
+   *
+   * @return the {@link DataSchema} this validator was initialized with.
+   */
+  public DataSchema getSchema()
+  {
+    return _schema;
+  }
+
+  /**
+   * Return whether neither the schema nor the schemas and fields it references declare validators,
+   * i.e. {@link #validate(ValidatorContext)} adds no messages for data of the schema.
+   *
+   * @return true if there are no validators and initialization is successful.
+   */
+  public boolean isEmpty()
+  {
+    return _empty && isInitOk() && !_debugMode;
+  }
+
   /**
    * Return {@link Message}s providing more detailed information regarding initialization.
    *
@@ -44,11 +44,27 @@ public final class BooleanArray extends DirectArrayTemplate<Boolean>
     addAll(c);
   }
 
+  public BooleanArray(boolean[] values)
+  {
+    this(DataList.fromBooleans(values.clone(), values.length));
+  }
+
   public BooleanArray(DataList list)
   {
     super(list, SCHEMA, Boolean.class, Boolean.class);
   }
 
+  /**
+   * Returns the element at the specified position without boxing it if the underlying {@link DataList} holds booleans.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   */
+  public boolean getBoolean(int index)
+  {
+    return _list.getBoolean(index);
+  }
+
   @Override
   public BooleanArray clone() throws CloneNotSupportedException
   {
@@ -44,11 +44,36 @@ public final class DoubleArray extends DirectArrayTemplate<Double>
     addAll(c);
   }
 
+  public DoubleArray(double[] values)
+  {
+    this(DataList.fromDoubles(values.clone(), values.length));
+  }
+
   public DoubleArray(DataList list)
   {
     super(list, SCHEMA, Double.class, Double.class);
   }
 
+  /**
+   * Returns the element at the specified position without boxing it if the underlying {@link DataList} holds doubles.
+   * Other elements are coerced like {@link #get(int)} does.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   */
+  public double getDouble(int index)
+  {
+    try
+    {
+      return _list.getDouble(index);
+    }
+    catch (ClassCastException e)
+    {
+      // the element is not a Double, coerce it like get() does
+      return get(index);
+    }
+  }
+
   @Override
   public DoubleArray clone() throws CloneNotSupportedException
   {
@@ -44,11 +44,36 @@ public final class FloatArray extends DirectArrayTemplate<Float>
     addAll(c);
   }
 
+  public FloatArray(float[] values)
+  {
+    this(DataList.fromFloats(values.clone(), values.length));
+  }
+
   public FloatArray(DataList list)
   {
     super(list, SCHEMA, Float.class, Float.class);
   }
 
+  /**
+   * Returns the element at the specified position without boxing it if the underlying {@link DataList} holds floats.
+   * Other elements are coerced like {@link #get(int)} does.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   */
+  public float getFloat(int index)
+  {
+    try
+    {
+      return _list.getFloat(index);
+    }
+    catch (ClassCastException e)
+    {
+      // the element is not a Float, coerce it like get() does
+      return get(index);
+    }
+  }
+
   @Override
   public FloatArray clone() throws CloneNotSupportedException
   {
@@ -44,11 +44,36 @@ public final class IntegerArray extends DirectArrayTemplate<Integer>
     addAll(c);
   }
 
+  public IntegerArray(int[] values)
+  {
+    this(DataList.fromInts(values.clone(), values.length));
+  }
+
   public IntegerArray(DataList list)
   {
     super(list, SCHEMA, Integer.class, Integer.class);
   }
 
+  /**
+   * Returns the element at the specified position without boxing it if the underlying {@link DataList} holds ints.
+   * Other elements are coerced like {@link #get(int)} does.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   */
+  public int getInt(int index)
+  {
+    try
+    {
+      return _list.getInt(index);
+    }
+    catch (ClassCastException e)
+    {
+      // the element is not an Integer, coerce it like get() does
+      return get(index);
+    }
+  }
+
   @Override
   public IntegerArray clone() throws CloneNotSupportedException
   {
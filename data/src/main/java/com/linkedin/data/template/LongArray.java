@@ -44,11 +44,36 @@ public final class LongArray extends DirectArrayTemplate<Long>
     addAll(c);
   }
 
+  public LongArray(long[] values)
+  {
+    this(DataList.fromLongs(values.clone(), values.length));
+  }
+
   public LongArray(DataList list)
   {
     super(list, SCHEMA, Long.class, Long.class);
   }
 
+  /**
+   * Returns the element at the specified position without boxing it if the underlying {@link DataList} holds longs.
+   * Other elements are coerced like {@link #get(int)} does.
+   *
+   * @param index of the element to return.
+   * @return the element at the specified position.
+   */
+  public long getLong(int index)
+  {
+    try
+    {
+      return _list.getLong(index);
+    }
+    catch (ClassCastException e)
+    {
+      // the element is not a Long, coerce it like get() does
+      return get(index);
+    }
+  }
+
   @Override
   public LongArray clone() throws CloneNotSupportedException
   {
@@ -23,6 +23,7 @@ import com.linkedin.data.codec.DataCodec;
 import com.linkedin.data.codec.DataDecodingException;
 import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.codec.SchemaBinaryDataCodec;
 import com.linkedin.data.codec.TextDataCodec;
 import com.linkedin.data.collections.CheckedMap;
 import org.testng.annotations.BeforeTest;
@@ -576,6 +577,43 @@ public class TestData
     assertTrue(map4.entrySet().containsAll(referenceMap1.entrySet()));
     assertTrue(map4.equals(referenceMap1));
     testDataMapChecker(map4);
+
+    DataMap map5 = DataMap.compact(3);
+    assertTrue(map5.isEmpty());
+    testDataMapChecker(map5);
+    map5.putAll(referenceMap1);
+    assertTrue(map5.equals(referenceMap1));
+    assertTrue(referenceMap1.equals(map5));
+    assertEquals(map5.hashCode(), referenceMap1.hashCode());
+  }
+
+  @Test
+  public void testCompactDataMapCopy() throws CloneNotSupportedException
+  {
+    DataMap inner = DataMap.compact(2);
+    inner.put("a", 1);
+    inner.put("b", "b");
+    DataMap outer = DataMap.compact(2);
+    outer.put("inner", inner);
+    outer.put("c", 2L);
+
+    DataMap clone = outer.clone();
+    clone.put("d", 3.0);
+    assertFalse(outer.containsKey("d"));
+    assertSame(clone.getDataMap("inner"), inner);
+
+    DataMap copy = outer.copy();
+    assertEquals(copy, outer);
+    assertNotSame(copy.getDataMap("inner"), inner);
+    copy.getDataMap("inner").put("a", 10);
+    assertEquals(inner.getInteger("a"), Integer.valueOf(1));
+
+    outer.makeReadOnly();
+    assertTrue(inner.isMadeReadOnly());
+    DataMap readOnlyClone = outer.clone();
+    assertFalse(readOnlyClone.isReadOnly());
+    readOnlyClone.remove("c");
+    assertTrue(outer.containsKey("c"));
   }
 
   public void testDataMapAccessor(String key, Object value)
@@ -1495,6 +1533,20 @@ public class TestData
     testCodecNumbers(codec);
   }
 
+  @Test
+  public void testSchemaBinaryDataCodec() throws IOException
+  {
+    SchemaBinaryDataCodec codec = new SchemaBinaryDataCodec();
+    testDataCodec(codec);
+  }
+
+  @Test
+  public void testSchemaBinaryCodecNumbers() throws IOException
+  {
+    SchemaBinaryDataCodec codec = new SchemaBinaryDataCodec();
+    testCodecNumbers(codec);
+  }
+
   @Test
   public void testObjectIsAcyclic()
   {
@@ -2225,6 +2277,120 @@ public class TestData
     assertEquals(instrumentedData.get("prefix.int").get("value"), "123");
   }
 
+  @Test
+  public void testLoopDetectionOfContainedObjects() throws IOException, CloneNotSupportedException
+  {
+    // built bottom up, the parents are not contained when their values are added
+    DataMap c = new DataMap();
+    DataList b = new DataList();
+    b.add(c);
+    DataMap a = new DataMap();
+    a.put("b", b);
+    assertLoop(c, a);
+    assertLoop(c, b);
+    assertLoop(b, a);
+    assertLoop(c, c);
+
+    // built top down, the values are empty when they are added
+    DataMap root = new DataMap();
+    DataMap child = new DataMap();
+    root.put("child", child);
+    DataList grandchild = new DataList();
+    child.put("grandchild", grandchild);
+    assertLoop(grandchild, root);
+    assertLoop(child, root);
+
+    // a shared value is not a loop
+    DataMap shared = new DataMap();
+    root.put("shared", shared);
+    child.put("shared", shared);
+    grandchild.add(shared);
+    assertTrue(Data.objectIsAcyclic(root));
+
+    // values added by codecs and copies are contained too
+    JacksonDataCodec codec = new JacksonDataCodec();
+    byte[] bytes = codec.mapToBytes(root);
+    for (DataMap decoded : Arrays.asList(codec.bytesToMap(bytes), codec.readLazyMap(ByteString.copy(bytes)), root.copy()))
+    {
+      DataMap decodedChild = decoded.getDataMap("child");
+      assertLoop(decodedChild, decoded);
+      assertLoop(decodedChild.getDataList("grandchild"), decoded);
+      assertLoop(decodedChild.getDataMap("shared"), decodedChild);
+    }
+    for (DataMap decoded : Arrays.asList(new BsonDataCodec().bytesToMap(new BsonDataCodec().mapToBytes(root)),
+                                         new PsonDataCodec().bytesToMap(new PsonDataCodec().mapToBytes(root))))
+    {
+      assertLoop(decoded.getDataMap("child").getDataList("grandchild"), decoded);
+    }
+  }
+
+  private static void assertLoop(DataComplex parent, DataComplex value)
+  {
+    try
+    {
+      if (parent instanceof DataMap)
+      {
+        ((DataMap) parent).put("loop", value);
+      }
+      else
+      {
+        ((DataList) parent).add(value);
+      }
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e)
+    {
+    }
+  }
+
+  /**
+   * Builds records nested depth deep, the way templates do, both bottom up and top down.
+   */
+  public void benchmarkBuildNested(int count, int depth)
+  {
+    long startTime = System.nanoTime();
+    for (int i = 0; i < count; ++i)
+    {
+      DataMap map = new DataMap();
+      map.put("value", i);
+      for (int j = 0; j < depth; ++j)
+      {
+        DataMap parent = new DataMap();
+        parent.put("value", j);
+        parent.put("child", map);
+        map = parent;
+      }
+    }
+    long bottomUp = System.nanoTime() - startTime;
+
+    startTime = System.nanoTime();
+    for (int i = 0; i < count; ++i)
+    {
+      DataMap map = new DataMap();
+      for (int j = 0; j < depth; ++j)
+      {
+        DataMap child = new DataMap();
+        map.put("child", child);
+        child.put("value", j);
+        map = child;
+      }
+    }
+    long topDown = System.nanoTime() - startTime;
+
+    out.println("Nested build benchmark, depth " + depth + ": bottom up " + bottomUp / ((long) count * depth) +
+                    " ns/level, top down " + topDown / ((long) count * depth) + " ns/level");
+  }
+
+  //@Test
+  public void benchmark()
+  {
+    for (int i = 0; i < 5; ++i)
+    {
+      benchmarkBuildNested(10000, 10);
+      benchmarkBuildNested(100, 1000);
+    }
+  }
+
   private void timePerfTest(int count, Callable<?> func)
   {
     System.gc();
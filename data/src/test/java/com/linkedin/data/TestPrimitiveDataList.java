@@ -0,0 +1,272 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data;
+
+
+import com.linkedin.data.codec.JacksonDataCodec;
+import com.linkedin.data.collections.DoubleListStorage;
+import com.linkedin.data.collections.IntListStorage;
+import com.linkedin.data.collections.PrimitiveListStorage;
+import com.linkedin.data.template.BooleanArray;
+import com.linkedin.data.template.DoubleArray;
+import com.linkedin.data.template.FloatArray;
+import com.linkedin.data.template.IntegerArray;
+import com.linkedin.data.template.LongArray;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestPrimitiveDataList
+{
+  @Test
+  public void testFactories()
+  {
+    assertEquals(DataList.fromInts(new int[] { 1, 2, 3, 0 }, 3), new DataList(Arrays.asList(1, 2, 3)));
+    assertEquals(DataList.fromLongs(new long[] { 1L, 2L }, 2), new DataList(Arrays.asList(1L, 2L)));
+    assertEquals(DataList.fromFloats(new float[] { 1.5f }, 1), new DataList(Arrays.asList(1.5f)));
+    assertEquals(DataList.fromDoubles(new double[] { 1.5, 2.5 }, 2), new DataList(Arrays.asList(1.5, 2.5)));
+    assertEquals(DataList.fromBooleans(new boolean[] { true, false }, 2), new DataList(Arrays.asList(true, false)));
+
+    assertEquals(DataList.fromInts(new int[] { 1, 2 }, 2).hashCode(), new DataList(Arrays.asList(1, 2)).hashCode());
+    // values of different types are not equal
+    assertNotEquals(DataList.fromInts(new int[] { 1 }, 1), DataList.fromLongs(new long[] { 1L }, 1));
+
+    try
+    {
+      DataList.fromInts(new int[2], 3);
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testMutationsAgainstReference()
+  {
+    final DataList list = DataList.fromInts(new int[0], 0);
+    final List<Object> reference = new ArrayList<Object>();
+    for (int i = 0; i < 100; ++i)
+    {
+      list.add(i);
+      reference.add(i);
+    }
+    list.add(0, -1);
+    reference.add(0, -1);
+    list.add(50, -2);
+    reference.add(50, -2);
+    assertEquals(list.remove(10), reference.remove(10));
+    assertEquals(list.set(20, 200), reference.set(20, 200));
+    list.subList(30, 40).clear();
+    reference.subList(30, 40).clear();
+    list.addAll(5, Arrays.asList(7, 8, 9));
+    reference.addAll(5, Arrays.asList(7, 8, 9));
+
+    assertEquals(list, reference);
+    assertTrue(list.getUnderlying() instanceof IntListStorage);
+    for (int i = 0; i < reference.size(); ++i)
+    {
+      assertEquals(list.getInt(i), ((Integer) reference.get(i)).intValue());
+      assertEquals(list.indexOf(reference.get(i)), reference.indexOf(reference.get(i)));
+    }
+
+    list.clear();
+    assertTrue(list.isEmpty());
+  }
+
+  @Test
+  public void testValueOfOtherType()
+  {
+    final DataList list = DataList.fromInts(new int[] { 1, 2, 3 }, 3);
+    list.add("four");
+    assertFalse(list.getUnderlying() instanceof PrimitiveListStorage);
+    assertEquals(list, new DataList(Arrays.asList(1, 2, 3, "four")));
+    assertEquals(list.getInt(2), 3);
+
+    final DataList longs = DataList.fromInts(new int[] { 1, 2 }, 2);
+    longs.set(1, 5000000000L);
+    assertEquals(longs, new DataList(Arrays.asList(1, 5000000000L)));
+    assertEquals(longs.getLong(1), 5000000000L);
+
+    final DataList all = DataList.fromDoubles(new double[] { 1.5 }, 1);
+    all.addAll(Arrays.asList(2.5, new DataMap()));
+    assertEquals(all.size(), 3);
+    assertEquals(all.getDouble(1), 2.5);
+    assertEquals(all.getDataMap(2), new DataMap());
+
+    try
+    {
+      DataList.fromInts(new int[0], 0).add(new Object());
+      fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e)
+    {
+      // the checker of DataList is still applied
+    }
+  }
+
+  @Test
+  public void testAccessors()
+  {
+    final DataList ints = DataList.fromInts(new int[] { 3 }, 1);
+    assertEquals(ints.getInt(0), 3);
+    assertEquals(DataList.fromLongs(new long[] { 3L }, 1).getLong(0), 3L);
+    assertEquals(DataList.fromFloats(new float[] { 3f }, 1).getFloat(0), 3f);
+    assertEquals(DataList.fromDoubles(new double[] { 3.0 }, 1).getDouble(0), 3.0);
+
+    final DataList boxed = new DataList(Arrays.asList(4, 5L, 2.5f, 3.5, true));
+    assertEquals(boxed.getInt(0), 4);
+    assertEquals(boxed.getLong(1), 5L);
+    assertEquals(boxed.getFloat(2), 2.5f);
+    assertEquals(boxed.getDouble(3), 3.5);
+    assertTrue(boxed.getBoolean(4));
+    assertTrue(DataList.fromBooleans(new boolean[] { true }, 1).getBoolean(0));
+
+    try
+    {
+      ints.getInt(1);
+      fail("Expected IndexOutOfBoundsException");
+    }
+    catch (IndexOutOfBoundsException e)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testAccessorsOfOtherType()
+  {
+    // like the getters of DataMap, the getters do not convert elements of another type
+    final DataList longs = DataList.fromLongs(new long[] { 5000000000L }, 1);
+    final DataList doubles = new DataList(Arrays.asList(1.5, 2.5f));
+    final DataList ints = DataList.fromInts(new int[] { 3 }, 1);
+    final Runnable[] reads = {
+      new Runnable() { public void run() { longs.getInt(0); } },
+      new Runnable() { public void run() { doubles.getInt(0); } },
+      new Runnable() { public void run() { doubles.getLong(0); } },
+      new Runnable() { public void run() { doubles.getFloat(0); } },
+      new Runnable() { public void run() { doubles.getDouble(1); } },
+      new Runnable() { public void run() { ints.getLong(0); } },
+      new Runnable() { public void run() { ints.getDouble(0); } }
+    };
+    for (int i = 0; i < reads.length; ++i)
+    {
+      try
+      {
+        reads[i].run();
+        fail("Expected ClassCastException for read " + i);
+      }
+      catch (ClassCastException e)
+      {
+        // expected
+      }
+    }
+
+    // the array templates coerce like their get() does
+    assertEquals(new LongArray(DataList.fromInts(new int[] { 3 }, 1)).getLong(0), 3L);
+    assertEquals(new IntegerArray(new DataList(Arrays.asList(4L))).getInt(0), 4);
+    assertEquals(new DoubleArray(new DataList(Arrays.asList(1))).getDouble(0), 1.0);
+  }
+
+  @Test
+  public void testCloneAndReadOnly() throws CloneNotSupportedException
+  {
+    final DataList list = DataList.fromLongs(new long[] { 1L, 2L }, 2);
+    final DataList clone = list.clone();
+    clone.add(3L);
+    assertEquals(list.size(), 2);
+    assertEquals(clone.size(), 3);
+    assertEquals(list.copy(), list);
+
+    list.makeReadOnly();
+    assertTrue(list.isReadOnly());
+    try
+    {
+      list.add(4L);
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+      // expected
+    }
+  }
+
+  @Test
+  public void testJacksonCodec() throws IOException
+  {
+    final JacksonDataCodec codec = new JacksonDataCodec();
+
+    final DataMap map = codec.stringToMap("{ \"ints\" : [ 1, 2, 3 ], \"doubles\" : [ 1.5, -2.0 ], \"mixed\" : [ 1, 2.5, \"x\" ], \"empty\" : [ ] }");
+    assertTrue(map.getDataList("ints").getUnderlying() instanceof IntListStorage);
+    assertTrue(map.getDataList("doubles").getUnderlying() instanceof DoubleListStorage);
+    assertFalse(map.getDataList("mixed").getUnderlying() instanceof PrimitiveListStorage);
+    assertEquals(map.getDataList("ints"), new DataList(Arrays.asList(1, 2, 3)));
+    assertEquals(map.getDataList("doubles"), new DataList(Arrays.asList(1.5, -2.0)));
+    assertEquals(map.getDataList("mixed"), new DataList(Arrays.asList(1, 2.5, "x")));
+    assertTrue(map.getDataList("empty").isEmpty());
+
+    final StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < 1000; ++i)
+    {
+      json.append(i).append(',');
+    }
+    json.append("5000000000]");
+    final DataList large = codec.stringToList(json.toString());
+    assertEquals(large.size(), 1001);
+    assertEquals(large.getInt(999), 999);
+    assertEquals(large.get(1000), 5000000000L);
+
+    assertEquals(codec.stringToMap(codec.mapToString(map)), map);
+  }
+
+  @Test
+  public void testArrayTemplates()
+  {
+    final IntegerArray integers = new IntegerArray(new int[] { 1, 2 });
+    integers.add(3);
+    assertEquals(integers.getInt(2), 3);
+    assertEquals(integers, new IntegerArray(Arrays.asList(1, 2, 3)));
+    assertTrue(integers.data().getUnderlying() instanceof IntListStorage);
+
+    final int[] values = { 1, 2 };
+    final IntegerArray copied = new IntegerArray(values);
+    values[0] = 10;
+    assertEquals(copied.getInt(0), 1);
+
+    assertEquals(new LongArray(new long[] { 5000000000L }).getLong(0), 5000000000L);
+    assertEquals(new FloatArray(new float[] { 1.5f }).getFloat(0), 1.5f);
+    assertEquals(new DoubleArray(new double[] { 2.5 }).getDouble(0), 2.5);
+    assertTrue(new BooleanArray(new boolean[] { true }).getBoolean(0));
+
+    // templates over data that was not created with primitive storage
+    final LongArray longs = new LongArray(new DataList(Arrays.asList(1, 2L)));
+    assertEquals(longs.getLong(0), 1L);
+    assertEquals(longs.getLong(1), 2L);
+    assertSame(longs.data().getClass(), DataList.class);
+  }
+}
@@ -0,0 +1,207 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+
+public class TestLazyJacksonCodec
+{
+  private static final String JSON =
+      "{\"id\":42,\"name\":\"caf\\u00e9 \\\"quoted\\\" ü\",\"active\":true,\"none\":null,\"big\":9000000000,\"ratio\":0.5," +
+      "\"ints\":[1,2,3],\"doubles\":[1.5,2.5],\"mixed\":[1,\"a\",{\"x\":[{\"y\":1}]},[2,[3]]]," +
+      "\"nested\":{\"inner\":{\"deep\":{\"value\":\"v\"}},\"list\":[],\"empty\":{}},\"tail\":\"t\"}";
+
+  private final JacksonDataCodec _codec = new JacksonDataCodec();
+
+  @Test
+  public void testEqualsEagerDecoding() throws IOException
+  {
+    final byte[] bytes = JSON.getBytes(Data.UTF_8_CHARSET);
+    final DataMap lazy = _codec.readLazyMap(ByteString.copy(bytes));
+    final DataMap eager = _codec.bytesToMap(bytes);
+
+    assertNotNull(lazy.getLazyStorage());
+    assertEquals(lazy, eager);
+    assertEquals(eager, lazy);
+    assertEquals(lazy.hashCode(), eager.hashCode());
+    assertEquals(lazy.getDataList("ints").getInt(0), 1);
+    assertEquals(lazy.getDataMap("nested").getDataMap("inner").getDataMap("deep").getString("value"), "v");
+  }
+
+  @Test
+  public void testPassThroughCopiesInput() throws IOException
+  {
+    final byte[] bytes = JSON.getBytes(Data.UTF_8_CHARSET);
+    final DataMap lazy = _codec.readLazyMap(ByteString.copy(bytes));
+    assertEquals(lazy.getInteger("id"), Integer.valueOf(42));
+
+    // scalars are decoded with the top level, so reading them keeps the map pristine
+    assertTrue(lazy.getLazyStorage().isPristine());
+    assertEquals(_codec.mapToString(lazy), JSON);
+  }
+
+  @Test
+  public void testSliceOfInput() throws IOException
+  {
+    // nested values are decoded from the input in place, so they must be found relative to its offset
+    final ByteString input = ByteString.copyString("[ " + JSON + " ]", Data.UTF_8_CHARSET).slice(2, JSON.getBytes(Data.UTF_8_CHARSET).length);
+    final DataMap lazy = _codec.readLazyMap(input);
+    final DataMap eager = _codec.readMap(input.asInputStream());
+
+    assertEquals(_codec.mapToString(lazy), JSON);
+    assertEquals(lazy.getDataMap("nested").getDataMap("inner").getDataMap("deep").getString("value"), "v");
+    assertEquals(lazy, eager);
+  }
+
+  @Test
+  public void testSparseAccessAndModification() throws IOException
+  {
+    final byte[] bytes = JSON.getBytes(Data.UTF_8_CHARSET);
+    final DataMap lazy = _codec.readLazyMap(ByteString.copy(bytes));
+    final DataMap eager = _codec.bytesToMap(bytes);
+
+    final DataMap nested = lazy.getDataMap("nested");
+    assertFalse(lazy.getLazyStorage().isPristine());
+    assertTrue(nested.getLazyStorage().isPristine());
+    assertEquals(_codec.bytesToMap(_codec.mapToBytes(lazy)), eager);
+
+    nested.getDataMap("inner").getDataMap("deep").put("value", "changed");
+    lazy.put("added", new DataList());
+    lazy.remove("tail");
+    eager.getDataMap("nested").getDataMap("inner").getDataMap("deep").put("value", "changed");
+    eager.put("added", new DataList());
+    eager.remove("tail");
+
+    assertEquals(lazy, eager);
+    assertEquals(_codec.bytesToMap(_codec.mapToBytes(lazy)), eager);
+    assertEquals(_codec.bytesToMap(new PrettyPrinterJacksonDataCodec().mapToBytes(lazy)), eager);
+  }
+
+  @Test
+  public void testCloneAndCopy() throws IOException, CloneNotSupportedException
+  {
+    final DataMap lazy = _codec.readLazyMap(ByteString.copyString(JSON, Data.UTF_8_CHARSET));
+
+    final DataMap clone = lazy.clone();
+    assertSame(clone.getDataMap("nested"), lazy.getDataMap("nested"));
+
+    final DataMap copy = lazy.copy();
+    assertEquals(copy, lazy);
+    assertNotSame(copy.getDataMap("nested"), lazy.getDataMap("nested"));
+    assertNotSame(copy.getDataList("mixed"), lazy.getDataList("mixed"));
+
+    copy.getDataMap("nested").put("inner", "replaced");
+    assertEquals(lazy.getDataMap("nested").getDataMap("inner").size(), 1);
+  }
+
+  @Test
+  public void testReadOnly() throws IOException
+  {
+    final DataMap lazy = _codec.readLazyMap(ByteString.copyString(JSON, Data.UTF_8_CHARSET));
+    final DataMap nested = lazy.getDataMap("nested");
+    lazy.makeReadOnly();
+
+    assertTrue(nested.isReadOnly());
+    assertTrue(lazy.getDataList("mixed").isReadOnly());
+    assertTrue(lazy.getDataList("mixed").getDataMap(2).getDataList("x").getDataMap(0).isReadOnly());
+    assertTrue(nested.getDataMap("inner").getDataMap("deep").isReadOnly());
+  }
+
+  @Test
+  public void testConcurrentDecoding() throws Exception
+  {
+    final DataMap lazy = _codec.readLazyMap(ByteString.copyString(JSON, Data.UTF_8_CHARSET));
+    lazy.makeReadOnly();
+
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    try
+    {
+      final List<Future<Object>> futures = new ArrayList<Future<Object>>();
+      for (int i = 0; i < 8; i++)
+      {
+        futures.add(executor.submit(new Callable<Object>()
+        {
+          @Override
+          public Object call()
+          {
+            return lazy.getDataMap("nested").getDataMap("inner");
+          }
+        }));
+      }
+      final Object first = futures.get(0).get();
+      for (Future<Object> future : futures)
+      {
+        assertSame(future.get(), first);
+      }
+    }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testErrors() throws IOException
+  {
+    // duplicate keys are reported on the map that contains them
+    final DataMap duplicates = _codec.readLazyMap(ByteString.copyString("{\"a\":1,\"a\":2,\"m\":{\"b\":1,\"b\":2}}", Data.UTF_8_CHARSET));
+    assertEquals(duplicates.getInteger("a"), Integer.valueOf(2));
+    assertNotNull(duplicates.getError());
+    assertEquals(duplicates.getDataMap("m").getInteger("b"), Integer.valueOf(2));
+    assertNotNull(duplicates.getDataMap("m").getError());
+
+    // numbers that do not fit in a long fall back to eager decoding
+    final byte[] bigInteger = "{\"m\":{\"big\":123456789012345678901234567890,\"small\":1234567890123456789}}".getBytes(Data.UTF_8_CHARSET);
+    final DataMap fallback = _codec.readLazyMap(ByteString.copy(bigInteger));
+    assertNull(fallback.getLazyStorage());
+    assertNotNull(fallback.getError());
+    assertEquals(fallback.getDataMap("m").getLong("small"), Long.valueOf(1234567890123456789L));
+
+    // so does input with comments, which would otherwise be copied to the output
+    final byte[] comments = "{\"url\":\"http://x/y\",\"m\":{/* comment */\"a\":1}}".getBytes(Data.UTF_8_CHARSET);
+    assertNull(_codec.readLazyMap(ByteString.copy(comments)).getLazyStorage());
+    assertNotNull(_codec.readLazyMap(ByteString.copyString("{\"url\":\"http://x/\\\"y\",\"m\":{\"a\":1}}", Data.UTF_8_CHARSET)).getLazyStorage());
+  }
+
+  @Test(expectedExceptions = IOException.class)
+  public void testInvalidInput() throws IOException
+  {
+    _codec.readLazyMap(ByteString.copyString("{\"a\":{\"b\":[1,2}}", Data.UTF_8_CHARSET));
+  }
+}
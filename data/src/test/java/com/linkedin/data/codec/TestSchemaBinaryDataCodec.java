@@ -0,0 +1,229 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.codec;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.TestUtil;
+import com.linkedin.data.schema.RecordDataSchema;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestSchemaBinaryDataCodec
+{
+  private static final String SCHEMA =
+    "{\n" +
+    "  \"type\" : \"record\",\n" +
+    "  \"name\" : \"Greeting\",\n" +
+    "  \"namespace\" : \"com.linkedin.data.codec.test\",\n" +
+    "  \"fields\" : [\n" +
+    "    { \"name\" : \"id\", \"type\" : \"long\" },\n" +
+    "    { \"name\" : \"message\", \"type\" : \"string\" },\n" +
+    "    { \"name\" : \"tone\", \"type\" : { \"type\" : \"enum\", \"name\" : \"Tone\", \"symbols\" : [ \"FRIENDLY\", \"SINCERE\", \"INSULTING\" ] } },\n" +
+    "    { \"name\" : \"tones\", \"type\" : { \"type\" : \"array\", \"items\" : \"Tone\" }, \"optional\" : true },\n" +
+    "    { \"name\" : \"senders\", \"type\" : { \"type\" : \"map\", \"values\" : { \"type\" : \"record\", \"name\" : \"Sender\", \"fields\" : [ { \"name\" : \"name\", \"type\" : \"string\" } ] } }, \"optional\" : true },\n" +
+    "    { \"name\" : \"union\", \"type\" : [ \"int\", \"Sender\", \"Tone\" ], \"optional\" : true },\n" +
+    "    { \"name\" : \"data\", \"type\" : \"bytes\", \"optional\" : true }\n" +
+    "  ]\n" +
+    "}";
+
+  private static final String GREETING =
+    "{ \"id\" : 12345, \"message\" : \"Hello \\u00e9\", \"tone\" : \"SINCERE\", \"tones\" : [ \"FRIENDLY\", \"INSULTING\" ], " +
+    "\"senders\" : { \"a\" : { \"name\" : \"x\" } }, \"union\" : { \"com.linkedin.data.codec.test.Tone\" : \"FRIENDLY\" } }";
+
+  private RecordDataSchema _schema;
+  private SchemaBinaryDataCodec _codec;
+
+  @BeforeClass
+  public void setUp() throws IOException
+  {
+    _schema = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA);
+    _codec = new SchemaBinaryDataCodec(Collections.singletonList(_schema));
+  }
+
+  @Test
+  public void testRecordRoundTrip() throws IOException
+  {
+    final DataMap greeting = TestUtil.dataMapFromString(GREETING);
+    greeting.put("data", ByteString.copy(new byte[] { 0, 1, -1 }));
+    final DataList unknown = new DataList();
+    unknown.add(1);
+    unknown.add("a");
+    unknown.add(Data.NULL);
+    greeting.put("unknown", unknown);
+
+    final byte[] bytes = _codec.mapToBytes(greeting, _schema);
+    assertEquals(_codec.bytesToMap(bytes), greeting);
+    assertEquals(_codec.readMap(new ByteArrayInputStream(bytes)), greeting);
+
+    // without the schema the map is encoded with the field names
+    assertEquals(_codec.bytesToMap(_codec.mapToBytes(greeting)), greeting);
+
+    // a codec without known schemas decodes records of the schema passed to it
+    final SchemaBinaryDataCodec codec = new SchemaBinaryDataCodec();
+    assertEquals(codec.bytesToMap(bytes, _schema), greeting);
+    assertEquals(codec.readMap(new ByteArrayInputStream(bytes), _schema), greeting);
+  }
+
+  @Test
+  public void testRecordsUseCompactStorage() throws IOException
+  {
+    final DataMap greeting = _codec.bytesToMap(_codec.mapToBytes(TestUtil.dataMapFromString(GREETING), _schema));
+    assertTrue(greeting.isCompact());
+    assertTrue(greeting.getDataMap("senders").getDataMap("a").isCompact());
+    // the keys are the field names of the schema
+    assertSame(greeting.keySet().iterator().next(), _schema.getField(greeting.keySet().iterator().next()).getName());
+
+    // maps that are not records keep the default storage
+    assertFalse(greeting.getDataMap("senders").isCompact());
+    assertFalse(_codec.bytesToMap(_codec.mapToBytes(greeting)).isCompact());
+  }
+
+  @Test
+  public void testElementsOfCollection() throws IOException
+  {
+    final DataList elements = new DataList();
+    for (int i = 0; i < 20; i++)
+    {
+      final DataMap greeting = TestUtil.dataMapFromString(GREETING);
+      greeting.put("id", (long) i);
+      elements.add(greeting);
+    }
+    final DataMap collection = new DataMap();
+    collection.put("elements", elements);
+    collection.put("paging", TestUtil.dataMapFromString("{ \"start\" : 0, \"count\" : 20 }"));
+
+    final byte[] bytes = _codec.mapToBytes(collection, _schema);
+    assertEquals(_codec.bytesToMap(bytes), collection);
+
+    final byte[] psonBytes = new PsonDataCodec().mapToBytes(collection);
+    assertTrue(bytes.length * 2 < psonBytes.length, bytes.length + " " + psonBytes.length);
+  }
+
+  @Test
+  public void testDataNotConformingToSchema() throws IOException
+  {
+    // values of the wrong type are encoded by their type, and unknown enum symbols and union members as strings and maps
+    final DataMap greeting = TestUtil.dataMapFromString(
+      "{ \"id\" : \"notALong\", \"message\" : 1, \"tone\" : \"UNKNOWN\", \"tones\" : { \"a\" : 1 }, " +
+      "\"senders\" : [ 1 ], \"union\" : { \"string\" : \"s\" } }");
+    assertEquals(_codec.bytesToMap(_codec.mapToBytes(greeting, _schema)), greeting);
+
+    final DataMap twoMembers = TestUtil.dataMapFromString("{ \"id\" : 1, \"union\" : { \"int\" : 1, \"Tone\" : \"FRIENDLY\" } }");
+    assertEquals(_codec.bytesToMap(_codec.mapToBytes(twoMembers, _schema)), twoMembers);
+  }
+
+  @Test
+  public void testNumbers() throws IOException
+  {
+    final DataMap map = new DataMap();
+    final long[] longs = { 0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE };
+    for (long l : longs)
+    {
+      map.put("long" + l, l);
+      map.put("int" + l, (int) l);
+    }
+    map.put("float", -1.5f);
+    map.put("double", Double.MAX_VALUE);
+    map.put("nan", Double.NaN);
+    final DataMap decoded = _codec.bytesToMap(_codec.mapToBytes(map));
+    assertEquals(decoded, map);
+    for (String key : map.keySet())
+    {
+      assertEquals(decoded.get(key).getClass(), map.get(key).getClass());
+    }
+  }
+
+  @Test
+  public void testSchemaMismatch() throws IOException
+  {
+    final byte[] bytes = _codec.mapToBytes(TestUtil.dataMapFromString(GREETING), _schema);
+
+    final RecordDataSchema changed = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA.replace("\"INSULTING\"", "\"INSULTING\", \"RUDE\""));
+    try
+    {
+      new SchemaBinaryDataCodec().bytesToMap(bytes, changed);
+      fail("Expected DataDecodingException");
+    }
+    catch (DataDecodingException e)
+    {
+      assertTrue(e.getMessage().contains("differs from the schema of the encoder"), e.getMessage());
+    }
+
+    try
+    {
+      new SchemaBinaryDataCodec().bytesToMap(bytes);
+      fail("Expected DataDecodingException");
+    }
+    catch (DataDecodingException e)
+    {
+      assertTrue(e.getMessage().contains("Unable to find record schema com.linkedin.data.codec.test.Greeting"), e.getMessage());
+    }
+
+    // documentation and properties do not affect the encoding
+    final RecordDataSchema documented = (RecordDataSchema) TestUtil.dataSchemaFromString(
+      SCHEMA.replace("\"name\" : \"Greeting\",", "\"name\" : \"Greeting\", \"doc\" : \"A greeting.\", \"validate\" : { },"));
+    assertEquals(new SchemaBinaryDataCodec().bytesToMap(bytes, documented), TestUtil.dataMapFromString(GREETING));
+
+    final RecordDataSchema renamed = (RecordDataSchema) TestUtil.dataSchemaFromString(SCHEMA.replace("\"message\"", "\"text\""));
+    assertFalse(Arrays.equals(SchemaBinaryDataCodec.fingerprint(renamed), SchemaBinaryDataCodec.fingerprint(_schema)));
+    assertEquals(SchemaBinaryDataCodec.fingerprint(_schema).length, SchemaBinaryDataCodec.FINGERPRINT_LENGTH);
+  }
+
+  @Test
+  public void testInvalidInput() throws IOException
+  {
+    final byte[] bytes = _codec.mapToBytes(TestUtil.dataMapFromString(GREETING), _schema);
+    final byte[][] inputs =
+    {
+      new byte[0],
+      new byte[] { SchemaBinaryDataCodec.VERSION + 1, SchemaBinaryDataCodec.NULL },
+      new byte[] { SchemaBinaryDataCodec.VERSION, 100 },
+      new byte[] { SchemaBinaryDataCodec.VERSION, SchemaBinaryDataCodec.STRING, 10, 'a' },
+      new byte[] { SchemaBinaryDataCodec.VERSION, SchemaBinaryDataCodec.ENUM, 0 },
+      new byte[] { SchemaBinaryDataCodec.VERSION, SchemaBinaryDataCodec.NULL },
+      new byte[] { SchemaBinaryDataCodec.VERSION, SchemaBinaryDataCodec.MAP, 0, 0 },
+      Arrays.copyOf(bytes, bytes.length - 1)
+    };
+    for (byte[] input : inputs)
+    {
+      try
+      {
+        _codec.bytesToMap(input);
+        fail("Expected DataDecodingException");
+      }
+      catch (DataDecodingException e)
+      {
+      }
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.collections;
+
+
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+
+public class TestCompactHashMap
+{
+  @DataProvider
+  public Object[][] keyRanges()
+  {
+    return new Object[][] { { 4 }, { 12 }, { CompactHashMap.MAX_COMPACT_SIZE }, { 40 } };
+  }
+
+  @Test(dataProvider = "keyRanges")
+  public void testAgainstHashMap(int keyRange)
+  {
+    final Random random = new Random(keyRange);
+    final CompactHashMap<Integer, String> map = new CompactHashMap<Integer, String>();
+    final HashMap<Integer, String> reference = new HashMap<Integer, String>();
+
+    for (int i = 0; i < 5000; ++i)
+    {
+      // colliding keys exercise the probing and the backward shift of removals
+      final Integer key = random.nextInt(keyRange) * 64;
+      final int op = random.nextInt(10);
+      if (op < 6)
+      {
+        final String value = op == 0 ? null : "v" + i;
+        assertEquals(map.put(key, value), reference.put(key, value));
+      }
+      else if (op < 9)
+      {
+        assertEquals(map.remove(key), reference.remove(key));
+      }
+      else
+      {
+        assertEquals(map.containsKey(key), reference.containsKey(key));
+        assertEquals(map.get(key), reference.get(key));
+      }
+
+      assertEquals(map.size(), reference.size());
+      for (Integer k : reference.keySet())
+      {
+        assertTrue(map.containsKey(k));
+        assertEquals(map.get(k), reference.get(k));
+      }
+    }
+
+    assertEquals(map, reference);
+    assertEquals(reference, map);
+    assertEquals(map.hashCode(), reference.hashCode());
+    assertEquals(new HashSet<Integer>(map.keySet()), reference.keySet());
+    assertEquals(map.isCompact(), keyRange <= CompactHashMap.MAX_COMPACT_SIZE);
+  }
+
+  @Test
+  public void testInflate()
+  {
+    final CompactHashMap<String, Integer> map = new CompactHashMap<String, Integer>(4);
+    for (int i = 0; i < CompactHashMap.MAX_COMPACT_SIZE; ++i)
+    {
+      map.put("k" + i, i);
+    }
+    assertTrue(map.isCompact());
+
+    map.put("k0", -1);
+    assertTrue(map.isCompact());
+
+    map.put("extra", -2);
+    assertFalse(map.isCompact());
+    assertEquals(map.size(), CompactHashMap.MAX_COMPACT_SIZE + 1);
+    assertEquals(map.get("k0"), Integer.valueOf(-1));
+    assertEquals(map.get("extra"), Integer.valueOf(-2));
+
+    map.clear();
+    assertTrue(map.isCompact());
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  public void testNullKeyAndValue()
+  {
+    final CompactHashMap<String, String> map = new CompactHashMap<String, String>();
+    assertFalse(map.containsKey(null));
+    map.put(null, "a");
+    map.put("b", null);
+    assertEquals(map.get(null), "a");
+    assertTrue(map.containsKey("b"));
+    assertTrue(map.containsValue(null));
+    assertNull(map.get("b"));
+    assertTrue(map.keySet().contains(null));
+    assertEquals(map.remove(null), "a");
+    assertFalse(map.containsKey(null));
+    assertEquals(map.size(), 1);
+  }
+
+  @Test
+  public void testCopyOnWriteClone()
+  {
+    final CompactHashMap<String, String> map = new CompactHashMap<String, String>();
+    map.put("a", "1");
+    map.put("b", "2");
+
+    final CompactHashMap<String, String> clone = map.clone();
+    assertEquals(clone, map);
+
+    clone.put("c", "3");
+    clone.put("a", "x");
+    assertEquals(map.size(), 2);
+    assertEquals(map.get("a"), "1");
+    assertFalse(map.containsKey("c"));
+
+    map.remove("b");
+    assertEquals(clone.get("b"), "2");
+    assertEquals(clone.size(), 3);
+
+    final CompactHashMap<String, String> secondClone = clone.clone();
+    for (int i = 0; i < CompactHashMap.MAX_COMPACT_SIZE; ++i)
+    {
+      secondClone.put("k" + i, "v" + i);
+    }
+    assertFalse(secondClone.isCompact());
+    assertEquals(clone.size(), 3);
+
+    final CompactHashMap<String, String> thirdClone = secondClone.clone();
+    thirdClone.remove("k0");
+    assertTrue(secondClone.containsKey("k0"));
+    assertFalse(thirdClone.containsKey("k0"));
+  }
+
+  @Test
+  public void testEqualKeysOfDifferentIdentity()
+  {
+    final CompactHashMap<String, Integer> map = new CompactHashMap<String, Integer>();
+    final String key = new String("field");
+    map.put(key, 1);
+    map.put("field", 2);
+    assertEquals(map.size(), 1);
+    assertSame(map.keySet().iterator().next(), key);
+    assertEquals(map.get(new String("field")), Integer.valueOf(2));
+  }
+
+  @Test
+  public void testViews()
+  {
+    final CompactHashMap<String, Integer> map = new CompactHashMap<String, Integer>();
+    map.put("a", 1);
+    map.put("b", 2);
+
+    final Map<String, Integer> reference = new HashMap<String, Integer>(map);
+    assertEquals(map.entrySet(), reference.entrySet());
+    assertTrue(map.values().contains(2));
+    assertEquals(map.values().size(), 2);
+
+    try
+    {
+      map.entrySet().iterator().next().setValue(3);
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+    }
+
+    try
+    {
+      final Iterator<String> iterator = map.keySet().iterator();
+      iterator.next();
+      iterator.remove();
+      fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+    }
+  }
+
+  @Test(expectedExceptions = ConcurrentModificationException.class)
+  public void testConcurrentModification()
+  {
+    final CompactHashMap<String, Integer> map = new CompactHashMap<String, Integer>();
+    map.put("a", 1);
+    map.put("b", 2);
+    for (String key : map.keySet())
+    {
+      map.put(key + key, 0);
+    }
+  }
+}
@@ -0,0 +1,142 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.performance;
+
+
+import com.linkedin.data.DataMap;
+import java.io.PrintStream;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+
+/**
+ * Compares the memory footprint and the get and put throughput of {@link DataMap}s with the default
+ * {@link java.util.HashMap} storage and with the compact storage. Run {@link #main(String[])} for the
+ * measurements, the test only verifies that both storages hold the same data.
+ */
+public class TestDataMapStoragePerformance
+{
+  private static int _numMaps = 1000;
+  private static int _numIterations = 1;
+  private static boolean _testOnly = true;
+
+  private static final PrintStream out = System.out;
+  private static final int[] FIELD_COUNTS = { 3, 6, 10, 20 };
+
+  public static void main(String args[])
+  {
+    TestDataMapStoragePerformance test = new TestDataMapStoragePerformance();
+    _numMaps = 200000;
+    _numIterations = 20;
+    _testOnly = false;
+    test.run();
+  }
+
+  @Test
+  public void run()
+  {
+    for (int fieldCount : FIELD_COUNTS)
+    {
+      final String[] fieldNames = fieldNames(fieldCount);
+      for (boolean compact : new boolean[] { false, true })
+      {
+        // warm up before measuring
+        putMaps(fieldNames, compact);
+        getMaps(putMaps(fieldNames, compact), fieldNames);
+
+        final long usedBefore = usedMemory();
+        long startTime = System.nanoTime();
+        DataMap[] maps = null;
+        for (int i = 0; i < _numIterations; i++)
+        {
+          maps = null;
+          maps = putMaps(fieldNames, compact);
+        }
+        final long putTime = System.nanoTime() - startTime;
+        final long usedAfter = usedMemory();
+
+        startTime = System.nanoTime();
+        long sum = 0;
+        for (int i = 0; i < _numIterations; i++)
+        {
+          sum += getMaps(maps, fieldNames);
+        }
+        final long getTime = System.nanoTime() - startTime;
+
+        assertEquals(sum, (long) _numIterations * _numMaps * fieldCount * (fieldCount - 1) / 2);
+        assertEquals(maps[0], putMaps(fieldNames, !compact)[0]);
+        if (_testOnly == false)
+        {
+          out.println((compact ? "compact" : "hash   ") + " fields " + fieldCount +
+                      " bytes/map " + (usedAfter - usedBefore) / _numMaps +
+                      " put ns/field " + putTime / ((long) _numIterations * _numMaps * fieldCount) +
+                      " get ns/field " + getTime / ((long) _numIterations * _numMaps * fieldCount));
+        }
+      }
+    }
+  }
+
+  private static String[] fieldNames(int fieldCount)
+  {
+    final String[] fieldNames = new String[fieldCount];
+    for (int i = 0; i < fieldCount; i++)
+    {
+      // field names of generated templates are interned string constants
+      fieldNames[i] = ("field" + i).intern();
+    }
+    return fieldNames;
+  }
+
+  private static DataMap[] putMaps(String[] fieldNames, boolean compact)
+  {
+    final DataMap[] maps = new DataMap[_numMaps];
+    for (int m = 0; m < maps.length; m++)
+    {
+      final DataMap map = compact ? DataMap.compact(fieldNames.length) : new DataMap();
+      for (int i = 0; i < fieldNames.length; i++)
+      {
+        map.put(fieldNames[i], i);
+      }
+      maps[m] = map;
+    }
+    return maps;
+  }
+
+  private static long getMaps(DataMap[] maps, String[] fieldNames)
+  {
+    long sum = 0;
+    for (DataMap map : maps)
+    {
+      for (String fieldName : fieldNames)
+      {
+        sum += (Integer) map.get(fieldName);
+      }
+    }
+    return sum;
+  }
+
+  private static long usedMemory()
+  {
+    final Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++)
+    {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
@@ -276,6 +276,57 @@ public class TestDataSchemaResolver
     TestUtil.deleteRecursive(testDir, debug);
   }
 
+  @Test
+  public void testSchemaFileCache() throws IOException
+  {
+    boolean debug = false;
+
+    File testDir = TestUtil.testDir("testSchemaFileCache", debug);
+    TestUtil.createSchemaFiles(testDir, _testSchemas, debug);
+
+    List<String> testPaths = new ArrayList<String>();
+    for (String testPath : _testPaths)
+    {
+      String dirname = (testDir.getCanonicalPath() + "/" + testPath).replace('/', File.separatorChar);
+      testPaths.add((new File(dirname)).getCanonicalPath());
+    }
+
+    SchemaFileCache cache = new SchemaFileCache();
+    FileDataSchemaResolver resolver = new FileDataSchemaResolver(SchemaParserFactory.instance(), testPaths);
+    resolver.setSchemaFileCache(cache);
+    lookup(resolver, _testLookupAndExpectedResults, File.separatorChar, debug);
+    int size = cache.size();
+    assertTrue(size > 0);
+
+    // another resolver finds the same schemas from the cache
+    FileDataSchemaResolver cachedResolver = new FileDataSchemaResolver(SchemaParserFactory.instance(), testPaths);
+    cachedResolver.setSchemaFileCache(cache);
+    lookup(cachedResolver, _testLookupAndExpectedResults, File.separatorChar, debug);
+    assertEquals(cache.size(), size);
+
+    // the cache is shared through the index file
+    File indexFile = new File(testDir, "schema.index");
+    cache.save(indexFile);
+    SchemaFileCache loadedCache = new SchemaFileCache();
+    assertTrue(loadedCache.load(indexFile));
+    assertEquals(loadedCache.size(), size);
+    FileDataSchemaResolver indexedResolver = new FileDataSchemaResolver(SchemaParserFactory.instance(), testPaths);
+    indexedResolver.setSchemaFileCache(loadedCache);
+    lookup(indexedResolver, _testLookupAndExpectedResults, File.separatorChar, debug);
+
+    // a changed file is read again
+    File fooFile = new File(testPaths.get(0), "foo.pdsc");
+    TestUtil.createSchemaFiles(testDir, TestUtil.<String>asMap(buildSystemIndependentPath("a1", "foo.pdsc"), "{ \"name\" : \"foo\", \"type\" : \"fixed\", \"size\" : 40 }"), debug);
+    assertTrue(fooFile.setLastModified(fooFile.lastModified() + 2000));
+    FileDataSchemaResolver changedResolver = new FileDataSchemaResolver(SchemaParserFactory.instance(), testPaths);
+    changedResolver.setSchemaFileCache(loadedCache);
+    DataSchema foo = new SchemaParser(changedResolver).lookupName("foo");
+    assertNotNull(foo);
+    assertTrue(foo.toString().contains("\"size\" : 40"));
+
+    TestUtil.deleteRecursive(testDir, debug);
+  }
+
   public static class ClassNameFooRecord extends RecordTemplate
   {
     public static final RecordDataSchema SCHEMA = (RecordDataSchema) DataTemplateUtil.parseSchema("{ \"type\" : \"record\", \"name\" : \"ClassNameFooRecord\", \"namespace\" : \"com.linkedin.data.schema.resolver.TestDataSchemaResolver\", \"fields\" : [ { \"name\" : \"foo\", \"type\" : \"string\" } ] }");
@@ -0,0 +1,171 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.data.schema.validation;
+
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.testng.annotations.Test;
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.validator.DataSchemaAnnotationValidator;
+import com.linkedin.data.schema.validator.Validator;
+import com.linkedin.data.schema.validator.ValidatorContext;
+
+import static com.linkedin.data.TestUtil.dataMapFromString;
+import static com.linkedin.data.TestUtil.dataSchemaFromString;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+
+/**
+ * Tests that the compiled fast path of {@link ValidateDataAgainstSchema} gives the same results as the full traversal.
+ */
+public class TestCompiledSchemaValidator
+{
+  private static final String SCHEMA =
+    "{ \"type\" : \"record\", \"name\" : \"Foo\", \"fields\" : [\n" +
+    "  { \"name\" : \"int\", \"type\" : \"int\" },\n" +
+    "  { \"name\" : \"long\", \"type\" : \"long\", \"optional\" : true },\n" +
+    "  { \"name\" : \"withDefault\", \"type\" : \"string\", \"default\" : \"x\" },\n" +
+    "  { \"name\" : \"bytes\", \"type\" : \"bytes\", \"optional\" : true },\n" +
+    "  { \"name\" : \"fixed\", \"type\" : { \"type\" : \"fixed\", \"name\" : \"Fixed2\", \"size\" : 2 }, \"optional\" : true },\n" +
+    "  { \"name\" : \"enum\", \"type\" : { \"type\" : \"enum\", \"name\" : \"Fruits\", \"symbols\" : [ \"APPLE\", \"ORANGE\" ] }, \"optional\" : true },\n" +
+    "  { \"name\" : \"array\", \"type\" : { \"type\" : \"array\", \"items\" : \"int\" }, \"optional\" : true },\n" +
+    "  { \"name\" : \"map\", \"type\" : { \"type\" : \"map\", \"values\" : \"string\" }, \"optional\" : true },\n" +
+    "  { \"name\" : \"union\", \"type\" : [ \"null\", \"int\", \"Foo\" ], \"optional\" : true },\n" +
+    "  { \"name\" : \"typeref\", \"type\" : { \"type\" : \"typeref\", \"name\" : \"IntRef\", \"ref\" : \"int\" }, \"optional\" : true },\n" +
+    "  { \"name\" : \"self\", \"type\" : \"Foo\", \"optional\" : true }\n" +
+    "] }";
+
+  private static final String[] DATA = {
+    "{ \"int\" : 1, \"withDefault\" : \"y\" }",
+    "{ \"int\" : 1 }",
+    "{ \"withDefault\" : \"y\" }",
+    "{ \"int\" : 1, \"long\" : 2 }",
+    "{ \"int\" : \"1\" }",
+    "{ \"int\" : 1, \"bytes\" : \"abc\" }",
+    "{ \"int\" : 1, \"fixed\" : \"ab\" }",
+    "{ \"int\" : 1, \"fixed\" : \"abc\" }",
+    "{ \"int\" : 1, \"enum\" : \"APPLE\" }",
+    "{ \"int\" : 1, \"enum\" : \"BANANA\" }",
+    "{ \"int\" : 1, \"array\" : [ 1, 2, 3 ] }",
+    "{ \"int\" : 1, \"array\" : [ 1, \"a\", 3 ] }",
+    "{ \"int\" : 1, \"map\" : { \"a\" : \"b\" } }",
+    "{ \"int\" : 1, \"map\" : { \"a\" : 1 } }",
+    "{ \"int\" : 1, \"union\" : null }",
+    "{ \"int\" : 1, \"union\" : { \"int\" : 2 } }",
+    "{ \"int\" : 1, \"union\" : { \"string\" : \"a\" } }",
+    "{ \"int\" : 1, \"union\" : { \"Foo\" : { \"int\" : 2 } } }",
+    "{ \"int\" : 1, \"union\" : { \"Foo\" : { \"long\" : 2 } } }",
+    "{ \"int\" : 1, \"typeref\" : 3 }",
+    "{ \"int\" : 1, \"typeref\" : \"a\" }",
+    "{ \"int\" : 1, \"self\" : { \"int\" : 2, \"self\" : { \"int\" : 3 } } }",
+    "{ \"int\" : 1, \"self\" : { \"int\" : 2, \"self\" : { \"int\" : 3.5 } } }",
+    "{ \"int\" : 1, \"unknown\" : [ 1, 2 ] }"
+  };
+
+  private static final Validator NO_OP_VALIDATOR = new Validator()
+  {
+    @Override
+    public void validate(ValidatorContext context)
+    {
+    }
+  };
+
+  @Test
+  public void testSameResultAsFullValidation() throws IOException
+  {
+    final DataSchema schema = dataSchemaFromString(SCHEMA);
+    for (RequiredMode requiredMode : RequiredMode.values())
+    {
+      for (CoercionMode coercionMode : CoercionMode.values())
+      {
+        final ValidationOptions options = new ValidationOptions(requiredMode, coercionMode);
+        for (String data : DATA)
+        {
+          final ValidationResult fast = ValidateDataAgainstSchema.validate(dataMapFromString(data), schema, options);
+          // a validator disables the fast path
+          final ValidationResult full = ValidateDataAgainstSchema.validate(dataMapFromString(data), schema, options, NO_OP_VALIDATOR);
+
+          final String description = data + " " + options;
+          assertEquals(fast.isValid(), full.isValid(), description);
+          assertEquals(fast.hasFix(), full.hasFix(), description);
+          assertEquals(fast.hasFixupReadOnlyError(), full.hasFixupReadOnlyError(), description);
+          assertEquals(fast.getFixed(), full.getFixed(), description);
+          assertEquals(fast.getMessages().toString(), full.getMessages().toString(), description);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testFastPathAcceptsValidData() throws IOException
+  {
+    final DataSchema schema = dataSchemaFromString(SCHEMA);
+    final ValidationOptions options = new ValidationOptions();
+    final DataMap data = dataMapFromString(
+      "{ \"int\" : 1, \"array\" : [ 1 ], \"union\" : { \"Foo\" : { \"int\" : 2 } }, \"self\" : { \"int\" : 3 } }");
+
+    assertTrue(CompiledSchemaValidator.isApplicable(options));
+    assertTrue(CompiledSchemaValidator.isValidWithoutFix(data, schema, options));
+    assertFalse(CompiledSchemaValidator.isValidWithoutFix(dataMapFromString("{ \"long\" : 1 }"), schema, options));
+
+    final ValidationResult result = ValidateDataAgainstSchema.validate(data, schema, options);
+    assertTrue(result.isValid());
+    assertFalse(result.hasFix());
+    assertTrue(result.getFixed() == data);
+  }
+
+  @Test
+  public void testAnnotationValidatorWithoutValidators() throws IOException
+  {
+    final DataSchema schema = dataSchemaFromString(SCHEMA);
+    final DataSchemaAnnotationValidator annotationValidator = new DataSchemaAnnotationValidator(schema);
+    assertTrue(annotationValidator.isEmpty());
+    assertFalse(new DataSchemaAnnotationValidator(dataSchemaFromString(
+      "{ \"type\" : \"record\", \"name\" : \"Bar\", \"fields\" : [\n" +
+      "  { \"name\" : \"s\", \"type\" : \"string\", \"validate\" : { \"strlen\" : { \"max\" : 3 } } }\n" +
+      "] }")).isEmpty());
+
+    // an annotation validator without validators takes the fast path and gives the same results
+    final ValidationOptions options = new ValidationOptions();
+    for (String data : DATA)
+    {
+      final ValidationResult fast = ValidateDataAgainstSchema.validate(dataMapFromString(data), schema, options, annotationValidator);
+      final ValidationResult full = ValidateDataAgainstSchema.validate(dataMapFromString(data), schema, options, NO_OP_VALIDATOR);
+      assertEquals(fast.isValid(), full.isValid(), data);
+      assertEquals(fast.getFixed(), full.getFixed(), data);
+      assertEquals(fast.getMessages().toString(), full.getMessages().toString(), data);
+    }
+  }
+
+  @Test
+  public void testNotApplicableWithPathDependentOptions()
+  {
+    final ValidationOptions optionalFields = new ValidationOptions();
+    optionalFields.setOptionalFields(Collections.singleton("int"));
+    assertFalse(CompiledSchemaValidator.isApplicable(optionalFields));
+
+    final ValidationOptions avro = new ValidationOptions();
+    avro.setAvroUnionMode(true);
+    assertFalse(CompiledSchemaValidator.isApplicable(avro));
+  }
+}
@@ -44,6 +44,7 @@ import static com.linkedin.data.TestUtil.asMap;
 import static com.linkedin.data.TestUtil.dataMapFromString;
 import static com.linkedin.data.TestUtil.dataSchemaFromString;
 import static com.linkedin.data.TestUtil.out;
+import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
 import static org.testng.Assert.assertTrue;
 
@@ -1113,5 +1114,26 @@ public class TestValidator
       }
     }
   }
+
+  @Test
+  public void testInitMessagesOfSharedValidators() throws IOException
+  {
+    String schemaText =
+      "{\n" +
+      "  \"name\" : \"Foo\",\n" +
+      "  \"type\" : \"typeref\",\n" +
+      "  \"ref\" : \"int\", \n" +
+      "  \"validate\" : { \"unknownValidatorKey\" : { } }\n" +
+      "}\n";
+    DataSchema schema = dataSchemaFromString(schemaText);
+
+    DataSchemaAnnotationValidator first = new DataSchemaAnnotationValidator(schema);
+    assertFalse(first.isInitOk());
+
+    // the second instance reuses the validators built for the schema and reports the same messages
+    DataSchemaAnnotationValidator second = new DataSchemaAnnotationValidator(schema);
+    assertFalse(second.isInitOk());
+    assertEquals(second.getInitMessages().toString(), first.getInitMessages().toString());
+  }
 }
 
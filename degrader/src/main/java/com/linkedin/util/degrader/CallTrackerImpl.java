@@ -27,6 +27,8 @@ import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.linkedin.common.stats.LongStats;
+import com.linkedin.common.stats.LongHistogram;
+import com.linkedin.common.stats.LongTracker;
 import com.linkedin.common.stats.LongTracking;
 import com.linkedin.util.clock.Clock;
 import com.linkedin.util.clock.SystemClock;
@@ -40,7 +42,8 @@ import com.linkedin.util.clock.SystemClock;
  * periodically.
  * 3.) CallTrackerImpl.CallTrackerStats is the actual data that is being moved around. You can think of
  * CallTrackerStats as an immutable DTO.
- * 4.) LongTracking is used in CallTrackerImpl.Tracker to calculate the statistics of the call.
+ * 4.) LongTracking, or LongHistogram if requested, is used in CallTrackerImpl.Tracker to calculate the statistics
+ * of the call. LongHistogram uses constant memory regardless of the call rate, at the cost of bucketed percentiles.
  *
  * @author Dave Messink
  * @author Chris Pettitt
@@ -52,6 +55,8 @@ import com.linkedin.util.clock.SystemClock;
 public class CallTrackerImpl implements CallTracker
 {
   private static final Clock DEFAULT_CLOCK = SystemClock.instance();
+  // call times above this are counted in the last bucket of the histogram
+  private static final long HISTOGRAM_HIGHEST_CALL_TIME = 60 * 60 * 1000L;
 
   private final Object _lock = new Object();
 
@@ -81,6 +86,15 @@ public class CallTrackerImpl implements CallTracker
   }
 
   public CallTrackerImpl(long interval, Clock clock)
+  {
+    this(interval, clock, false);
+  }
+
+  /**
+   * @param useHistogram whether to compute the call time statistics from a {@link LongHistogram} instead of
+   *                     keeping every call time of the interval
+   */
+  public CallTrackerImpl(long interval, Clock clock, boolean useHistogram)
   {
     _clock = clock;
     _interval = interval;
@@ -88,7 +102,7 @@ public class CallTrackerImpl implements CallTracker
     _lastResetTime = _clock.currentTimeMillis();
     _errorTypeCountsTotal = new HashMap<ErrorType, Integer>();
     /* create trackers for each resolution */
-    _tracker = new Tracker();
+    _tracker = new Tracker(useHistogram ? new LongHistogram(HISTOGRAM_HIGHEST_CALL_TIME) : new LongTracking());
   }
 
   @Override
@@ -419,7 +433,7 @@ public class CallTrackerImpl implements CallTracker
    * Tracker is used to track the statistics of calls in one interval. Notice that this class is an inner class
    * of CallTrackerImpl. This means some instance variables like totalCall refers to the outer class. This is
    * because CallTrackerImpl keeps track of total call whereas Tracker keeps track of call in one interval.
-   * Tracker uses the helper class LongTracking for keeping track of statistics like percentage error rate,
+   * Tracker uses the helper class LongTracking or LongHistogram for keeping track of statistics like percentage error rate,
    * 95 percentile, max value, etc.
    * Tracker also rollover the call stats every interval to listeners.
    */
@@ -431,13 +445,13 @@ public class CallTrackerImpl implements CallTracker
     private int _callStartCount;
     private int _errorCount;
     private int _concurrentMax;
-    private final LongTracking _callTimeTracking;
+    private final LongTracker _callTimeTracking;
     //this map is used to store the number of specific errors that happened in one interval only
     private final Map<ErrorType, Integer> _errorTypeCounts;
 
-    private Tracker()
+    private Tracker(LongTracker callTimeTracking)
     {
-      _callTimeTracking = new LongTracking();
+      _callTimeTracking = callTimeTracking;
       _errorTypeCounts = new HashMap<ErrorType, Integer>();
       reset();
     }
@@ -26,6 +26,7 @@ import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 
+import com.linkedin.common.stats.LongStats;
 import com.linkedin.util.clock.SettableClock;
 import com.linkedin.util.clock.Time;
 
@@ -603,6 +604,33 @@ public class TestCallTracker
                         0.001, "Interval Standard deviation is incorrect");
   }
 
+  @org.testng.annotations.Test public void testCallTimeHistogram()
+  {
+    _callTracker = new CallTrackerImpl(_interval, _clock, true);
+
+    List<CallCompletion> dones = startCall(_callTracker, 15);
+    _clock.addDuration(FIVE_MS);
+    endCall(dones, 5);
+    _clock.addDuration(FIVE_MS);
+    endCall(dones, 5);
+    _clock.addDuration(FIVE_MS);
+    endCall(dones, 5);
+
+    _clock.setCurrentTimeMillis(_callTracker.getLastResetTime() + INTERVAL);
+    LongStats callTimeStats = _callTracker.getCallStats().getCallTimeStats();
+    Assert.assertEquals(callTimeStats.getCount(), 15, "Interval call time count is incorrect");
+    Assert.assertEquals(callTimeStats.getAverage(), 10.0, "Interval average is incorrect");
+    Assert.assertEquals(callTimeStats.getMinimum(), 5, "Interval minimum is incorrect");
+    Assert.assertEquals(callTimeStats.getMaximum(), 15, "Interval maximum is incorrect");
+    Assert.assertEquals(callTimeStats.get50Pct(), 10, "Interval 50 percentile is incorrect");
+    Assert.assertEquals(callTimeStats.get90Pct(), 15, "Interval 90 percentile is incorrect");
+
+    // the histogram is reset on rollover
+    _clock.setCurrentTimeMillis(_callTracker.getLastResetTime() + INTERVAL * 2);
+    Assert.assertEquals(_callTracker.getCallStats().getCallTimeStats().getCount(), 0,
+                        "Interval call time count after rollover is incorrect");
+  }
+
   @org.testng.annotations.Test public void testCallStorage()
   {
     long startTime = _clock.currentTimeMillis();
@@ -1,11 +1,20 @@
 package com.linkedin.data.schema.generator;
 
 
+import com.linkedin.pegasus.generator.GeneratorResult;
+import com.linkedin.pegasus.generator.PegasusDataTemplateGenerator;
 import com.linkedin.pegasus.generator.test.IntUnionRecord;
 import com.linkedin.pegasus.generator.test.StringUnionRecord;
 
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 
+import org.testng.Assert;
 import org.testng.annotations.Test;
 
 
@@ -24,4 +33,101 @@ public class TestPegasusDataTemplateGenerator
     IntUnionRecord.IntUnion intUnion;
     StringUnionRecord.StringUnion stringUnion;
   }
+
+  @Test
+  public void testIncrementalGeneration() throws IOException
+  {
+    final File sourceDir = createTmpDir();
+    final File targetDir = createTmpDir();
+    try
+    {
+      final File schemaDir = new File(sourceDir, "com" + File.separator + "linkedin" + File.separator + "incremental");
+      Assert.assertTrue(schemaDir.mkdirs());
+      final File outerSchema = new File(schemaDir, "Outer.pdsc");
+      final File innerSchema = new File(schemaDir, "Inner.pdsc");
+      final File otherSchema = new File(schemaDir, "Other.pdsc");
+      write(outerSchema, "{ \"type\" : \"record\", \"name\" : \"Outer\", \"namespace\" : \"com.linkedin.incremental\", \"fields\" : [ { \"name\" : \"inner\", \"type\" : \"Inner\" } ] }");
+      write(innerSchema, "{ \"type\" : \"record\", \"name\" : \"Inner\", \"namespace\" : \"com.linkedin.incremental\", \"fields\" : [ { \"name\" : \"i\", \"type\" : \"int\" } ] }");
+      write(otherSchema, "{ \"type\" : \"enum\", \"name\" : \"Other\", \"namespace\" : \"com.linkedin.incremental\", \"symbols\" : [ \"A\" ] }");
+
+      final File outerClass = new File(targetDir, "com" + File.separator + "linkedin" + File.separator + "incremental" + File.separator + "Outer.java");
+      final File innerClass = new File(outerClass.getParentFile(), "Inner.java");
+      final File otherClass = new File(outerClass.getParentFile(), "Other.java");
+
+      final GeneratorResult first = run(sourceDir, targetDir);
+      Assert.assertEquals(new HashSet<File>(first.getTargetFiles()), new HashSet<File>(Arrays.asList(outerClass, innerClass, otherClass)));
+      Assert.assertEquals(first.getModifiedFiles().size(), 3);
+
+      // unchanged schemas are not parsed and their targets are not touched, even if the targets are older
+      for (File targetFile : first.getTargetFiles())
+      {
+        Assert.assertTrue(targetFile.setLastModified(10000L));
+      }
+      final GeneratorResult second = run(sourceDir, targetDir);
+      Assert.assertEquals(new HashSet<File>(second.getTargetFiles()), new HashSet<File>(first.getTargetFiles()));
+      Assert.assertTrue(second.getModifiedFiles().isEmpty(), second.getModifiedFiles().toString());
+      for (File targetFile : first.getTargetFiles())
+      {
+        Assert.assertEquals(targetFile.lastModified(), 10000L);
+      }
+
+      // a change to a schema regenerates the schemas that embed it, but leaves the other targets untouched
+      write(innerSchema, "{ \"type\" : \"record\", \"name\" : \"Inner\", \"namespace\" : \"com.linkedin.incremental\", \"doc\" : \"changed\", \"fields\" : [ { \"name\" : \"i\", \"type\" : \"int\" } ] }");
+      final GeneratorResult third = run(sourceDir, targetDir);
+      Assert.assertEquals(new HashSet<File>(third.getTargetFiles()), new HashSet<File>(first.getTargetFiles()));
+      Assert.assertEquals(new HashSet<File>(third.getModifiedFiles()), new HashSet<File>(Arrays.asList(outerClass, innerClass)));
+      Assert.assertEquals(otherClass.lastModified(), 10000L);
+
+      // a deleted target is generated again
+      Assert.assertTrue(otherClass.delete());
+      Assert.assertTrue(innerClass.setLastModified(10000L));
+      final GeneratorResult fourth = run(sourceDir, targetDir);
+      Assert.assertEquals(fourth.getModifiedFiles(), Collections.singletonList(otherClass));
+      Assert.assertEquals(innerClass.lastModified(), 10000L);
+    }
+    finally
+    {
+      rmdir(sourceDir);
+      rmdir(targetDir);
+    }
+  }
+
+  private static GeneratorResult run(File sourceDir, File targetDir) throws IOException
+  {
+    return PegasusDataTemplateGenerator.run(sourceDir.getPath(), null, true, targetDir.getPath(), new String[] { sourceDir.getPath() });
+  }
+
+  private static void write(File file, String content) throws IOException
+  {
+    final OutputStream out = new FileOutputStream(file);
+    try
+    {
+      out.write(content.getBytes("UTF-8"));
+    }
+    finally
+    {
+      out.close();
+    }
+  }
+
+  private static File createTmpDir() throws IOException
+  {
+    final File dir = File.createTempFile("incremental", null);
+    Assert.assertTrue(dir.delete());
+    Assert.assertTrue(dir.mkdir());
+    return dir;
+  }
+
+  private static void rmdir(File dir)
+  {
+    final File[] files = dir.listFiles();
+    if (files != null)
+    {
+      for (File file : files)
+      {
+        rmdir(file);
+      }
+    }
+    dir.delete();
+  }
 }
@@ -23,7 +23,10 @@ import com.linkedin.data.schema.SchemaParserFactory;
 import com.linkedin.data.schema.TyperefDataSchema;
 import com.linkedin.data.schema.resolver.DefaultDataSchemaResolver;
 import com.linkedin.data.schema.resolver.FileDataSchemaResolver;
+import com.linkedin.data.schema.resolver.SchemaFileCache;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.EnumSet;
 import java.util.Set;
 
@@ -35,6 +38,18 @@ import java.util.Set;
  */
 public class CodeUtil
 {
+  /**
+   * The system property that specifies the number of threads used to read schema files and write generated files.
+   * Defaults to the number of available processors.
+   */
+  public static final String GENERATOR_PARALLELISM = "generator.parallelism";
+
+  /**
+   * The system property that specifies the index file of the parsed schema files, which is loaded into
+   * {@link SchemaFileCache#getInstance()} before the first parse and saved by {@link #saveSchemaFileCache()}.
+   */
+  public static final String GENERATOR_SCHEMA_INDEX = "generator.schema.index";
+
   public static class Pair<T0, T1>
   {
     public T0 first;
@@ -47,6 +62,8 @@ public class CodeUtil
     }
   }
 
+  private static String _loadedSchemaIndex;
+
   // used by isDirectType to determine which types are direct vs wrapped.
   private static final Set<DataSchema.Type> _directTypes = EnumSet.of(DataSchema.Type.BOOLEAN,
                                                                       DataSchema.Type.INT,
@@ -71,8 +88,69 @@ public class CodeUtil
     }
     else
     {
-      return new FileDataSchemaResolver(SchemaParserFactory.instance(), resolverPath);
+      final FileDataSchemaResolver resolver = new FileDataSchemaResolver(SchemaParserFactory.instance(), resolverPath);
+      resolver.setSchemaFileCache(getSchemaFileCache());
+      return resolver;
+    }
+  }
+
+  /**
+   * Return the {@link SchemaFileCache} shared by the code generators of this process, loading the index file
+   * specified by {@link #GENERATOR_SCHEMA_INDEX} on first use.
+   *
+   * @return the shared {@link SchemaFileCache}
+   */
+  public static SchemaFileCache getSchemaFileCache()
+  {
+    final SchemaFileCache cache = SchemaFileCache.getInstance();
+    synchronized (CodeUtil.class)
+    {
+      final String indexPath = System.getProperty(GENERATOR_SCHEMA_INDEX);
+      if (indexPath != null && !indexPath.equals(_loadedSchemaIndex))
+      {
+        _loadedSchemaIndex = indexPath;
+        try
+        {
+          cache.load(new File(indexPath));
+        }
+        catch (IOException e)
+        {
+          // the index is only an optimization, the schema files are parsed instead
+        }
+      }
+    }
+    return cache;
+  }
+
+  /**
+   * Save the shared {@link SchemaFileCache} to the index file specified by {@link #GENERATOR_SCHEMA_INDEX}, if any.
+   *
+   * @throws IOException if the index file cannot be written
+   */
+  public static void saveSchemaFileCache()
+      throws IOException
+  {
+    final String indexPath = System.getProperty(GENERATOR_SCHEMA_INDEX);
+    if (indexPath != null)
+    {
+      SchemaFileCache.getInstance().save(new File(indexPath));
+    }
+  }
+
+  /**
+   * Return the number of threads used to read schema files and write generated files, as specified by
+   * {@link #GENERATOR_PARALLELISM} or the number of available processors.
+   *
+   * @return number of threads, at least 1
+   */
+  public static int getParallelism()
+  {
+    final String parallelism = System.getProperty(GENERATOR_PARALLELISM);
+    if (parallelism == null)
+    {
+      return Runtime.getRuntime().availableProcessors();
     }
+    return Math.max(1, Integer.parseInt(parallelism));
   }
 
   /**
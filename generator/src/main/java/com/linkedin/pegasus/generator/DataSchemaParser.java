@@ -17,6 +17,8 @@
 package com.linkedin.pegasus.generator;
 
 
+import com.linkedin.data.codec.DataLocation;
+import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.schema.DataSchemaLocation;
 import com.linkedin.data.schema.DataSchemaResolver;
@@ -24,6 +26,7 @@ import com.linkedin.data.schema.NamedDataSchema;
 import com.linkedin.data.schema.SchemaParser;
 import com.linkedin.data.schema.resolver.FileDataSchemaLocation;
 import com.linkedin.data.schema.resolver.FileDataSchemaResolver;
+import com.linkedin.data.schema.resolver.SchemaFileCache;
 import com.linkedin.util.FileUtil;
 
 import java.io.File;
@@ -33,29 +36,54 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 
 /**
  * Parse various forms of source into {@link DataSchema}.
  *
+ * The JSON of the source files is read in parallel by {@link #getParallelism()} threads. The schemas are then
+ * built from the JSON one file at a time in the order of the sources, because they share one {@link DataSchemaResolver}.
+ *
  * @author Keren Jin
  */
 public class DataSchemaParser
 {
   private final String _resolverPath;
   private final DataSchemaResolver _schemaResolver;
+  private final SchemaFileCache _schemaFileCache;
+  private final int _parallelism;
 
   /**
    * Initialize my {@link DataSchemaResolver} with the resolver path.
    */
   public DataSchemaParser(String resolverPath)
+  {
+    this(resolverPath, CodeUtil.getParallelism());
+  }
+
+  /**
+   * Initialize my {@link DataSchemaResolver} with the resolver path.
+   *
+   * @param parallelism number of threads to read source files with
+   */
+  public DataSchemaParser(String resolverPath, int parallelism)
   {
     _resolverPath = resolverPath;
     _schemaResolver = CodeUtil.createSchemaResolver(resolverPath);
+    _schemaFileCache = CodeUtil.getSchemaFileCache();
+    _parallelism = parallelism;
   }
 
   public String getResolverPath()
@@ -68,6 +96,11 @@ public class DataSchemaParser
     return _schemaResolver;
   }
 
+  public int getParallelism()
+  {
+    return _parallelism;
+  }
+
   /**
    * Parses sources that specify paths to schema files and/or fully qualified schema names.
    *
@@ -82,25 +115,41 @@ public class DataSchemaParser
   {
     final ParseResult result = new ParseResult();
 
+    final Map<String, List<File>> sourceFiles = new LinkedHashMap<String, List<File>>();
+    final List<File> allFiles = new ArrayList<File>();
+    for (String source : sources)
+    {
+      final File sourceFile = new File(source);
+      if (sourceFile.exists())
+      {
+        final List<File> files;
+        if (sourceFile.isDirectory())
+        {
+          final FileUtil.FileExtensionFilter filter = new FileUtil.FileExtensionFilter(FileDataSchemaResolver.DEFAULT_EXTENSION);
+          files = FileUtil.listFiles(sourceFile, filter);
+        }
+        else
+        {
+          files = Collections.singletonList(sourceFile);
+        }
+        sourceFiles.put(source, files);
+        allFiles.addAll(files);
+      }
+    }
+
+    final ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(_parallelism, allFiles.size())));
     try
     {
+      final Map<File, Future<JsonContent>> jsonContents = readJson(allFiles, executor);
+
       for (String source : sources)
       {
-        final File sourceFile = new File(source);
-        if (sourceFile.exists())
+        final List<File> files = sourceFiles.get(source);
+        if (files != null)
         {
-          if (sourceFile.isDirectory())
+          for (File f : files)
           {
-            final FileUtil.FileExtensionFilter filter = new FileUtil.FileExtensionFilter(FileDataSchemaResolver.DEFAULT_EXTENSION);
-            final List<File> sourceFilesInDirectory = FileUtil.listFiles(sourceFile, filter);
-            for (File f : sourceFilesInDirectory)
-            {
-              parseFile(f, result);
-            }
-          }
-          else
-          {
-            parseFile(sourceFile, result);
+            parseFile(f, jsonContents.get(f), result);
           }
         }
         else
@@ -141,6 +190,39 @@ public class DataSchemaParser
       }
       throw e;
     }
+    finally
+    {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Read the JSON of each file with the executor.
+   *
+   * @param files provides the source files.
+   * @param executor to read the files with.
+   *
+   * @return the pending {@link JsonContent} of each file.
+   */
+  private Map<File, Future<JsonContent>> readJson(List<File> files, ExecutorService executor)
+  {
+    final Map<File, Future<JsonContent>> contents = new HashMap<File, Future<JsonContent>>();
+    for (final File file : files)
+    {
+      if (!contents.containsKey(file))
+      {
+        contents.put(file, executor.submit(new Callable<JsonContent>()
+        {
+          @Override
+          public JsonContent call()
+              throws IOException
+          {
+            return new JsonContent(file, _schemaFileCache);
+          }
+        }));
+      }
+    }
+    return contents;
   }
 
   /**
@@ -152,7 +234,7 @@ public class DataSchemaParser
    *
    * @throws IOException if there is a file access error.
    */
-  private void parseFile(File schemaSourceFile, ParseResult result)
+  private void parseFile(File schemaSourceFile, Future<JsonContent> jsonContent, ParseResult result)
       throws IOException
   {
     if (wasResolved(schemaSourceFile))
@@ -160,7 +242,7 @@ public class DataSchemaParser
       return;
     }
 
-    final List<DataSchema> schemas = parseSchema(schemaSourceFile, result);
+    final List<DataSchema> schemas = parseSchema(schemaSourceFile, getJsonContent(jsonContent), result);
 
     for (DataSchema schema : schemas)
     {
@@ -213,21 +295,21 @@ public class DataSchemaParser
    *
    * @param schemaSourceFile provides the source file.
    *
+   * @param jsonContent provides the JSON read from the source file.
+   *
    * @param result {@link ParseResult} to update.
    *
    * @return the data schemas within the source file.
-   *
-   * @throws IOException if there is a file access error.
    */
-  private List<DataSchema> parseSchema(final File schemaSourceFile, ParseResult result)
-      throws IOException
+  private List<DataSchema> parseSchema(final File schemaSourceFile, JsonContent jsonContent, ParseResult result)
   {
     final SchemaParser parser = new SchemaParser(_schemaResolver);
-    final FileInputStream schemaStream = new SchemaFileInputStream(schemaSourceFile);
     try
     {
       parser.setLocation(new FileDataSchemaLocation(schemaSourceFile));
-      parser.parse(schemaStream);
+      parser.errorMessageBuilder().append(jsonContent._message);
+      parser.dataLocationMap().putAll(jsonContent._locations);
+      parser.parse(jsonContent._objects);
       if (parser.hasError())
       {
         return Collections.emptyList();
@@ -236,7 +318,6 @@ public class DataSchemaParser
     }
     finally
     {
-      schemaStream.close();
       if (parser.hasError())
       {
         result.getMessage().append(schemaSourceFile.getPath() + ",");
@@ -304,6 +385,77 @@ public class DataSchemaParser
     }
   }
 
+  private static JsonContent getJsonContent(Future<JsonContent> jsonContent)
+      throws IOException
+  {
+    try
+    {
+      return jsonContent.get();
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    catch (ExecutionException e)
+    {
+      final Throwable cause = e.getCause();
+      if (cause instanceof IOException)
+      {
+        throw (IOException) cause;
+      }
+      if (cause instanceof RuntimeException)
+      {
+        throw (RuntimeException) cause;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  /**
+   * The Data objects, their locations and the syntax errors read from a source file, before schemas are parsed from them.
+   */
+  private static class JsonContent
+  {
+    private final List<Object> _objects;
+    private final Map<Object, DataLocation> _locations = new IdentityHashMap<Object, DataLocation>();
+    private final StringBuilder _message = new StringBuilder();
+
+    private JsonContent(File schemaSourceFile, SchemaFileCache schemaFileCache)
+        throws IOException
+    {
+      final DataSchemaLocation location = new FileDataSchemaLocation(schemaSourceFile);
+      final List<Object> cached = schemaFileCache.get(location);
+      if (cached != null)
+      {
+        _objects = cached;
+        return;
+      }
+
+      final JacksonDataCodec codec = new JacksonDataCodec();
+      final FileInputStream schemaStream = new SchemaFileInputStream(schemaSourceFile);
+      List<Object> objects;
+      try
+      {
+        objects = codec.parse(schemaStream, _message, _locations);
+        if (_message.length() == 0)
+        {
+          schemaFileCache.put(location, objects);
+        }
+      }
+      catch (IOException e)
+      {
+        _message.append(e).append("\n");
+        objects = Collections.emptyList();
+      }
+      finally
+      {
+        schemaStream.close();
+      }
+      _objects = objects;
+    }
+  }
+
   private static class SchemaFileInputStream extends FileInputStream
   {
     private File _schemaSourceFile;
@@ -0,0 +1,271 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.pegasus.generator;
+
+
+import com.linkedin.data.DataList;
+import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.JacksonDataCodec;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * Fingerprints of the source files of a code generator, saved in its target directory, so that later runs
+ * skip the source files that have not changed.
+ * <p/>
+ * A fingerprint is the path of a file and the SHA-1 hash of its content. For each source file, the manifest
+ * records its fingerprint, the fingerprints of the files its schemas depend on, and the files generated from it.
+ * A source file is up-to-date if none of these fingerprints changed and the generated files exist.
+ * <p/>
+ * The manifest is discarded if the configuration of the generator changed, and is ignored if it cannot be read.
+ */
+public class GeneratorManifest
+{
+  private static final int VERSION = 1;
+  private static final String VERSION_KEY = "version";
+  private static final String CONFIGURATION_KEY = "configuration";
+  private static final String SOURCES_KEY = "sources";
+  private static final String HASH_KEY = "hash";
+  private static final String DEPENDENCIES_KEY = "dependencies";
+  private static final String TARGETS_KEY = "targets";
+  private static final JacksonDataCodec CODEC = new JacksonDataCodec();
+
+  private final File _manifestFile;
+  private final String _configuration;
+  private final DataMap _sources;
+  private final Map<String, String> _hashes = new HashMap<String, String>();
+
+  private GeneratorManifest(File manifestFile, String configuration, DataMap sources)
+  {
+    _manifestFile = manifestFile;
+    _configuration = configuration;
+    _sources = sources;
+  }
+
+  /**
+   * Load the manifest of a generator from its target directory.
+   *
+   * @param targetDirectory directory the generator writes files to
+   * @param name name of the generator, which distinguishes generators that write to the same directory
+   * @param configuration options of the generator that affect the generated files
+   * @return the manifest, which is empty if it does not exist or was saved with another configuration
+   */
+  public static GeneratorManifest load(File targetDirectory, String name, String configuration)
+  {
+    final File manifestFile = new File(targetDirectory, "." + name + ".manifest");
+    DataMap sources = null;
+    if (manifestFile.exists())
+    {
+      try
+      {
+        final DataMap manifest;
+        final InputStream in = new FileInputStream(manifestFile);
+        try
+        {
+          manifest = CODEC.readMap(in);
+        }
+        finally
+        {
+          in.close();
+        }
+        if (Integer.valueOf(VERSION).equals(manifest.get(VERSION_KEY)) && configuration.equals(manifest.get(CONFIGURATION_KEY)))
+        {
+          sources = manifest.getDataMap(SOURCES_KEY);
+        }
+      }
+      catch (IOException e)
+      {
+        // the manifest is only an optimization, all source files are generated instead
+      }
+    }
+    return new GeneratorManifest(manifestFile, configuration, sources == null ? new DataMap() : sources);
+  }
+
+  /**
+   * @param sourceFile source file of the generator
+   * @return true if the source file, the files its schemas depend on and the files generated from it are
+   *         the same as when its entry was last updated
+   * @throws IOException if a file cannot be read
+   */
+  public boolean isUpToDate(File sourceFile)
+      throws IOException
+  {
+    final DataMap entry = _sources.getDataMap(sourceFile.getAbsolutePath());
+    if (entry == null || !hash(sourceFile).equals(entry.getString(HASH_KEY)))
+    {
+      return false;
+    }
+    for (Map.Entry<String, Object> dependency : entry.getDataMap(DEPENDENCIES_KEY).entrySet())
+    {
+      if (!dependency.getValue().equals(hash(new File(dependency.getKey()))))
+      {
+        return false;
+      }
+    }
+    for (File targetFile : getTargetFiles(sourceFile))
+    {
+      if (!targetFile.exists())
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @param sourceFile source file of the generator
+   * @return the files generated from the source file when its entry was last updated
+   */
+  public List<File> getTargetFiles(File sourceFile)
+  {
+    final DataMap entry = _sources.getDataMap(sourceFile.getAbsolutePath());
+    if (entry == null)
+    {
+      return Collections.emptyList();
+    }
+    final List<File> targetFiles = new ArrayList<File>();
+    for (Object targetFile : entry.getDataList(TARGETS_KEY))
+    {
+      targetFiles.add(new File((String) targetFile));
+    }
+    return targetFiles;
+  }
+
+  /**
+   * Record the fingerprints of a source file that has been generated.
+   *
+   * @param sourceFile source file of the generator
+   * @param dependencies files the schemas of the source file depend on
+   * @param targetFiles files generated from the source file
+   * @throws IOException if a file cannot be read
+   */
+  public void update(File sourceFile, Collection<File> dependencies, Collection<File> targetFiles)
+      throws IOException
+  {
+    final DataMap dependencyHashes = new DataMap();
+    for (File dependency : dependencies)
+    {
+      if (dependency.isFile() && !dependency.getAbsoluteFile().equals(sourceFile.getAbsoluteFile()))
+      {
+        dependencyHashes.put(dependency.getAbsolutePath(), hash(dependency));
+      }
+    }
+    final DataList targets = new DataList();
+    for (File targetFile : targetFiles)
+    {
+      targets.add(targetFile.getAbsolutePath());
+    }
+
+    final DataMap entry = new DataMap();
+    entry.put(HASH_KEY, hash(sourceFile));
+    entry.put(DEPENDENCIES_KEY, dependencyHashes);
+    entry.put(TARGETS_KEY, targets);
+    _sources.put(sourceFile.getAbsolutePath(), entry);
+  }
+
+  /**
+   * Write the manifest to the target directory.
+   *
+   * @throws IOException if the manifest cannot be written
+   */
+  public void save()
+      throws IOException
+  {
+    final DataMap manifest = new DataMap();
+    manifest.put(VERSION_KEY, VERSION);
+    manifest.put(CONFIGURATION_KEY, _configuration);
+    manifest.put(SOURCES_KEY, _sources);
+
+    final File directory = _manifestFile.getAbsoluteFile().getParentFile();
+    if (!directory.exists() && !directory.mkdirs() && !directory.exists())
+    {
+      throw new IOException(directory + ": cannot create directory");
+    }
+    final OutputStream out = new FileOutputStream(_manifestFile);
+    try
+    {
+      CODEC.writeMap(manifest, out);
+    }
+    finally
+    {
+      out.close();
+    }
+  }
+
+  private String hash(File file)
+      throws IOException
+  {
+    final String path = file.getAbsolutePath();
+    String hash = _hashes.get(path);
+    if (hash == null)
+    {
+      hash = file.isFile() ? computeHash(file) : "";
+      _hashes.put(path, hash);
+    }
+    return hash;
+  }
+
+  private static String computeHash(File file)
+      throws IOException
+  {
+    final MessageDigest digest;
+    try
+    {
+      digest = MessageDigest.getInstance("SHA-1");
+    }
+    catch (NoSuchAlgorithmException e)
+    {
+      throw new IllegalStateException(e);
+    }
+
+    final byte[] buffer = new byte[8192];
+    final InputStream in = new FileInputStream(file);
+    try
+    {
+      int read;
+      while ((read = in.read(buffer)) >= 0)
+      {
+        digest.update(buffer, 0, read);
+      }
+    }
+    finally
+    {
+      in.close();
+    }
+
+    final StringBuilder hash = new StringBuilder();
+    for (byte b : digest.digest())
+    {
+      hash.append(String.format("%02x", b & 0xff));
+    }
+    return hash.toString();
+  }
+}
@@ -0,0 +1,228 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.pegasus.generator;
+
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JPackage;
+
+
+/**
+ * {@link CodeWriter} that writes files under a target directory in parallel, and only writes a file if its
+ * content differs from the existing file.
+ * <p/>
+ * The dates of the {@link javax.annotation.Generated} annotations are ignored when comparing contents. An unchanged
+ * file is left as is, including its modification time, so that consumers such as incremental compilation see no
+ * change. The generators skip unchanged sources with a {@link GeneratorManifest} rather than by comparing times.
+ * <p/>
+ * The writer may be used for several {@link com.sun.codemodel.JCodeModel#build(CodeWriter)}, each of which
+ * closes it and waits for its files to be written.
+ */
+public class IncrementalFileCodeWriter extends CodeWriter
+{
+  private static final Pattern GENERATED_DATE = Pattern.compile("^(\\s*@Generated\\(.*)date = \"[^\"]*\"\\)$", Pattern.MULTILINE);
+  private static final Charset CHARSET = Charset.defaultCharset();
+
+  private final File _targetDirectory;
+  private final boolean _readOnly;
+  private final int _parallelism;
+  private ExecutorService _executor;
+  private final List<Future<File>> _writes = new ArrayList<Future<File>>();
+  private final List<File> _modifiedFiles = Collections.synchronizedList(new ArrayList<File>());
+
+  /**
+   * @param targetDirectory directory to write the files to
+   * @param readOnly whether to mark the written files read-only
+   * @param parallelism number of threads to write files with
+   */
+  public IncrementalFileCodeWriter(File targetDirectory, boolean readOnly, int parallelism)
+  {
+    _targetDirectory = targetDirectory;
+    _readOnly = readOnly;
+    _parallelism = parallelism;
+  }
+
+  @Override
+  public OutputStream openBinary(JPackage pkg, String fileName)
+      throws IOException
+  {
+    final File directory = pkg.isUnnamed() ? _targetDirectory : new File(_targetDirectory, pkg.name().replace('.', File.separatorChar));
+    final File file = new File(directory, fileName);
+    if (_executor == null)
+    {
+      _executor = Executors.newFixedThreadPool(_parallelism);
+    }
+    return new ByteArrayOutputStream()
+    {
+      @Override
+      public void close()
+      {
+        final byte[] content = toByteArray();
+        _writes.add(_executor.submit(new Callable<File>()
+        {
+          @Override
+          public File call()
+              throws IOException
+          {
+            writeFile(file, content);
+            return file;
+          }
+        }));
+      }
+    };
+  }
+
+  /**
+   * Wait for all files to be written.
+   *
+   * @throws IOException if any file could not be written
+   */
+  @Override
+  public void close()
+      throws IOException
+  {
+    if (_executor == null)
+    {
+      return;
+    }
+
+    try
+    {
+      for (Future<File> write : _writes)
+      {
+        write.get();
+      }
+    }
+    catch (InterruptedException e)
+    {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    }
+    catch (ExecutionException e)
+    {
+      if (e.getCause() instanceof IOException)
+      {
+        throw (IOException) e.getCause();
+      }
+      throw new IOException(e.getCause());
+    }
+    finally
+    {
+      _writes.clear();
+      _executor.shutdownNow();
+      _executor = null;
+    }
+  }
+
+  /**
+   * @return the files whose content has been written, available after {@link #close()}
+   */
+  public List<File> getModifiedFiles()
+  {
+    return _modifiedFiles;
+  }
+
+  private void writeFile(File file, byte[] content)
+      throws IOException
+  {
+    if (file.exists() && sameContent(file, content))
+    {
+      return;
+    }
+
+    final File directory = file.getParentFile();
+    if (!directory.exists() && !directory.mkdirs() && !directory.exists())
+    {
+      throw new IOException(directory + ": cannot create directory");
+    }
+    if (file.exists() && !file.delete())
+    {
+      throw new IOException(file + ": can't delete previous version");
+    }
+
+    final OutputStream out = new FileOutputStream(file);
+    try
+    {
+      out.write(content);
+    }
+    finally
+    {
+      out.close();
+    }
+    if (_readOnly)
+    {
+      file.setReadOnly();
+    }
+    _modifiedFiles.add(file);
+  }
+
+  private static boolean sameContent(File file, byte[] content)
+      throws IOException
+  {
+    final long length = file.length();
+    // the date is of the same length between runs in most cases, allow some slack for the others
+    if (Math.abs(length - content.length) > 64)
+    {
+      return false;
+    }
+
+    final byte[] existing = new byte[(int) length];
+    final InputStream in = new FileInputStream(file);
+    try
+    {
+      int offset = 0;
+      while (offset < existing.length)
+      {
+        final int read = in.read(existing, offset, existing.length - offset);
+        if (read < 0)
+        {
+          return false;
+        }
+        offset += read;
+      }
+    }
+    finally
+    {
+      in.close();
+    }
+
+    return withoutDate(existing).equals(withoutDate(content));
+  }
+
+  private static String withoutDate(byte[] content)
+  {
+    return GENERATED_DATE.matcher(new String(content, CHARSET)).replaceAll("$1)");
+  }
+}
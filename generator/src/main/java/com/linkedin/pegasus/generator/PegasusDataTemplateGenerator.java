@@ -19,24 +19,35 @@ package com.linkedin.pegasus.generator;
 
 import com.linkedin.data.schema.DataSchema;
 import com.linkedin.data.schema.DataSchemaLocation;
+import com.linkedin.data.schema.DataSchemaResolver;
+import com.linkedin.data.schema.DataSchemaTraverse;
+import com.linkedin.data.schema.NamedDataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.schema.generator.AbstractGenerator;
 import com.linkedin.data.schema.resolver.FileDataSchemaLocation;
+import com.linkedin.data.schema.resolver.FileDataSchemaResolver;
 import com.linkedin.pegasus.generator.spec.ClassTemplateSpec;
 import com.linkedin.util.FileUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JPackage;
-import com.sun.codemodel.writer.FileCodeWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +65,7 @@ public class PegasusDataTemplateGenerator
   public static final String GENERATOR_GENERATE_IMPORTED = "generator.generate.imported";
 
   private static final Logger _log = LoggerFactory.getLogger(PegasusDataTemplateGenerator.class);
+  private static final String MANIFEST_NAME = "dataTemplates";
 
   public static class DataTemplatePersistentClassChecker implements JavaCodeUtil.PersistentClassChecker
   {
@@ -111,6 +123,22 @@ public class PegasusDataTemplateGenerator
   public static GeneratorResult run(String resolverPath, String defaultPackage, final boolean generateImported, String targetDirectoryPath, String[] sources)
       throws IOException
   {
+    final File targetDirectory = new File(targetDirectoryPath);
+    final GeneratorManifest manifest = GeneratorManifest.load(targetDirectory, MANIFEST_NAME,
+                                                              resolverPath + File.pathSeparator + defaultPackage + File.pathSeparator + generateImported);
+    final Set<File> skippedSourceFiles = new LinkedHashSet<File>();
+    final Set<File> skippedTargetFiles = new LinkedHashSet<File>();
+    final List<String> changedSources = changedSources(resolverPath, sources, manifest, skippedSourceFiles, skippedTargetFiles);
+    if (changedSources.isEmpty())
+    {
+      _log.info("Source files are unchanged, target files are up-to-date: " + skippedTargetFiles);
+      return new DefaultGeneratorResult(skippedSourceFiles, skippedTargetFiles, Collections.<File>emptyList());
+    }
+    if (!skippedSourceFiles.isEmpty())
+    {
+      _log.info("Skipping " + skippedSourceFiles.size() + " unchanged source files: " + skippedSourceFiles);
+    }
+
     final DataSchemaParser schemaParser = new DataSchemaParser(resolverPath);
     final TemplateSpecGenerator specGenerator = new TemplateSpecGenerator(schemaParser.getSchemaResolver());
     final JavaDataTemplateGenerator dataTemplateGenerator = new JavaDataTemplateGenerator(defaultPackage);
@@ -120,7 +148,7 @@ public class PegasusDataTemplateGenerator
       specGenerator.registerDefinedSchema(predefinedSchema);
     }
 
-    final DataSchemaParser.ParseResult parseResult = schemaParser.parseSources(sources);
+    final DataSchemaParser.ParseResult parseResult = schemaParser.parseSources(changedSources.toArray(new String[changedSources.size()]));
 
     for (CodeUtil.Pair<DataSchema, File> pair : parseResult.getSchemaAndFiles())
     {
@@ -138,7 +166,6 @@ public class PegasusDataTemplateGenerator
 
     final JavaCodeUtil.PersistentClassChecker checker = new DataTemplatePersistentClassChecker(generateImported, specGenerator, dataTemplateGenerator, parseResult.getSourceFiles());
 
-    final File targetDirectory = new File(targetDirectoryPath);
     final List<File> targetFiles = JavaCodeUtil.targetFiles(targetDirectory, dataTemplateGenerator.getCodeModel(), JavaCodeUtil.classLoaderFromResolverPath(schemaParser.getResolverPath()), checker);
 
     final List<File> modifiedFiles;
@@ -149,12 +176,186 @@ public class PegasusDataTemplateGenerator
     }
     else
     {
-      modifiedFiles = targetFiles;
       _log.info("Generating " + targetFiles.size() + " files: " + targetFiles);
       validateDefinedClassRegistration(dataTemplateGenerator.getCodeModel(), dataTemplateGenerator.getGeneratedClasses().keySet());
-      dataTemplateGenerator.getCodeModel().build(new FileCodeWriter(targetDirectory, true));
+      final IncrementalFileCodeWriter codeWriter = new IncrementalFileCodeWriter(targetDirectory, true, schemaParser.getParallelism());
+      dataTemplateGenerator.getCodeModel().build(codeWriter);
+      modifiedFiles = codeWriter.getModifiedFiles();
+      _log.info("Modified " + modifiedFiles.size() + " files: " + modifiedFiles);
+    }
+    CodeUtil.saveSchemaFileCache();
+
+    updateManifest(manifest, changedSources, schemaParser.getSchemaResolver(), specGenerator, dataTemplateGenerator, targetDirectory, targetFiles);
+    manifest.save();
+
+    final Set<File> allSourceFiles = new LinkedHashSet<File>(parseResult.getSourceFiles());
+    allSourceFiles.addAll(skippedSourceFiles);
+    final Set<File> allTargetFiles = new LinkedHashSet<File>(targetFiles);
+    allTargetFiles.addAll(skippedTargetFiles);
+    return new DefaultGeneratorResult(allSourceFiles, allTargetFiles, modifiedFiles);
+  }
+
+  /**
+   * Expand the source directories to schema files and drop the schema files that are up-to-date in the manifest.
+   * Only schema files in the resolver path are dropped, because the schemas of the other source files may refer to them.
+   *
+   * @return the sources to parse, which are paths to schema files and fully qualified schema names
+   */
+  private static List<String> changedSources(String resolverPath,
+                                             String[] sources,
+                                             GeneratorManifest manifest,
+                                             Set<File> skippedSourceFiles,
+                                             Set<File> skippedTargetFiles)
+      throws IOException
+  {
+    final List<String> changedSources = new ArrayList<String>();
+    for (String source : sources)
+    {
+      final File sourceFile = new File(source);
+      if (sourceFile.isDirectory())
+      {
+        final FileUtil.FileExtensionFilter filter = new FileUtil.FileExtensionFilter(FileDataSchemaResolver.DEFAULT_EXTENSION);
+        for (File file : FileUtil.listFiles(sourceFile, filter))
+        {
+          if (isInResolverPath(file, resolverPath) && manifest.isUpToDate(file))
+          {
+            skippedSourceFiles.add(file);
+            skippedTargetFiles.addAll(manifest.getTargetFiles(file));
+          }
+          else
+          {
+            changedSources.add(file.getPath());
+          }
+        }
+      }
+      else if (sourceFile.exists() && isInResolverPath(sourceFile, resolverPath) && manifest.isUpToDate(sourceFile))
+      {
+        skippedSourceFiles.add(sourceFile);
+        skippedTargetFiles.addAll(manifest.getTargetFiles(sourceFile));
+      }
+      else
+      {
+        changedSources.add(source);
+      }
+    }
+    return changedSources;
+  }
+
+  private static boolean isInResolverPath(File file, String resolverPath)
+  {
+    if (resolverPath == null)
+    {
+      return false;
+    }
+
+    final String path = file.getAbsolutePath();
+    for (String directory : resolverPath.split(File.pathSeparator))
+    {
+      if (!directory.isEmpty() && path.startsWith(new File(directory).getAbsolutePath() + File.separator))
+      {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Record the schema files each parsed source file depends on and the target files generated from it.
+   */
+  private static void updateManifest(GeneratorManifest manifest,
+                                     List<String> changedSources,
+                                     DataSchemaResolver resolver,
+                                     TemplateSpecGenerator specGenerator,
+                                     JavaDataTemplateGenerator dataTemplateGenerator,
+                                     File targetDirectory,
+                                     List<File> targetFiles)
+      throws IOException
+  {
+    final Map<File, File> targetToSourceFile = new HashMap<File, File>();
+    for (Map.Entry<JDefinedClass, ClassTemplateSpec> entry : dataTemplateGenerator.getGeneratedClasses().entrySet())
+    {
+      final DataSchemaLocation location = specGenerator.getClassLocation(entry.getValue());
+      if (location != null && location.getSourceFile() != null && entry.getKey().outer() == null)
+      {
+        final File targetFile = new File(targetDirectory, entry.getKey().fullName().replace('.', File.separatorChar) + ".java");
+        targetToSourceFile.put(targetFile, location.getSourceFile().getAbsoluteFile());
+      }
+    }
+
+    for (String source : changedSources)
+    {
+      final File sourceFile = new File(source).getAbsoluteFile();
+      if (!sourceFile.isFile())
+      {
+        continue;
+      }
+
+      final List<File> sourceTargetFiles = new ArrayList<File>();
+      for (File targetFile : targetFiles)
+      {
+        if (sourceFile.equals(targetToSourceFile.get(targetFile)))
+        {
+          sourceTargetFiles.add(targetFile);
+        }
+      }
+      manifest.update(sourceFile, dependencies(sourceFile, resolver), sourceTargetFiles);
+    }
+  }
+
+  /**
+   * @return the files of the named schemas that the schemas of the source file refer to, directly or indirectly
+   */
+  private static Set<File> dependencies(File sourceFile, DataSchemaResolver resolver)
+  {
+    final Map<String, DataSchemaLocation> locations = resolver.nameToDataSchemaLocations();
+    final Deque<DataSchema> pending = new ArrayDeque<DataSchema>();
+    for (Map.Entry<String, DataSchemaLocation> entry : locations.entrySet())
+    {
+      final File file = entry.getValue().getSourceFile();
+      if (file != null && sourceFile.equals(file.getAbsoluteFile()) && resolver.bindings().containsKey(entry.getKey()))
+      {
+        pending.add(resolver.bindings().get(entry.getKey()));
+      }
+    }
+
+    final Set<String> names = new HashSet<String>();
+    final DataSchemaTraverse traverse = new DataSchemaTraverse();
+    final DataSchemaTraverse.Callback callback = new DataSchemaTraverse.Callback()
+    {
+      @Override
+      public void callback(List<String> path, DataSchema schema)
+      {
+        if (schema instanceof NamedDataSchema)
+        {
+          names.add(((NamedDataSchema) schema).getFullName());
+        }
+        if (schema instanceof RecordDataSchema)
+        {
+          for (NamedDataSchema include : ((RecordDataSchema) schema).getInclude())
+          {
+            if (!names.contains(include.getFullName()))
+            {
+              pending.add(include);
+            }
+          }
+        }
+      }
+    };
+    while (!pending.isEmpty())
+    {
+      traverse.traverse(pending.remove(), callback);
+    }
+
+    final Set<File> dependencies = new HashSet<File>();
+    for (String name : names)
+    {
+      final DataSchemaLocation location = locations.get(name);
+      if (location != null && location.getSourceFile() != null)
+      {
+        dependencies.add(location.getSourceFile());
+      }
     }
-    return new DefaultGeneratorResult(parseResult.getSourceFiles(), targetFiles, modifiedFiles);
+    return dependencies;
   }
 
   /**
@@ -1658,7 +1658,8 @@ class PegasusPlugin implements Plugin<Project>
 
       final String resolverPathStr = (resolverPath + project.files(inputDir)).collect { it.path }.join(File.pathSeparator)
       final Class<?> dataTemplateGenerator = project.property(GENERATOR_CLASSLOADER_NAME).loadClass('com.linkedin.pegasus.generator.PegasusDataTemplateGenerator')
-      dataTemplateGenerator.run(resolverPathStr, null, true, destinationDir.path, inputDataSchemaFilenames)
+      final result = dataTemplateGenerator.run(resolverPathStr, null, true, destinationDir.path, inputDataSchemaFilenames)
+      project.logger.info("Modified ${result.modifiedFiles.size()} of ${result.targetFiles.size()} data template files")
     }
   }
 
@@ -2396,11 +2397,13 @@ class PegasusPlugin implements Plugin<Project>
         final String restModelFilePath = "${inputDir}${File.separatorChar}${clientItem.restModelFileName}"
         final Class<?> RestliVersion = generatorClassLoader.loadClass('com.linkedin.restli.internal.common.RestliVersion')
         final deprecatedByVersion = (_isRestli1BuildersDeprecated ? RestliVersion.RESTLI_2_0_0 : null)
-        stubGenerator.run(resolverPathStr, defaultPackage, false, false, RestliVersion.RESTLI_1_0_0, deprecatedByVersion, destinationDir.path, [restModelFilePath] as String[])
+        final result = stubGenerator.run(resolverPathStr, defaultPackage, false, false, RestliVersion.RESTLI_1_0_0, deprecatedByVersion, destinationDir.path, [restModelFilePath] as String[])
+        project.logger.info("Modified ${result.modifiedFiles.size()} of ${result.targetFiles.size()} rest client source files")
 
         if (!isRestli2FormatSuppressed)
         {
-          stubGenerator.run(resolverPathStr, defaultPackage, false, false, RestliVersion.RESTLI_2_0_0, null, destinationDir.path, [restModelFilePath] as String[])
+          final restli2Result = stubGenerator.run(resolverPathStr, defaultPackage, false, false, RestliVersion.RESTLI_2_0_0, null, destinationDir.path, [restModelFilePath] as String[])
+          project.logger.info("Modified ${restli2Result.modifiedFiles.size()} of ${restli2Result.targetFiles.size()} rest client source files")
         }
       }
 
@@ -0,0 +1,240 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.common.stats;
+
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+
+/**
+ * Histogram of non-negative long values with a bounded relative error, which can be recorded into concurrently
+ * without locking.
+ *
+ * Values are counted in log-linear buckets: each power of two range is split into 16
+ * equal buckets, so percentiles are accurate to within about 6% of the value, while the memory used is fixed
+ * regardless of the number of recorded values. Values smaller than 32 are counted exactly.
+ *
+ * Recording a value is a few atomic operations. Statistics computed while values are being recorded may not
+ * include all of them. Histograms recorded by different threads or over different intervals can be combined
+ * with {@link #merge(LongHistogram)}.
+ */
+public class LongHistogram implements LongTracker
+{
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+  private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+  private final int _bucketCount;
+  private final AtomicLongArray _buckets;
+  private final AtomicLong _sum = new AtomicLong();
+  private final AtomicLong _min = new AtomicLong(Long.MAX_VALUE);
+  private final AtomicLong _max = new AtomicLong(Long.MIN_VALUE);
+
+  /**
+   * Construct a histogram that can count any non-negative long value.
+   */
+  public LongHistogram()
+  {
+    this(Long.MAX_VALUE);
+  }
+
+  /**
+   * Construct a histogram that only allocates the buckets of the values up to the highest trackable value.
+   * Higher values are counted in the last bucket, so their percentiles are only bounded by the maximum.
+   *
+   * @param highestTrackableValue highest value that is counted with a bounded error
+   */
+  public LongHistogram(long highestTrackableValue)
+  {
+    if (highestTrackableValue < 1)
+    {
+      throw new IllegalArgumentException("Highest trackable value must be positive: " + highestTrackableValue);
+    }
+
+    _bucketCount = bucketIndex(highestTrackableValue) + 1;
+    _buckets = new AtomicLongArray(_bucketCount);
+  }
+
+  /**
+   * Record a value. Negative values are recorded as 0.
+   */
+  @Override
+  public void addValue(long value)
+  {
+    if (value < 0)
+    {
+      value = 0;
+    }
+
+    _buckets.incrementAndGet(Math.min(bucketIndex(value), _bucketCount - 1));
+    _sum.addAndGet(value);
+    updateMinMax(value, value);
+  }
+
+  /**
+   * Add the values recorded by another histogram to this one. Values of the other histogram that are higher than
+   * the highest trackable value of this one are counted in the last bucket.
+   */
+  public void merge(LongHistogram other)
+  {
+    boolean merged = false;
+    for (int i = 0; i < other._bucketCount; ++i)
+    {
+      final long count = other._buckets.get(i);
+      if (count > 0)
+      {
+        _buckets.addAndGet(Math.min(i, _bucketCount - 1), count);
+        merged = true;
+      }
+    }
+
+    if (merged)
+    {
+      _sum.addAndGet(other._sum.get());
+      updateMinMax(other._min.get(), other._max.get());
+    }
+  }
+
+  /**
+   * Forget all recorded values. Values recorded concurrently may be partially forgotten.
+   */
+  @Override
+  public void reset()
+  {
+    for (int i = 0; i < _bucketCount; ++i)
+    {
+      _buckets.set(i, 0);
+    }
+    _sum.set(0);
+    _min.set(Long.MAX_VALUE);
+    _max.set(Long.MIN_VALUE);
+  }
+
+  private void updateMinMax(long minValue, long maxValue)
+  {
+    long min = _min.get();
+    while (minValue < min && !_min.compareAndSet(min, minValue))
+    {
+      min = _min.get();
+    }
+    long max = _max.get();
+    while (maxValue > max && !_max.compareAndSet(max, maxValue))
+    {
+      max = _max.get();
+    }
+  }
+
+  /**
+   * @return number of recorded values
+   */
+  public long getCount()
+  {
+    long count = 0;
+    for (int i = 0; i < _bucketCount; ++i)
+    {
+      count += _buckets.get(i);
+    }
+    return count;
+  }
+
+  /**
+   * @return statistics of the recorded values, in which the standard deviation and the percentiles are
+   *         computed from the buckets
+   */
+  @Override
+  public LongStats getStats()
+  {
+    final long[] counts = new long[_bucketCount];
+    long count = 0;
+    for (int i = 0; i < _bucketCount; ++i)
+    {
+      counts[i] = _buckets.get(i);
+      count += counts[i];
+    }
+
+    if (count == 0)
+    {
+      return new LongStats();
+    }
+
+    final long min = _min.get();
+    final long max = _max.get();
+    final double average = (double) _sum.get() / count;
+
+    double sumOfSquaredDeviations = 0;
+    for (int i = 0; i < _bucketCount; ++i)
+    {
+      if (counts[i] > 0)
+      {
+        final double deviation = (bucketLowerBound(i) + Math.min(max, bucketUpperBound(i))) / 2.0 - average;
+        sumOfSquaredDeviations += deviation * deviation * counts[i];
+      }
+    }
+
+    return new LongStats((int) Math.min(count, Integer.MAX_VALUE),
+                         average,
+                         Math.sqrt(sumOfSquaredDeviations / count),
+                         min,
+                         max,
+                         getPercentile(counts, count, 0.50, min, max),
+                         getPercentile(counts, count, 0.90, min, max),
+                         getPercentile(counts, count, 0.95, min, max),
+                         getPercentile(counts, count, 0.99, min, max));
+  }
+
+  /**
+   * @return the highest value that is counted in the same bucket as the value at the percentile, limited by the
+   *         minimum and maximum recorded values
+   */
+  private long getPercentile(long[] counts, long count, double pct, long min, long max)
+  {
+    final long rank = Math.max(1, (long) Math.ceil(pct * count));
+    long seen = 0;
+    for (int i = 0; i < counts.length; ++i)
+    {
+      seen += counts[i];
+      if (seen >= rank)
+      {
+        return i == _bucketCount - 1 ? max : Math.max(min, Math.min(max, bucketUpperBound(i)));
+      }
+    }
+    return max;
+  }
+
+  /* package private */ static int bucketIndex(long value)
+  {
+    final int shift = Math.max(0, (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1));
+    return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+  }
+
+  /* package private */ static long bucketLowerBound(int index)
+  {
+    if (index < SUB_BUCKET_COUNT)
+    {
+      return index;
+    }
+
+    final int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+    return (long) (index - shift * SUB_BUCKET_HALF_COUNT) << shift;
+  }
+
+  /* package private */ static long bucketUpperBound(int index)
+  {
+    return index == bucketIndex(Long.MAX_VALUE) ? Long.MAX_VALUE : bucketLowerBound(index + 1) - 1;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.common.stats;
+
+
+/**
+ * Tracks a collection of values and computes their {@link LongStats}.
+ */
+public interface LongTracker
+{
+  /**
+   * Record a value.
+   */
+  void addValue(long value);
+
+  /**
+   * Forget all recorded values.
+   */
+  void reset();
+
+  /**
+   * @return statistics of the values recorded since the last reset
+   */
+  LongStats getStats();
+}
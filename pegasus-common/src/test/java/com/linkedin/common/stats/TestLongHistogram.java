@@ -0,0 +1,206 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.common.stats;
+
+
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestLongHistogram
+{
+  @Test
+  public void testBuckets()
+  {
+    for (long value = 0; value < 100000; ++value)
+    {
+      assertBucket(value);
+    }
+    for (int shift = 0; shift < 63; ++shift)
+    {
+      assertBucket(1L << shift);
+      assertBucket((1L << shift) - 1);
+      assertBucket((1L << shift) + 1);
+    }
+    assertBucket(Long.MAX_VALUE);
+
+    // values smaller than 32 are exact, larger values are within 1/16 of their bucket
+    Assert.assertEquals(LongHistogram.bucketUpperBound(LongHistogram.bucketIndex(31)), 31);
+    final int index = LongHistogram.bucketIndex(1000000);
+    Assert.assertTrue(LongHistogram.bucketUpperBound(index) - LongHistogram.bucketLowerBound(index) < 1000000 / 16);
+  }
+
+  @Test
+  public void testStats()
+  {
+    final LongHistogram histogram = new LongHistogram();
+    Assert.assertEquals(histogram.getStats().getCount(), 0);
+
+    final LongTracking tracking = new LongTracking(1000000, 1000000, 2.0);
+    final Random random = new Random(1);
+    for (int i = 0; i < 100000; ++i)
+    {
+      final long value = (long) (Math.exp(random.nextGaussian()) * 1000000);
+      histogram.addValue(value);
+      tracking.addValue(value);
+    }
+
+    final LongStats actual = histogram.getStats();
+    final LongStats expected = tracking.getStats();
+    Assert.assertEquals(histogram.getCount(), 100000);
+    Assert.assertEquals(actual.getCount(), expected.getCount());
+    Assert.assertEquals(actual.getMinimum(), expected.getMinimum());
+    Assert.assertEquals(actual.getMaximum(), expected.getMaximum());
+    Assert.assertEquals(actual.getAverage(), expected.getAverage(), 1.0);
+    Assert.assertEquals(actual.getStandardDeviation(), expected.getStandardDeviation(), expected.getStandardDeviation() / 16);
+    assertWithinBucket(actual.get50Pct(), expected.get50Pct());
+    assertWithinBucket(actual.get90Pct(), expected.get90Pct());
+    assertWithinBucket(actual.get95Pct(), expected.get95Pct());
+    assertWithinBucket(actual.get99Pct(), expected.get99Pct());
+
+    histogram.addValue(-1);
+    Assert.assertEquals(histogram.getStats().getMinimum(), 0);
+  }
+
+  @Test
+  public void testConcurrentRecording() throws InterruptedException
+  {
+    final LongHistogram histogram = new LongHistogram();
+    final int threadCount = 4;
+    final int valueCount = 100000;
+    final CountDownLatch latch = new CountDownLatch(threadCount);
+    for (int i = 0; i < threadCount; ++i)
+    {
+      new Thread()
+      {
+        @Override
+        public void run()
+        {
+          for (int j = 1; j <= valueCount; ++j)
+          {
+            histogram.addValue(j);
+          }
+          latch.countDown();
+        }
+      }.start();
+    }
+    latch.await();
+
+    final LongStats stats = histogram.getStats();
+    Assert.assertEquals(stats.getCount(), threadCount * valueCount);
+    Assert.assertEquals(stats.getMinimum(), 1);
+    Assert.assertEquals(stats.getMaximum(), valueCount);
+    Assert.assertEquals(stats.getAverage(), (valueCount + 1) / 2.0, 0.001);
+  }
+
+  @Test
+  public void testMerge()
+  {
+    final LongHistogram first = new LongHistogram();
+    final LongHistogram second = new LongHistogram();
+    final LongHistogram all = new LongHistogram();
+    for (int i = 1; i <= 1000; ++i)
+    {
+      (i % 3 == 0 ? first : second).addValue(i * 1000L);
+      all.addValue(i * 1000L);
+    }
+
+    final LongHistogram merged = new LongHistogram();
+    merged.merge(first);
+    merged.merge(second);
+    merged.merge(new LongHistogram());
+    assertStatsEqual(merged.getStats(), all.getStats());
+  }
+
+  @Test
+  public void testHighestTrackableValue()
+  {
+    final LongHistogram histogram = new LongHistogram(1000);
+    for (int i = 1; i <= 98; ++i)
+    {
+      histogram.addValue(i);
+    }
+    histogram.addValue(5000);
+    histogram.addValue(Long.MAX_VALUE / 2);
+
+    final LongStats stats = histogram.getStats();
+    Assert.assertEquals(stats.getCount(), 100);
+    assertWithinBucket(stats.get50Pct(), 50);
+    Assert.assertEquals(stats.get99Pct(), Long.MAX_VALUE / 2);
+    Assert.assertEquals(stats.getMaximum(), Long.MAX_VALUE / 2);
+
+    // values above the highest trackable value of the target are counted in its last bucket
+    final LongHistogram unbounded = new LongHistogram();
+    unbounded.addValue(1);
+    unbounded.addValue(1L << 40);
+    histogram.merge(unbounded);
+    Assert.assertEquals(histogram.getCount(), 102);
+    Assert.assertEquals(histogram.getStats().getMinimum(), 1);
+  }
+
+  @Test
+  public void testReset()
+  {
+    final LongHistogram histogram = new LongHistogram();
+    histogram.addValue(10);
+    histogram.addValue(20);
+    histogram.reset();
+    Assert.assertEquals(histogram.getCount(), 0);
+    assertStatsEqual(histogram.getStats(), new LongStats());
+
+    histogram.addValue(30);
+    final LongStats stats = histogram.getStats();
+    Assert.assertEquals(stats.getCount(), 1);
+    Assert.assertEquals(stats.getMinimum(), 30);
+    Assert.assertEquals(stats.getMaximum(), 30);
+    Assert.assertEquals(stats.get50Pct(), 30);
+  }
+
+  private static void assertStatsEqual(LongStats actual, LongStats expected)
+  {
+    Assert.assertEquals(actual.getCount(), expected.getCount());
+    Assert.assertEquals(actual.getAverage(), expected.getAverage(), 0.0001);
+    Assert.assertEquals(actual.getStandardDeviation(), expected.getStandardDeviation(), 0.0001);
+    Assert.assertEquals(actual.getMinimum(), expected.getMinimum());
+    Assert.assertEquals(actual.getMaximum(), expected.getMaximum());
+    Assert.assertEquals(actual.get50Pct(), expected.get50Pct());
+    Assert.assertEquals(actual.get90Pct(), expected.get90Pct());
+    Assert.assertEquals(actual.get95Pct(), expected.get95Pct());
+    Assert.assertEquals(actual.get99Pct(), expected.get99Pct());
+  }
+
+  private static void assertBucket(long value)
+  {
+    final int index = LongHistogram.bucketIndex(value);
+    Assert.assertTrue(LongHistogram.bucketLowerBound(index) <= value, "value " + value);
+    Assert.assertTrue(LongHistogram.bucketUpperBound(index) >= value, "value " + value);
+    if (index > 0)
+    {
+      Assert.assertEquals(LongHistogram.bucketUpperBound(index - 1) + 1, LongHistogram.bucketLowerBound(index), "value " + value);
+    }
+  }
+
+  private static void assertWithinBucket(long actual, long expected)
+  {
+    final int index = LongHistogram.bucketIndex(expected);
+    Assert.assertTrue(actual >= LongHistogram.bucketLowerBound(index) && actual <= LongHistogram.bucketUpperBound(index),
+                      actual + " is not in the bucket of " + expected);
+  }
+}
@@ -17,6 +17,9 @@
 package com.linkedin.r2.filter;
 
 
+import com.linkedin.r2.message.LocalAttrKey;
+
+
 /**
  * @author kparikh
  */
@@ -30,4 +33,13 @@ public class R2Constants
   public static final String IS_QUERY_TUNNELED = "IS_QUERY_TUNNELED";
   public static final String FORCE_QUERY_TUNNEL = "FORCE_QUERY_TUNNEL";
   public static final String RESPONSE_DECOMPRESSION_OFF = "RESPONSE_DECOMPRESSION_OFF";
+
+  public static final LocalAttrKey<String> OPERATION_KEY = LocalAttrKey.register(OPERATION, String.class);
+  public static final LocalAttrKey<String> REMOTE_ADDR_KEY = LocalAttrKey.register(REMOTE_ADDR, String.class);
+  public static final LocalAttrKey<Boolean> IS_SECURE_KEY = LocalAttrKey.register(IS_SECURE, Boolean.class);
+  // the value is a CompressionOption of r2-filter-compression
+  public static final LocalAttrKey<Object> REQUEST_COMPRESSION_OVERRIDE_KEY = LocalAttrKey.register(REQUEST_COMPRESSION_OVERRIDE, Object.class);
+  public static final LocalAttrKey<Boolean> IS_QUERY_TUNNELED_KEY = LocalAttrKey.register(IS_QUERY_TUNNELED, Boolean.class);
+  public static final LocalAttrKey<Boolean> FORCE_QUERY_TUNNEL_KEY = LocalAttrKey.register(FORCE_QUERY_TUNNEL, Boolean.class);
+  public static final LocalAttrKey<Boolean> RESPONSE_DECOMPRESSION_OFF_KEY = LocalAttrKey.register(RESPONSE_DECOMPRESSION_OFF, Boolean.class);
 }
@@ -19,6 +19,7 @@ package com.linkedin.r2.filter.logging;
 import com.linkedin.r2.filter.NextFilter;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.filter.message.rest.RestFilter;
+import com.linkedin.r2.message.LocalAttrKey;
 import com.linkedin.r2.message.Request;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.Response;
@@ -47,7 +48,7 @@ public class SimpleLoggingFilter implements RestFilter
   // _log is not static because we need to be able to set it during test.
   private final Logger _log;
 
-  private static final String OPERATION = R2Constants.OPERATION;
+  private static final LocalAttrKey<String> OPERATION = R2Constants.OPERATION_KEY;
 
   private static final String REQUEST_URI = "com.linkedin.r2.requestURI";
   private static final String REQUEST_METHOD = "com.linkedin.r2.requestMethod";
@@ -148,7 +149,7 @@ public class SimpleLoggingFilter implements RestFilter
   private String buildLogMessage(String method, String type, String obj,
                                  Map<String, String> wireAttrs, RequestContext requestContext)
   {
-    String operationName = (String)requestContext.getLocalAttr(OPERATION);
+    String operationName = requestContext.getLocalAttr(OPERATION);
 
     StringBuilder builder = new StringBuilder();
     builder.append("[").append(method).append("] ");
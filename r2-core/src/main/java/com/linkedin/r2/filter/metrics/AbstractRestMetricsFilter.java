@@ -0,0 +1,166 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.metrics;
+
+
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.filter.message.rest.RestFilter;
+import com.linkedin.r2.message.LocalAttrKey;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestResponse;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Base of the filters that report the latency, payload sizes and status of requests to a {@link RestMetricsRecorder}.
+ *
+ * The state of a request is kept in a local attribute of its {@link RequestContext} until its response or error.
+ * The method of a request is its {@link R2Constants#OPERATION} when its response is received, so that operations
+ * set while the request is dispatched are reported.
+ */
+public abstract class AbstractRestMetricsFilter implements RestFilter
+{
+  private static final Logger _log = LoggerFactory.getLogger(AbstractRestMetricsFilter.class);
+  private static final String D2_SCHEME = "d2";
+
+  private final RestMetricsRecorder _recorder;
+  private final LocalAttrKey<InFlightRequest> _requestKey;
+
+  /* package private */ AbstractRestMetricsFilter(RestMetricsRecorder recorder, LocalAttrKey<InFlightRequest> requestKey)
+  {
+    _recorder = recorder;
+    _requestKey = requestKey;
+  }
+
+  @Override
+  public void onRestRequest(RestRequest req, RequestContext requestContext, Map<String, String> wireAttrs,
+                            NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    final String service = getServiceName(req);
+    requestContext.putLocalAttr(_requestKey, new InFlightRequest(service, req.getMethod(), req.getEntity().length(), System.nanoTime()));
+    try
+    {
+      _recorder.onRequest(service);
+    }
+    catch (RuntimeException e)
+    {
+      _log.warn("Failed to record request metrics", e);
+    }
+
+    nextFilter.onRequest(req, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onRestResponse(RestResponse res, RequestContext requestContext, Map<String, String> wireAttrs,
+                             NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    record(requestContext, res.getStatus(), res.getEntity().length());
+    nextFilter.onResponse(res, requestContext, wireAttrs);
+  }
+
+  @Override
+  public void onRestError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+                          NextFilter<RestRequest, RestResponse> nextFilter)
+  {
+    if (ex instanceof RestException)
+    {
+      final RestResponse res = ((RestException) ex).getResponse();
+      record(requestContext, res.getStatus(), res.getEntity().length());
+    }
+    else
+    {
+      record(requestContext, 0, 0);
+    }
+    nextFilter.onError(ex, requestContext, wireAttrs);
+  }
+
+  /**
+   * Returns the service name of a request, which is the authority of d2 URIs and the first path segment of other
+   * URIs. Override to derive service names differently, such as for servers with a context path.
+   *
+   * @param req the request
+   * @return name of the service of the request
+   */
+  protected String getServiceName(RestRequest req)
+  {
+    final URI uri = req.getURI();
+    if (D2_SCHEME.equals(uri.getScheme()) && uri.getRawAuthority() != null)
+    {
+      return uri.getRawAuthority();
+    }
+
+    final String path = uri.getRawPath();
+    if (path == null)
+    {
+      return "";
+    }
+
+    final int start = path.startsWith("/") ? 1 : 0;
+    final int end = path.indexOf('/', start);
+    return end < 0 ? path.substring(start) : path.substring(start, end);
+  }
+
+  private void record(RequestContext requestContext, int status, int responseSize)
+  {
+    final InFlightRequest request = requestContext.removeLocalAttr(_requestKey);
+    if (request == null)
+    {
+      // the request did not pass through this filter, or its response was already recorded
+      return;
+    }
+
+    final long latency = System.nanoTime() - request._startNano;
+    String method = requestContext.getLocalAttr(R2Constants.OPERATION_KEY);
+    if (method == null)
+    {
+      method = request._method;
+    }
+
+    try
+    {
+      _recorder.onResponse(request._service, method, status, latency, request._requestSize, responseSize);
+    }
+    catch (RuntimeException e)
+    {
+      _log.warn("Failed to record response metrics", e);
+    }
+  }
+
+  /* package private */ static final class InFlightRequest
+  {
+    private final String _service;
+    private final String _method;
+    private final int _requestSize;
+    private final long _startNano;
+
+    private InFlightRequest(String service, String method, int requestSize, long startNano)
+    {
+      _service = service;
+      _method = method;
+      _requestSize = requestSize;
+      _startNano = startNano;
+    }
+  }
+}
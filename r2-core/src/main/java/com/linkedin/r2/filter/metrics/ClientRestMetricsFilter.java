@@ -0,0 +1,35 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.metrics;
+
+
+import com.linkedin.r2.message.LocalAttrKey;
+
+
+/**
+ * Reports the metrics of the requests of a client to a {@link RestMetricsRecorder}.
+ */
+public class ClientRestMetricsFilter extends AbstractRestMetricsFilter
+{
+  private static final LocalAttrKey<InFlightRequest> REQUEST_KEY =
+      LocalAttrKey.register(ClientRestMetricsFilter.class.getName() + ".request", InFlightRequest.class);
+
+  public ClientRestMetricsFilter(RestMetricsRecorder recorder)
+  {
+    super(recorder, REQUEST_KEY);
+  }
+}
@@ -0,0 +1,156 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.metrics;
+
+
+import com.linkedin.common.stats.LongStats;
+
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * Immutable snapshot of the metrics of the requests of a method of a service.
+ */
+public class RestMethodStats
+{
+  private final String _service;
+  private final String _method;
+  private final long _count;
+  private final long _errorCount;
+  private final LongStats _latency;
+  private final LongStats _requestSize;
+  private final LongStats _responseSize;
+  private final Map<Integer, Long> _statusCounts;
+
+  public RestMethodStats(String service,
+                         String method,
+                         LongStats latency,
+                         LongStats requestSize,
+                         LongStats responseSize,
+                         Map<Integer, Long> statusCounts)
+  {
+    _service = service;
+    _method = method;
+    _latency = latency;
+    _requestSize = requestSize;
+    _responseSize = responseSize;
+    _statusCounts = Collections.unmodifiableMap(statusCounts);
+
+    long count = 0;
+    long errorCount = 0;
+    for (Map.Entry<Integer, Long> entry : statusCounts.entrySet())
+    {
+      count += entry.getValue();
+      if (isError(entry.getKey()))
+      {
+        errorCount += entry.getValue();
+      }
+    }
+    _count = count;
+    _errorCount = errorCount;
+  }
+
+  public String getService()
+  {
+    return _service;
+  }
+
+  public String getMethod()
+  {
+    return _method;
+  }
+
+  /**
+   * @return number of completed requests
+   */
+  public long getCount()
+  {
+    return _count;
+  }
+
+  /**
+   * @return number of requests that failed without a response or with a 5xx status
+   */
+  public long getErrorCount()
+  {
+    return _errorCount;
+  }
+
+  /**
+   * @return statistics of the request latencies, in nanoseconds
+   */
+  public LongStats getLatency()
+  {
+    return _latency;
+  }
+
+  /**
+   * @return statistics of the request entity lengths, in bytes
+   */
+  public LongStats getRequestSize()
+  {
+    return _requestSize;
+  }
+
+  /**
+   * @return statistics of the response entity lengths, in bytes
+   */
+  public LongStats getResponseSize()
+  {
+    return _responseSize;
+  }
+
+  /**
+   * @return number of requests by HTTP status, where status 0 counts the requests that failed without a response
+   */
+  public Map<Integer, Long> getStatusCounts()
+  {
+    return _statusCounts;
+  }
+
+  /**
+   * @return whether the status is counted as an error
+   */
+  public static boolean isError(int status)
+  {
+    return status == 0 || status >= 500;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "service=" + _service +
+        ", method=" + _method +
+        ", count=" + _count +
+        ", errorCount=" + _errorCount +
+        ", statusCounts=" + _statusCounts +
+        ", latency=" + format(_latency) +
+        ", requestSize=" + format(_requestSize) +
+        ", responseSize=" + format(_responseSize);
+  }
+
+  private static String format(LongStats stats)
+  {
+    return "{average=" + stats.getAverage() +
+        ", min=" + stats.getMinimum() +
+        ", 50pct=" + stats.get50Pct() +
+        ", 90pct=" + stats.get90Pct() +
+        ", 99pct=" + stats.get99Pct() +
+        ", max=" + stats.getMaximum() + "}";
+  }
+}
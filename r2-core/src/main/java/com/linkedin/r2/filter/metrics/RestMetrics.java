@@ -0,0 +1,272 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.metrics;
+
+
+import com.linkedin.common.stats.LongHistogram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * {@link RestMetricsRecorder} that keeps the metrics of each method of each service in memory, in
+ * {@link LongHistogram}s and counters that are updated without locking.
+ *
+ * The number of tracked methods is bounded. Once it is reached, the requests of other methods are counted under
+ * {@link #OTHER_SERVICE} and {@link #OTHER_METHOD}, and the in-flight requests of other services under
+ * {@link #OTHER_SERVICE}. The histograms of each method are bounded too, see {@link #HIGHEST_TRACKED_LATENCY_NANO}
+ * and {@link #HIGHEST_TRACKED_SIZE}.
+ */
+public class RestMetrics implements RestMetricsRecorder
+{
+  public static final int DEFAULT_MAX_METHODS = 1000;
+  public static final String OTHER_SERVICE = "*";
+  public static final String OTHER_METHOD = "*";
+
+  private static final int MAX_STATUS = 599;
+
+  /**
+   * Highest latency that is counted with a bounded error. Higher latencies only count towards the maximum.
+   */
+  public static final long HIGHEST_TRACKED_LATENCY_NANO = TimeUnit.HOURS.toNanos(1);
+
+  /**
+   * Highest request or response size that is counted with a bounded error. Larger sizes only count towards the
+   * maximum.
+   */
+  public static final long HIGHEST_TRACKED_SIZE = 64 * 1024 * 1024;
+
+  private static final Comparator<RestMethodStats> STATS_COMPARATOR = new Comparator<RestMethodStats>()
+  {
+    @Override
+    public int compare(RestMethodStats stats1, RestMethodStats stats2)
+    {
+      final int result = stats1.getService().compareTo(stats2.getService());
+      return result != 0 ? result : stats1.getMethod().compareTo(stats2.getMethod());
+    }
+  };
+
+  private final int _maxMethods;
+  private final ConcurrentMap<MethodKey, MethodMetrics> _methods = new ConcurrentHashMap<MethodKey, MethodMetrics>();
+  private final ConcurrentMap<String, AtomicInteger> _inFlightRequestCounts =
+      new ConcurrentHashMap<String, AtomicInteger>();
+
+  public RestMetrics()
+  {
+    this(DEFAULT_MAX_METHODS);
+  }
+
+  /**
+   * @param maxMethods maximum number of methods that are tracked separately
+   */
+  public RestMetrics(int maxMethods)
+  {
+    if (maxMethods <= 0)
+    {
+      throw new IllegalArgumentException("Maximum number of methods must be positive: " + maxMethods);
+    }
+    _maxMethods = maxMethods;
+  }
+
+  @Override
+  public void onRequest(String service)
+  {
+    getInFlightCounter(service).incrementAndGet();
+  }
+
+  @Override
+  public void onResponse(String service, String method, int status, long latencyNano, int requestSize, int responseSize)
+  {
+    getInFlightCounter(service).decrementAndGet();
+    getMethodMetrics(service, method).record(status, latencyNano, requestSize, responseSize);
+  }
+
+  /**
+   * @return number of requests of all services that entered the filters without their response leaving them
+   */
+  public int getInFlightRequestCount()
+  {
+    int count = 0;
+    for (AtomicInteger counter : _inFlightRequestCounts.values())
+    {
+      count += counter.get();
+    }
+    return count;
+  }
+
+  /**
+   * @return number of requests of each service that entered the filters without their response leaving them
+   */
+  public Map<String, Integer> getInFlightRequestCounts()
+  {
+    final Map<String, Integer> counts = new HashMap<String, Integer>();
+    for (Map.Entry<String, AtomicInteger> entry : _inFlightRequestCounts.entrySet())
+    {
+      counts.put(entry.getKey(), entry.getValue().get());
+    }
+    return counts;
+  }
+
+  /**
+   * @return snapshots of the metrics of all tracked methods, ordered by service and method
+   */
+  public List<RestMethodStats> getMethodStats()
+  {
+    final List<RestMethodStats> stats = new ArrayList<RestMethodStats>(_methods.size());
+    for (Map.Entry<MethodKey, MethodMetrics> entry : _methods.entrySet())
+    {
+      stats.add(entry.getValue().getStats(entry.getKey()));
+    }
+    Collections.sort(stats, STATS_COMPARATOR);
+    return stats;
+  }
+
+  /**
+   * @return snapshot of the metrics of the method, or null if the method has no completed requests
+   */
+  public RestMethodStats getMethodStats(String service, String method)
+  {
+    final MethodKey key = new MethodKey(service, method);
+    final MethodMetrics metrics = _methods.get(key);
+    return metrics == null ? null : metrics.getStats(key);
+  }
+
+  private AtomicInteger getInFlightCounter(String service)
+  {
+    AtomicInteger counter = _inFlightRequestCounts.get(service);
+    if (counter != null)
+    {
+      return counter;
+    }
+
+    // services are never removed, so a request and its response always find the same counter
+    final String key = _inFlightRequestCounts.size() >= _maxMethods ? OTHER_SERVICE : service;
+    counter = new AtomicInteger();
+    final AtomicInteger existing = _inFlightRequestCounts.putIfAbsent(key, counter);
+    return existing == null ? counter : existing;
+  }
+
+  private MethodMetrics getMethodMetrics(String service, String method)
+  {
+    MethodKey key = new MethodKey(service, method);
+    MethodMetrics metrics = _methods.get(key);
+    if (metrics != null)
+    {
+      return metrics;
+    }
+
+    if (_methods.size() >= _maxMethods)
+    {
+      key = new MethodKey(OTHER_SERVICE, OTHER_METHOD);
+      metrics = _methods.get(key);
+      if (metrics != null)
+      {
+        return metrics;
+      }
+    }
+
+    metrics = new MethodMetrics();
+    final MethodMetrics existing = _methods.putIfAbsent(key, metrics);
+    return existing == null ? metrics : existing;
+  }
+
+  private static class MethodKey
+  {
+    private final String _service;
+    private final String _method;
+
+    private MethodKey(String service, String method)
+    {
+      _service = service;
+      _method = method;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+      if (!(obj instanceof MethodKey))
+      {
+        return false;
+      }
+
+      final MethodKey other = (MethodKey) obj;
+      return _service.equals(other._service) && _method.equals(other._method);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return 31 * _service.hashCode() + _method.hashCode();
+    }
+  }
+
+  private static class MethodMetrics
+  {
+    private final LongHistogram _latency = new LongHistogram(HIGHEST_TRACKED_LATENCY_NANO);
+    private final LongHistogram _requestSize = new LongHistogram(HIGHEST_TRACKED_SIZE);
+    private final LongHistogram _responseSize = new LongHistogram(HIGHEST_TRACKED_SIZE);
+    // only the statuses that occurred, usually a handful
+    private final ConcurrentMap<Integer, AtomicLong> _statusCounts = new ConcurrentHashMap<Integer, AtomicLong>(4);
+
+    private void record(int status, long latencyNano, int requestSize, int responseSize)
+    {
+      _latency.addValue(latencyNano);
+      _requestSize.addValue(requestSize);
+      _responseSize.addValue(responseSize);
+
+      // invalid statuses are counted as 0
+      final Integer key = status >= 0 && status <= MAX_STATUS ? status : 0;
+      AtomicLong count = _statusCounts.get(key);
+      if (count == null)
+      {
+        count = new AtomicLong();
+        final AtomicLong existing = _statusCounts.putIfAbsent(key, count);
+        if (existing != null)
+        {
+          count = existing;
+        }
+      }
+      count.incrementAndGet();
+    }
+
+    private RestMethodStats getStats(MethodKey key)
+    {
+      final Map<Integer, Long> statusCounts = new HashMap<Integer, Long>();
+      for (Map.Entry<Integer, AtomicLong> entry : _statusCounts.entrySet())
+      {
+        statusCounts.put(entry.getKey(), entry.getValue().get());
+      }
+
+      return new RestMethodStats(key._service,
+                                 key._method,
+                                 _latency.getStats(),
+                                 _requestSize.getStats(),
+                                 _responseSize.getStats(),
+                                 statusCounts);
+    }
+  }
+}
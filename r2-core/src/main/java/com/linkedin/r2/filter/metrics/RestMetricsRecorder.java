@@ -0,0 +1,47 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.filter.metrics;
+
+
+/**
+ * Receives the metrics of the requests that pass through a {@link ClientRestMetricsFilter} or a
+ * {@link ServerRestMetricsFilter}.
+ *
+ * Methods are called on the threads that process the requests and responses, so implementations must be thread
+ * safe and should not block. {@link RestMetrics} keeps the metrics in memory.
+ */
+public interface RestMetricsRecorder
+{
+  /**
+   * Called when a request enters the filter.
+   *
+   * @param service name of the service of the request
+   */
+  void onRequest(String service);
+
+  /**
+   * Called when the response or error of a request leaves the filter.
+   *
+   * @param service name of the service of the request
+   * @param method operation of the request, or the HTTP method if the operation is unknown
+   * @param status HTTP status of the response, or 0 if the request failed without a response
+   * @param latencyNano time between the request entering and the response leaving the filter, in nanoseconds
+   * @param requestSize entity length of the request, in bytes
+   * @param responseSize entity length of the response, in bytes
+   */
+  void onResponse(String service, String method, int status, long latencyNano, int requestSize, int responseSize);
+}
@@ -20,6 +20,7 @@ package com.linkedin.r2.filter.transport;
 
 import com.linkedin.r2.filter.NextFilter;
 import com.linkedin.r2.filter.message.rest.RestResponseFilter;
+import com.linkedin.r2.message.LocalAttrKey;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestResponse;
@@ -39,7 +40,8 @@ import org.slf4j.LoggerFactory;
  */
 public class ResponseFilter implements RestResponseFilter
 {
-  private static final String CALLBACK_ATTR = ResponseFilter.class.getName() + ".callback";
+  private static final LocalAttrKey<TransportCallback> CALLBACK_ATTR =
+      LocalAttrKey.register(ResponseFilter.class.getName() + ".callback", TransportCallback.class);
 
   private static final Logger _log = LoggerFactory.getLogger(ResponseFilter.class);
 
@@ -0,0 +1,129 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message;
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Typed key of a local attribute of {@link RequestContext}.
+ * <p/>
+ * Registered keys are assigned a slot, and their attributes are stored in a small array of the context instead of
+ * a map. Attributes with the name of a registered key use its slot, whether they are accessed with the key or with
+ * the name.
+ */
+public final class LocalAttrKey<T>
+{
+  private static final ConcurrentMap<String, LocalAttrKey<?>> KEYS_BY_NAME = new ConcurrentHashMap<String, LocalAttrKey<?>>();
+  private static volatile LocalAttrKey<?>[] _keysByIndex = new LocalAttrKey<?>[0];
+
+  private final String _name;
+  private final Class<T> _type;
+  private final int _index;
+
+  private LocalAttrKey(String name, Class<T> type, int index)
+  {
+    _name = name;
+    _type = type;
+    _index = index;
+  }
+
+  /**
+   * Register the key of an attribute. Keys are meant to be registered once, in static fields, as the number of
+   * registered keys determines the size of the attribute array of each context.
+   *
+   * @param name name of the attribute
+   * @param type type of the attribute value
+   * @param <T> type of the attribute value
+   * @return the registered key, which is the same for all registrations of the name and type
+   * @throws IllegalArgumentException if the name is already registered with a different type
+   */
+  @SuppressWarnings("unchecked")
+  public static synchronized <T> LocalAttrKey<T> register(String name, Class<T> type)
+  {
+    final LocalAttrKey<?> existing = KEYS_BY_NAME.get(name);
+    if (existing != null)
+    {
+      if (existing._type != type)
+      {
+        throw new IllegalArgumentException("Local attribute " + name + " is already registered with type " + existing._type.getName());
+      }
+      return (LocalAttrKey<T>) existing;
+    }
+
+    final LocalAttrKey<?>[] keys = new LocalAttrKey<?>[_keysByIndex.length + 1];
+    System.arraycopy(_keysByIndex, 0, keys, 0, _keysByIndex.length);
+    final LocalAttrKey<T> key = new LocalAttrKey<T>(name, type, _keysByIndex.length);
+    keys[key._index] = key;
+    _keysByIndex = keys;
+    KEYS_BY_NAME.put(name, key);
+    return key;
+  }
+
+  /**
+   * @return name of the attribute
+   */
+  public String getName()
+  {
+    return _name;
+  }
+
+  /**
+   * @return type of the attribute value
+   */
+  public Class<T> getType()
+  {
+    return _type;
+  }
+
+  @Override
+  public String toString()
+  {
+    return _name;
+  }
+
+  /* package private */ int getIndex()
+  {
+    return _index;
+  }
+
+  /**
+   * @return the registered key of the name, or null if the name is not registered
+   */
+  /* package private */ static LocalAttrKey<?> forName(String name)
+  {
+    return KEYS_BY_NAME.get(name);
+  }
+
+  /**
+   * @return the registered key of the index
+   */
+  /* package private */ static LocalAttrKey<?> forIndex(int index)
+  {
+    return _keysByIndex[index];
+  }
+
+  /**
+   * @return number of registered keys
+   */
+  /* package private */ static int count()
+  {
+    return _keysByIndex.length;
+  }
+}
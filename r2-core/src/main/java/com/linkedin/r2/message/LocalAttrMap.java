@@ -0,0 +1,376 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message;
+
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * Local attributes of a {@link RequestContext}.
+ * <p/>
+ * Attributes of registered {@link LocalAttrKey}s are stored in an array indexed by the key, and other attributes
+ * are stored in a map. Neither is allocated until an attribute is put into it.
+ * <p/>
+ * Copies share the array and the map until either copy modifies them, so that copying a context for each hop of a
+ * request does not copy its attributes unless they change.
+ * <p/>
+ * Not thread safe.
+ */
+/* package private */ final class LocalAttrMap extends AbstractMap<String, Object>
+{
+  // stored in place of null values, so that null slots mean absent attributes
+  private static final Object NULL_VALUE = new Object();
+
+  private Object[] _slots;
+  private int _slotCount;
+  private Map<String, Object> _attrs;
+  // whether the array or the map may be shared with another map, in which case they are copied before being modified
+  private boolean _slotsShared;
+  private boolean _attrsShared;
+
+  /**
+   * Constructs an empty map.
+   */
+  LocalAttrMap()
+  {
+    _slots = null;
+    _slotCount = 0;
+    _attrs = null;
+    _slotsShared = false;
+    _attrsShared = false;
+  }
+
+  private LocalAttrMap(LocalAttrMap source)
+  {
+    _slots = source._slots;
+    _slotCount = source._slotCount;
+    _attrs = source._attrs;
+    _slotsShared = _slots != null;
+    _attrsShared = _attrs != null;
+    source._slotsShared = _slotsShared;
+    source._attrsShared = _attrsShared;
+  }
+
+  /**
+   * @return copy of this map, which is not affected by later changes of this map
+   */
+  LocalAttrMap copy()
+  {
+    return new LocalAttrMap(this);
+  }
+
+  /**
+   * @return value of the attribute of the registered key, or null if it is absent
+   */
+  Object get(LocalAttrKey<?> key)
+  {
+    final Object value = getSlot(key.getIndex());
+    if (value != null)
+    {
+      return unmask(value);
+    }
+
+    // the attribute may have been put before its name was registered
+    return _attrs == null ? null : _attrs.get(key.getName());
+  }
+
+  /**
+   * Sets the attribute of the registered key.
+   *
+   * @return previous value of the attribute, or null if it was absent
+   */
+  Object put(LocalAttrKey<?> key, Object value)
+  {
+    if (_slots == null || key.getIndex() >= _slots.length || _slotsShared)
+    {
+      ensureSlotsOwned(key.getIndex() + 1);
+    }
+
+    final Object previous = _slots[key.getIndex()];
+    _slots[key.getIndex()] = value == null ? NULL_VALUE : value;
+    if (previous != null)
+    {
+      return unmask(previous);
+    }
+
+    ++_slotCount;
+    return removeAttr(key.getName());
+  }
+
+  /**
+   * Removes the attribute of the registered key.
+   *
+   * @return previous value of the attribute, or null if it was absent
+   */
+  Object remove(LocalAttrKey<?> key)
+  {
+    final Object previous = getSlot(key.getIndex());
+    if (previous == null)
+    {
+      return removeAttr(key.getName());
+    }
+
+    ensureSlotsOwned(0);
+    _slots[key.getIndex()] = null;
+    --_slotCount;
+    return unmask(previous);
+  }
+
+  @Override
+  public int size()
+  {
+    return _slotCount + (_attrs == null ? 0 : _attrs.size());
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    final LocalAttrKey<?> attrKey = registeredKey(key);
+    if (attrKey != null && getSlot(attrKey.getIndex()) != null)
+    {
+      return true;
+    }
+
+    return _attrs != null && _attrs.containsKey(key);
+  }
+
+  @Override
+  public Object get(Object key)
+  {
+    final LocalAttrKey<?> attrKey = registeredKey(key);
+    if (attrKey != null)
+    {
+      return get(attrKey);
+    }
+
+    return _attrs == null ? null : _attrs.get(key);
+  }
+
+  @Override
+  public Object put(String key, Object value)
+  {
+    final LocalAttrKey<?> attrKey = registeredKey(key);
+    if (attrKey != null)
+    {
+      return put(attrKey, value);
+    }
+
+    ensureAttrsOwned();
+    return _attrs.put(key, value);
+  }
+
+  @Override
+  public Object remove(Object key)
+  {
+    final LocalAttrKey<?> attrKey = registeredKey(key);
+    if (attrKey != null)
+    {
+      return remove(attrKey);
+    }
+
+    return removeAttr(key);
+  }
+
+  @Override
+  public void clear()
+  {
+    _slots = null;
+    _slotCount = 0;
+    _attrs = null;
+    _slotsShared = false;
+    _attrsShared = false;
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet()
+  {
+    return new AbstractSet<Map.Entry<String, Object>>()
+    {
+      @Override
+      public Iterator<Map.Entry<String, Object>> iterator()
+      {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size()
+      {
+        return LocalAttrMap.this.size();
+      }
+    };
+  }
+
+  private Object getSlot(int index)
+  {
+    return _slots == null || index >= _slots.length ? null : _slots[index];
+  }
+
+  private Object removeAttr(Object key)
+  {
+    if (_attrs == null || !_attrs.containsKey(key))
+    {
+      return null;
+    }
+
+    ensureAttrsOwned();
+    return _attrs.remove(key);
+  }
+
+  /**
+   * Makes sure that the array is not shared and can hold the given number of attributes.
+   */
+  private void ensureSlotsOwned(int capacity)
+  {
+    final int length = Math.max(capacity, LocalAttrKey.count());
+    if (_slots == null)
+    {
+      _slots = new Object[length];
+    }
+    else if (_slotsShared || _slots.length < capacity)
+    {
+      final Object[] slots = new Object[Math.max(length, _slots.length)];
+      System.arraycopy(_slots, 0, slots, 0, _slots.length);
+      _slots = slots;
+    }
+    _slotsShared = false;
+  }
+
+  private void ensureAttrsOwned()
+  {
+    if (_attrs == null)
+    {
+      _attrs = new HashMap<String, Object>();
+    }
+    else if (_attrsShared)
+    {
+      _attrs = new HashMap<String, Object>(_attrs);
+    }
+    _attrsShared = false;
+  }
+
+  private static LocalAttrKey<?> registeredKey(Object key)
+  {
+    return key instanceof String ? LocalAttrKey.forName((String) key) : null;
+  }
+
+  private static Object unmask(Object value)
+  {
+    return value == NULL_VALUE ? null : value;
+  }
+
+  private class EntryIterator implements Iterator<Map.Entry<String, Object>>
+  {
+    private final Object[] _iteratedSlots = _slots;
+    private final Map<String, Object> _iteratedAttrs = _attrs;
+    private Iterator<Map.Entry<String, Object>> _attrsIterator = null;
+    private int _nextSlot = nextSlot(0);
+    private String _lastKey = null;
+    private boolean _lastInSlots = false;
+    private boolean _canRemove = false;
+
+    @Override
+    public boolean hasNext()
+    {
+      if (_nextSlot >= 0)
+      {
+        return true;
+      }
+
+      return _iteratedAttrs != null && attrsIterator().hasNext();
+    }
+
+    @Override
+    public Map.Entry<String, Object> next()
+    {
+      final Map.Entry<String, Object> entry;
+      if (_nextSlot >= 0)
+      {
+        entry = new AbstractMap.SimpleImmutableEntry<String, Object>(LocalAttrKey.forIndex(_nextSlot).getName(),
+                                                                     unmask(_iteratedSlots[_nextSlot]));
+        _nextSlot = nextSlot(_nextSlot + 1);
+        _lastInSlots = true;
+      }
+      else if (_iteratedAttrs != null)
+      {
+        entry = attrsIterator().next();
+        _lastInSlots = false;
+      }
+      else
+      {
+        throw new NoSuchElementException();
+      }
+
+      _lastKey = entry.getKey();
+      _canRemove = true;
+      return entry;
+    }
+
+    @Override
+    public void remove()
+    {
+      if (!_canRemove)
+      {
+        throw new IllegalStateException();
+      }
+
+      if (_lastInSlots)
+      {
+        LocalAttrMap.this.remove(LocalAttrKey.forName(_lastKey));
+      }
+      else if (_attrs == _iteratedAttrs && !_attrsShared)
+      {
+        _attrsIterator.remove();
+      }
+      else
+      {
+        removeAttr(_lastKey);
+      }
+      _canRemove = false;
+    }
+
+    private int nextSlot(int index)
+    {
+      if (_iteratedSlots != null)
+      {
+        for (int i = index; i < _iteratedSlots.length; ++i)
+        {
+          if (_iteratedSlots[i] != null)
+          {
+            return i;
+          }
+        }
+      }
+      return -1;
+    }
+
+    private Iterator<Map.Entry<String, Object>> attrsIterator()
+    {
+      if (_attrsIterator == null)
+      {
+        _attrsIterator = _iteratedAttrs.entrySet().iterator();
+      }
+      return _attrsIterator;
+    }
+  }
+}
@@ -20,25 +20,27 @@
 
 package com.linkedin.r2.message;
 
-import java.util.HashMap;
 import java.util.Map;
 
 /**
  * RequestContext should not be shared across requests.
+ * <p/>
+ * Attributes of keys registered with {@link LocalAttrKey#register(String, Class)} are stored in a small array,
+ * and other attributes in a map. Copies of a context share its attributes until either copy modifies them.
  *
  * @author Josh Walker
  * @version $Revision: $
  */
 public class RequestContext
 {
-  private final Map<String, Object> _localAttrs;
+  private final LocalAttrMap _localAttrs;
 
   /**
    * Construct a new instance with an empty set of attributes.
    */
   public RequestContext()
   {
-    _localAttrs = new HashMap<String, Object>();
+    _localAttrs = new LocalAttrMap();
   }
 
   /**
@@ -49,10 +51,10 @@ public class RequestContext
    */
   public RequestContext(RequestContext other)
   {
-    _localAttrs = new HashMap<String, Object>(other._localAttrs);
+    _localAttrs = other._localAttrs.copy();
   }
 
-  private RequestContext(Map<String, Object> localAttrs)
+  private RequestContext(LocalAttrMap localAttrs)
   {
     _localAttrs = localAttrs;
   }
@@ -100,12 +102,45 @@ public class RequestContext
     return _localAttrs.remove(key);
   }
 
+  /**
+   * Return a specific attribute from this object.
+   *
+   * @param key the registered key for the attribute to be obtained.
+   * @return the value of the specified attribute, or null if the attribute does not exist.
+   * @throws ClassCastException if the attribute was set by name to a value of another type.
+   */
+  public <T> T getLocalAttr(LocalAttrKey<T> key)
+  {
+    return key.getType().cast(_localAttrs.get(key));
+  }
+
+  /**
+   * Set the value of a specific attribute in this object.
+   *
+   * @param key the registered key for the attribute to be set.
+   * @param value the value for the attribute to be set.
+   */
+  public <T> void putLocalAttr(LocalAttrKey<T> key, T value)
+  {
+    _localAttrs.put(key, value);
+  }
+
+  /**
+   * Remove a specific attribute from this object.
+   *
+   * @param key the registered key for the attribute to be removed.
+   * @return the previous value of the attribute, or null if the attribute does not exist.
+   * @throws ClassCastException if the attribute was set by name to a value of another type.
+   */
+  public <T> T removeLocalAttr(LocalAttrKey<T> key)
+  {
+    return key.getType().cast(_localAttrs.remove(key));
+  }
+
   @Override
   public RequestContext clone()
   {
-    Map<String, Object> localAttrs = new HashMap<String, Object>();
-    localAttrs.putAll(this._localAttrs);
-    return new RequestContext(localAttrs);
+    return new RequestContext(_localAttrs.copy());
   }
 
   @Override
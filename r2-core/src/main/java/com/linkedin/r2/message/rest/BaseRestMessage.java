@@ -43,7 +43,8 @@ import com.linkedin.r2.message.BaseMessage;
 
     assert headers != null;
     assert cookies != null;
-    _headers = headers;
+    // the headers of a builder are already an unmodifiable snapshot, which is shared with the next builder
+    _headers = headers instanceof HeaderMap ? ((HeaderMap) headers).readOnlyCopy() : Collections.unmodifiableMap(headers);
     _cookies = cookies;
   }
 
@@ -76,7 +77,7 @@ import com.linkedin.r2.message.BaseMessage;
   @Override
   public Map<String, String> getHeaders()
   {
-    return Collections.unmodifiableMap(_headers);
+    return _headers;
   }
 
   @Override
@@ -28,7 +28,6 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.TreeMap;
 
 
 /**
@@ -45,7 +44,7 @@ public abstract class BaseRestMessageBuilder<B extends BaseRestMessageBuilder<B>
 
   private static final String CANONICAL_REPLACEMENT = " ";
 
-  private Map<String, String> _headers;
+  private HeaderMap _headers;
 
   private List<String> _cookies;
 
@@ -147,6 +146,17 @@ public abstract class BaseRestMessageBuilder<B extends BaseRestMessageBuilder<B>
     return _headers.get(name);
   }
 
+  /**
+   * Returns the headers for a message built by this builder. The headers are shared with the message
+   * until they are changed by this builder.
+   *
+   * @return unmodifiable snapshot of the headers
+   */
+  /* package private */ Map<String, String> getHeadersSnapshot()
+  {
+    return _headers.readOnlyCopy();
+  }
+
   @Override
   public List<String> getHeaderValues(String name)
   {
@@ -209,7 +219,7 @@ public abstract class BaseRestMessageBuilder<B extends BaseRestMessageBuilder<B>
    */
   public B unsafeSetHeaders(Map<String, String> headers)
   {
-    _headers = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+    _headers = new HeaderMap();
     return unsafeOverwriteHeaders(headers);
   }
 
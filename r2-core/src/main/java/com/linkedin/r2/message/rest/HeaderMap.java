@@ -0,0 +1,343 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.rest;
+
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+
+/**
+ * Compact map of headers with case-insensitive names.
+ * <p/>
+ * The names, the values and the case-insensitive hashes of the names are kept in arrays. Lookups compare the
+ * hashes before the names, and the entries are kept sorted by name with {@link String#CASE_INSENSITIVE_ORDER},
+ * which iterates them in the same order as a {@link java.util.TreeMap} with that comparator.
+ * <p/>
+ * Copies share the arrays until either copy is modified, so that passing the headers between a message and
+ * its builders does not copy them unless they change. Read-only copies are used by the messages.
+ * <p/>
+ * Not thread safe, except for concurrent reads.
+ */
+/* package private */ final class HeaderMap extends AbstractMap<String, String>
+{
+  private static final String[] EMPTY_STRINGS = new String[0];
+  private static final int[] EMPTY_HASHES = new int[0];
+  private static final int INITIAL_CAPACITY = 8;
+
+  private final boolean _readOnly;
+  private String[] _names;
+  private String[] _values;
+  private int[] _hashes;
+  private int _size;
+  // whether the arrays may be shared with another map, in which case they are copied before being modified
+  private boolean _shared;
+
+  /**
+   * Constructs an empty map.
+   */
+  HeaderMap()
+  {
+    _readOnly = false;
+    _names = EMPTY_STRINGS;
+    _values = EMPTY_STRINGS;
+    _hashes = EMPTY_HASHES;
+    _size = 0;
+    _shared = false;
+  }
+
+  private HeaderMap(HeaderMap source, boolean readOnly)
+  {
+    _readOnly = readOnly;
+    _names = source._names;
+    _values = source._values;
+    _hashes = source._hashes;
+    _size = source._size;
+    _shared = true;
+    if (!source._readOnly)
+    {
+      source._shared = true;
+    }
+  }
+
+  /**
+   * @return modifiable copy of this map
+   */
+  HeaderMap copy()
+  {
+    return new HeaderMap(this, false);
+  }
+
+  /**
+   * @return unmodifiable copy of this map, which is not affected by later changes of this map
+   */
+  HeaderMap readOnlyCopy()
+  {
+    return _readOnly ? this : new HeaderMap(this, true);
+  }
+
+  @Override
+  public int size()
+  {
+    return _size;
+  }
+
+  @Override
+  public boolean containsKey(Object key)
+  {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public String get(Object key)
+  {
+    final int index = indexOf(key);
+    return index < 0 ? null : _values[index];
+  }
+
+  @Override
+  public String put(String key, String value)
+  {
+    checkWritable();
+
+    final int index = indexOf(key);
+    if (index >= 0)
+    {
+      ensureOwned(_size);
+      final String previous = _values[index];
+      _values[index] = value;
+      return previous;
+    }
+
+    final int insertion = -(Arrays.binarySearch(_names, 0, _size, key, String.CASE_INSENSITIVE_ORDER) + 1);
+    ensureOwned(_size + 1);
+    System.arraycopy(_names, insertion, _names, insertion + 1, _size - insertion);
+    System.arraycopy(_values, insertion, _values, insertion + 1, _size - insertion);
+    System.arraycopy(_hashes, insertion, _hashes, insertion + 1, _size - insertion);
+    _names[insertion] = key;
+    _values[insertion] = value;
+    _hashes[insertion] = hash(key);
+    ++_size;
+    return null;
+  }
+
+  @Override
+  public void putAll(Map<? extends String, ? extends String> map)
+  {
+    checkWritable();
+
+    if (_size == 0 && map instanceof HeaderMap)
+    {
+      final HeaderMap source = (HeaderMap) map;
+      _names = source._names;
+      _values = source._values;
+      _hashes = source._hashes;
+      _size = source._size;
+      _shared = true;
+      if (!source._readOnly)
+      {
+        source._shared = true;
+      }
+      return;
+    }
+
+    for (Map.Entry<? extends String, ? extends String> entry : map.entrySet())
+    {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public String remove(Object key)
+  {
+    checkWritable();
+
+    final int index = indexOf(key);
+    if (index < 0)
+    {
+      return null;
+    }
+
+    final String previous = _values[index];
+    removeAt(index);
+    return previous;
+  }
+
+  @Override
+  public void clear()
+  {
+    checkWritable();
+
+    _names = EMPTY_STRINGS;
+    _values = EMPTY_STRINGS;
+    _hashes = EMPTY_HASHES;
+    _size = 0;
+    _shared = false;
+  }
+
+  @Override
+  public Set<Map.Entry<String, String>> entrySet()
+  {
+    return new AbstractSet<Map.Entry<String, String>>()
+    {
+      @Override
+      public Iterator<Map.Entry<String, String>> iterator()
+      {
+        return new EntryIterator();
+      }
+
+      @Override
+      public int size()
+      {
+        return _size;
+      }
+    };
+  }
+
+  private int indexOf(Object key)
+  {
+    if (key == null)
+    {
+      throw new NullPointerException("header name is null");
+    }
+    if (!(key instanceof String))
+    {
+      return -1;
+    }
+
+    final String name = (String) key;
+    final int hash = hash(name);
+    for (int i = 0; i < _size; ++i)
+    {
+      if (_hashes[i] == hash && _names[i].equalsIgnoreCase(name))
+      {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private void removeAt(int index)
+  {
+    checkWritable();
+    ensureOwned(_size);
+
+    final int moved = _size - index - 1;
+    System.arraycopy(_names, index + 1, _names, index, moved);
+    System.arraycopy(_values, index + 1, _values, index, moved);
+    System.arraycopy(_hashes, index + 1, _hashes, index, moved);
+    --_size;
+    _names[_size] = null;
+    _values[_size] = null;
+  }
+
+  private void checkWritable()
+  {
+    if (_readOnly)
+    {
+      throw new UnsupportedOperationException("headers are read-only");
+    }
+  }
+
+  /**
+   * Makes sure that the arrays are not shared and can hold the given number of entries.
+   */
+  private void ensureOwned(int capacity)
+  {
+    if (!_shared && capacity <= _names.length)
+    {
+      return;
+    }
+
+    final int length = capacity <= _names.length ? _names.length : Math.max(INITIAL_CAPACITY, Math.max(capacity, _names.length * 2));
+    final String[] names = new String[length];
+    final String[] values = new String[length];
+    final int[] hashes = new int[length];
+    System.arraycopy(_names, 0, names, 0, _size);
+    System.arraycopy(_values, 0, values, 0, _size);
+    System.arraycopy(_hashes, 0, hashes, 0, _size);
+    _names = names;
+    _values = values;
+    _hashes = hashes;
+    _shared = false;
+  }
+
+  /**
+   * Hash of the name that is the same for all names that are equal ignoring case.
+   */
+  private static int hash(String name)
+  {
+    int hash = 0;
+    for (int i = 0; i < name.length(); ++i)
+    {
+      char ch = name.charAt(i);
+      if (ch >= 'A' && ch <= 'Z')
+      {
+        ch += 'a' - 'A';
+      }
+      else if (ch >= 128)
+      {
+        ch = Character.toLowerCase(Character.toUpperCase(ch));
+      }
+      hash = 31 * hash + ch;
+    }
+    return hash;
+  }
+
+  private class EntryIterator implements Iterator<Map.Entry<String, String>>
+  {
+    private int _next = 0;
+    private boolean _canRemove = false;
+
+    @Override
+    public boolean hasNext()
+    {
+      return _next < _size;
+    }
+
+    @Override
+    public Map.Entry<String, String> next()
+    {
+      if (_next >= _size)
+      {
+        throw new NoSuchElementException();
+      }
+
+      final Map.Entry<String, String> entry = new AbstractMap.SimpleImmutableEntry<String, String>(_names[_next], _values[_next]);
+      ++_next;
+      _canRemove = true;
+      return entry;
+    }
+
+    @Override
+    public void remove()
+    {
+      if (!_canRemove)
+      {
+        throw new IllegalStateException();
+      }
+
+      removeAt(--_next);
+      _canRemove = false;
+    }
+  }
+}
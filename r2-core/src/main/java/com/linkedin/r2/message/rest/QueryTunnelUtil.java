@@ -116,8 +116,8 @@ public class QueryTunnelUtil
 
     String query = uri.getRawQuery();
 
-    boolean forceQueryTunnel = requestContext.getLocalAttr(R2Constants.FORCE_QUERY_TUNNEL) != null
-        && (Boolean) requestContext.getLocalAttr(R2Constants.FORCE_QUERY_TUNNEL);
+    Boolean forceQueryTunnelAttr = requestContext.getLocalAttr(R2Constants.FORCE_QUERY_TUNNEL_KEY);
+    boolean forceQueryTunnel = forceQueryTunnelAttr != null && forceQueryTunnelAttr;
 
     if (query == null
         || query.length() == 0
@@ -312,7 +312,7 @@ public class QueryTunnelUtil
     requestBuilder.setHeaders(h);
     requestBuilder.setMethod(request.getHeader(HEADER_METHOD_OVERRIDE));
 
-    requestContext.putLocalAttr(R2Constants.IS_QUERY_TUNNELED, true);
+    requestContext.putLocalAttr(R2Constants.IS_QUERY_TUNNELED_KEY, true);
 
     return requestBuilder.build();
   }
@@ -105,7 +105,7 @@ public final class RestRequestBuilder
   @Override
   public RestRequest build()
   {
-    return new RestRequestImpl(getEntity(), getHeaders(), getCookies(), getURI(), getMethod());
+    return new RestRequestImpl(getEntity(), getHeadersSnapshot(), getCookies(), getURI(), getMethod());
   }
 
   @Override
@@ -75,7 +75,7 @@ public final class RestResponseBuilder
   @Override
   public RestResponse build()
   {
-    return new RestResponseImpl(getEntity(), getHeaders(), getCookies(), getStatus());
+    return new RestResponseImpl(getEntity(), getHeadersSnapshot(), getCookies(), getStatus());
   }
 
   @Override
@@ -219,7 +219,7 @@ public abstract class AbstractR2Servlet extends HttpServlet
   protected RequestContext readRequestContext(HttpServletRequest req)
   {
     RequestContext context = new RequestContext();
-    context.putLocalAttr(R2Constants.REMOTE_ADDR, req.getRemoteAddr());
+    context.putLocalAttr(R2Constants.REMOTE_ADDR_KEY, req.getRemoteAddr());
     if (req.isSecure())
     {
       // attribute name documented in ServletRequest API:
@@ -229,11 +229,11 @@ public abstract class AbstractR2Servlet extends HttpServlet
       {
         context.putLocalAttr(R2Constants.CLIENT_CERT, certs[0]);
       }
-      context.putLocalAttr(R2Constants.IS_SECURE, true);
+      context.putLocalAttr(R2Constants.IS_SECURE_KEY, true);
     }
     else
     {
-      context.putLocalAttr(R2Constants.IS_SECURE, false);
+      context.putLocalAttr(R2Constants.IS_SECURE_KEY, false);
     }
     return context;
   }
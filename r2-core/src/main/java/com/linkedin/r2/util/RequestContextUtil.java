@@ -33,6 +33,6 @@ public class RequestContextUtil
    */
   public static void turnOffResponseDecompression(RequestContext requestContext)
   {
-    requestContext.putLocalAttr(R2Constants.RESPONSE_DECOMPRESSION_OFF, true);
+    requestContext.putLocalAttr(R2Constants.RESPONSE_DECOMPRESSION_OFF_KEY, true);
   }
 }
\ No newline at end of file
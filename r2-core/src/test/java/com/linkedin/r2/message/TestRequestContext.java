@@ -0,0 +1,148 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message;
+
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestRequestContext
+{
+  private static final LocalAttrKey<String> STRING_KEY = LocalAttrKey.register("TestRequestContext.string", String.class);
+  private static final LocalAttrKey<Integer> INT_KEY = LocalAttrKey.register("TestRequestContext.int", Integer.class);
+
+  @Test
+  public void testRegisteredAndAdHocAttributes()
+  {
+    final RequestContext context = new RequestContext();
+    Assert.assertTrue(context.getLocalAttrs().isEmpty());
+
+    context.putLocalAttr(STRING_KEY, "a");
+    context.putLocalAttr("adHoc", 1);
+    Assert.assertEquals(context.getLocalAttr(STRING_KEY), "a");
+    Assert.assertEquals(context.getLocalAttr(STRING_KEY.getName()), "a");
+    Assert.assertEquals(context.getLocalAttr("adHoc"), 1);
+    Assert.assertNull(context.getLocalAttr(INT_KEY));
+
+    context.putLocalAttr(INT_KEY.getName(), 2);
+    Assert.assertEquals(context.getLocalAttr(INT_KEY), Integer.valueOf(2));
+
+    // null values are kept, as in a HashMap
+    context.putLocalAttr(STRING_KEY, null);
+    Assert.assertTrue(context.getLocalAttrs().containsKey(STRING_KEY.getName()));
+    Assert.assertNull(context.getLocalAttr(STRING_KEY));
+
+    final Map<String, Object> expected = new HashMap<String, Object>();
+    expected.put(STRING_KEY.getName(), null);
+    expected.put(INT_KEY.getName(), 2);
+    expected.put("adHoc", 1);
+    Assert.assertEquals(context.getLocalAttrs(), expected);
+    Assert.assertEquals(context.getLocalAttrs().hashCode(), expected.hashCode());
+    Assert.assertEquals(context.getLocalAttrs().size(), 3);
+
+    Assert.assertEquals(context.removeLocalAttr(INT_KEY), Integer.valueOf(2));
+    Assert.assertNull(context.removeLocalAttr(INT_KEY));
+    Assert.assertEquals(context.removeLocalAttr("adHoc"), 1);
+    Assert.assertEquals(context.getLocalAttrs().size(), 1);
+  }
+
+  @Test
+  public void testRegistration()
+  {
+    Assert.assertSame(LocalAttrKey.register(STRING_KEY.getName(), String.class), STRING_KEY);
+    try
+    {
+      LocalAttrKey.register(STRING_KEY.getName(), Integer.class);
+      Assert.fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e)
+    {
+    }
+
+    // attributes put before their name is registered are still found
+    final RequestContext context = new RequestContext();
+    context.putLocalAttr("TestRequestContext.late", "b");
+    final LocalAttrKey<String> lateKey = LocalAttrKey.register("TestRequestContext.late", String.class);
+    Assert.assertEquals(context.getLocalAttr(lateKey), "b");
+    Assert.assertEquals(context.getLocalAttrs().size(), 1);
+    Assert.assertEquals(context.getLocalAttrs().put(lateKey.getName(), "c"), "b");
+    Assert.assertEquals(context.getLocalAttr(lateKey), "c");
+    Assert.assertEquals(context.getLocalAttrs().size(), 1);
+  }
+
+  @Test
+  public void testCopyOnWrite()
+  {
+    final RequestContext context = new RequestContext();
+    context.putLocalAttr(STRING_KEY, "a");
+    context.putLocalAttr("adHoc", 1);
+
+    final RequestContext copy = new RequestContext(context);
+    final RequestContext clone = copy.clone();
+    Assert.assertEquals(copy, context);
+    Assert.assertEquals(clone, context);
+
+    context.putLocalAttr(STRING_KEY, "b");
+    copy.putLocalAttr("adHoc", 2);
+    clone.removeLocalAttr(STRING_KEY);
+    clone.putLocalAttr(INT_KEY, 3);
+
+    Assert.assertEquals(context.getLocalAttr(STRING_KEY), "b");
+    Assert.assertEquals(context.getLocalAttr("adHoc"), 1);
+    Assert.assertEquals(copy.getLocalAttr(STRING_KEY), "a");
+    Assert.assertEquals(copy.getLocalAttr("adHoc"), 2);
+    Assert.assertNull(clone.getLocalAttr(STRING_KEY));
+    Assert.assertEquals(clone.getLocalAttr("adHoc"), 1);
+    Assert.assertEquals(clone.getLocalAttr(INT_KEY), Integer.valueOf(3));
+    Assert.assertNull(context.getLocalAttr(INT_KEY));
+  }
+
+  @Test
+  public void testIteratorRemove()
+  {
+    final RequestContext context = new RequestContext();
+    context.putLocalAttr(STRING_KEY, "a");
+    context.putLocalAttr(INT_KEY, 1);
+    context.putLocalAttr("x", 2);
+    context.putLocalAttr("y", 3);
+    final RequestContext copy = new RequestContext(context);
+
+    final Iterator<Map.Entry<String, Object>> it = context.getLocalAttrs().entrySet().iterator();
+    while (it.hasNext())
+    {
+      final Map.Entry<String, Object> entry = it.next();
+      if (entry.getKey().equals(STRING_KEY.getName()) || entry.getKey().equals("x"))
+      {
+        it.remove();
+      }
+    }
+
+    final Map<String, Object> expected = new HashMap<String, Object>();
+    expected.put(INT_KEY.getName(), 1);
+    expected.put("y", 3);
+    Assert.assertEquals(context.getLocalAttrs(), expected);
+    Assert.assertEquals(copy.getLocalAttrs().size(), 4);
+
+    context.getLocalAttrs().clear();
+    Assert.assertTrue(context.getLocalAttrs().isEmpty());
+    Assert.assertEquals(copy.getLocalAttrs().size(), 4);
+  }
+}
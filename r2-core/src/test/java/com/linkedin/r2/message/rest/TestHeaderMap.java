@@ -0,0 +1,186 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.r2.message.rest;
+
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestHeaderMap
+{
+  @Test
+  public void testCaseInsensitive()
+  {
+    final HeaderMap headers = new HeaderMap();
+    Assert.assertNull(headers.put("Content-Type", "text/plain"));
+    Assert.assertEquals(headers.put("CONTENT-TYPE", "application/json"), "text/plain");
+    Assert.assertEquals(headers.size(), 1);
+    Assert.assertEquals(headers.get("content-type"), "application/json");
+    Assert.assertTrue(headers.containsKey("Content-type"));
+    Assert.assertFalse(headers.containsKey("Content"));
+    Assert.assertFalse(headers.containsKey(1));
+
+    // the name of the first put is kept, as in a TreeMap
+    Assert.assertEquals(headers.keySet().iterator().next(), "Content-Type");
+
+    Assert.assertEquals(headers.remove("content-TYPE"), "application/json");
+    Assert.assertTrue(headers.isEmpty());
+    Assert.assertNull(headers.remove("Content-Type"));
+  }
+
+  @Test
+  public void testSameAsTreeMap()
+  {
+    final Map<String, String> expected = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+    final HeaderMap headers = new HeaderMap();
+    final String[] names = { "X-b", "x-A", "Accept", "x-a", "Host", "accept", "X-C", "x-z", "X-Y", "Cookie2", "Via" };
+    for (int i = 0; i < names.length; ++i)
+    {
+      Assert.assertEquals(headers.put(names[i], "v" + i), expected.put(names[i], "v" + i));
+    }
+    Assert.assertEquals(new ArrayList<String>(headers.keySet()), new ArrayList<String>(expected.keySet()));
+    Assert.assertEquals(new ArrayList<String>(headers.values()), new ArrayList<String>(expected.values()));
+    Assert.assertEquals(headers, expected);
+    Assert.assertEquals(headers.hashCode(), expected.hashCode());
+    Assert.assertEquals(headers, new HashMap<String, String>(expected));
+
+    final Iterator<String> it = headers.keySet().iterator();
+    while (it.hasNext())
+    {
+      if (it.next().startsWith("X-"))
+      {
+        it.remove();
+      }
+    }
+    expected.keySet().removeAll(Arrays.asList("X-b", "X-C", "X-Y"));
+    Assert.assertEquals(headers, expected);
+  }
+
+  @Test
+  public void testCopyOnWrite()
+  {
+    final HeaderMap headers = new HeaderMap();
+    headers.put("a", "1");
+    headers.put("b", "2");
+
+    final HeaderMap readOnly = headers.readOnlyCopy();
+    Assert.assertSame(readOnly.readOnlyCopy(), readOnly);
+    final HeaderMap copy = readOnly.copy();
+    headers.put("a", "3");
+    headers.remove("b");
+    copy.put("c", "4");
+
+    Assert.assertEquals(headers, asMap("a", "3"));
+    Assert.assertEquals(readOnly, asMap("a", "1", "b", "2"));
+    Assert.assertEquals(copy, asMap("a", "1", "b", "2", "c", "4"));
+
+    try
+    {
+      readOnly.put("d", "5");
+      Assert.fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+    }
+    try
+    {
+      readOnly.clear();
+      Assert.fail("Expected UnsupportedOperationException");
+    }
+    catch (UnsupportedOperationException e)
+    {
+    }
+  }
+
+  @Test
+  public void testMessageHeadersShared()
+  {
+    final RestRequestBuilder builder = new RestRequestBuilder(URI.create("http://localhost/foo")).setHeader("X-A", "1");
+    final RestRequest request = builder.build();
+    builder.setHeader("x-a", "2").setHeader("X-B", "3");
+    Assert.assertEquals(request.getHeaders(), asMap("X-A", "1"));
+    Assert.assertEquals(builder.build().getHeaders(), asMap("X-A", "2", "X-B", "3"));
+
+    final RestRequest next = request.builder().addHeaderValue("x-a", "4").build();
+    Assert.assertEquals(request.getHeader("x-a"), "1");
+    Assert.assertEquals(next.getHeader("x-a"), "1,4");
+    Assert.assertEquals(next, new RestRequestBuilder(URI.create("http://localhost/foo")).setHeader("X-A", "1,4").build());
+
+    final RestResponse response = new RestResponseBuilder().setHeader("X-A", "1").build();
+    final RestResponseBuilder responseBuilder = response.builder();
+    responseBuilder.clearHeaders();
+    Assert.assertEquals(response.getHeaders(), asMap("X-A", "1"));
+    Assert.assertTrue(responseBuilder.getHeaders().isEmpty());
+  }
+
+  /**
+   * Rebuilds a request as every filter of a chain does when it reads and adds headers.
+   */
+  public void benchmarkFilterChainHops(int count, int hops)
+  {
+    RestRequestBuilder builder = new RestRequestBuilder(URI.create("http://localhost/foo"));
+    for (int i = 0; i < 10; ++i)
+    {
+      builder.setHeader("X-Header-" + i, "value" + i);
+    }
+    final RestRequest request = builder.build();
+
+    final long startTime = System.nanoTime();
+    long lookups = 0;
+    for (int i = 0; i < count; ++i)
+    {
+      RestRequest hop = request;
+      for (int j = 0; j < hops; ++j)
+      {
+        if (hop.getHeader("x-header-" + (j % 10)) != null)
+        {
+          ++lookups;
+        }
+        hop = hop.builder().setHeader("X-Hop", Integer.toString(j)).build();
+      }
+    }
+    final long duration = System.nanoTime() - startTime;
+    System.out.println("Filter chain benchmark " + (duration / ((long) count * hops)) + " ns/hop, " + lookups + " lookups");
+  }
+
+  //@Test
+  public void benchmark()
+  {
+    for (int i = 0; i < 5; ++i)
+    {
+      benchmarkFilterChainHops(100000, 10);
+    }
+  }
+
+  private static Map<String, String> asMap(String... keyValues)
+  {
+    final Map<String, String> map = new HashMap<String, String>();
+    for (int i = 0; i < keyValues.length; i += 2)
+    {
+      map.put(keyValues[i], keyValues[i + 1]);
+    }
+    return map;
+  }
+}
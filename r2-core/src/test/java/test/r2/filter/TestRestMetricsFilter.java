@@ -0,0 +1,147 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package test.r2.filter;
+
+
+import com.linkedin.r2.filter.FilterChain;
+import com.linkedin.r2.filter.FilterChains;
+import com.linkedin.r2.filter.NextFilter;
+import com.linkedin.r2.filter.R2Constants;
+import com.linkedin.r2.filter.message.rest.RestFilter;
+import com.linkedin.r2.filter.metrics.ClientRestMetricsFilter;
+import com.linkedin.r2.filter.metrics.RestMethodStats;
+import com.linkedin.r2.filter.metrics.RestMetrics;
+import com.linkedin.r2.filter.metrics.ServerRestMetricsFilter;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.r2.testutils.filter.FilterUtil;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestRestMetricsFilter
+{
+  @Test
+  public void testServerMetrics()
+  {
+    final RestMetrics metrics = new RestMetrics();
+    final FilterChain fc = FilterChains.create(new ServerRestMetricsFilter(metrics), new OperationFilter("get"));
+
+    final RestRequest request = new RestRequestBuilder(URI.create("/greetings/1")).setEntity(new byte[10]).build();
+    final RestResponse response = new RestResponseBuilder().setEntity(new byte[100]).build();
+    FilterUtil.fireRestRequestResponse(fc, request, response);
+    FilterUtil.fireRestRequestResponse(fc, request, response);
+    FilterUtil.fireRestRequestError(fc, request, new RestException(new RestResponseBuilder().setStatus(500).build(), "error"));
+    FilterUtil.fireRestRequestError(fc, request, new Exception("error"));
+
+    Assert.assertEquals(metrics.getInFlightRequestCount(), 0);
+    Assert.assertEquals(metrics.getMethodStats().size(), 1);
+
+    final RestMethodStats stats = metrics.getMethodStats("greetings", "get");
+    Assert.assertEquals(stats.getCount(), 4);
+    Assert.assertEquals(stats.getErrorCount(), 2);
+    final Map<Integer, Long> statusCounts = new HashMap<Integer, Long>();
+    statusCounts.put(200, 2L);
+    statusCounts.put(500, 1L);
+    statusCounts.put(0, 1L);
+    Assert.assertEquals(stats.getStatusCounts(), statusCounts);
+    Assert.assertEquals(stats.getLatency().getCount(), 4);
+    Assert.assertEquals(stats.getRequestSize().getMaximum(), 10);
+    Assert.assertEquals(stats.getResponseSize().getMaximum(), 100);
+    Assert.assertEquals(stats.getResponseSize().getMinimum(), 0);
+  }
+
+  @Test
+  public void testClientMetrics()
+  {
+    final RestMetrics metrics = new RestMetrics(2);
+    final FilterChain fc = FilterChains.create(new ClientRestMetricsFilter(metrics));
+
+    final RequestContext context = new RequestContext();
+    fc.onRestRequest(new RestRequestBuilder(URI.create("d2://greetings/1")).build(), context, FilterUtil.emptyWireAttrs());
+    Assert.assertEquals(metrics.getInFlightRequestCount(), 1);
+    Assert.assertEquals(metrics.getInFlightRequestCounts(), Collections.singletonMap("greetings", 1));
+    fc.onRestResponse(FilterUtil.simpleRestResponse(), context, FilterUtil.emptyWireAttrs());
+    Assert.assertEquals(metrics.getInFlightRequestCount(), 0);
+    Assert.assertEquals(metrics.getInFlightRequestCounts(), Collections.singletonMap("greetings", 0));
+
+    // responses without a request are not recorded
+    fc.onRestResponse(FilterUtil.simpleRestResponse(), context, FilterUtil.emptyWireAttrs());
+    Assert.assertEquals(metrics.getInFlightRequestCount(), 0);
+
+    FilterUtil.fireRestRequestResponse(fc, new RestRequestBuilder(URI.create("http://localhost/foo")).setMethod("PUT").build(),
+                                       FilterUtil.simpleRestResponse());
+    FilterUtil.fireRestRequestResponse(fc, new RestRequestBuilder(URI.create("http://localhost/bar")).build(),
+                                       FilterUtil.simpleRestResponse());
+
+    Assert.assertEquals(metrics.getMethodStats("greetings", "GET").getCount(), 1);
+    Assert.assertEquals(metrics.getMethodStats("foo", "PUT").getCount(), 1);
+    Assert.assertNull(metrics.getMethodStats("bar", "GET"));
+    Assert.assertEquals(metrics.getMethodStats(RestMetrics.OTHER_SERVICE, RestMetrics.OTHER_METHOD).getCount(), 1);
+
+    final Map<String, Integer> inFlightRequestCounts = new HashMap<String, Integer>();
+    inFlightRequestCounts.put("greetings", 0);
+    inFlightRequestCounts.put("foo", 0);
+    inFlightRequestCounts.put(RestMetrics.OTHER_SERVICE, 0);
+    Assert.assertEquals(metrics.getInFlightRequestCounts(), inFlightRequestCounts);
+  }
+
+  /**
+   * Sets the operation of requests, as Rest.li does when it dispatches them.
+   */
+  private static class OperationFilter implements RestFilter
+  {
+    private final String _operation;
+
+    private OperationFilter(String operation)
+    {
+      _operation = operation;
+    }
+
+    @Override
+    public void onRestRequest(RestRequest req, RequestContext requestContext, Map<String, String> wireAttrs,
+                              NextFilter<RestRequest, RestResponse> nextFilter)
+    {
+      requestContext.putLocalAttr(R2Constants.OPERATION_KEY, _operation);
+      nextFilter.onRequest(req, requestContext, wireAttrs);
+    }
+
+    @Override
+    public void onRestResponse(RestResponse res, RequestContext requestContext, Map<String, String> wireAttrs,
+                               NextFilter<RestRequest, RestResponse> nextFilter)
+    {
+      nextFilter.onResponse(res, requestContext, wireAttrs);
+    }
+
+    @Override
+    public void onRestError(Throwable ex, RequestContext requestContext, Map<String, String> wireAttrs,
+                            NextFilter<RestRequest, RestResponse> nextFilter)
+    {
+      nextFilter.onError(ex, requestContext, wireAttrs);
+    }
+  }
+}
@@ -208,7 +208,7 @@ public class ClientCompressionFilter implements Filter, RestFilter
       {
         if (_requestCompressionConfig.shouldCompressRequest(
             req.getEntity().length(),
-            (CompressionOption) requestContext.getLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE)
+            (CompressionOption) requestContext.getLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE_KEY)
         ))
         {
           Compressor compressor = _requestContentEncoding.getCompressor();
@@ -223,7 +223,7 @@ public class ClientCompressionFilter implements Filter, RestFilter
       }
 
       //Set accepted encoding for compressed response
-      String operation = (String) requestContext.getLocalAttr(R2Constants.OPERATION);
+      String operation = requestContext.getLocalAttr(R2Constants.OPERATION_KEY);
       if (operation != null && _acceptedEncodings.length > 0 && shouldCompressResponse(operation))
       {
         req = req.builder().addHeaderValue(HttpConstants.ACCEPT_ENCODING, _acceptEncodingHeader).build();
@@ -276,7 +276,7 @@ public class ClientCompressionFilter implements Filter, RestFilter
                              Map<String, String> wireAttrs,
                              NextFilter<RestRequest, RestResponse> nextFilter)
   {
-    Boolean decompressionOff = (Boolean) requestContext.getLocalAttr(R2Constants.RESPONSE_DECOMPRESSION_OFF);
+    Boolean decompressionOff = requestContext.getLocalAttr(R2Constants.RESPONSE_DECOMPRESSION_OFF_KEY);
     if (decompressionOff == null || !decompressionOff)
     {
       try
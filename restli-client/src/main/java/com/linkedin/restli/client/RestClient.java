@@ -25,6 +25,9 @@ import com.linkedin.common.util.None;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.codec.SchemaBinaryDataCodec;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.r2.filter.R2Constants;
 import com.linkedin.r2.filter.CompressionOption;
@@ -109,6 +112,7 @@ public class RestClient
 {
   private static final JacksonDataCodec  JACKSON_DATA_CODEC = new JacksonDataCodec();
   private static final PsonDataCodec     PSON_DATA_CODEC    = new PsonDataCodec();
+  private static final SchemaBinaryDataCodec SCHEMA_BINARY_DATA_CODEC = new SchemaBinaryDataCodec();
   private static final List<AcceptType>  DEFAULT_ACCEPT_TYPES = Collections.emptyList();
   private static final ContentType DEFAULT_CONTENT_TYPE = ContentType.JSON;
   private static final Random RANDOM_INSTANCE = new Random();
@@ -266,9 +270,22 @@ public class RestClient
                     request.getRequestOptions().getRequestCompressionOverride(),
                     request.getRequestOptions().getContentType(),
                     request.getRequestOptions().getAcceptTypes(),
+                    request,
                     callback);
   }
 
+  /**
+   * @return the schema of the entities of the resource, used to leave field names out of schema binary request bodies
+   */
+  private static RecordDataSchema getEntitySchema(final Request<?> request)
+  {
+    if (request == null || request.getResourceSpec() == null || request.getResourceSpec().getValueClass() == null)
+    {
+      return null;
+    }
+    return (RecordDataSchema) DataTemplateUtil.getSchema(request.getResourceSpec().getValueClass());
+  }
+
   /**
    * @param request
    */
@@ -429,7 +446,10 @@ public class RestClient
   // 1. Request header
   // 2. RestLiRequestOption
   // 3. RestClient configuration
-  private void addEntityAndContentTypeHeaders(RestRequestBuilder builder, DataMap dataMap, ContentType contentType)
+  private void addEntityAndContentTypeHeaders(RestRequestBuilder builder,
+                                              DataMap dataMap,
+                                              ContentType contentType,
+                                              Request<?> request)
     throws IOException
   {
     if (dataMap != null)
@@ -472,6 +492,10 @@ public class RestClient
         {
           type = ContentType.PSON;
         }
+        else if (headerContentType.getBaseType().equalsIgnoreCase(RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY))
+        {
+          type = ContentType.SCHEMA_BINARY;
+        }
         else
         {
           throw new IllegalStateException("Unknown Content-Type: " + headerContentType.toString());
@@ -486,6 +510,9 @@ public class RestClient
         case JSON:
           builder.setEntity(JACKSON_DATA_CODEC.mapToBytes(dataMap));
           break;
+        case SCHEMA_BINARY:
+          builder.setEntity(SCHEMA_BINARY_DATA_CODEC.mapToBytes(dataMap, getEntitySchema(request)));
+          break;
         default:
           throw new IllegalStateException("Unknown ContentType:" + type);
       }
@@ -628,7 +655,7 @@ public class RestClient
     URI requestUri = new MultiplexerUriBuilder(_uriPrefix).build();
     RestRequestBuilder requestBuilder = new RestRequestBuilder(requestUri).setMethod(HttpMethod.POST.toString());
     addAcceptHeaders(requestBuilder, Collections.singletonList(AcceptType.JSON));
-    addEntityAndContentTypeHeaders(requestBuilder, multiplexedRequest.getContent().data(), ContentType.JSON);
+    addEntityAndContentTypeHeaders(requestBuilder, multiplexedRequest.getContent().data(), ContentType.JSON, null);
     return requestBuilder.build();
   }
 
@@ -643,6 +670,7 @@ public class RestClient
    * @param requestCompressionOverride request compression override options
    * @param contentType request content type
    * @param acceptTypes list of response accept types
+   * @param request the type-bound request being sent, whose entity schema is used by the schema binary content type
    * @param callback to call on request completion. In the event of an error, the callback
    *                 will receive a {@link com.linkedin.r2.RemoteInvocationException}. If a valid
    *                 error response was received from the remote server, the callback will receive
@@ -658,15 +686,16 @@ public class RestClient
                                CompressionOption requestCompressionOverride,
                                ContentType contentType,
                                List<AcceptType> acceptTypes,
+                               Request<?> request,
                                Callback<RestResponse> callback)
   {
     try
     {
-      RestRequest request = buildRequest(uri, method, dataMap, headers, protocolVersion, contentType, acceptTypes);
+      RestRequest restRequest = buildRequest(uri, method, dataMap, headers, protocolVersion, contentType, acceptTypes, request);
       String operation = OperationNameGenerator.generate(method, methodName);
-      requestContext.putLocalAttr(R2Constants.OPERATION, operation);
-      requestContext.putLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE, requestCompressionOverride);
-      _client.restRequest(request, requestContext, callback);
+      requestContext.putLocalAttr(R2Constants.OPERATION_KEY, operation);
+      requestContext.putLocalAttr(R2Constants.REQUEST_COMPRESSION_OVERRIDE_KEY, requestCompressionOverride);
+      _client.restRequest(restRequest, requestContext, callback);
     }
     catch (Exception e)
     {
@@ -683,14 +712,15 @@ public class RestClient
                                    Map<String, String> headers,
                                    ProtocolVersion protocolVersion,
                                    ContentType contentType,
-                                   List<AcceptType> acceptTypes) throws Exception
+                                   List<AcceptType> acceptTypes,
+                                   Request<?> request) throws Exception
   {
     RestRequestBuilder requestBuilder = new RestRequestBuilder(uri).setMethod(
             method.getHttpMethod().toString());
 
     requestBuilder.setHeaders(headers);
     addAcceptHeaders(requestBuilder, acceptTypes);
-    addEntityAndContentTypeHeaders(requestBuilder, dataMap, contentType);
+    addEntityAndContentTypeHeaders(requestBuilder, dataMap, contentType, request);
     addProtocolVersionHeader(requestBuilder, protocolVersion);
 
     if (method.getHttpMethod() == HttpMethod.POST)
@@ -715,6 +745,7 @@ public class RestClient
   {
     PSON(RestConstants.HEADER_VALUE_APPLICATION_PSON),
     JSON(RestConstants.HEADER_VALUE_APPLICATION_JSON),
+    SCHEMA_BINARY(RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY),
     ANY(RestConstants.HEADER_VALUE_ACCEPT_ANY);
 
     private String _headerKey;
@@ -733,7 +764,8 @@ public class RestClient
   public static enum ContentType
   {
     PSON(RestConstants.HEADER_VALUE_APPLICATION_PSON),
-    JSON(RestConstants.HEADER_VALUE_APPLICATION_JSON);
+    JSON(RestConstants.HEADER_VALUE_APPLICATION_JSON),
+    SCHEMA_BINARY(RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY);
 
     private String _headerKey;
 
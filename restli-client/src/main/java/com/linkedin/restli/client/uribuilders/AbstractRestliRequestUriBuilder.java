@@ -30,6 +30,7 @@ import com.linkedin.restli.internal.common.QueryParamsDataMap;
 import com.linkedin.restli.internal.common.URIParamUtils;
 
 import java.net.URI;
+import java.util.Map;
 
 
 /**
@@ -74,15 +75,13 @@ abstract class AbstractRestliRequestUriBuilder<R extends Request<?>> implements
     return _request;
   }
 
-  private String bindPathKeys()
+  private URI bindPathKeys(String uriPrefix)
   {
-    UriTemplate template = new UriTemplate(_request.getBaseUriTemplate());
-    return template.createURI(URIParamUtils.encodePathKeysForUri(_request.getPathKeys(), _version));
-  }
-
-  private final String addPrefix(String uri)
-  {
-    return _uriPrefix + uri;
+    Map<String, Object> pathKeys = _request.getPathKeys();
+    UriTemplate template = RequestUriCache.getTemplate(_request.getBaseUriTemplate());
+    String baseUri = uriPrefix + template.createURI(URIParamUtils.encodePathKeysForUri(pathKeys, _version));
+    // the base URIs of the requests without path keys are the same for every request of a resource
+    return pathKeys.isEmpty() ? RequestUriCache.getBaseUri(baseUri) : URI.create(baseUri);
   }
 
   protected void appendKeyToPath(UriBuilder uriBuilder, Object key)
@@ -122,11 +121,11 @@ abstract class AbstractRestliRequestUriBuilder<R extends Request<?>> implements
   @Override
   public URI buildBaseUri()
   {
-    return URI.create(bindPathKeys());
+    return bindPathKeys("");
   }
 
   public URI buildBaseUriWithPrefix()
   {
-    return URI.create(addPrefix(bindPathKeys()));
+    return bindPathKeys(_uriPrefix);
   }
 }
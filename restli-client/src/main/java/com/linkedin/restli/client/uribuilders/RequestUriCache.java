@@ -0,0 +1,89 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.client.uribuilders;
+
+
+import com.linkedin.jersey.api.uri.UriTemplate;
+
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Caches of the parts of request URIs that are the same for many requests, so that they are not
+ * parsed again for every request.
+ *
+ * <ul>
+ *   <li>Base URI templates are compiled once per distinct template.</li>
+ *   <li>Base URIs without path keys are parsed once per distinct prefix and template.</li>
+ * </ul>
+ *
+ * The caches are read without locking. There is one entry per resource in practice, so instead of evicting entries,
+ * the caches stop growing once they are full and the values that do not fit are computed for every request.
+ */
+/* package private */ final class RequestUriCache
+{
+  private static final int MAX_SIZE = 1024;
+
+  private static final ConcurrentMap<String, UriTemplate> TEMPLATES = new ConcurrentHashMap<String, UriTemplate>();
+  private static final ConcurrentMap<String, URI> BASE_URIS = new ConcurrentHashMap<String, URI>();
+
+  private RequestUriCache()
+  {
+  }
+
+  /**
+   * @param template base URI template of a request
+   * @return compiled template
+   */
+  static UriTemplate getTemplate(String template)
+  {
+    UriTemplate uriTemplate = TEMPLATES.get(template);
+    if (uriTemplate == null)
+    {
+      uriTemplate = new UriTemplate(template);
+      if (TEMPLATES.size() < MAX_SIZE)
+      {
+        TEMPLATES.putIfAbsent(template, uriTemplate);
+      }
+    }
+
+    return uriTemplate;
+  }
+
+  /**
+   * Same as {@link URI#create(String)} for base URIs that do not contain path keys.
+   *
+   * @param baseUri prefix and bound base URI template of a request
+   * @return parsed URI
+   */
+  static URI getBaseUri(String baseUri)
+  {
+    URI uri = BASE_URIS.get(baseUri);
+    if (uri == null)
+    {
+      uri = URI.create(baseUri);
+      if (BASE_URIS.size() < MAX_SIZE)
+      {
+        BASE_URIS.putIfAbsent(baseUri, uri);
+      }
+    }
+
+    return uri;
+  }
+}
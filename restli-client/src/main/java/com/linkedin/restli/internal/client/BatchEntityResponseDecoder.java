@@ -19,6 +19,8 @@ package com.linkedin.restli.internal.client;
 
 import com.linkedin.data.DataMap;
 import com.linkedin.data.collections.CheckedUtil;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.restli.client.response.BatchKVResponse;
 import com.linkedin.restli.common.BatchResponse;
@@ -73,6 +75,12 @@ public class BatchEntityResponseDecoder<K, V extends RecordTemplate> extends Res
     return EntityResponse.class;
   }
 
+  @Override
+  protected RecordDataSchema getEntitySchema()
+  {
+    return (RecordDataSchema) DataTemplateUtil.getSchema(_entityType.getType());
+  }
+
   @Override
   protected BatchKVResponse<K, EntityResponse<V>> wrapResponse(DataMap dataMap, Map<String, String> headers, ProtocolVersion version)
     throws InstantiationException, IllegalAccessException, InvocationTargetException, NoSuchMethodException, IOException
@@ -23,12 +23,12 @@ import com.linkedin.data.DataMap;
 import com.linkedin.data.schema.PathSpec;
 import com.linkedin.data.template.DataTemplate;
 import com.linkedin.data.template.DataTemplateUtil;
-import com.linkedin.data.transform.filter.request.MaskCreator;
 import com.linkedin.restli.common.ComplexResourceKey;
 import com.linkedin.restli.common.CompoundKey;
 import com.linkedin.restli.common.ProtocolVersion;
 import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.common.AllProtocolVersions;
+import com.linkedin.restli.internal.common.ProjectionMaskCache;
 import com.linkedin.restli.internal.common.URIParamUtils;
 
 import java.lang.reflect.Array;
@@ -65,7 +65,7 @@ public class QueryParamsUtil
       {
         @SuppressWarnings("unchecked")
         List<PathSpec> pathSpecs = (List<PathSpec>)value;
-        result.put(key, MaskCreator.createPositiveMask(pathSpecs).getDataMap());
+        result.put(key, ProjectionMaskCache.getDefault().createPositiveMask(pathSpecs));
       }
       else
       {
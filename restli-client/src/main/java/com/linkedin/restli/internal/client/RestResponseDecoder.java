@@ -30,6 +30,11 @@ import com.linkedin.data.ByteString;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.codec.SchemaBinaryDataCodec;
+import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
+import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.restli.client.Response;
 import com.linkedin.restli.client.RestLiDecodingException;
@@ -49,6 +54,12 @@ public abstract class RestResponseDecoder<T>
 {
   private static final JacksonDataCodec JACKSON_DATA_CODEC = new JacksonDataCodec();
   private static final PsonDataCodec    PSON_DATA_CODEC    = new PsonDataCodec();
+  private static final SchemaBinaryDataCodec SCHEMA_BINARY_DATA_CODEC = new SchemaBinaryDataCodec();
+
+  // JSON entities are decoded lazily if this system property is "true" (ignoring case), so that responses whose
+  // entities are only partly read, or forwarded, are not fully decoded.
+  private final boolean _lazyJsonDecoding =
+      "true".equalsIgnoreCase(System.getProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY));
 
   public Response<T> decodeResponse(RestResponse restResponse) throws RestLiDecodingException
   {
@@ -66,11 +77,19 @@ public abstract class RestResponseDecoder<T>
       else
       {
         InputStream inputStream = entity.asInputStream();
-        if ((RestConstants.HEADER_VALUE_APPLICATION_PSON)
-                .equalsIgnoreCase(restResponse.getHeader(RestConstants.HEADER_CONTENT_TYPE)))
+        String contentType = restResponse.getHeader(RestConstants.HEADER_CONTENT_TYPE);
+        if ((RestConstants.HEADER_VALUE_APPLICATION_PSON).equalsIgnoreCase(contentType))
         {
           dataMap = PSON_DATA_CODEC.readMap(inputStream);
         }
+        else if ((RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY).equalsIgnoreCase(contentType))
+        {
+          dataMap = SCHEMA_BINARY_DATA_CODEC.readMap(inputStream, getEntitySchema());
+        }
+        else if (_lazyJsonDecoding)
+        {
+          dataMap = JACKSON_DATA_CODEC.readLazyMap(entity);
+        }
         else
         {
           dataMap = JACKSON_DATA_CODEC.readMap(inputStream);
@@ -104,6 +123,24 @@ public abstract class RestResponseDecoder<T>
 
   public abstract Class<?> getEntityClass();
 
+  /**
+   * @return the schema of the entities of the response, which schema binary responses may refer to, or null if
+   *         the entities are not records
+   */
+  protected RecordDataSchema getEntitySchema()
+  {
+    final Class<?> entityClass = getEntityClass();
+    if (entityClass != null && RecordTemplate.class.isAssignableFrom(entityClass))
+    {
+      final DataSchema schema = DataTemplateUtil.getSchema(entityClass);
+      if (schema instanceof RecordDataSchema)
+      {
+        return (RecordDataSchema) schema;
+      }
+    }
+    return null;
+  }
+
   /**
    * @deprecated use {@link #wrapResponse(com.linkedin.data.DataMap, java.util.Map, com.linkedin.restli.common.ProtocolVersion)}
    */
@@ -18,7 +18,9 @@ package com.linkedin.restli.client;
 
 
 import com.linkedin.common.callback.Callback;
+import com.linkedin.data.ByteString;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.codec.SchemaBinaryDataCodec;
 import com.linkedin.data.template.DynamicRecordMetadata;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.r2.message.RequestContext;
@@ -35,6 +37,7 @@ import com.linkedin.restli.common.TypeSpec;
 import com.linkedin.restli.internal.client.RestResponseDecoder;
 import com.linkedin.restli.internal.common.ResourcePropertiesImpl;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Arrays;
@@ -61,6 +64,8 @@ public class TestRestClientRequestBuilder
   private static final String  PSON_ENTITY_BODY = "#!PSON1\n!\u0081testFieldName\u0000\n\n\u0000\u0000\u0000testValue\u0000\u0083testInteger\u0000\u0002\u0001\u0000\u0000\u0000\u0080";
   private static final String JSON_ENTITIES_BODY = "{\"entities\":{}}";
   private static final String PSON_ENTITIES_BODY = "#!PSON1\n" + "!\u0081entities\u0000 \u0080";
+  private static final String SCHEMA_BINARY_ENTITY_BODY;
+  private static final String SCHEMA_BINARY_ENTITIES_BODY;
   private static final String  CONTENT_TYPE_HEADER = "Content-Type";
   private static final String  ACCEPT_TYPE_HEADER = "Accept";
   private static final String HOST = "host";
@@ -71,6 +76,19 @@ public class TestRestClientRequestBuilder
   {
     ENTITY_BODY.put("testFieldName", "testValue");
     ENTITY_BODY.put("testInteger", 1);
+
+    final SchemaBinaryDataCodec codec = new SchemaBinaryDataCodec();
+    final DataMap entitiesBody = new DataMap();
+    entitiesBody.put("entities", new DataMap());
+    try
+    {
+      SCHEMA_BINARY_ENTITY_BODY = ByteString.copy(codec.mapToBytes(ENTITY_BODY)).asAvroString();
+      SCHEMA_BINARY_ENTITIES_BODY = ByteString.copy(codec.mapToBytes(entitiesBody)).asAvroString();
+    }
+    catch (IOException e)
+    {
+      throw new IllegalStateException(e);
+    }
   }
 
   @Test(dataProvider = "data")
@@ -429,6 +447,15 @@ public class TestRestClientRequestBuilder
           "application/json;q=1.0,application/x-pson;q=0.9,*/*;q=0.8",
           true
         },
+        {
+          RestClient.ContentType.SCHEMA_BINARY,
+          "application/x-schema-binary",
+          SCHEMA_BINARY_ENTITY_BODY,
+          SCHEMA_BINARY_ENTITIES_BODY,
+          Arrays.asList(RestClient.AcceptType.SCHEMA_BINARY, RestClient.AcceptType.JSON),
+          "application/x-schema-binary;q=1.0,application/json;q=0.9",
+          true
+        },
         // contentType and acceptTypes configured per request (recommended)
         //
         // {
@@ -637,6 +664,15 @@ public class TestRestClientRequestBuilder
           Arrays.asList(RestClient.AcceptType.JSON, RestClient.AcceptType.PSON, RestClient.AcceptType.ANY),
           "application/json;q=1.0,application/x-pson;q=0.9,*/*;q=0.8",
           false
+        },
+        {
+          RestClient.ContentType.SCHEMA_BINARY,
+          "application/x-schema-binary",
+          SCHEMA_BINARY_ENTITY_BODY,
+          SCHEMA_BINARY_ENTITIES_BODY,
+          Collections.singletonList(RestClient.AcceptType.SCHEMA_BINARY),
+          "application/x-schema-binary",
+          false
         }
       };
   }
@@ -704,6 +740,10 @@ public class TestRestClientRequestBuilder
       requestOptions = new RestliRequestOptions(ProtocolVersionOption.USE_LATEST_IF_AVAILABLE, null, contentType, acceptTypes);
     }
     setCommonExpectations(mockRequest, method, mockResponseDecoder, requestOptions);
+    if (contentType == RestClient.ContentType.SCHEMA_BINARY)
+    {
+      EasyMock.expect(mockRequest.getResourceSpec()).andReturn(null).anyTimes();
+    }
 
     if (method == ResourceMethod.BATCH_PARTIAL_UPDATE || method == ResourceMethod.BATCH_UPDATE)
     {
@@ -0,0 +1,33 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.client.uribuilders;
+
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestRequestUriCache
+{
+  @Test
+  public void testTemplatesAndBaseUris()
+  {
+    Assert.assertSame(RequestUriCache.getTemplate("foo/{key}/bar"), RequestUriCache.getTemplate("foo/{key}/bar"));
+    Assert.assertSame(RequestUriCache.getBaseUri("http://localhost:1338/foo"), RequestUriCache.getBaseUri("http://localhost:1338/foo"));
+    Assert.assertEquals(RequestUriCache.getBaseUri("d2://foo_bar/baz").getRawAuthority(), "foo_bar");
+  }
+}
@@ -0,0 +1,82 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.client;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.restli.client.Response;
+import com.linkedin.restli.client.RestLiDecodingException;
+import com.linkedin.restli.client.test.TestRecord;
+import com.linkedin.restli.common.RestConstants;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestRestResponseDecoder
+{
+  private static final RestResponse RESPONSE = new RestResponseBuilder()
+    .setStatus(200)
+    .setHeader(RestConstants.HEADER_CONTENT_TYPE, RestConstants.HEADER_VALUE_APPLICATION_JSON)
+    .setEntity(ByteString.copyString("{ \"id\" : 42, \"message\" : \"sit\", \"nested\" : { \"a\" : [ 1 ] } }", Data.UTF_8_CHARSET))
+    .build();
+
+  private String _lazyJsonDecoding;
+
+  @BeforeMethod
+  public void clearProperty()
+  {
+    _lazyJsonDecoding = System.clearProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY);
+  }
+
+  @AfterMethod
+  public void restoreProperty()
+  {
+    if (_lazyJsonDecoding == null)
+    {
+      System.clearProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY);
+    }
+    else
+    {
+      System.setProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY, _lazyJsonDecoding);
+    }
+  }
+
+  @Test
+  public void testEagerJsonDecoding() throws RestLiDecodingException
+  {
+    final Response<TestRecord> response = new EntityResponseDecoder<TestRecord>(TestRecord.class).decodeResponse(RESPONSE);
+    Assert.assertNull(response.getEntity().data().getLazyStorage());
+    Assert.assertEquals(response.getEntity().getId(), Long.valueOf(42));
+  }
+
+  @Test
+  public void testLazyJsonDecoding() throws RestLiDecodingException
+  {
+    System.setProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY, "true");
+    final Response<TestRecord> response = new EntityResponseDecoder<TestRecord>(TestRecord.class).decodeResponse(RESPONSE);
+    Assert.assertNotNull(response.getEntity().data().getLazyStorage());
+    Assert.assertEquals(response.getEntity().getId(), Long.valueOf(42));
+    Assert.assertEquals(response.getEntity().getMessage(), "sit");
+    Assert.assertEquals(response.getEntity().data().getDataMap("nested").getDataList("a").getInt(0), 1);
+  }
+}
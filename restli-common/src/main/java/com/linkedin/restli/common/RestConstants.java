@@ -42,8 +42,10 @@ public interface RestConstants
   String HEADER_CONTENT_TYPE = "Content-Type";
   String HEADER_VALUE_APPLICATION_JSON = "application/json";
   String HEADER_VALUE_APPLICATION_PSON = "application/x-pson";
+  String HEADER_VALUE_APPLICATION_SCHEMA_BINARY = "application/x-schema-binary";
   String HEADER_VALUE_ACCEPT_ANY = "*/*";
   String HEADER_RESTLI_PROTOCOL_VERSION = "X-RestLi-Protocol-Version";
+  String HEADER_RESTLI_PHASE_TIMINGS = "X-RestLi-Phase-Timings";
 
   List<String> SUPPORTED_MIME_TYPES = Arrays.asList(HEADER_VALUE_APPLICATION_PSON, HEADER_VALUE_APPLICATION_JSON);
 
@@ -79,4 +81,6 @@ public interface RestConstants
   String RESTLI_PROTOCOL_VERSION_PROPERTY = "restli.protocol";
   String RESTLI_PROTOCOL_VERSION_PERCENTAGE_PROPERTY = "restli.protocol.percentage";
   String RESTLI_FORCE_USE_NEXT_VERSION_OVERRIDE = "restli.forceUseNextVersionOverride";
+  // if this system property is "true" (ignoring case), JSON entities of requests and responses are decoded lazily
+  String RESTLI_LAZY_JSON_DECODING_PROPERTY = "restli.lazyJsonDecoding";
 }
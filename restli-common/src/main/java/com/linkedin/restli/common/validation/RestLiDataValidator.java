@@ -337,7 +337,7 @@ public class RestLiDataValidator
     }
     // It's okay if required fields are absent in a partial update request, so use ignore mode.
     return ValidateDataAgainstSchema.validate(new SimpleDataElement(record.data(), record.schema()),
-        new ValidationOptions(RequiredMode.IGNORE), new DataValidator(record.schema()));
+        new ValidationOptions(RequiredMode.IGNORE), createInputValidator(record.schema()));
   }
 
   private ValidationResult validateInputEntity(DataTemplate<?> entity)
@@ -350,10 +350,24 @@ public class RestLiDataValidator
     }
     ValidationOptions validationOptions = new ValidationOptions();
     validationOptions.setOptionalFields(optionalFields);
-    ValidationResult result = ValidateDataAgainstSchema.validate(entity, validationOptions, new DataValidator(entity.schema()));
+    ValidationResult result = ValidateDataAgainstSchema.validate(entity, validationOptions, createInputValidator(entity.schema()));
     return result;
   }
 
+  /**
+   * Only use {@link DataValidator} if the method restricts ReadOnly or CreateOnly fields, so that validation can use
+   * the fast path of {@link ValidateDataAgainstSchema} when the schema has no annotation validators.
+   */
+  private DataSchemaAnnotationValidator createInputValidator(DataSchema schema)
+  {
+    if ((readOnlyRestrictedMethods.contains(_resourceMethod) && !_readOnlyPaths.isEmpty())
+        || (createOnlyRestrictedMethods.contains(_resourceMethod) && !_createOnlyPaths.isEmpty()))
+    {
+      return new DataValidator(schema);
+    }
+    return new DataSchemaAnnotationValidator(schema);
+  }
+
   private ValidationResult validateOutputEntity(DataTemplate<?> entity)
   {
     try
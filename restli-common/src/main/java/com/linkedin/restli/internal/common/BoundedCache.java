@@ -0,0 +1,73 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.common;
+
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Thread-safe map that is read without locking. Instead of evicting entries, it stops caching new entries once it
+ * reaches its maximum size, so the values that do not fit are computed again by the callers.
+ */
+public class BoundedCache<K, V>
+{
+  /**
+   * @param maxSize maximum number of entries, 0 disables caching
+   */
+  public BoundedCache(final int maxSize)
+  {
+    if (maxSize < 0)
+    {
+      throw new IllegalArgumentException("Cache size cannot be negative: " + maxSize);
+    }
+
+    _maxSize = maxSize;
+    _map = new ConcurrentHashMap<K, V>();
+  }
+
+  /**
+   * @return the cached value of the key, or null if it is not cached
+   */
+  public V get(K key)
+  {
+    return _map.get(key);
+  }
+
+  /**
+   * Cache the value of the key, unless the cache is full. The key must not be modified afterwards.
+   */
+  public void put(K key, V value)
+  {
+    if (_map.size() < _maxSize)
+    {
+      _map.putIfAbsent(key, value);
+    }
+  }
+
+  /**
+   * @return number of cached entries
+   */
+  public int size()
+  {
+    return _map.size();
+  }
+
+  private final int _maxSize;
+  private final ConcurrentMap<K, V> _map;
+}
@@ -0,0 +1,183 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.common;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.transform.filter.ProjectionPlan;
+import com.linkedin.data.transform.filter.request.MaskCreator;
+import com.linkedin.data.transform.filter.request.MaskTree;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+
+/**
+ * Bounded caches for the projection masks used by the server and the client, so that the same mask is not
+ * parsed, compiled or encoded again for every request.
+ *
+ * <ul>
+ *   <li>URI-formatted masks (e.g. the "fields" query parameter) are decoded once per distinct mask string.</li>
+ *   <li>Masks are compiled into {@link ProjectionPlan}s once per distinct mask content.</li>
+ *   <li>Positive masks created from {@link PathSpec}s and their URI encoding are computed once per distinct set of fields.</li>
+ * </ul>
+ *
+ * All cached masks are read-only, including the masks handed out as {@link MaskTree}s, so that they can be shared
+ * by requests without copying. The caches stop growing once they hold the maximum number of entries.
+ */
+public class ProjectionMaskCache
+{
+  public static final int DEFAULT_MAX_SIZE = 1024;
+
+  private static final ProjectionMaskCache DEFAULT = new ProjectionMaskCache(DEFAULT_MAX_SIZE);
+
+  /**
+   * @return process-wide instance shared by the rest.li client and server
+   */
+  public static ProjectionMaskCache getDefault()
+  {
+    return DEFAULT;
+  }
+
+  /**
+   * @param maxSize maximum number of entries in each of the caches, 0 disables caching
+   */
+  public ProjectionMaskCache(int maxSize)
+  {
+    if (maxSize < 0)
+    {
+      throw new IllegalArgumentException("Cache size cannot be negative: " + maxSize);
+    }
+
+    _decodedMasks = new BoundedCache<String, DataMap>(maxSize);
+    _plans = new BoundedCache<DataMap, ProjectionPlan>(maxSize);
+    _positiveMasks = new BoundedCache<List<PathSpec>, DataMap>(maxSize);
+    _encodedMasks = new BoundedCache<DataMap, String>(maxSize);
+  }
+
+  /**
+   * Same as {@link URIMaskUtil#decodeMaskUriFormat(StringBuilder)}, but reuses the result of previous
+   * decoding of the same string.
+   *
+   * @param uriParam URI-formatted String representation of an encoded MaskTree
+   * @return a new MaskTree over the read-only decoded mask, which must be copied by callers that modify it
+   * @throws IllegalMaskException if syntax in the input is malformed
+   */
+  public MaskTree decodeMaskUriFormat(String uriParam) throws IllegalMaskException
+  {
+    DataMap mask = _decodedMasks.get(uriParam);
+    if (mask == null)
+    {
+      mask = URIMaskUtil.decodeMaskUriFormat(new StringBuilder(uriParam)).getDataMap();
+      mask.makeReadOnly();
+      _decodedMasks.put(uriParam, mask);
+    }
+
+    return new MaskTree(mask);
+  }
+
+  /**
+   * Return the compiled {@link ProjectionPlan} for the mask, compiling it on first use.
+   * The plan does not depend on later modifications of the mask. The lookup hashes the whole mask, so callers that
+   * project many entities resolve the plan once and reuse it.
+   *
+   * @param mask mask in the {@link MaskTree} data representation
+   * @return compiled plan for the mask
+   */
+  public ProjectionPlan getProjectionPlan(DataMap mask)
+  {
+    ProjectionPlan plan = _plans.get(mask);
+    if (plan == null)
+    {
+      plan = ProjectionPlan.compile(mask);
+      // key by a read-only mask so that later modifications of the mask do not corrupt the cache
+      DataMap key = mask;
+      if (!key.isReadOnly())
+      {
+        key = copy(mask);
+        key.makeReadOnly();
+      }
+      _plans.put(key, plan);
+    }
+
+    return plan;
+  }
+
+  /**
+   * Same as {@link MaskCreator#createPositiveMask(Collection)}, but reuses the mask created for the same fields.
+   *
+   * @param paths the fields to include
+   * @return a read-only {@link DataMap} representation of the positive mask
+   */
+  public DataMap createPositiveMask(Collection<PathSpec> paths)
+  {
+    final List<PathSpec> key = new ArrayList<PathSpec>(paths);
+    DataMap mask = _positiveMasks.get(key);
+    if (mask == null)
+    {
+      mask = MaskCreator.createPositiveMask(key).getDataMap();
+      mask.makeReadOnly();
+      _positiveMasks.put(key, mask);
+    }
+
+    return mask;
+  }
+
+  /**
+   * Same as {@link URIMaskUtil#encodeMaskForURI(DataMap)}. The encoding of read-only masks is cached,
+   * because their content cannot change afterwards.
+   *
+   * @param simplifiedMask the mask to encode
+   * @return URI-formatted String encoding of the mask
+   */
+  public String encodeMaskForURI(DataMap simplifiedMask)
+  {
+    if (!simplifiedMask.isReadOnly())
+    {
+      return URIMaskUtil.encodeMaskForURI(simplifiedMask);
+    }
+
+    String encoded = _encodedMasks.get(simplifiedMask);
+    if (encoded == null)
+    {
+      encoded = URIMaskUtil.encodeMaskForURI(simplifiedMask);
+      _encodedMasks.put(simplifiedMask, encoded);
+    }
+
+    return encoded;
+  }
+
+  private static DataMap copy(DataMap mask)
+  {
+    try
+    {
+      return mask.copy();
+    }
+    catch (CloneNotSupportedException e)
+    {
+      // should never be reached
+      throw new AssertionError(e);
+    }
+  }
+
+  private final BoundedCache<String, DataMap> _decodedMasks;
+  private final BoundedCache<DataMap, ProjectionPlan> _plans;
+  private final BoundedCache<List<PathSpec>, DataMap> _positiveMasks;
+  private final BoundedCache<DataMap, String> _encodedMasks;
+}
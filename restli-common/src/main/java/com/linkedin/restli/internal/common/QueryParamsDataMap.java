@@ -142,7 +142,7 @@ public class QueryParamsDataMap
       final String projectionKey)
   {
     final DataMap projectionsMap = dataMap.getDataMap(projectionKey);
-    final String encodedFields = URIMaskUtil.encodeMaskForURI(projectionsMap);
+    final String encodedFields = ProjectionMaskCache.getDefault().encodeMaskForURI(projectionsMap);
     result.put(projectionKey, Collections.singletonList(encodedFields));
     final DataMap dataMapClone;
     try
@@ -21,12 +21,11 @@ import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 import com.linkedin.jersey.api.uri.UriComponent;
 
-import java.util.LinkedList;
-import java.util.Queue;
-
 
 /**
  * A utility class for parsing Rest.li 2.0 protocol URI elements
+ * <p/>
+ * The element is tokenized lazily while it is parsed, so that only the parsed strings and data objects are allocated.
  *
  * @see URIParamUtils for creating URI 2.0
  *
@@ -36,6 +35,27 @@ import java.util.Queue;
 
 public class URIElementParser
 {
+  private final String _element;
+  private final int _start;
+  private final int _end;
+  // position of the first character after the current token
+  private int _pos;
+
+  // current token; it is a string token if _marker is null, and there is no token at the end of the element
+  private boolean _hasToken;
+  private GrammarMarker _marker;
+  private String _value;
+  private int _tokenStart;
+
+  private URIElementParser(String element, int start, int end) throws PathSegment.PathSegmentSyntaxException
+  {
+    _element = element;
+    _start = start;
+    _end = end;
+    _pos = start;
+    nextToken();
+  }
+
   /**
    * Parse the given element into a {@link com.linkedin.data.DataComplex} or {@link String}.
    *
@@ -45,242 +65,223 @@ public class URIElementParser
    */
   public static Object parse(String element) throws PathSegment.PathSegmentSyntaxException
   {
-    Queue<Token> tokens = tokenizeElement(element);
-    Object result = parseElement(tokens);
+    return parse(element, 0, element.length());
+  }
 
-    if (!tokens.isEmpty())
+  /**
+   * Same as {@link #parse(String)} for the element between the given indexes of the string, without copying it.
+   * Columns in error messages are relative to the start index.
+   */
+  static Object parse(String str, int start, int end) throws PathSegment.PathSegmentSyntaxException
+  {
+    final URIElementParser parser = new URIElementParser(str, start, end);
+    final Object result = parser.parseElement();
+
+    if (parser._hasToken)
     {
-      throw new PathSegment.PathSegmentSyntaxException("tokens left over after parsing; first excess token: " + tokens.peek().toErrorString() );
+      throw new PathSegment.PathSegmentSyntaxException("tokens left over after parsing; first excess token: " + parser.tokenErrorString());
     }
 
     return result;
   }
 
-  private static Object parseElement(Queue<Token> tokenQueue) throws PathSegment.PathSegmentSyntaxException
+  private Object parseElement() throws PathSegment.PathSegmentSyntaxException
   {
-    Token nextToken = tokenQueue.peek();
-    assertNotNull(nextToken);
-    if (nextToken.isGrammar())
+    assertHasToken();
+    if (_marker == GrammarMarker.MAP_START)
     {
-      if (nextToken.grammarEquals(GrammarMarker.MAP_START))
-      {
-        return parseMap(tokenQueue);
-      }
-      else if (nextToken.grammarEquals(GrammarMarker.LIST_START))
-      {
-        return parseList(tokenQueue);
-      }
-      else
-      {
-        Token errorToken = tokenQueue.poll();
-        throw new PathSegment.PathSegmentSyntaxException("unexpected token: " + errorToken.toErrorString() + " at start of element");
-      }
+      return parseMap();
+    }
+    else if (_marker == GrammarMarker.LIST_START)
+    {
+      return parseList();
+    }
+    else if (_marker != null)
+    {
+      throw new PathSegment.PathSegmentSyntaxException("unexpected token: " + tokenErrorString() + " at start of element");
     }
     else
     {
       // just a string
-      return parseString(tokenQueue);
+      return parseString();
     }
   }
 
-  private static String parseString(Queue<Token> tokenQueue) throws PathSegment.PathSegmentSyntaxException
+  private String parseString() throws PathSegment.PathSegmentSyntaxException
   {
-    Token strToken = tokenQueue.poll();
-    assertNotNull(strToken);
-    if (strToken.isGrammar())
+    assertHasToken();
+    if (_marker != null)
     {
-      throw new PathSegment.PathSegmentSyntaxException("expected string token, found grammar token: " + strToken.toErrorString());
+      throw new PathSegment.PathSegmentSyntaxException("expected string token, found grammar token: " + tokenErrorString());
     }
-    return strToken.toString();
+
+    final String value = _value;
+    nextToken();
+    return value;
   }
 
-  private static DataMap parseMap(Queue<Token> tokenQueue)throws PathSegment.PathSegmentSyntaxException
+  private DataMap parseMap() throws PathSegment.PathSegmentSyntaxException
   {
     DataMap map = new DataMap();
 
-    Token firstToken = tokenQueue.poll();
-    assertExpectation(firstToken, GrammarMarker.MAP_START);
+    consumeExpectation(GrammarMarker.MAP_START);
 
-    Token nextToken = tokenQueue.peek();
-    if (!nextToken.grammarEquals(GrammarMarker.OBJ_END))
+    assertHasToken();
+    if (_marker != GrammarMarker.OBJ_END)
     {
-      parseMapElements(tokenQueue, map);
+      parseMapElement(map);
+      while (_marker == GrammarMarker.ITEM_SEP)
+      {
+        nextToken();
+        parseMapElement(map);
+      }
     }
 
-    Token lastToken = tokenQueue.poll();
-    assertExpectation(lastToken, GrammarMarker.OBJ_END);
+    consumeExpectation(GrammarMarker.OBJ_END);
 
     return map;
   }
 
-  /**
-   * @param tokenQueue the current {@link Queue} of {@link Token}s
-   * @param map a {@link DataMap} to put the parsed elements into
-   * @throws PathSegment.PathSegmentSyntaxException
-   */
-  private static void parseMapElements(Queue<Token> tokenQueue, DataMap map) throws PathSegment.PathSegmentSyntaxException
+  private void parseMapElement(DataMap map) throws PathSegment.PathSegmentSyntaxException
   {
-    parseMapElement(tokenQueue, map);
-    while (tokenQueue.peek().grammarEquals(GrammarMarker.ITEM_SEP))
-    {
-      tokenQueue.remove();
-      parseMapElement(tokenQueue, map);
-    }
-  }
-
-  private static void parseMapElement(Queue<Token> tokenQueue, DataMap map) throws PathSegment.PathSegmentSyntaxException
-  {
-    String key = parseString(tokenQueue);
-    Token mapSep = tokenQueue.poll();
-    assertExpectation(mapSep, GrammarMarker.MAP_SEP);
-    Object value = parseElement(tokenQueue);
+    String key = parseString();
+    consumeExpectation(GrammarMarker.MAP_SEP);
+    Object value = parseElement();
     map.put(key, value);
 
-    Token nextToken = tokenQueue.peek();
-    assertNotNull(nextToken);
+    assertHasToken();
   }
 
-  private static DataList parseList(Queue<Token> tokenQueue) throws PathSegment.PathSegmentSyntaxException
+  private DataList parseList() throws PathSegment.PathSegmentSyntaxException
   {
     DataList list = new DataList();
 
-    Token firstToken = tokenQueue.poll();
-    assertExpectation(firstToken, GrammarMarker.LIST_START);
+    consumeExpectation(GrammarMarker.LIST_START);
 
-    Token nextToken = tokenQueue.peek();
-    if (!nextToken.grammarEquals(GrammarMarker.OBJ_END))
+    assertHasToken();
+    if (_marker != GrammarMarker.OBJ_END)
     {
-      parseListElements(tokenQueue, list);
+      list.add(parseListElement());
+      while (_marker == GrammarMarker.ITEM_SEP)
+      {
+        nextToken();
+        list.add(parseListElement());
+      }
     }
 
-    Token lastToken = tokenQueue.poll();
-    assertExpectation(lastToken, GrammarMarker.OBJ_END);
+    consumeExpectation(GrammarMarker.OBJ_END);
 
     return list;
   }
 
-  /**
-   * @param tokenQueue the current {@link Queue} of {@link Token}s
-   * @param list a {@link DataList} to put the parsed elements into
-   * @throws PathSegment.PathSegmentSyntaxException
-   */
-  private static void parseListElements(Queue<Token> tokenQueue, DataList list) throws PathSegment.PathSegmentSyntaxException
+  private Object parseListElement() throws PathSegment.PathSegmentSyntaxException
   {
-    list.add(parseListElement(tokenQueue));
-    while (tokenQueue.peek().grammarEquals(GrammarMarker.ITEM_SEP))
-    {
-      tokenQueue.remove();
-      list.add(parseListElement(tokenQueue));
-    }
-  }
-
-  private static Object parseListElement(Queue<Token> tokenQueue) throws PathSegment.PathSegmentSyntaxException
-  {
-    Object element = parseElement(tokenQueue);
-    Token nextToken = tokenQueue.peek();
-    assertNotNull(nextToken);
+    Object element = parseElement();
+    assertHasToken();
     return element;
   }
 
-  private static void assertExpectation(Token token, GrammarMarker marker) throws PathSegment.PathSegmentSyntaxException
+  private void consumeExpectation(GrammarMarker marker) throws PathSegment.PathSegmentSyntaxException
   {
-    assertNotNull(token);
-    if (!token.grammarEquals(marker))
+    assertHasToken();
+    if (_marker != marker)
     {
-      throw new PathSegment.PathSegmentSyntaxException("expected '" + marker.stringValue + "' but found " +  token.toErrorString());
+      throw new PathSegment.PathSegmentSyntaxException("expected '" + marker.stringValue + "' but found " +  tokenErrorString());
     }
+    nextToken();
   }
 
-  private static void assertNotNull(Token token) throws PathSegment.PathSegmentSyntaxException
+  private void assertHasToken() throws PathSegment.PathSegmentSyntaxException
   {
-    if (token == null)
+    if (!_hasToken)
     {
       throw new PathSegment.PathSegmentSyntaxException("unexpected end of input");
     }
   }
 
-  private static Queue<Token> tokenizeElement(String element) throws PathSegment.PathSegmentSyntaxException
+  private String tokenErrorString()
+  {
+    return "'" + (_marker == null ? _value : _marker.stringValue) + "' (column " + (_tokenStart - _start) + ")";
+  }
+
+  /**
+   * Reads the token at the current position.
+   */
+  private void nextToken() throws PathSegment.PathSegmentSyntaxException
   {
-    Queue<Token> tokens = new LinkedList<Token>();
-    StringBuilder currentToken = new StringBuilder();
-    int currentTokenStartLoc = 0;
-    int currentCharIndex = 0;
-    for (char c : element.toCharArray())
+    if (_pos >= _end)
     {
-      if (isGrammarCharacter(c))
-      {
-        // special case for list start.
-        if (c == URIConstants.OBJ_START  && currentToken.toString().equals(URIConstants.LIST_PREFIX))
-        {
-          tokens.add(new Token(GrammarMarker.LIST_START, currentTokenStartLoc));
-          currentTokenStartLoc = currentCharIndex + 1;
-        }
-        else
-        {
-          // take care of any previous string token.
-          if (currentToken.length() != 0)
-          {
-            tokens.add(createStringToken(currentToken.toString(), currentTokenStartLoc));
-          }
-          tokens.add(createGrammarToken(c, currentCharIndex));
-          currentTokenStartLoc = currentCharIndex + 1;
-        }
-        currentToken = new StringBuilder();
-      }
-      else
-      {
-        currentToken.append(c);
-      }
-      currentCharIndex++;
+      _hasToken = false;
+      _marker = null;
+      _value = null;
+      return;
     }
 
-    if (currentToken.length() != 0)
+    _hasToken = true;
+    _tokenStart = _pos;
+
+    final GrammarMarker grammarMarker = toGrammarMarker(_element.charAt(_pos));
+    if (grammarMarker != null)
     {
-      tokens.add(createStringToken(currentToken.toString(), currentTokenStartLoc));
+      _marker = grammarMarker;
+      _value = null;
+      ++_pos;
+      return;
     }
 
-    return tokens;
-  }
+    int tokenEnd = _pos + 1;
+    while (tokenEnd < _end && toGrammarMarker(_element.charAt(tokenEnd)) == null)
+    {
+      ++tokenEnd;
+    }
 
-  private static Token createStringToken(String strToken, int startLocation) throws PathSegment.PathSegmentSyntaxException
-  {
-    return new Token(decodeString(strToken), startLocation);
+    // special case for list start.
+    if (tokenEnd < _end &&
+        _element.charAt(tokenEnd) == URIConstants.OBJ_START &&
+        tokenEnd - _pos == URIConstants.LIST_PREFIX.length() &&
+        _element.startsWith(URIConstants.LIST_PREFIX, _pos))
+    {
+      _marker = GrammarMarker.LIST_START;
+      _value = null;
+      _pos = tokenEnd + 1;
+    }
+    else
+    {
+      _marker = null;
+      _value = decodeString(_pos, tokenEnd);
+      _pos = tokenEnd;
+    }
   }
 
-  private  static String decodeString(String str) throws PathSegment.PathSegmentSyntaxException
+  private String decodeString(int start, int end)
   {
-    if (str.equals(URIConstants.EMPTY_STRING_REP))
+    if (end - start == URIConstants.EMPTY_STRING_REP.length() && _element.startsWith(URIConstants.EMPTY_STRING_REP, start))
     {
       return "";
     }
     else
     {
-      return UriComponent.decode(str, null); // todo query param to decode + as ' '?
+      return UriComponent.decode(_element.substring(start, end), null); // todo query param to decode + as ' '?
     }
   }
 
-  private static Token createGrammarToken(char c, int startLocation)
+  private static GrammarMarker toGrammarMarker(char c)
   {
     switch (c)
     {
       case URIConstants.OBJ_START:
-        return new Token(GrammarMarker.MAP_START, startLocation);
+        return GrammarMarker.MAP_START;
       case URIConstants.OBJ_END:
-        return new Token(GrammarMarker.OBJ_END, startLocation);
+        return GrammarMarker.OBJ_END;
       case URIConstants.ITEM_SEP:
-        return new Token(GrammarMarker.ITEM_SEP, startLocation);
+        return GrammarMarker.ITEM_SEP;
       case URIConstants.KEY_VALUE_SEP:
-        return new Token(GrammarMarker.MAP_SEP, startLocation);
+        return GrammarMarker.MAP_SEP;
       default:
-        throw new IllegalArgumentException("cannot create non-grammar token '" + c + "' as grammar token");
+        return null;
     }
   }
 
-  private static boolean isGrammarCharacter(char c)
-  {
-    return URIConstants.GRAMMAR_CHARS.contains(c);
-  }
-
   private static enum GrammarMarker
   {
     LIST_START (URIConstants.LIST_PREFIX + URIConstants.OBJ_START),
@@ -296,55 +297,4 @@ public class URIElementParser
       stringValue = value;
     }
   }
-
-  private static class Token
-  {
-    private String value;
-    private GrammarMarker marker;
-    private int startLocation;
-
-    // used only for string tokens
-    public Token(String str, int startLocation)
-    {
-      this.value = str;
-      this.marker = null;
-      this.startLocation = startLocation;
-    }
-
-    // used only for grammar tokens.
-    public Token(GrammarMarker marker, int startLocation)
-    {
-      this.value = null;
-      this.marker = marker;
-      this.startLocation = startLocation;
-    }
-
-    public boolean isGrammar()
-    {
-      return (marker != null);
-    }
-
-    public boolean grammarEquals(GrammarMarker marker)
-    {
-      return (this.marker == marker);
-    }
-
-    public String toString()
-    {
-      if (isGrammar())
-      {
-        return marker.stringValue;
-      }
-      else
-      {
-        return value;
-      }
-    }
-
-    public String toErrorString()
-    {
-      return "'" + toString() + "' (column " + startLocation + ")";
-    }
-  }
-
 }
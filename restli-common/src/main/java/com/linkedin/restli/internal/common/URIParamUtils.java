@@ -30,6 +30,7 @@ import com.linkedin.restli.common.ProtocolVersion;
 import com.linkedin.restli.common.RestConstants;
 
 import java.io.UnsupportedEncodingException;
+import java.net.URLDecoder;
 import java.net.URLEncoder;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -61,7 +62,7 @@ public class URIParamUtils
     {
       if (dataMap.containsKey(parameterName))
       {
-        result.put(parameterName, URIMaskUtil.encodeMaskForURI(dataMap.getDataMap(parameterName)));
+        result.put(parameterName, ProjectionMaskCache.getDefault().encodeMaskForURI(dataMap.getDataMap(parameterName)));
       }
     }
 
@@ -406,7 +407,6 @@ public class URIParamUtils
     for (Map.Entry<String, List<String>> entry : queryParameters.entrySet())
     {
       String key = entry.getKey();
-      Object value;
 
       List<String> values = entry.getValue();
       if (values.size() > 1)
@@ -415,28 +415,100 @@ public class URIParamUtils
       }
       String encodedValue =  values.get(0);
 
-      if (RestConstants.PROJECTION_PARAMETERS.contains(key))
+      dataMap.put(key, parseUriParam(key, encodedValue, 0, encodedValue.length()));
+    }
+    return dataMap;
+  }
+
+  /**
+   * Parse the raw query of a URI in a single pass. The query parameters are not split into an intermediate
+   * map of encoded strings, and each value is parsed directly from the query string.
+   *
+   * The result is the same as {@link #parseUriParams(Map)} of {@link UriComponent#decodeQuery(String, boolean)}
+   * with the query parameters in encoded form.
+   *
+   * @param rawQuery the query of a URI in encoded form, which may be null
+   * @return the {@link DataMap} of parsed query parameters
+   * @throws PathSegment.PathSegmentSyntaxException if a query parameter is repeated or incorrectly formatted
+   */
+  public static DataMap parseUriQuery(String rawQuery) throws PathSegment.PathSegmentSyntaxException
+  {
+    final DataMap dataMap = new DataMap();
+    if (rawQuery == null)
+    {
+      return dataMap;
+    }
+
+    final int length = rawQuery.length();
+    int paramStart = 0;
+    while (paramStart < length)
+    {
+      int paramEnd = rawQuery.indexOf('&', paramStart);
+      if (paramEnd < 0)
       {
-        //don't decode it.
-        value = encodedValue;
+        paramEnd = length;
       }
-      else
+
+      int equals = paramStart;
+      while (equals < paramEnd && rawQuery.charAt(equals) != '=')
       {
-        try
-        {
-          value = URIElementParser.parse(encodedValue);
-        }
-        catch (PathSegment.PathSegmentSyntaxException e)
+        ++equals;
+      }
+
+      // parameters without key are ignored
+      if (equals > paramStart)
+      {
+        final String key = decodeQueryParamName(rawQuery.substring(paramStart, equals));
+        if (dataMap.containsKey(key))
         {
-          throw new PathSegment.PathSegmentSyntaxException("error while parsing query param '" + key + "'\n" + e.getMessage());
+          throw new PathSegment.PathSegmentSyntaxException("unexpected repeated query param in URI: " + key);
         }
 
+        final int valueStart = equals < paramEnd ? equals + 1 : paramEnd;
+        dataMap.put(key, parseUriParam(key, rawQuery, valueStart, paramEnd));
       }
-      dataMap.put(key, value);
+
+      paramStart = paramEnd + 1;
     }
+
     return dataMap;
   }
 
+  private static Object parseUriParam(String key, String str, int start, int end) throws PathSegment.PathSegmentSyntaxException
+  {
+    if (RestConstants.PROJECTION_PARAMETERS.contains(key))
+    {
+      //don't decode it.
+      return str.substring(start, end);
+    }
+
+    try
+    {
+      return URIElementParser.parse(str, start, end);
+    }
+    catch (PathSegment.PathSegmentSyntaxException e)
+    {
+      throw new PathSegment.PathSegmentSyntaxException("error while parsing query param '" + key + "'\n" + e.getMessage());
+    }
+  }
+
+  private static String decodeQueryParamName(String name)
+  {
+    if (name.indexOf('%') < 0 && name.indexOf('+') < 0)
+    {
+      return name;
+    }
+
+    try
+    {
+      return URLDecoder.decode(name, RestConstants.DEFAULT_CHARSET_NAME);
+    }
+    catch (UnsupportedEncodingException e)
+    {
+      throw new IllegalArgumentException(e);
+    }
+  }
+
   /**
    * Add the given parameters to the UriBuilder, in sorted order.
    *
@@ -0,0 +1,113 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.common.validation;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.schema.validation.ValidationResult;
+import com.linkedin.data.template.DataTemplateUtil;
+import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.restli.common.ResourceMethod;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static com.linkedin.data.TestUtil.dataMapFromString;
+
+
+/**
+ * Tests that {@link RestLiDataValidator} reports the same errors whether or not the validation takes the fast path
+ * for schemas without annotation validators.
+ */
+public class TestRestLiDataValidator
+{
+  @Test
+  public void testSchemaWithoutValidators() throws IOException
+  {
+    final RestLiDataValidator validator = new RestLiDataValidator((Map<String, List<String>>) null, Plain.class, ResourceMethod.GET);
+
+    final DataMap valid = dataMapFromString("{ \"id\" : 1, \"name\" : \"abcdef\" }");
+    final ValidationResult result = validator.validate(new Plain(valid));
+    Assert.assertTrue(result.isValid(), result.getMessages().toString());
+    Assert.assertFalse(result.hasFix());
+    Assert.assertSame(result.getFixed(), valid);
+
+    final ValidationResult invalid = validator.validate(new Plain(dataMapFromString("{ \"name\" : 1 }")));
+    Assert.assertFalse(invalid.isValid());
+    Assert.assertEquals(invalid.getMessages().size(), 2, invalid.getMessages().toString());
+  }
+
+  @Test
+  public void testSchemaWithValidators() throws IOException
+  {
+    final RestLiDataValidator validator = new RestLiDataValidator((Map<String, List<String>>) null, Annotated.class, ResourceMethod.GET);
+
+    Assert.assertTrue(validator.validate(new Annotated(dataMapFromString("{ \"name\" : \"abc\" }"))).isValid());
+    final ValidationResult result = validator.validate(new Annotated(dataMapFromString("{ \"name\" : \"abcdef\" }")));
+    Assert.assertFalse(result.isValid());
+    Assert.assertTrue(result.getMessages().toString().contains("/name"), result.getMessages().toString());
+  }
+
+  @Test
+  public void testReadOnlyFields() throws IOException
+  {
+    final Map<String, List<String>> annotations = Collections.singletonMap("readOnly", Collections.singletonList("id"));
+
+    final RestLiDataValidator create = new RestLiDataValidator(annotations, Plain.class, ResourceMethod.CREATE);
+    final ValidationResult result = create.validate(new Plain(dataMapFromString("{ \"id\" : 1, \"name\" : \"a\" }")));
+    Assert.assertFalse(result.isValid());
+    Assert.assertTrue(result.getMessages().toString().contains("ReadOnly field present"), result.getMessages().toString());
+
+    // without restrictions for the method, the input is validated against the schema only
+    final RestLiDataValidator update = new RestLiDataValidator(annotations, Plain.class, ResourceMethod.UPDATE);
+    Assert.assertTrue(update.validate(new Plain(dataMapFromString("{ \"id\" : 1, \"name\" : \"a\" }"))).isValid());
+    Assert.assertFalse(update.validate(new Plain(dataMapFromString("{ \"name\" : \"a\" }"))).isValid());
+  }
+
+  public static class Plain extends RecordTemplate
+  {
+    private static final RecordDataSchema SCHEMA = (RecordDataSchema) DataTemplateUtil.parseSchema(
+      "{ \"type\" : \"record\", \"name\" : \"Plain\", \"namespace\" : \"com.linkedin.restli.common.validation.test\", \"fields\" : [\n" +
+      "  { \"name\" : \"id\", \"type\" : \"int\" },\n" +
+      "  { \"name\" : \"name\", \"type\" : \"string\" }\n" +
+      "] }");
+
+    public Plain(DataMap data)
+    {
+      super(data, SCHEMA);
+    }
+  }
+
+  public static class Annotated extends RecordTemplate
+  {
+    private static final RecordDataSchema SCHEMA = (RecordDataSchema) DataTemplateUtil.parseSchema(
+      "{ \"type\" : \"record\", \"name\" : \"Annotated\", \"namespace\" : \"com.linkedin.restli.common.validation.test\", \"fields\" : [\n" +
+      "  { \"name\" : \"name\", \"type\" : \"string\", \"validate\" : { \"strlen\" : { \"max\" : 3 } } }\n" +
+      "] }");
+
+    public Annotated(DataMap data)
+    {
+      super(data, SCHEMA);
+    }
+  }
+}
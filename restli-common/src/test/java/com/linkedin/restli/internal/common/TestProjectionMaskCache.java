@@ -0,0 +1,117 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.common;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.PathSpec;
+import com.linkedin.data.transform.filter.ProjectionPlan;
+import com.linkedin.data.transform.filter.request.MaskOperation;
+import com.linkedin.data.transform.filter.request.MaskTree;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static com.linkedin.data.TestUtil.dataMapFromString;
+
+
+public class TestProjectionMaskCache
+{
+  @Test
+  public void testDecodeSharesReadOnlyMask() throws IllegalMaskException, IOException
+  {
+    final ProjectionMaskCache cache = new ProjectionMaskCache(10);
+
+    final MaskTree first = cache.decodeMaskUriFormat("a,b:(c)");
+    Assert.assertEquals(first.getDataMap(), dataMapFromString("{\"a\": 1, \"b\": {\"c\": 1}}"));
+    Assert.assertTrue(first.getDataMap().isReadOnly());
+
+    // the decoded mask is shared without copying, and its plan is keyed by the same read-only map
+    final MaskTree second = cache.decodeMaskUriFormat("a,b:(c)");
+    Assert.assertSame(second.getDataMap(), first.getDataMap());
+    Assert.assertSame(cache.getProjectionPlan(second.getDataMap()), cache.getProjectionPlan(first.getDataMap()));
+  }
+
+  @Test(expectedExceptions = UnsupportedOperationException.class)
+  public void testDecodedMaskCannotBeModified() throws IllegalMaskException
+  {
+    new ProjectionMaskCache(10).decodeMaskUriFormat("a").addOperation(new PathSpec("d"), MaskOperation.POSITIVE_MASK_OP);
+  }
+
+  @Test(expectedExceptions = IllegalMaskException.class)
+  public void testDecodeInvalidMask() throws IllegalMaskException
+  {
+    new ProjectionMaskCache(10).decodeMaskUriFormat("a:(b");
+  }
+
+  @Test
+  public void testProjectionPlanReused() throws IOException
+  {
+    final ProjectionMaskCache cache = new ProjectionMaskCache(10);
+    final DataMap mask = dataMapFromString("{\"a\": 1}");
+
+    final ProjectionPlan plan = cache.getProjectionPlan(mask);
+    Assert.assertSame(cache.getProjectionPlan(dataMapFromString("{\"a\": 1}")), plan);
+
+    // modifying the mask afterwards must not return the stale plan
+    mask.put("b", 1);
+    final ProjectionPlan modifiedPlan = cache.getProjectionPlan(mask);
+    Assert.assertNotSame(modifiedPlan, plan);
+    Assert.assertEquals(modifiedPlan.project(dataMapFromString("{\"a\": 1, \"b\": 2, \"c\": 3}")),
+                        dataMapFromString("{\"a\": 1, \"b\": 2}"));
+  }
+
+  @Test
+  public void testPositiveMaskAndEncoding()
+  {
+    final ProjectionMaskCache cache = new ProjectionMaskCache(10);
+
+    final DataMap mask = cache.createPositiveMask(Arrays.asList(new PathSpec("a"), new PathSpec("b", "c")));
+    Assert.assertTrue(mask.isReadOnly());
+    Assert.assertSame(cache.createPositiveMask(Arrays.asList(new PathSpec("a"), new PathSpec("b", "c"))), mask);
+
+    final String encoded = cache.encodeMaskForURI(mask);
+    Assert.assertEquals(encoded, URIMaskUtil.encodeMaskForURI(mask));
+    Assert.assertSame(cache.encodeMaskForURI(mask), encoded);
+  }
+
+  @Test
+  public void testFullCache() throws IllegalMaskException
+  {
+    final ProjectionMaskCache cache = new ProjectionMaskCache(1);
+    final MaskTree cached = cache.decodeMaskUriFormat("a");
+    Assert.assertSame(cache.decodeMaskUriFormat("a").getDataMap(), cached.getDataMap());
+
+    // once full, the cache keeps its entries and decodes other masks every time
+    final MaskTree uncached = cache.decodeMaskUriFormat("b");
+    Assert.assertNotSame(cache.decodeMaskUriFormat("b").getDataMap(), uncached.getDataMap());
+    Assert.assertEquals(cache.decodeMaskUriFormat("b").getDataMap(), uncached.getDataMap());
+    Assert.assertSame(cache.decodeMaskUriFormat("a").getDataMap(), cached.getDataMap());
+  }
+
+  @Test
+  public void testDisabledCache()
+  {
+    final ProjectionMaskCache cache = new ProjectionMaskCache(0);
+    final DataMap mask = cache.createPositiveMask(Arrays.asList(new PathSpec("a")));
+    Assert.assertNotSame(cache.createPositiveMask(Arrays.asList(new PathSpec("a"))), mask);
+    Assert.assertEquals(cache.createPositiveMask(Arrays.asList(new PathSpec("a"))), mask);
+  }
+}
@@ -19,6 +19,7 @@ package com.linkedin.restli.internal.common;
 
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
+import com.linkedin.jersey.api.uri.UriComponent;
 import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
@@ -142,6 +143,9 @@ public class TestURIElementParser
       { "(a:)",       "unexpected token: ')' (column 3) at start of element" },
       { "(a::b)",     "unexpected token: ':' (column 3) at start of element" },
       { "",           "unexpected end of input" },
+      { "(",          "unexpected end of input" },
+      { "List(",      "unexpected end of input" },
+      { "()b",        "tokens left over after parsing; first excess token: 'b' (column 2)" },
     };
   }
 
@@ -181,4 +185,125 @@ public class TestURIElementParser
     DataMap actualQueryParams = URIParamUtils.parseUriParams(queryParams);
     Assert.assertEquals(actualQueryParams, expectedQueryParams);
   }
+
+  @Test(dataProvider = "basicDecodable")
+  public void testDecodingInQuery(String decodable, Object expectedObj) throws PathSegment.PathSegmentSyntaxException
+  {
+    final String query = "q=first&param=" + decodable + "&last";
+    final int start = query.indexOf(decodable);
+    Assert.assertEquals(URIElementParser.parse(query, start, start + decodable.length()), expectedObj);
+  }
+
+  @DataProvider
+  private static Object[][] queries()
+  {
+    return new Object[][] {
+      { null },
+      { "" },
+      { "&&" },
+      { "q=search&start=0&count=10" },
+      { "ids=List(1,2,3)&fields=a,b:(c)&metadataFields=d&pagingFields=total" },
+      { "ids=List((key:a,name:b%20c),(key:List(1,2),name:%27%28%29))&%24params=(x:%2C)" },
+      { "a+b=(c:d)&%3Dkey=value&=ignored&empty=''" },
+      { "ids=List(" + buildIds(100) + ")" }
+    };
+  }
+
+  @Test(dataProvider = "queries")
+  public void testParseUriQuery(String query) throws PathSegment.PathSegmentSyntaxException
+  {
+    Assert.assertEquals(URIParamUtils.parseUriQuery(query), parseUriParams(query));
+  }
+
+  @DataProvider
+  private static Object[][] undecodableQueries()
+  {
+    return new Object[][] {
+      { "a=1&a=2",         "unexpected repeated query param in URI: a" },
+      { "a=1&b",           "error while parsing query param 'b'\nunexpected end of input" },
+      { "a=1&b=",          "error while parsing query param 'b'\nunexpected end of input" },
+      { "a=1&b=List(1,2)c", "error while parsing query param 'b'\ntokens left over after parsing; first excess token: 'c' (column 9)" },
+      { "b=(x:y,z)",       "error while parsing query param 'b'\nexpected ':' but found ')' (column 6)" }
+    };
+  }
+
+  @Test(dataProvider = "undecodableQueries")
+  public void testUndecodableQuery(String query, String expectedErrorMessage)
+  {
+    try
+    {
+      URIParamUtils.parseUriQuery(query);
+      Assert.fail();
+    }
+    catch (PathSegment.PathSegmentSyntaxException e)
+    {
+      Assert.assertEquals(e.getMessage(), expectedErrorMessage);
+    }
+  }
+
+  /**
+   * Compares the single pass query parser with splitting the query into a map before parsing it, for a batch
+   * request of the given number of complex keys.
+   */
+  public void benchmarkParseUriQuery(int count, int batchSize) throws PathSegment.PathSegmentSyntaxException
+  {
+    final StringBuilder ids = new StringBuilder();
+    for (int i = 0; i < batchSize; ++i)
+    {
+      if (i > 0)
+      {
+        ids.append(',');
+      }
+      ids.append("(key:(id:").append(i).append(",message:hello%20world),$params:(id:").append(i).append("))");
+    }
+    final String query = "ids=List(" + ids + ")&fields=id,message&param=" + buildIds(batchSize);
+
+    long startTime = System.nanoTime();
+    for (int i = 0; i < count; ++i)
+    {
+      parseUriParams(query);
+    }
+    final long mapDuration = System.nanoTime() - startTime;
+
+    startTime = System.nanoTime();
+    for (int i = 0; i < count; ++i)
+    {
+      URIParamUtils.parseUriQuery(query);
+    }
+    final long singlePassDuration = System.nanoTime() - startTime;
+
+    System.out.println("Query parsing benchmark for " + batchSize + " keys: " + (mapDuration / count) + " ns with map, "
+                         + (singlePassDuration / count) + " ns in single pass");
+  }
+
+  //@Test
+  public void benchmark() throws PathSegment.PathSegmentSyntaxException
+  {
+    for (int i = 0; i < 5; ++i)
+    {
+      benchmarkParseUriQuery(10000, 10);
+      benchmarkParseUriQuery(1000, 100);
+      benchmarkParseUriQuery(100, 1000);
+    }
+  }
+
+  private static DataMap parseUriParams(String query) throws PathSegment.PathSegmentSyntaxException
+  {
+    final Map<String, List<String>> queryParams = UriComponent.decodeQuery(query, false);
+    return URIParamUtils.parseUriParams(queryParams);
+  }
+
+  private static String buildIds(int count)
+  {
+    final StringBuilder ids = new StringBuilder();
+    for (int i = 0; i < count; ++i)
+    {
+      if (i > 0)
+      {
+        ids.append(',');
+      }
+      ids.append(i);
+    }
+    return ids.toString();
+  }
 }
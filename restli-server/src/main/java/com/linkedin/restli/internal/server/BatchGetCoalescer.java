@@ -0,0 +1,428 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server;
+
+
+import com.linkedin.data.DataMap;
+import com.linkedin.data.transform.filter.request.MaskTree;
+import com.linkedin.restli.common.HttpStatus;
+import com.linkedin.restli.common.ResourceMethod;
+import com.linkedin.restli.internal.server.model.Parameter;
+import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
+import com.linkedin.restli.internal.server.model.ResourceModel;
+import com.linkedin.restli.server.BatchResult;
+import com.linkedin.restli.server.ProjectionMode;
+import com.linkedin.restli.server.ResourceContext;
+import com.linkedin.restli.server.RestLiServiceException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Coalesces the concurrent GET requests of a resource into a single call of its BATCH_GET method.
+ *
+ * The first GET of a batch schedules the batch to be dispatched after a delay, and the GETs that arrive in the
+ * meantime join the batch. The BATCH_GET method is then called with the keys of all of them, and its result is split
+ * back into the result of each GET. A batch of a single GET calls the GET method instead. The batch runs on the
+ * {@link BlockingResourceExecutor} if there is one, where it counts as a single request of the resource, and on the
+ * scheduler thread otherwise.
+ *
+ * Only resources that opt in with the coalesceGets attribute of their annotation are coalesced, and only their
+ * synchronous GET and BATCH_GET methods that take nothing but the key and the set of keys, on root resources.
+ * GETs are only coalesced with GETs of equivalent contexts, that is with the same request headers, query
+ * parameters and projection, because the BATCH_GET method is called on the resource, and therefore with the
+ * context, of the first GET of the batch.
+ */
+public class BatchGetCoalescer
+{
+  public static final long DEFAULT_DELAY_MICROS = 200;
+
+  private static final Logger log = LoggerFactory.getLogger(BatchGetCoalescer.class);
+
+  private final ScheduledExecutorService _scheduler;
+  private final long _delayNanos;
+  private final BlockingResourceExecutor _blockingResourceExecutor;
+  // BATCH_GET method of each GET method, or the GET method itself if it cannot be coalesced
+  private final ConcurrentMap<ResourceMethodDescriptor, ResourceMethodDescriptor> _batchGetMethods =
+      new ConcurrentHashMap<ResourceMethodDescriptor, ResourceMethodDescriptor>();
+  private final ConcurrentMap<BatchKey, Batch> _batches = new ConcurrentHashMap<BatchKey, Batch>();
+
+  /**
+   * @param scheduler scheduler that dispatches the batches
+   * @param delayNanos time that a batch waits for more GETs after its first one
+   * @param blockingResourceExecutor executor that runs the batches, or null to run them on the scheduler thread
+   */
+  public BatchGetCoalescer(ScheduledExecutorService scheduler,
+                           long delayNanos,
+                           BlockingResourceExecutor blockingResourceExecutor)
+  {
+    if (delayNanos < 0)
+    {
+      throw new IllegalArgumentException("Delay cannot be negative: " + delayNanos);
+    }
+
+    _scheduler = scheduler;
+    _delayNanos = delayNanos;
+    _blockingResourceExecutor = blockingResourceExecutor;
+  }
+
+  /**
+   * @return whether the GETs of the method can be coalesced
+   */
+  public boolean canCoalesce(ResourceMethodDescriptor get)
+  {
+    return getBatchGetMethod(get) != null;
+  }
+
+  /**
+   * Add the GET to the pending batch of its method and context, or start a new batch.
+   *
+   * @param get GET method that {@link #canCoalesce} the request
+   * @param context context of the request
+   */
+  public void execute(ResourceMethodDescriptor get, ResourceContext context, Request request)
+  {
+    final BatchKey key = new BatchKey(get, context);
+    while (true)
+    {
+      Batch batch = _batches.get(key);
+      if (batch == null)
+      {
+        batch = new Batch(key, getBatchGetMethod(get));
+        batch.add(request);
+        if (_batches.putIfAbsent(key, batch) == null)
+        {
+          schedule(batch);
+          return;
+        }
+        continue;
+      }
+
+      if (batch.add(request))
+      {
+        return;
+      }
+      // the batch is being dispatched, make room for a new one
+      _batches.remove(key, batch);
+    }
+  }
+
+  private void schedule(final Batch batch)
+  {
+    try
+    {
+      _scheduler.schedule(new Runnable()
+      {
+        @Override
+        public void run()
+        {
+          submit(batch);
+        }
+      }, _delayNanos, TimeUnit.NANOSECONDS);
+    }
+    catch (RejectedExecutionException e)
+    {
+      submit(batch);
+    }
+  }
+
+  private void submit(final Batch batch)
+  {
+    batch.close();
+    if (_blockingResourceExecutor == null)
+    {
+      batch.dispatch();
+      return;
+    }
+
+    _blockingResourceExecutor.execute(batch._batchGet.getResourceModel(), new BlockingResourceExecutor.Task()
+    {
+      @Override
+      public void run()
+      {
+        batch.dispatch();
+      }
+
+      @Override
+      public void reject(Throwable cause)
+      {
+        batch.fail(0, new RestLiServiceException(HttpStatus.S_503_SERVICE_UNAVAILABLE,
+                                                 "Too many concurrent requests of resource '"
+                                                     + batch._batchGet.getResourceName() + "'",
+                                                 cause));
+      }
+    });
+  }
+
+  private ResourceMethodDescriptor getBatchGetMethod(ResourceMethodDescriptor get)
+  {
+    ResourceMethodDescriptor batchGet = _batchGetMethods.get(get);
+    if (batchGet == null)
+    {
+      batchGet = findBatchGetMethod(get);
+      _batchGetMethods.putIfAbsent(get, batchGet == null ? get : batchGet);
+    }
+
+    return batchGet == get ? null : batchGet;
+  }
+
+  private static ResourceMethodDescriptor findBatchGetMethod(ResourceMethodDescriptor get)
+  {
+    if (get.getType() != ResourceMethod.GET || !isCoalescable(get, Parameter.ParamType.RESOURCE_KEY))
+    {
+      return null;
+    }
+
+    // the path keys of the parent resources could differ between the GETs
+    final ResourceModel resource = get.getResourceModel();
+    if (!resource.isCoalesceGets() || resource.getParentResourceModel() != null)
+    {
+      return null;
+    }
+
+    final ResourceMethodDescriptor batchGet = resource.findMethod(ResourceMethod.BATCH_GET);
+    if (batchGet == null || !isCoalescable(batchGet, Parameter.ParamType.BATCH))
+    {
+      return null;
+    }
+
+    return batchGet;
+  }
+
+  private static boolean isCoalescable(ResourceMethodDescriptor method, Parameter.ParamType onlyParamType)
+  {
+    final List<Parameter<?>> parameters = method.getParameters();
+    return method.getInterfaceType() == ResourceMethodDescriptor.InterfaceType.SYNC &&
+        parameters.size() == 1 &&
+        parameters.get(0).getParamType() == onlyParamType;
+  }
+
+  /**
+   * A GET request waiting to be coalesced.
+   */
+  public interface Request
+  {
+    /**
+     * @return the key argument of the GET
+     */
+    Object getKey();
+
+    /**
+     * @return the resource instance created for the request
+     */
+    Object getResource();
+
+    /**
+     * Call the GET method for this request alone.
+     */
+    void invoke();
+
+    /**
+     * Called with the value of the key in the result of the BATCH_GET, or null if the result does not contain it.
+     */
+    void onResult(Object value);
+
+    /**
+     * Called with the error of the key in the result of the BATCH_GET, or with whatever the BATCH_GET or the
+     * handling of its result threw. {@link InvocationTargetException}s are passed as is.
+     */
+    void onError(Throwable error);
+  }
+
+  /**
+   * Identifies the GETs that can share a BATCH_GET call: those of the same method with equivalent contexts.
+   */
+  private static class BatchKey
+  {
+    private final ResourceMethodDescriptor _get;
+    private final ProjectionMode _projectionMode;
+    private final DataMap _projection;
+    private final String _query;
+    private final Map<String, String> _headers;
+    private final int _hashCode;
+
+    private BatchKey(ResourceMethodDescriptor get, ResourceContext context)
+    {
+      final MaskTree projection = context.getProjectionMask();
+      _get = get;
+      _projectionMode = context.getProjectionMode();
+      _projection = projection == null ? null : projection.getDataMap();
+      _query = context.getRawRequest().getURI().getRawQuery();
+      _headers = context.getRequestHeaders();
+
+      int hashCode = System.identityHashCode(_get);
+      hashCode = 31 * hashCode + (_projectionMode == null ? 0 : _projectionMode.hashCode());
+      hashCode = 31 * hashCode + (_projection == null ? 0 : _projection.hashCode());
+      hashCode = 31 * hashCode + (_query == null ? 0 : _query.hashCode());
+      hashCode = 31 * hashCode + _headers.hashCode();
+      _hashCode = hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+      if (!(obj instanceof BatchKey))
+      {
+        return false;
+      }
+
+      final BatchKey other = (BatchKey) obj;
+      return _get == other._get &&
+          _hashCode == other._hashCode &&
+          _projectionMode == other._projectionMode &&
+          (_projection == null ? other._projection == null : _projection.equals(other._projection)) &&
+          (_query == null ? other._query == null : _query.equals(other._query)) &&
+          _headers.equals(other._headers);
+    }
+
+    @Override
+    public int hashCode()
+    {
+      return _hashCode;
+    }
+  }
+
+  private class Batch
+  {
+    private final BatchKey _key;
+    private final ResourceMethodDescriptor _batchGet;
+    private final List<Request> _requests = new ArrayList<Request>();
+    private boolean _dispatched = false;
+
+    private Batch(BatchKey key, ResourceMethodDescriptor batchGet)
+    {
+      _key = key;
+      _batchGet = batchGet;
+    }
+
+    /**
+     * @return false if the batch is already dispatched, in which case the request is not added
+     */
+    private synchronized boolean add(Request request)
+    {
+      if (_dispatched)
+      {
+        return false;
+      }
+
+      _requests.add(request);
+      return true;
+    }
+
+    /**
+     * Stop adding requests to the batch, so that GETs that arrive from now on start a new batch.
+     */
+    private void close()
+    {
+      _batches.remove(_key, this);
+      synchronized (this)
+      {
+        _dispatched = true;
+      }
+    }
+
+    private void dispatch()
+    {
+      if (_requests.size() == 1)
+      {
+        try
+        {
+          _requests.get(0).invoke();
+        }
+        catch (Throwable e)
+        {
+          fail(0, e);
+        }
+        return;
+      }
+
+      // number of requests whose callback has been called
+      int completed = 0;
+      try
+      {
+        final Set<Object> keys = new HashSet<Object>();
+        for (Request request : _requests)
+        {
+          keys.add(request.getKey());
+        }
+
+        final Object result = _batchGet.getMethod().invoke(_requests.get(0).getResource(), keys);
+        if (result == null)
+        {
+          fail(0, new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR,
+                                             "Error in application code: null batch result"));
+          return;
+        }
+
+        final Map<?, ?> values = (Map<?, ?>) result;
+        final Map<?, RestLiServiceException> errors = result instanceof BatchResult
+            ? ((BatchResult<?, ?>) result).getErrors()
+            : Collections.<Object, RestLiServiceException>emptyMap();
+        while (completed < _requests.size())
+        {
+          final Request request = _requests.get(completed++);
+          final RestLiServiceException error = errors.get(request.getKey());
+          if (error == null)
+          {
+            request.onResult(values.get(request.getKey()));
+          }
+          else
+          {
+            request.onError(error);
+          }
+        }
+      }
+      catch (Throwable e)
+      {
+        // fail the request whose callback threw, if any, and all those after it
+        fail(Math.max(0, completed - 1), e);
+      }
+    }
+
+    /**
+     * Call {@link Request#onError(Throwable)} of the requests from the index on, regardless of what the callbacks throw.
+     */
+    private void fail(int from, Throwable error)
+    {
+      for (int i = from; i < _requests.size(); i++)
+      {
+        try
+        {
+          _requests.get(i).onError(error);
+        }
+        catch (Throwable e)
+        {
+          log.error("Failed to complete coalesced GET of resource '" + _batchGet.getResourceName() + "'", e);
+        }
+      }
+    }
+  }
+}
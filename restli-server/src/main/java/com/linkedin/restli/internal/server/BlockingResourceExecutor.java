@@ -0,0 +1,217 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server;
+
+
+import com.linkedin.restli.internal.server.model.ResourceModel;
+import com.linkedin.restli.server.BlockingResourceStats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Runs the blocking methods of resources on an {@link Executor}, so that they do not hold the threads of the
+ * server while they block.
+ *
+ * The number of concurrent tasks of each resource is limited by {@link ResourceModel#getMaxConcurrentRequests()}.
+ * Tasks over the limit wait in a queue of the resource, without taking a thread of the executor, until a task of
+ * the resource completes. Queuing and dispatching do not lock. Once the queue of a resource holds the maximum
+ * number of queued tasks, further tasks of the resource are rejected.
+ */
+public class BlockingResourceExecutor
+{
+  public static final int DEFAULT_MAX_QUEUED_REQUESTS = 1000;
+
+  private static final Comparator<BlockingResourceStats> STATS_COMPARATOR = new Comparator<BlockingResourceStats>()
+  {
+    @Override
+    public int compare(BlockingResourceStats stats1, BlockingResourceStats stats2)
+    {
+      return stats1.getResource().compareTo(stats2.getResource());
+    }
+  };
+
+  private final Executor _executor;
+  private final int _maxQueuedRequests;
+  // keyed by resource class, which identifies the resource without the cost of ResourceModel.equals()
+  private final ConcurrentMap<Class<?>, ResourceQueue> _queues = new ConcurrentHashMap<Class<?>, ResourceQueue>();
+
+  /**
+   * @param maxQueuedRequests positive maximum number of tasks of each resource that wait for the concurrency limit
+   *                          of the resource, see {@link com.linkedin.restli.server.RestLiConfig#setMaxQueuedBlockingRequests}
+   */
+  public BlockingResourceExecutor(Executor executor, int maxQueuedRequests)
+  {
+    _executor = executor;
+    _maxQueuedRequests = maxQueuedRequests;
+  }
+
+  /**
+   * Run the task of the resource on the executor, once the resource is under its concurrency limit.
+   * If the queue of the resource is full or the executor rejects the task, {@link Task#reject(Throwable)} is called
+   * instead of {@link Task#run()}.
+   */
+  public void execute(ResourceModel resource, Task task)
+  {
+    ResourceQueue queue = _queues.get(resource.getResourceClass());
+    if (queue == null)
+    {
+      queue = new ResourceQueue(resource);
+      final ResourceQueue existing = _queues.putIfAbsent(resource.getResourceClass(), queue);
+      if (existing != null)
+      {
+        queue = existing;
+      }
+    }
+
+    queue.submit(task);
+  }
+
+  /**
+   * @return snapshots of the queues of all resources that had tasks, ordered by resource
+   */
+  public List<BlockingResourceStats> getStats()
+  {
+    final List<BlockingResourceStats> stats = new ArrayList<BlockingResourceStats>(_queues.size());
+    for (ResourceQueue queue : _queues.values())
+    {
+      stats.add(queue.getStats());
+    }
+    Collections.sort(stats, STATS_COMPARATOR);
+    return stats;
+  }
+
+  /**
+   * Task of a blocking resource method.
+   */
+  public interface Task extends Runnable
+  {
+    /**
+     * Called instead of {@link #run()} if the executor rejects the task.
+     */
+    void reject(Throwable cause);
+  }
+
+  private class ResourceQueue
+  {
+    private final String _resource;
+    private final int _maxConcurrentRequests;
+    private final Queue<Task> _pending = new ConcurrentLinkedQueue<Task>();
+    private final AtomicInteger _pendingCount = new AtomicInteger();
+    private final AtomicInteger _runningCount = new AtomicInteger();
+    private final AtomicLong _completedCount = new AtomicLong();
+    private final AtomicLong _rejectedCount = new AtomicLong();
+
+    private ResourceQueue(ResourceModel resource)
+    {
+      _resource = RequestPhaseMetrics.getResourcePath(resource);
+      _maxConcurrentRequests = resource.getMaxConcurrentRequests();
+    }
+
+    private void submit(Task task)
+    {
+      // reserve the place in the queue first, so that concurrent submits cannot overshoot the bound
+      if (_pendingCount.incrementAndGet() > _maxQueuedRequests && _maxConcurrentRequests > 0)
+      {
+        _pendingCount.decrementAndGet();
+        _rejectedCount.incrementAndGet();
+        task.reject(new RejectedExecutionException("Queue of resource '" + _resource + "' is full with "
+                                                       + _maxQueuedRequests + " requests"));
+        return;
+      }
+      _pending.add(task);
+      dispatch();
+    }
+
+    /**
+     * Hands pending tasks to the executor while the resource is under its limit. Whoever adds a task or completes
+     * one calls this afterwards, so a pending task is never left behind while there is room for it.
+     */
+    private void dispatch()
+    {
+      while (true)
+      {
+        final int running = _runningCount.get();
+        if ((_maxConcurrentRequests > 0 && running >= _maxConcurrentRequests) || _pending.isEmpty())
+        {
+          return;
+        }
+        if (!_runningCount.compareAndSet(running, running + 1))
+        {
+          continue;
+        }
+
+        final Task task = _pending.poll();
+        if (task == null)
+        {
+          // another thread took the task, give the slot back
+          _runningCount.decrementAndGet();
+          continue;
+        }
+        _pendingCount.decrementAndGet();
+
+        try
+        {
+          _executor.execute(new Runnable()
+          {
+            @Override
+            public void run()
+            {
+              try
+              {
+                task.run();
+              }
+              finally
+              {
+                _completedCount.incrementAndGet();
+                _runningCount.decrementAndGet();
+                dispatch();
+              }
+            }
+          });
+        }
+        catch (RejectedExecutionException e)
+        {
+          _rejectedCount.incrementAndGet();
+          _runningCount.decrementAndGet();
+          task.reject(e);
+        }
+      }
+    }
+
+    private BlockingResourceStats getStats()
+    {
+      return new BlockingResourceStats(_resource,
+                                       _maxConcurrentRequests,
+                                       _runningCount.get(),
+                                       _pendingCount.get(),
+                                       _completedCount.get(),
+                                       _rejectedCount.get());
+    }
+  }
+}
@@ -0,0 +1,145 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server;
+
+
+import com.linkedin.common.stats.LongHistogram;
+import com.linkedin.common.stats.LongStats;
+import com.linkedin.restli.common.OperationNameGenerator;
+import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
+import com.linkedin.restli.internal.server.model.ResourceModel;
+import com.linkedin.restli.server.RequestPhase;
+import com.linkedin.restli.server.ResourceMethodPhaseStats;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+
+/**
+ * Aggregates the {@link RequestPhaseTimer}s of completed requests into a {@link LongHistogram} per phase and
+ * resource method. Recording does not lock.
+ */
+public class RequestPhaseMetrics
+{
+  private static final RequestPhase[] PHASES = RequestPhase.values();
+
+  private static final Comparator<ResourceMethodPhaseStats> STATS_COMPARATOR = new Comparator<ResourceMethodPhaseStats>()
+  {
+    @Override
+    public int compare(ResourceMethodPhaseStats stats1, ResourceMethodPhaseStats stats2)
+    {
+      final int result = stats1.getResource().compareTo(stats2.getResource());
+      return result != 0 ? result : stats1.getMethod().compareTo(stats2.getMethod());
+    }
+  };
+
+  // the descriptors of a server are fixed, so the map is bounded
+  private final ConcurrentMap<ResourceMethodDescriptor, MethodMetrics> _methods =
+    new ConcurrentHashMap<ResourceMethodDescriptor, MethodMetrics>();
+
+  /**
+   * Record the phase durations of a completed request of the method.
+   */
+  public void record(ResourceMethodDescriptor method, RequestPhaseTimer timer)
+  {
+    MethodMetrics metrics = _methods.get(method);
+    if (metrics == null)
+    {
+      metrics = new MethodMetrics(method);
+      final MethodMetrics existing = _methods.putIfAbsent(method, metrics);
+      if (existing != null)
+      {
+        metrics = existing;
+      }
+    }
+
+    metrics.record(timer);
+  }
+
+  /**
+   * @return snapshots of the metrics of all methods with completed requests, ordered by resource and method
+   */
+  public List<ResourceMethodPhaseStats> getStats()
+  {
+    final List<ResourceMethodPhaseStats> stats = new ArrayList<ResourceMethodPhaseStats>(_methods.size());
+    for (MethodMetrics metrics : _methods.values())
+    {
+      stats.add(metrics.getStats());
+    }
+    Collections.sort(stats, STATS_COMPARATOR);
+    return stats;
+  }
+
+  static String getResourcePath(ResourceModel model)
+  {
+    final StringBuilder sb = new StringBuilder(model.getName());
+    for (ResourceModel parent = model.getParentResourceModel(); parent != null; parent = parent.getParentResourceModel())
+    {
+      sb.insert(0, '/').insert(0, parent.getName());
+    }
+    return sb.toString();
+  }
+
+  private static String getOperation(ResourceMethodDescriptor method)
+  {
+    final String name = method.getFinderName() != null ? method.getFinderName() : method.getActionName();
+    return OperationNameGenerator.generate(method.getMethodType(), name);
+  }
+
+  private static class MethodMetrics
+  {
+    private final String _resource;
+    private final String _method;
+    private final LongHistogram _latency = new LongHistogram();
+    private final LongHistogram[] _phaseLatencies = new LongHistogram[PHASES.length];
+
+    private MethodMetrics(ResourceMethodDescriptor method)
+    {
+      _resource = getResourcePath(method.getResourceModel());
+      _method = getOperation(method);
+      for (int i = 0; i < _phaseLatencies.length; ++i)
+      {
+        _phaseLatencies[i] = new LongHistogram();
+      }
+    }
+
+    private void record(RequestPhaseTimer timer)
+    {
+      for (RequestPhase phase : PHASES)
+      {
+        _phaseLatencies[phase.ordinal()].addValue(timer.getDuration(phase));
+      }
+      _latency.addValue(timer.getTotalDuration());
+    }
+
+    private ResourceMethodPhaseStats getStats()
+    {
+      final Map<RequestPhase, LongStats> phaseLatencies = new EnumMap<RequestPhase, LongStats>(RequestPhase.class);
+      for (RequestPhase phase : PHASES)
+      {
+        phaseLatencies.put(phase, _phaseLatencies[phase.ordinal()].getStats());
+      }
+      return new ResourceMethodPhaseStats(_resource, _method, _latency.getStats(), phaseLatencies);
+    }
+  }
+}
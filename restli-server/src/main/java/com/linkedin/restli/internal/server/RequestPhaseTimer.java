@@ -0,0 +1,132 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server;
+
+
+import com.linkedin.r2.message.LocalAttrKey;
+import com.linkedin.r2.message.RequestContext;
+import com.linkedin.restli.server.RequestPhase;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+
+/**
+ * Measures the time spent in each {@link RequestPhase} of a request.
+ *
+ * The time between two consecutive calls of {@link #mark(RequestPhase)} is added to the phase given to the
+ * latter call, so that each phase boundary costs a single {@link System#nanoTime()}. The timer of a request is
+ * kept in its {@link RequestContext}.
+ *
+ * Not thread safe. The phases of a request run one after another, even if not on the same thread.
+ */
+public class RequestPhaseTimer
+{
+  public static final LocalAttrKey<RequestPhaseTimer> KEY =
+    LocalAttrKey.register("restli.requestPhaseTimer", RequestPhaseTimer.class);
+
+  private static final RequestPhase[] PHASES = RequestPhase.values();
+
+  private final long[] _durations = new long[PHASES.length];
+  private long _lastMark;
+
+  /**
+   * Starts the timer from now.
+   */
+  public RequestPhaseTimer()
+  {
+    _lastMark = System.nanoTime();
+  }
+
+  /**
+   * @return timer of the request, or null if the request is not timed
+   */
+  public static RequestPhaseTimer get(RequestContext requestContext)
+  {
+    return requestContext == null ? null : requestContext.getLocalAttr(KEY);
+  }
+
+  /**
+   * Add the time since the previous mark, or since the timer started, to the phase.
+   */
+  public void mark(RequestPhase phase)
+  {
+    final long now = System.nanoTime();
+    _durations[phase.ordinal()] += now - _lastMark;
+    _lastMark = now;
+  }
+
+  /**
+   * @return nanoseconds spent in the phase
+   */
+  public long getDuration(RequestPhase phase)
+  {
+    return _durations[phase.ordinal()];
+  }
+
+  /**
+   * @return nanoseconds spent in all phases
+   */
+  public long getTotalDuration()
+  {
+    long total = 0;
+    for (long duration : _durations)
+    {
+      total += duration;
+    }
+    return total;
+  }
+
+  /**
+   * @return nanoseconds spent in each phase, in the order of the phases
+   */
+  public Map<RequestPhase, Long> getDurations()
+  {
+    final Map<RequestPhase, Long> durations = new EnumMap<RequestPhase, Long>(RequestPhase.class);
+    for (RequestPhase phase : PHASES)
+    {
+      durations.put(phase, _durations[phase.ordinal()]);
+    }
+    return durations;
+  }
+
+  /**
+   * Formats the durations in milliseconds in the syntax of the Server-Timing header, such as
+   * "routing;dur=0.012, argumentBuilding;dur=0.105".
+   */
+  public String toHeaderValue()
+  {
+    final StringBuilder sb = new StringBuilder(PHASES.length * 28);
+    for (RequestPhase phase : PHASES)
+    {
+      if (sb.length() > 0)
+      {
+        sb.append(", ");
+      }
+
+      final long micros = _durations[phase.ordinal()] / 1000;
+      final long fraction = micros % 1000;
+      sb.append(phase.getName()).append(";dur=").append(micros / 1000).append('.');
+      if (fraction < 100)
+      {
+        sb.append(fraction < 10 ? "00" : "0");
+      }
+      sb.append(fraction);
+    }
+    return sb.toString();
+  }
+}
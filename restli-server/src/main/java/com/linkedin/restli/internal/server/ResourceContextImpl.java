@@ -25,7 +25,6 @@ import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.template.StringArray;
 import com.linkedin.data.transform.filter.request.MaskTree;
-import com.linkedin.jersey.api.uri.UriComponent;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
@@ -121,8 +120,7 @@ public class ResourceContextImpl implements ServerResourceContext
     {
       if (_protocolVersion.compareTo(AllProtocolVersions.RESTLI_PROTOCOL_2_0_0.getProtocolVersion()) >= 0)
       {
-        Map<String, List<String>> queryParameters = UriComponent.decodeQuery(_request.getURI(), false);
-        _parameters = URIParamUtils.parseUriParams(queryParameters);
+        _parameters = URIParamUtils.parseUriQuery(_request.getURI().getRawQuery());
       }
       else
       {
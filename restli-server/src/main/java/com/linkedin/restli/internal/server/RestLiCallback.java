@@ -28,6 +28,7 @@ import com.linkedin.restli.internal.server.filter.FilterResponseContextInternal;
 import com.linkedin.restli.internal.server.methods.response.PartialRestResponse;
 import com.linkedin.restli.server.RequestExecutionCallback;
 import com.linkedin.restli.server.RequestExecutionReport;
+import com.linkedin.restli.server.RequestPhase;
 import com.linkedin.restli.server.RestLiResponseData;
 import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.RoutingException;
@@ -48,6 +49,7 @@ public class RestLiCallback<T> implements RequestExecutionCallback<T>
   private final RestRequest _request;
   private final List<ResponseFilter> _responseFilters;
   private final FilterRequestContext _filterRequestContext;
+  private final RequestPhaseTimer _phaseTimer;
 
   public RestLiCallback(final RestRequest request,
                         final RoutingResult method,
@@ -55,6 +57,20 @@ public class RestLiCallback<T> implements RequestExecutionCallback<T>
                         final RequestExecutionCallback<RestResponse> callback,
                         final List<ResponseFilter> responseFilters,
                         final FilterRequestContext filterRequestContext)
+  {
+    this(request, method, responseHandler, callback, responseFilters, filterRequestContext, null);
+  }
+
+  /**
+   * @param phaseTimer timer of the response phases of the request, or null if the request is not timed
+   */
+  public RestLiCallback(final RestRequest request,
+                        final RoutingResult method,
+                        final RestLiResponseHandler responseHandler,
+                        final RequestExecutionCallback<RestResponse> callback,
+                        final List<ResponseFilter> responseFilters,
+                        final FilterRequestContext filterRequestContext,
+                        final RequestPhaseTimer phaseTimer)
   {
     _request = request;
     _method = method;
@@ -69,15 +85,18 @@ public class RestLiCallback<T> implements RequestExecutionCallback<T>
       _responseFilters = new ArrayList<ResponseFilter>();
     }
     _filterRequestContext = filterRequestContext;
+    _phaseTimer = phaseTimer;
   }
 
   @Override
   public void onSuccess(final T result, RequestExecutionReport executionReport)
   {
+    markPhase(RequestPhase.RESOURCE);
     try
     {
       // Convert the object returned by the resource to response data.
       final AugmentedRestLiResponseData responseData = _responseHandler.buildRestLiResponseData(_request, _method, result);
+      markPhase(RequestPhase.RESPONSE_BUILDING);
       // Invoke the response filters.
       if (_responseFilters != null && !_responseFilters.isEmpty())
       {
@@ -87,12 +106,16 @@ public class RestLiCallback<T> implements RequestExecutionCallback<T>
       {
         // Convert response data to partial rest response.
         final PartialRestResponse response = _responseHandler.buildPartialResponse(_method, responseData);
+        final RestResponse restResponse = _responseHandler.buildResponse(_method, response);
+        markPhase(RequestPhase.RESPONSE_ENCODING);
         // Invoke the callback.
-        _callback.onSuccess(_responseHandler.buildResponse(_method, response), executionReport);
+        _callback.onSuccess(restResponse, executionReport);
       }
     }
     catch (Exception e)
     {
+      // The time spent so far is not part of the resource phase.
+      markPhase(RequestPhase.RESPONSE_BUILDING);
       // Convert the caught exception to a rest exception and invoke the callback.
       //This is so that exceptions returned early on by buildRestLiResponseData() due to null resource method
       //responses are still given the opportunity to have filters run on them.
@@ -103,6 +126,7 @@ public class RestLiCallback<T> implements RequestExecutionCallback<T>
   @Override
   public void onError(final Throwable e, RequestExecutionReport executionReport)
   {
+    markPhase(RequestPhase.RESOURCE);
     if (e instanceof RestException)
     {
       // assuming we don't need to do anything...
@@ -113,6 +137,7 @@ public class RestLiCallback<T> implements RequestExecutionCallback<T>
     }
 
     final AugmentedRestLiResponseData responseData = convertExceptionToRestLiResponseData(e);
+    markPhase(RequestPhase.RESPONSE_BUILDING);
     // Invoke the response filters.
     if (_responseFilters != null && !_responseFilters.isEmpty())
     {
@@ -121,9 +146,10 @@ public class RestLiCallback<T> implements RequestExecutionCallback<T>
     else
     {
       // Invoke the callback with the exception obtained from the resource.
-      _callback.onError(_responseHandler.buildRestException(e, _responseHandler.buildPartialResponse(_method,
-                                                                                                     responseData)),
-                        executionReport);
+      final RestException restException =
+          _responseHandler.buildRestException(e, _responseHandler.buildPartialResponse(_method, responseData));
+      markPhase(RequestPhase.RESPONSE_ENCODING);
+      _callback.onError(restException, executionReport);
     }
   }
 
@@ -136,20 +162,34 @@ public class RestLiCallback<T> implements RequestExecutionCallback<T>
     try
     {
       invokeResponseFilters(responseContext, appEx);
+      markPhase(RequestPhase.RESPONSE_FILTERS);
       // Invoke onSuccess on the R2 callback since the response from the resource was
       // successfully processed by the filters.
       // Convert response data to partial rest response.
       final PartialRestResponse response = _responseHandler.buildPartialResponse(_method, responseContext.getAugmentedRestLiResponseData());
+      final RestResponse restResponse = _responseHandler.buildResponse(_method, response);
+      markPhase(RequestPhase.RESPONSE_ENCODING);
       // Invoke the callback.
-      _callback.onSuccess(_responseHandler.buildResponse(_method, response), executionReport);
+      _callback.onSuccess(restResponse, executionReport);
     }
     catch (Throwable e)
     {
+      markPhase(RequestPhase.RESPONSE_FILTERS);
       // Invoke onError on the R2 callback since we received an exception from the filters.
-      _callback.onError(_responseHandler.buildRestException(e,
-                                                            _responseHandler.buildPartialResponse(_method,
-                                                                                                  responseContext.getAugmentedRestLiResponseData())),
-                        executionReport);
+      final RestException restException =
+          _responseHandler.buildRestException(e,
+                                              _responseHandler.buildPartialResponse(_method,
+                                                                                    responseContext.getAugmentedRestLiResponseData()));
+      markPhase(RequestPhase.RESPONSE_ENCODING);
+      _callback.onError(restException, executionReport);
+    }
+  }
+
+  private void markPhase(RequestPhase phase)
+  {
+    if (_phaseTimer != null)
+    {
+      _phaseTimer.mark(phase);
     }
   }
 
@@ -37,7 +37,9 @@ import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.RequestExecutionCallback;
 import com.linkedin.restli.server.RequestExecutionReport;
 import com.linkedin.restli.server.RequestExecutionReportBuilder;
+import com.linkedin.restli.server.RequestPhase;
 import com.linkedin.restli.server.RestLiRequestData;
+import com.linkedin.restli.server.ResourceContext;
 import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.filter.RequestFilter;
 import com.linkedin.restli.server.resources.BaseResource;
@@ -62,6 +64,8 @@ public class RestLiMethodInvoker
   private final ErrorResponseBuilder _errorResponseBuilder;
   private final MethodAdapterRegistry _methodAdapterRegistry;
   private final List<RequestFilter> _requestFilters;
+  private final BlockingResourceExecutor _blockingResourceExecutor;
+  private final BatchGetCoalescer _batchGetCoalescer;
 
   /**
    * Constructor.
@@ -112,6 +116,49 @@ public class RestLiMethodInvoker
                              final ErrorResponseBuilder errorResponseBuilder,
                              final MethodAdapterRegistry methodAdapterRegistry,
                              final List<RequestFilter> requestFilters)
+  {
+    this(resourceFactory, engine, errorResponseBuilder, methodAdapterRegistry, requestFilters, null);
+  }
+
+  /**
+   * Constructor.
+   * @param resourceFactory {@link ResourceFactory}
+   * @param engine {@link Engine}
+   * @param errorResponseBuilder {@link ErrorResponseBuilder}
+   * @param methodAdapterRegistry {@link MethodAdapterRegistry}
+   * @param requestFilters List of {@link RequestFilter}
+   * @param blockingResourceExecutor {@link BlockingResourceExecutor} that runs synchronous methods, or null to run
+   *          them on the request thread
+   */
+  public RestLiMethodInvoker(final ResourceFactory resourceFactory,
+                             final Engine engine,
+                             final ErrorResponseBuilder errorResponseBuilder,
+                             final MethodAdapterRegistry methodAdapterRegistry,
+                             final List<RequestFilter> requestFilters,
+                             final BlockingResourceExecutor blockingResourceExecutor)
+  {
+    this(resourceFactory, engine, errorResponseBuilder, methodAdapterRegistry, requestFilters, blockingResourceExecutor, null);
+  }
+
+  /**
+   * Constructor.
+   * @param resourceFactory {@link ResourceFactory}
+   * @param engine {@link Engine}
+   * @param errorResponseBuilder {@link ErrorResponseBuilder}
+   * @param methodAdapterRegistry {@link MethodAdapterRegistry}
+   * @param requestFilters List of {@link RequestFilter}
+   * @param blockingResourceExecutor {@link BlockingResourceExecutor} that runs synchronous methods, or null to run
+   *          them on the request thread
+   * @param batchGetCoalescer {@link BatchGetCoalescer} that coalesces concurrent GETs into BATCH_GETs, or null to
+   *          invoke every GET by itself
+   */
+  public RestLiMethodInvoker(final ResourceFactory resourceFactory,
+                             final Engine engine,
+                             final ErrorResponseBuilder errorResponseBuilder,
+                             final MethodAdapterRegistry methodAdapterRegistry,
+                             final List<RequestFilter> requestFilters,
+                             final BlockingResourceExecutor blockingResourceExecutor,
+                             final BatchGetCoalescer batchGetCoalescer)
   {
     _resourceFactory = resourceFactory;
     _engine = engine;
@@ -125,6 +172,8 @@ public class RestLiMethodInvoker
     {
       _requestFilters = new ArrayList<RequestFilter>();
     }
+    _blockingResourceExecutor = blockingResourceExecutor;
+    _batchGetCoalescer = batchGetCoalescer;
   }
 
   /**
@@ -154,14 +203,17 @@ public class RestLiMethodInvoker
       requestExecutionReportBuilder = new RequestExecutionReportBuilder();
     }
 
+    final ServerResourceContext resourceContext = (ServerResourceContext) invocableMethod.getContext();
+    final RequestPhaseTimer phaseTimer = RequestPhaseTimer.get(resourceContext.getRawRequestContext());
+
     // Fast fail if the request headers are invalid.
     try
     {
-      RestUtils.validateRequestHeadersAndUpdateResourceContext(request.getHeaders(),
-                                                               (ServerResourceContext) invocableMethod.getContext());
+      RestUtils.validateRequestHeadersAndUpdateResourceContext(request.getHeaders(), resourceContext);
     }
     catch (RestLiServiceException e)
     {
+      markPhase(phaseTimer, RequestPhase.ARGUMENT_BUILDING);
       callback.onError(e, getRequestExecutionReport(requestExecutionReportBuilder));
       return;
     }
@@ -191,6 +243,7 @@ public class RestLiMethodInvoker
     // First invoke all request filters.
     if (!_requestFilters.isEmpty())
     {
+      markPhase(phaseTimer, RequestPhase.ARGUMENT_BUILDING);
       try
       {
         filterContext.setRequestData(requestData);
@@ -202,15 +255,18 @@ public class RestLiMethodInvoker
       }
       catch (Exception e)
       {
+        markPhase(phaseTimer, RequestPhase.REQUEST_FILTERS);
         callback.onError(e, getRequestExecutionReport(requestExecutionReportBuilder));
         return;
       }
+      markPhase(phaseTimer, RequestPhase.REQUEST_FILTERS);
     }
     Object[] args = adapter.buildArguments(requestData, invocableMethod);
+    markPhase(phaseTimer, RequestPhase.ARGUMENT_BUILDING);
     // Now invoke the resource implementation.
     try
     {
-      doInvoke(resourceMethodDescriptor, callback, requestExecutionReportBuilder, resource, args);
+      doInvoke(resourceMethodDescriptor, callback, requestExecutionReportBuilder, resourceContext, resource, args);
     }
     catch (IllegalAccessException e)
     {
@@ -222,6 +278,7 @@ public class RestLiMethodInvoker
   private void doInvoke(final ResourceMethodDescriptor descriptor,
                         final RequestExecutionCallback<Object> callback,
                         final RequestExecutionReportBuilder requestExecutionReportBuilder,
+                        final ResourceContext resourceContext,
                         final Object resource,
                         final Object... arguments) throws IllegalAccessException
   {
@@ -256,8 +313,31 @@ public class RestLiMethodInvoker
         break;
 
       case SYNC:
-        Object applicationResult = method.invoke(resource, arguments);
-        callback.onSuccess(applicationResult, getRequestExecutionReport(requestExecutionReportBuilder));
+        if (_batchGetCoalescer != null && _batchGetCoalescer.canCoalesce(descriptor))
+        {
+          // the batches run on the blocking resource executor, if there is one
+          _batchGetCoalescer.execute(descriptor,
+                                     resourceContext,
+                                     new CoalescedGetRequest(descriptor,
+                                                             callback,
+                                                             requestExecutionReportBuilder,
+                                                             resource,
+                                                             arguments));
+        }
+        else if (_blockingResourceExecutor == null)
+        {
+          Object applicationResult = method.invoke(resource, arguments);
+          callback.onSuccess(applicationResult, getRequestExecutionReport(requestExecutionReportBuilder));
+        }
+        else
+        {
+          _blockingResourceExecutor.execute(descriptor.getResourceModel(),
+                                            new BlockingInvocationTask(descriptor,
+                                                                       callback,
+                                                                       requestExecutionReportBuilder,
+                                                                       resource,
+                                                                       arguments));
+        }
         break;
 
       case PROMISE:
@@ -309,18 +389,143 @@ public class RestLiMethodInvoker
     }
     catch (InvocationTargetException e)
     {
-      if (RestLiServiceException.class.isAssignableFrom(e.getCause().getClass()))
+      onInvocationError(e, callback, requestExecutionReportBuilder);
+    }
+  }
+
+  private void onInvocationError(final InvocationTargetException e,
+                                 final RequestExecutionCallback<Object> callback,
+                                 final RequestExecutionReportBuilder requestExecutionReportBuilder)
+  {
+    if (RestLiServiceException.class.isAssignableFrom(e.getCause().getClass()))
+    {
+      RestLiServiceException restLiServiceException =
+          (RestLiServiceException) e.getCause();
+      callback.onError(restLiServiceException, getRequestExecutionReport(requestExecutionReportBuilder));
+    }
+    else
+    {
+      callback.onError(new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR,
+                                                     _errorResponseBuilder.getInternalErrorMessage(),
+                                                     e.getCause()),
+                          getRequestExecutionReport(requestExecutionReportBuilder));
+    }
+  }
+
+  /**
+   * Runs a synchronous method on the {@link BlockingResourceExecutor}.
+   */
+  private class BlockingInvocationTask implements BlockingResourceExecutor.Task
+  {
+    private final ResourceMethodDescriptor _descriptor;
+    private final RequestExecutionCallback<Object> _callback;
+    private final RequestExecutionReportBuilder _requestExecutionReportBuilder;
+    private final Object _resource;
+    private final Object[] _arguments;
+
+    private BlockingInvocationTask(final ResourceMethodDescriptor descriptor,
+                                   final RequestExecutionCallback<Object> callback,
+                                   final RequestExecutionReportBuilder requestExecutionReportBuilder,
+                                   final Object resource,
+                                   final Object[] arguments)
+    {
+      _descriptor = descriptor;
+      _callback = callback;
+      _requestExecutionReportBuilder = requestExecutionReportBuilder;
+      _resource = resource;
+      _arguments = arguments;
+    }
+
+    @Override
+    public void run()
+    {
+      final Object applicationResult;
+      try
       {
-        RestLiServiceException restLiServiceException =
-            (RestLiServiceException) e.getCause();
-        callback.onError(restLiServiceException, getRequestExecutionReport(requestExecutionReportBuilder));
+        applicationResult = _descriptor.getMethod().invoke(_resource, _arguments);
+      }
+      catch (InvocationTargetException e)
+      {
+        onInvocationError(e, _callback, _requestExecutionReportBuilder);
+        return;
+      }
+      catch (IllegalAccessException e)
+      {
+        _callback.onError(e, getRequestExecutionReport(_requestExecutionReportBuilder));
+        return;
+      }
+      _callback.onSuccess(applicationResult, getRequestExecutionReport(_requestExecutionReportBuilder));
+    }
+
+    @Override
+    public void reject(Throwable cause)
+    {
+      _callback.onError(new RestLiServiceException(HttpStatus.S_503_SERVICE_UNAVAILABLE,
+                                                   "Too many concurrent requests of resource '"
+                                                       + _descriptor.getResourceName() + "'",
+                                                   cause),
+                        getRequestExecutionReport(_requestExecutionReportBuilder));
+    }
+  }
+
+  /**
+   * GET waiting in the {@link BatchGetCoalescer}.
+   */
+  private class CoalescedGetRequest implements BatchGetCoalescer.Request
+  {
+    private final ResourceMethodDescriptor _descriptor;
+    private final RequestExecutionCallback<Object> _callback;
+    private final RequestExecutionReportBuilder _requestExecutionReportBuilder;
+    private final Object _resource;
+    private final Object[] _arguments;
+
+    private CoalescedGetRequest(final ResourceMethodDescriptor descriptor,
+                                final RequestExecutionCallback<Object> callback,
+                                final RequestExecutionReportBuilder requestExecutionReportBuilder,
+                                final Object resource,
+                                final Object[] arguments)
+    {
+      _descriptor = descriptor;
+      _callback = callback;
+      _requestExecutionReportBuilder = requestExecutionReportBuilder;
+      _resource = resource;
+      _arguments = arguments;
+    }
+
+    @Override
+    public Object getKey()
+    {
+      return _arguments[_descriptor.indexOfParameterType(ParamType.RESOURCE_KEY)];
+    }
+
+    @Override
+    public Object getResource()
+    {
+      return _resource;
+    }
+
+    @Override
+    public void invoke()
+    {
+      new BlockingInvocationTask(_descriptor, _callback, _requestExecutionReportBuilder, _resource, _arguments).run();
+    }
+
+    @Override
+    public void onResult(Object value)
+    {
+      _callback.onSuccess(value, getRequestExecutionReport(_requestExecutionReportBuilder));
+    }
+
+    @Override
+    public void onError(Throwable error)
+    {
+      if (error instanceof InvocationTargetException)
+      {
+        onInvocationError((InvocationTargetException) error, _callback, _requestExecutionReportBuilder);
       }
       else
       {
-        callback.onError(new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR,
-                                                       _errorResponseBuilder.getInternalErrorMessage(),
-                                                       e.getCause()),
-                            getRequestExecutionReport(requestExecutionReportBuilder));
+        _callback.onError(error, getRequestExecutionReport(_requestExecutionReportBuilder));
       }
     }
   }
@@ -349,6 +554,14 @@ public class RestLiMethodInvoker
     }
   }
 
+  private static void markPhase(RequestPhaseTimer phaseTimer, RequestPhase phase)
+  {
+    if (phaseTimer != null)
+    {
+      phaseTimer.mark(phase);
+    }
+  }
+
   private static RequestExecutionReport getRequestExecutionReport(
       RequestExecutionReportBuilder requestExecutionReportBuilder)
   {
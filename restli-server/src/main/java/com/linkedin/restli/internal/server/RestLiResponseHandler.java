@@ -18,6 +18,9 @@
 package com.linkedin.restli.internal.server;
 
 import com.linkedin.data.DataMap;
+import com.linkedin.data.schema.RecordDataSchema;
+import com.linkedin.data.template.DataTemplateUtil;
+import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.r2.message.rest.RestException;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestResponse;
@@ -32,6 +35,7 @@ import com.linkedin.restli.internal.server.methods.MethodAdapterRegistry;
 import com.linkedin.restli.internal.server.methods.response.ErrorResponseBuilder;
 import com.linkedin.restli.internal.server.methods.response.PartialRestResponse;
 import com.linkedin.restli.internal.server.methods.response.RestLiResponseBuilder;
+import com.linkedin.restli.internal.server.util.BatchProcessor;
 import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
 import com.linkedin.restli.internal.server.util.DataMapUtils;
 import com.linkedin.restli.server.CollectionResult;
@@ -80,6 +84,7 @@ public class RestLiResponseHandler
     private MethodAdapterRegistry _methodAdapterRegistry = null;
     private ErrorResponseBuilder _errorResponseBuilder = null;
     private boolean _permissiveEncoding = false;
+    private BatchProcessor _batchProcessor = null;
 
     public Builder setMethodAdapterRegistry(MethodAdapterRegistry methodAdapterRegistry)
     {
@@ -93,6 +98,12 @@ public class RestLiResponseHandler
       return this;
     }
 
+    public Builder setBatchProcessor(BatchProcessor batchProcessor)
+    {
+      _batchProcessor = batchProcessor;
+      return this;
+    }
+
     public RestLiResponseHandler build()
     {
       if (_errorResponseBuilder == null)
@@ -101,7 +112,8 @@ public class RestLiResponseHandler
       }
       if (_methodAdapterRegistry == null)
       {
-        _methodAdapterRegistry = new MethodAdapterRegistry(_errorResponseBuilder);
+        _methodAdapterRegistry = new MethodAdapterRegistry(_errorResponseBuilder,
+                                                           _batchProcessor == null ? BatchProcessor.SERIAL : _batchProcessor);
       }
       return new RestLiResponseHandler(_methodAdapterRegistry, _errorResponseBuilder);
     }
@@ -151,7 +163,7 @@ public class RestLiResponseHandler
     {
       DataMap dataMap = partialResponse.getDataMap();
       String mimeType = ((ServerResourceContext) routingResult.getContext()).getResponseMimeType();
-      builder = encodeResult(mimeType, builder, dataMap);
+      builder = encodeResult(mimeType, builder, dataMap, routingResult);
     }
     return builder.build();
   }
@@ -261,9 +273,19 @@ public class RestLiResponseHandler
   }
 
 
-  private RestResponseBuilder encodeResult(String mimeType, RestResponseBuilder builder, DataMap dataMap)
+  private RestResponseBuilder encodeResult(String mimeType,
+                                           RestResponseBuilder builder,
+                                           DataMap dataMap,
+                                           RoutingResult routingResult)
   {
-    if (RestConstants.HEADER_VALUE_APPLICATION_PSON.equalsIgnoreCase(mimeType))
+    if (RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY.equalsIgnoreCase(mimeType))
+    {
+      Class<? extends RecordTemplate> valueClass = routingResult.getResourceMethod().getResourceModel().getValueClass();
+      RecordDataSchema entitySchema = valueClass == null ? null : (RecordDataSchema) DataTemplateUtil.getSchema(valueClass);
+      builder.setHeader(RestConstants.HEADER_CONTENT_TYPE, RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY);
+      builder.setEntity(DataMapUtils.mapToSchemaBinaryBytes(dataMap, entitySchema));
+    }
+    else if (RestConstants.HEADER_VALUE_APPLICATION_PSON.equalsIgnoreCase(mimeType))
     {
       builder.setHeader(RestConstants.HEADER_CONTENT_TYPE, RestConstants.HEADER_VALUE_APPLICATION_PSON);
       builder.setEntity(DataMapUtils.mapToPsonBytes(dataMap));
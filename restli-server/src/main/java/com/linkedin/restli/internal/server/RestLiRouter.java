@@ -45,16 +45,14 @@ import com.linkedin.restli.server.RoutingException;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
-import java.util.Arrays;
+import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
-import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -83,8 +81,6 @@ public class RestLiRouter
     _pathRootResourceMap = pathRootResourceMap;
   }
 
-  private static final Pattern SLASH_PATTERN = Pattern.compile(Pattern.quote("/"));
-
   /**
    * Processes provided {@link RestRequest}.
    *
@@ -104,8 +100,7 @@ public class RestLiRouter
       path = path.substring(1);
     }
 
-    Queue<String> remainingPath =
-        new LinkedList<String>(Arrays.asList(SLASH_PATTERN.split(path)));
+    Queue<String> remainingPath = splitPath(path);
 
     String rootPath = "/" + remainingPath.poll();
 
@@ -141,6 +136,51 @@ public class RestLiRouter
     return processResourceTree(currentResource, context, remainingPath);
   }
 
+  /**
+   * Splits the path into its segments in the same way as {@link String#split(String)} with "/",
+   * without compiling a pattern or copying the segments into a list first.
+   */
+  private static Queue<String> splitPath(final String path)
+  {
+    final Queue<String> segments = new ArrayDeque<String>();
+    int segmentStart = 0;
+    int emptySegments = 0;
+    for (int slash = path.indexOf('/'); slash >= 0; slash = path.indexOf('/', segmentStart))
+    {
+      // trailing empty segments are discarded, so only add empty segments once a non-empty one follows
+      if (slash == segmentStart)
+      {
+        ++emptySegments;
+      }
+      else
+      {
+        addSegment(segments, emptySegments, path.substring(segmentStart, slash));
+        emptySegments = 0;
+      }
+      segmentStart = slash + 1;
+    }
+
+    if (segmentStart == 0)
+    {
+      segments.add(path);
+    }
+    else if (segmentStart < path.length())
+    {
+      addSegment(segments, emptySegments, path.substring(segmentStart));
+    }
+
+    return segments;
+  }
+
+  private static void addSegment(final Queue<String> segments, final int precedingEmptySegments, final String segment)
+  {
+    for (int i = 0; i < precedingEmptySegments; ++i)
+    {
+      segments.add("");
+    }
+    segments.add(segment);
+  }
+
   private RoutingResult processResourceTree(final ResourceModel resource,
                                             final ServerResourceContext context,
                                             final Queue<String> remainingPath)
@@ -243,7 +283,7 @@ public class RestLiRouter
 
     if (methodDescriptor != null)
     {
-      context.getRawRequestContext().putLocalAttr(R2Constants.OPERATION,
+      context.getRawRequestContext().putLocalAttr(R2Constants.OPERATION_KEY,
                                                   OperationNameGenerator.generate(methodDescriptor.getMethodType(),
                                                                                   methodName));
       return new RoutingResult(context, methodDescriptor);
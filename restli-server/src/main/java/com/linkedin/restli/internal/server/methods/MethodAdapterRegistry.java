@@ -47,6 +47,7 @@ import com.linkedin.restli.internal.server.methods.response.CollectionResponseBu
 import com.linkedin.restli.internal.server.methods.response.GetResponseBuilder;
 import com.linkedin.restli.internal.server.methods.response.RestLiResponseBuilder;
 import com.linkedin.restli.internal.server.methods.response.UpdateResponseBuilder;
+import com.linkedin.restli.internal.server.util.BatchProcessor;
 
 /**
  * @author Josh Walker
@@ -59,9 +60,17 @@ public class MethodAdapterRegistry
   private final Map<ResourceMethod, RestLiResponseBuilder> _responseBuilders;
 
   public MethodAdapterRegistry(ErrorResponseBuilder errorResponseBuilder)
+  {
+    this(errorResponseBuilder, BatchProcessor.SERIAL);
+  }
+
+  /**
+   * @param batchProcessor processes the entities of batch and collection responses
+   */
+  public MethodAdapterRegistry(ErrorResponseBuilder errorResponseBuilder, BatchProcessor batchProcessor)
   {
     _adapters = buildAdapterRegistry();
-    _responseBuilders = buildResponseBuilders(errorResponseBuilder);
+    _responseBuilders = buildResponseBuilders(errorResponseBuilder, batchProcessor);
   }
 
   private Map<ResourceMethod, RestLiArgumentBuilder> buildAdapterRegistry()
@@ -84,14 +93,15 @@ public class MethodAdapterRegistry
     return Collections.unmodifiableMap(result);
   }
 
-  private Map<ResourceMethod, RestLiResponseBuilder> buildResponseBuilders(ErrorResponseBuilder errorResponseBuilder)
+  private Map<ResourceMethod, RestLiResponseBuilder> buildResponseBuilders(ErrorResponseBuilder errorResponseBuilder,
+                                                                             BatchProcessor batchProcessor)
   {
     Map<ResourceMethod, RestLiResponseBuilder> result =
         new HashMap<ResourceMethod, RestLiResponseBuilder>(ResourceMethod.values().length);
 
     result.put(ResourceMethod.GET, new GetResponseBuilder());
-    result.put(ResourceMethod.BATCH_GET, new BatchGetResponseBuilder(errorResponseBuilder));
-    result.put(ResourceMethod.FINDER, new CollectionResponseBuilder());
+    result.put(ResourceMethod.BATCH_GET, new BatchGetResponseBuilder(errorResponseBuilder, batchProcessor));
+    result.put(ResourceMethod.FINDER, new CollectionResponseBuilder(batchProcessor));
     result.put(ResourceMethod.CREATE, new CreateResponseBuilder());
     result.put(ResourceMethod.PARTIAL_UPDATE, new UpdateResponseBuilder());
     result.put(ResourceMethod.UPDATE, new UpdateResponseBuilder());
@@ -101,7 +111,7 @@ public class MethodAdapterRegistry
     result.put(ResourceMethod.BATCH_PARTIAL_UPDATE, new BatchUpdateResponseBuilder(errorResponseBuilder));
     result.put(ResourceMethod.BATCH_CREATE, new BatchCreateResponseBuilder(errorResponseBuilder));
     result.put(ResourceMethod.BATCH_DELETE, new BatchUpdateResponseBuilder(errorResponseBuilder));
-    result.put(ResourceMethod.GET_ALL, new CollectionResponseBuilder());
+    result.put(ResourceMethod.GET_ALL, new CollectionResponseBuilder(batchProcessor));
 
     return Collections.unmodifiableMap(result);
   }
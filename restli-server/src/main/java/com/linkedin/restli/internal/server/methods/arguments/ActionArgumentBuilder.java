@@ -69,7 +69,7 @@ public class ActionArgumentBuilder implements RestLiArgumentBuilder
     }
     else
     {
-      data = DataMapUtils.readMap(request);
+      data = DataMapUtils.readMap(request, routingResult);
     }
     DynamicRecordTemplate template = new DynamicRecordTemplate(data, resourceMethodDescriptor.getRequestDataSchema());
     ValidationResult result =
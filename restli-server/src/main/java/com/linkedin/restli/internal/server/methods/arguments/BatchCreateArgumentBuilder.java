@@ -54,7 +54,7 @@ public class BatchCreateArgumentBuilder implements RestLiArgumentBuilder
   public RestLiRequestData extractRequestData(RoutingResult routingResult, RestRequest request)
   {
     Class<? extends RecordTemplate> valueClass = ArgumentUtils.getValueClass(routingResult);
-    DataMap dataMap = DataMapUtils.readMap(request);
+    DataMap dataMap = DataMapUtils.readMap(request, routingResult);
     @SuppressWarnings({ "unchecked", "rawtypes" })
     CollectionRequest<RecordTemplate> collectionRequest = new CollectionRequest(dataMap, valueClass);
     return new RestLiRequestDataImpl.Builder().batchEntities(collectionRequest.getElements()).build();
@@ -57,7 +57,7 @@ public class BatchPatchArgumentBuilder implements RestLiArgumentBuilder
   @Override
   public RestLiRequestData extractRequestData(RoutingResult routingResult, RestRequest request)
   {
-    DataMap dataMap = DataMapUtils.readMap(request);
+    DataMap dataMap = DataMapUtils.readMap(request, routingResult);
     Set<?> ids = routingResult.getContext().getPathKeys().getBatchIds();
     @SuppressWarnings({ "rawtypes" })
     Map inputMap =
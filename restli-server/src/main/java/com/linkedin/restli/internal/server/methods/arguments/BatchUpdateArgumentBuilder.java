@@ -59,7 +59,7 @@ public class BatchUpdateArgumentBuilder implements RestLiArgumentBuilder
   public RestLiRequestData extractRequestData(RoutingResult routingResult, RestRequest request)
   {
     Class<? extends RecordTemplate> valueClass = ArgumentUtils.getValueClass(routingResult);
-    DataMap dataMap = DataMapUtils.readMap(request);
+    DataMap dataMap = DataMapUtils.readMap(request, routingResult);
     Set<?> ids = routingResult.getContext().getPathKeys().getBatchIds();
     @SuppressWarnings({ "rawtypes" })
     Map inputMap =
@@ -21,6 +21,7 @@ import com.linkedin.data.DataMap;
 import com.linkedin.data.collections.CheckedUtil;
 import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.data.template.SetMode;
+import com.linkedin.data.transform.filter.ProjectionPlan;
 import com.linkedin.internal.common.util.CollectionUtils;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.restli.common.BatchResponse;
@@ -33,13 +34,16 @@ import com.linkedin.restli.internal.server.AugmentedRestLiResponseData;
 import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.methods.AnyRecord;
+import com.linkedin.restli.internal.server.util.BatchProcessor;
 import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.BatchResult;
 import com.linkedin.restli.server.RestLiServiceException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -47,10 +51,20 @@ import java.util.Set;
 public class BatchGetResponseBuilder implements RestLiResponseBuilder
 {
   private final ErrorResponseBuilder _errorResponseBuilder;
+  private final BatchProcessor _batchProcessor;
 
   public BatchGetResponseBuilder(ErrorResponseBuilder errorResponseBuilder)
+  {
+    this(errorResponseBuilder, BatchProcessor.SERIAL);
+  }
+
+  /**
+   * @param batchProcessor processes the projection and the key encoding of the entities
+   */
+  public BatchGetResponseBuilder(ErrorResponseBuilder errorResponseBuilder, BatchProcessor batchProcessor)
   {
     _errorResponseBuilder = errorResponseBuilder;
+    _batchProcessor = batchProcessor;
   }
 
   @Override
@@ -62,7 +76,7 @@ public class BatchGetResponseBuilder implements RestLiResponseBuilder
     @SuppressWarnings("unchecked")
     final BatchResponse<AnyRecord> response =
         toBatchResponse((Map<Object, EntityResponse<RecordTemplate>>) responseData.getBatchResponseMap(),
-                        protocolVersion);
+                        protocolVersion, _batchProcessor);
     builder.entity(response);
     return builder.headers(responseData.getHeaders()).build();
   }
@@ -105,30 +119,40 @@ public class BatchGetResponseBuilder implements RestLiResponseBuilder
 
     mergedKeys.addAll(errors.keySet());
 
+    // resolve the projection once, rather than for every entity
+    final ProjectionPlan projectionPlan =
+        RestUtils.getProjectionPlan(context.getProjectionMode(), context.getProjectionMask());
+    final List<Object> keys = new ArrayList<Object>(mergedKeys);
+    final List<EntityResponse<RecordTemplate>> entityResponses =
+        _batchProcessor.process(keys, new BatchProcessor.ItemProcessor<Object, EntityResponse<RecordTemplate>>()
+        {
+          @Override
+          public EntityResponse<RecordTemplate> process(Object key)
+          {
+            final RecordTemplate entityTemplate = entities.get(key);
+            if (entityTemplate == null)
+            {
+              return new EntityResponse<RecordTemplate>(null);
+            }
+
+            @SuppressWarnings("unchecked")
+            final Class<RecordTemplate> entityClass = (Class<RecordTemplate>) entityTemplate.getClass();
+            final EntityResponse<RecordTemplate> entityResponse = new EntityResponse<RecordTemplate>(entityClass);
+
+            final DataMap projectedData = RestUtils.projectFields(entityTemplate.data(), projectionPlan);
+            CheckedUtil.putWithoutChecking(entityResponse.data(), EntityResponse.ENTITY, projectedData);
+            return entityResponse;
+          }
+        });
+
     final Map<Object, EntityResponse<RecordTemplate>> results =
         new HashMap<Object, EntityResponse<RecordTemplate>>(
             CollectionUtils.getMapInitialCapacity(mergedKeys.size(), 0.75f), 0.75f);
 
-    for (Object key : mergedKeys)
+    for (int i = 0; i < keys.size(); ++i)
     {
-      final EntityResponse<RecordTemplate> entityResponse;
-
-      final RecordTemplate entityTemplate = entities.get(key);
-      if (entityTemplate == null)
-      {
-        entityResponse = new EntityResponse<RecordTemplate>(null);
-      }
-      else
-      {
-        @SuppressWarnings("unchecked")
-        final Class<RecordTemplate> entityClass = (Class<RecordTemplate>) entityTemplate.getClass();
-        entityResponse = new EntityResponse<RecordTemplate>(entityClass);
-
-        final DataMap projectedData =
-            RestUtils.projectFields(entityTemplate.data(), context.getProjectionMode(), context.getProjectionMask());
-        CheckedUtil.putWithoutChecking(entityResponse.data(), EntityResponse.ENTITY, projectedData);
-      }
-
+      final Object key = keys.get(i);
+      final EntityResponse<RecordTemplate> entityResponse = entityResponses.get(i);
       entityResponse.setStatus(statuses.get(key), SetMode.IGNORE_NULL);
       entityResponse.setError(errors.get(key), SetMode.IGNORE_NULL);
       results.put(key, entityResponse);
@@ -139,17 +163,29 @@ public class BatchGetResponseBuilder implements RestLiResponseBuilder
   }
 
   private static <K, V extends RecordTemplate> BatchResponse<AnyRecord> toBatchResponse(Map<K, EntityResponse<V>> entities,
-                                                                                        ProtocolVersion protocolVersion)
+                                                                                        final ProtocolVersion protocolVersion,
+                                                                                        BatchProcessor batchProcessor)
   {
     final DataMap splitResponseData = new DataMap();
     final DataMap splitResults = new DataMap();
     final DataMap splitStatuses = new DataMap();
     final DataMap splitErrors = new DataMap();
 
-    for (Map.Entry<K, EntityResponse<V>> resultEntry : entities.entrySet())
+    final List<Map.Entry<K, EntityResponse<V>>> resultEntries = new ArrayList<Map.Entry<K, EntityResponse<V>>>(entities.entrySet());
+    final List<String> stringKeys =
+        batchProcessor.process(resultEntries, new BatchProcessor.ItemProcessor<Map.Entry<K, EntityResponse<V>>, String>()
+        {
+          @Override
+          public String process(Map.Entry<K, EntityResponse<V>> resultEntry)
+          {
+            return URIParamUtils.encodeKeyForBody(resultEntry.getKey(), false, protocolVersion);
+          }
+        });
+
+    for (int i = 0; i < resultEntries.size(); ++i)
     {
-      final DataMap entityResponseData = resultEntry.getValue().data();
-      final String stringKey = URIParamUtils.encodeKeyForBody(resultEntry.getKey(), false, protocolVersion);
+      final DataMap entityResponseData = resultEntries.get(i).getValue().data();
+      final String stringKey = stringKeys.get(i);
 
       final DataMap entityData = entityResponseData.getDataMap(EntityResponse.ENTITY);
       if (entityData != null)
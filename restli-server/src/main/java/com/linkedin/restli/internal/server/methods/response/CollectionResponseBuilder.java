@@ -20,6 +20,7 @@ package com.linkedin.restli.internal.server.methods.response;
 import com.linkedin.data.DataList;
 import com.linkedin.data.collections.CheckedUtil;
 import com.linkedin.data.template.RecordTemplate;
+import com.linkedin.data.transform.filter.ProjectionPlan;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.restli.common.CollectionMetadata;
 import com.linkedin.restli.common.CollectionResponse;
@@ -27,6 +28,7 @@ import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.internal.server.AugmentedRestLiResponseData;
 import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.methods.AnyRecord;
+import com.linkedin.restli.internal.server.util.BatchProcessor;
 import com.linkedin.restli.internal.server.util.RestUtils;
 import com.linkedin.restli.server.CollectionResult;
 import com.linkedin.restli.server.CollectionResult.PageIncrement;
@@ -34,13 +36,27 @@ import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.ProjectionMode;
 import com.linkedin.restli.server.ResourceContext;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 
 public class CollectionResponseBuilder implements RestLiResponseBuilder
 {
+  private final BatchProcessor _batchProcessor;
+
+  public CollectionResponseBuilder()
+  {
+    this(BatchProcessor.SERIAL);
+  }
+
+  /**
+   * @param batchProcessor processes the projection of the elements
+   */
+  public CollectionResponseBuilder(BatchProcessor batchProcessor)
+  {
+    _batchProcessor = batchProcessor;
+  }
+
   @Override
   public PartialRestResponse buildResponse(RoutingResult routingResult, AugmentedRestLiResponseData responseData)
   {
@@ -93,13 +109,13 @@ public class CollectionResponseBuilder implements RestLiResponseBuilder
     }
   }
 
-  private static AugmentedRestLiResponseData buildRestLiResponseData(final RestRequest request,
-                                                                     final RoutingResult routingResult,
-                                                                     final List<? extends RecordTemplate> elements,
-                                                                     final PageIncrement pageIncrement,
-                                                                     final RecordTemplate customMetadata,
-                                                                     final Integer totalResults,
-                                                                     final Map<String, String> headers)
+  private AugmentedRestLiResponseData buildRestLiResponseData(final RestRequest request,
+                                                              final RoutingResult routingResult,
+                                                              final List<? extends RecordTemplate> elements,
+                                                              final PageIncrement pageIncrement,
+                                                              final RecordTemplate customMetadata,
+                                                              final Integer totalResults,
+                                                              final Map<String, String> headers)
   {
     //Extract the resource context that contains projection information for root object entities, metadata and paging.
     final ResourceContext resourceContext = routingResult.getContext();
@@ -127,19 +143,25 @@ public class CollectionResponseBuilder implements RestLiResponseBuilder
     final CollectionMetadata projectedPaging = new CollectionMetadata(anyRecord.data());
 
     //For root object entities
-    List<AnyRecord> processedElements = new ArrayList<AnyRecord>(elements.size());
-    for (RecordTemplate entry : elements)
-    {
-      //We don't permit null elements in our lists. If so, this is a developer error.
-      if (entry == null)
-      {
-        throw new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR,
-            "Unexpected null encountered. Null element inside of a List returned by the resource method: " + routingResult
-                .getResourceMethod());
-      }
-      processedElements.add(new AnyRecord(RestUtils
-          .projectFields(entry.data(), resourceContext.getProjectionMode(), resourceContext.getProjectionMask())));
-    }
+    // resolve the projection once, rather than for every entity
+    final ProjectionPlan projectionPlan =
+        RestUtils.getProjectionPlan(resourceContext.getProjectionMode(), resourceContext.getProjectionMask());
+    final List<AnyRecord> processedElements =
+        _batchProcessor.process(elements, new BatchProcessor.ItemProcessor<RecordTemplate, AnyRecord>()
+        {
+          @Override
+          public AnyRecord process(RecordTemplate entry)
+          {
+            //We don't permit null elements in our lists. If so, this is a developer error.
+            if (entry == null)
+            {
+              throw new RestLiServiceException(HttpStatus.S_500_INTERNAL_SERVER_ERROR,
+                  "Unexpected null encountered. Null element inside of a List returned by the resource method: " + routingResult
+                      .getResourceMethod());
+            }
+            return new AnyRecord(RestUtils.projectFields(entry.data(), projectionPlan));
+          }
+        });
 
     //Now for custom metadata
     final AnyRecord projectedCustomMetadata;
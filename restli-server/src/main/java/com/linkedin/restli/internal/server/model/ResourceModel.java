@@ -23,6 +23,7 @@ import com.linkedin.internal.common.util.CollectionUtils;
 import com.linkedin.restli.common.ComplexResourceKey;
 import com.linkedin.restli.common.ResourceMethod;
 import com.linkedin.restli.server.Key;
+import com.linkedin.restli.server.ResourceConfigException;
 import com.linkedin.restli.server.ResourceLevel;
 import com.linkedin.restli.server.resources.ComplexKeyResource;
 
@@ -66,6 +67,10 @@ public class ResourceModel
 
   private DataMap                               _customAnnotations;
 
+  private int                                   _maxConcurrentRequests;
+
+  private boolean                               _coalesceGets;
+
   /**
    * Constructor.
    *
@@ -244,6 +249,28 @@ public class ResourceModel
     _customAnnotations = customAnnotationData;
   }
 
+  /**
+   * @param maxConcurrentRequests maximum number of requests of this resource run concurrently by the blocking
+   *          resource executor, 0 for no limit
+   */
+  public void setMaxConcurrentRequests(int maxConcurrentRequests)
+  {
+    if (maxConcurrentRequests < 0)
+    {
+      throw new ResourceConfigException("Maximum number of concurrent requests of resource '" + _name
+                                            + "' cannot be negative: " + maxConcurrentRequests);
+    }
+    _maxConcurrentRequests = maxConcurrentRequests;
+  }
+
+  /**
+   * @param coalesceGets whether concurrent GET requests of this resource are coalesced into BATCH_GET calls
+   */
+  public void setCoalesceGets(boolean coalesceGets)
+  {
+    _coalesceGets = coalesceGets;
+  }
+
   /**
    * Add a sub-resource to the model.
    *
@@ -474,4 +501,14 @@ public class ResourceModel
   {
     return _customAnnotations;
   }
+
+  public int getMaxConcurrentRequests()
+  {
+    return _maxConcurrentRequests;
+  }
+
+  public boolean isCoalesceGets()
+  {
+    return _coalesceGets;
+  }
 }
@@ -40,6 +40,8 @@ public class RestLiAnnotationData
   private final Key[]    _keys;
   private final String   _keyName;
   private final Class<? extends TyperefInfo> _typerefInfoClass;
+  private final int      _maxConcurrentRequests;
+  private final boolean  _coalesceGets;
 
   /**
    * @param collectionAnno {@link RestLiCollection} annotation
@@ -52,6 +54,8 @@ public class RestLiAnnotationData
     _keys = null;
     _keyName = RestAnnotations.DEFAULT.equals(collectionAnno.keyName()) ? null : collectionAnno.keyName();
     _typerefInfoClass = RestAnnotations.NULL_TYPEREF_INFO.class.equals(collectionAnno.keyTyperefClass()) ? null : collectionAnno.keyTyperefClass();
+    _maxConcurrentRequests = collectionAnno.maxConcurrentRequests();
+    _coalesceGets = collectionAnno.coalesceGets();
   }
 
   /**
@@ -65,6 +69,8 @@ public class RestLiAnnotationData
     _keys = associationAnno.assocKeys();
     _keyName = RestAnnotations.DEFAULT.equals(associationAnno.keyName()) ? null : associationAnno.keyName();
     _typerefInfoClass = null;
+    _maxConcurrentRequests = associationAnno.maxConcurrentRequests();
+    _coalesceGets = associationAnno.coalesceGets();
   }
 
   /**
@@ -78,6 +84,8 @@ public class RestLiAnnotationData
     _keys = null;
     _keyName = null;
     _typerefInfoClass = null;
+    _maxConcurrentRequests = simpleResourceAnno.maxConcurrentRequests();
+    _coalesceGets = false;
   }
 
   /**
@@ -125,4 +133,20 @@ public class RestLiAnnotationData
     return _typerefInfoClass;
   }
 
+  /**
+   * @return maximum number of concurrent requests run by the blocking resource executor, 0 for no limit
+   */
+  public int maxConcurrentRequests()
+  {
+    return _maxConcurrentRequests;
+  }
+
+  /**
+   * @return whether concurrent GET requests are coalesced into BATCH_GET calls
+   */
+  public boolean coalesceGets()
+  {
+    return _coalesceGets;
+  }
+
 }
@@ -467,6 +467,8 @@ public final class RestLiAnnotationReader
                           name,
                           resourceType,
                           namespace);
+    collectionModel.setMaxConcurrentRequests(annotationData.maxConcurrentRequests());
+    collectionModel.setCoalesceGets(annotationData.coalesceGets());
     addResourceMethods(collectionResourceClass, collectionModel);
 
     log.info("Processed collection resource '" + collectionResourceClass.getName() + "'");
@@ -514,6 +516,7 @@ public final class RestLiAnnotationReader
                           resourceType,
                           namespace);
 
+    singleObjectResourceModel.setMaxConcurrentRequests(annotationData.maxConcurrentRequests());
     addResourceMethods(singleObjectResourceClass, singleObjectResourceModel);
 
     log.info("Processed single object resource '" + singleObjectResourceClass.getName() + "'");
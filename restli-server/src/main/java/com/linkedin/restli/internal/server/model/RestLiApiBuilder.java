@@ -38,6 +38,7 @@ public class RestLiApiBuilder implements RestApiBuilder
 
   private final Set<String> _packageNames;
   private final Set<String> _classNames;
+  private final boolean _resourceIndexEnabled;
 
   public RestLiApiBuilder(final RestLiConfig config)
   {
@@ -48,13 +49,17 @@ public class RestLiApiBuilder implements RestApiBuilder
 
     _packageNames = config.getResourcePackageNamesSet();
     _classNames = config.getResourceClassNamesSet();
+    _resourceIndexEnabled = config.isResourceIndexEnabled();
   }
 
   @Override
   public Map<String, ResourceModel> build()
   {
     RestLiClasspathScanner scanner =
-        new RestLiClasspathScanner(_packageNames, _classNames, Thread.currentThread().getContextClassLoader());
+        new RestLiClasspathScanner(_packageNames,
+                                   _classNames,
+                                   Thread.currentThread().getContextClassLoader(),
+                                   _resourceIndexEnabled);
     scanner.scanPackages();
     final String errorMessage = scanner.scanClasses();
     if (!errorMessage.isEmpty())
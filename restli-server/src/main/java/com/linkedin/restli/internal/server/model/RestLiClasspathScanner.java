@@ -20,9 +20,12 @@
 
 package com.linkedin.restli.internal.server.model;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.lang.annotation.Annotation;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -50,6 +53,9 @@ import com.linkedin.restli.server.annotations.RestLiSimpleResource;
  * set of packages.
  *
  * Inspired by Jersey's package scanning logic.
+ *
+ * If the resource index is enabled, a classpath root that contains the index written by
+ * {@link RestLiResourceIndexProcessor} is not scanned, only the classes listed in its index are loaded.
  */
 class RestLiClasspathScanner
 {
@@ -78,10 +84,20 @@ class RestLiClasspathScanner
   private final ClassLoader _classLoader;
   private final Set<String> _packagePaths;
   private final Set<String> _classNames;
+  private final boolean _resourceIndexEnabled;
 
   public RestLiClasspathScanner(final Set<String> packageNames, final Set<String> classNames, final ClassLoader classLoader)
+  {
+    this(packageNames, classNames, classLoader, false);
+  }
+
+  public RestLiClasspathScanner(final Set<String> packageNames,
+                                final Set<String> classNames,
+                                final ClassLoader classLoader,
+                                final boolean resourceIndexEnabled)
   {
     _classLoader = classLoader;
+    _resourceIndexEnabled = resourceIndexEnabled;
     _packagePaths = new HashSet<String>();
     //convert package names to paths, to optimize matching against .class paths
     for (String packageName : packageNames)
@@ -136,11 +152,18 @@ class RestLiClasspathScanner
           String scheme = u.getScheme().toLowerCase();
           if (scheme.equals(SCHEME_JAR) || scheme.equals(SCHEME_ZIP))
           {
-            scanJar(u);
+            if (!scanIndex(jarIndexUrl(u), p))
+            {
+              scanJar(u);
+            }
           }
           else if (scheme.equals(SCHEME_FILE))
           {
-            scanDirectory(new File(u.getPath()));
+            final File directory = new File(u.getPath());
+            if (!scanIndex(directoryIndexUrl(directory, p), p))
+            {
+              scanDirectory(directory);
+            }
           }
           else
           {
@@ -187,6 +210,65 @@ class RestLiClasspathScanner
     return errorBuilder.toString();
   }
 
+  private URL jarIndexUrl(final URI u) throws IOException
+  {
+    String uri = u.toString();
+    return new URL(uri.substring(0, uri.lastIndexOf(JAR_ENTRY_DELIMITER) + 2) + RestLiResourceIndexProcessor.INDEX_RESOURCE);
+  }
+
+  private URL directoryIndexUrl(final File directory, final String packagePath) throws IOException
+  {
+    String path = directory.getPath();
+    if (!path.endsWith(packagePath))
+    {
+      return null;
+    }
+    File root = new File(path.substring(0, path.length() - packagePath.length()));
+    return new File(root, toNativePath(RestLiResourceIndexProcessor.INDEX_RESOURCE)).toURI().toURL();
+  }
+
+  /**
+   * Match the classes of the package listed in the index of a classpath root.
+   *
+   * @return false if the index is disabled or the classpath root has no index, and the root must be scanned
+   */
+  private boolean scanIndex(final URL indexUrl, final String packagePath) throws IOException
+  {
+    if (!_resourceIndexEnabled || indexUrl == null)
+    {
+      return false;
+    }
+
+    InputStream in;
+    try
+    {
+      in = indexUrl.openStream();
+    }
+    catch (FileNotFoundException e)
+    {
+      return false;
+    }
+
+    String packagePrefix = pathToName(packagePath) + PACKAGE_SEPARATOR;
+    BufferedReader reader = new BufferedReader(new InputStreamReader(in, RestLiResourceIndexProcessor.INDEX_CHARSET));
+    try
+    {
+      for (String line = reader.readLine(); line != null; line = reader.readLine())
+      {
+        String clazzName = line.trim();
+        if (clazzName.startsWith(packagePrefix))
+        {
+          checkForMatchingClassName(clazzName);
+        }
+      }
+    }
+    finally
+    {
+      reader.close();
+    }
+    return true;
+  }
+
   private void scanJar(final URI u) throws IOException
   {
     String ssp = u.getRawSchemeSpecificPart();
@@ -255,26 +337,30 @@ class RestLiClasspathScanner
           int end = name.lastIndexOf(CLASS_SUFFIX);
           String clazzPath = name.substring(start, end);
           String clazzName = pathToName(clazzPath);
+          checkForMatchingClassName(clazzName);
+        }
+      }
+    }
+  }
 
-          try
-          {
-            Class<?> clazz = classForName(clazzName);
-            for (Annotation a : clazz.getAnnotations())
-            {
-              if (_annotations.contains(a.annotationType()))
-              {
-                _matchedClasses.add(clazz);
-                break;
-              }
-            }
-          }
-          catch (ClassNotFoundException e)
-          {
-            throw new RestLiInternalException("Failed to load class while scanning packages", e);
-          }
+  private void checkForMatchingClassName(final String clazzName)
+  {
+    try
+    {
+      Class<?> clazz = classForName(clazzName);
+      for (Annotation a : clazz.getAnnotations())
+      {
+        if (_annotations.contains(a.annotationType()))
+        {
+          _matchedClasses.add(clazz);
+          break;
         }
       }
     }
+    catch (ClassNotFoundException e)
+    {
+      throw new RestLiInternalException("Failed to load class while scanning packages", e);
+    }
   }
 
 }
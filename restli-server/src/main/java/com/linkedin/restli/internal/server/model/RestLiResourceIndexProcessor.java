@@ -0,0 +1,168 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.model;
+
+
+import com.linkedin.restli.server.annotations.RestLiActions;
+import com.linkedin.restli.server.annotations.RestLiAssociation;
+import com.linkedin.restli.server.annotations.RestLiCollection;
+import com.linkedin.restli.server.annotations.RestLiSimpleResource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+
+/**
+ * Annotation processor that writes the names of the Rest.li resource classes being compiled to
+ * {@link #INDEX_RESOURCE}, so that {@link RestLiClasspathScanner} loads them at startup instead of
+ * scanning every class of the resource packages.
+ * <p/>
+ * The processor is not registered as a service, so it only runs when it is named explicitly, for example with
+ * {@code javac -processor com.linkedin.restli.internal.server.model.RestLiResourceIndexProcessor}, and the index is
+ * only used when {@link com.linkedin.restli.server.RestLiConfig#setResourceIndexEnabled(boolean)} is set.
+ * <p/>
+ * For incremental compilation, the names in an existing index are kept as long as their classes still exist.
+ */
+@SupportedAnnotationTypes({
+  "com.linkedin.restli.server.annotations.RestLiActions",
+  "com.linkedin.restli.server.annotations.RestLiAssociation",
+  "com.linkedin.restli.server.annotations.RestLiCollection",
+  "com.linkedin.restli.server.annotations.RestLiSimpleResource"
+})
+public class RestLiResourceIndexProcessor extends AbstractProcessor
+{
+  /**
+   * Path of the index within a classpath root, which lists the resource classes of that root, one per line.
+   */
+  public static final String INDEX_RESOURCE = "META-INF/restli/resources.index";
+
+  static final Charset INDEX_CHARSET = Charset.forName("UTF-8");
+
+  private final Set<String> _classNames = new TreeSet<String>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion()
+  {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+  {
+    if (roundEnv.processingOver())
+    {
+      if (!_classNames.isEmpty())
+      {
+        writeIndex();
+      }
+      return false;
+    }
+
+    addClasses(roundEnv.getElementsAnnotatedWith(RestLiCollection.class));
+    addClasses(roundEnv.getElementsAnnotatedWith(RestLiAssociation.class));
+    addClasses(roundEnv.getElementsAnnotatedWith(RestLiActions.class));
+    addClasses(roundEnv.getElementsAnnotatedWith(RestLiSimpleResource.class));
+    return false;
+  }
+
+  private void addClasses(Set<? extends Element> elements)
+  {
+    for (Element element : elements)
+    {
+      if (element instanceof TypeElement)
+      {
+        _classNames.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+      }
+    }
+  }
+
+  private void writeIndex()
+  {
+    try
+    {
+      readExistingIndex();
+
+      final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      final Writer writer = new OutputStreamWriter(index.openOutputStream(), INDEX_CHARSET);
+      try
+      {
+        for (String className : _classNames)
+        {
+          writer.write(className);
+          writer.write('\n');
+        }
+      }
+      finally
+      {
+        writer.close();
+      }
+    }
+    catch (IOException e)
+    {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Unable to write Rest.li resource index: " + e);
+    }
+  }
+
+  private void readExistingIndex()
+      throws IOException
+  {
+    final Reader reader;
+    try
+    {
+      final FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+      reader = new InputStreamReader(existing.openInputStream(), INDEX_CHARSET);
+    }
+    catch (IOException e)
+    {
+      // there is no index from a previous compilation
+      return;
+    }
+
+    final BufferedReader bufferedReader = new BufferedReader(reader);
+    try
+    {
+      for (String line = bufferedReader.readLine(); line != null; line = bufferedReader.readLine())
+      {
+        final String className = line.trim();
+        if (!className.isEmpty() && processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) != null)
+        {
+          _classNames.add(className);
+        }
+      }
+    }
+    finally
+    {
+      bufferedReader.close();
+    }
+  }
+}
@@ -31,8 +31,8 @@ import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.common.AllProtocolVersions;
 import com.linkedin.restli.internal.common.IllegalMaskException;
 import com.linkedin.restli.internal.common.PathSegment.PathSegmentSyntaxException;
+import com.linkedin.restli.internal.common.ProjectionMaskCache;
 import com.linkedin.restli.internal.common.URIElementParser;
-import com.linkedin.restli.internal.common.URIMaskUtil;
 import com.linkedin.restli.internal.common.URLEscaper;
 import com.linkedin.restli.internal.common.ValueConverter;
 import com.linkedin.restli.internal.server.RestLiInternalException;
@@ -146,7 +146,7 @@ public class ArgumentUtils
   {
     try
     {
-      return URIMaskUtil.decodeMaskUriFormat(new StringBuilder(uriParam));
+      return ProjectionMaskCache.getDefault().decodeMaskUriFormat(uriParam);
     }
     catch (IllegalMaskException e)
     {
@@ -0,0 +1,218 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.util;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+
+/**
+ * Applies a per-item operation, such as validation or projection, to the entities of a batch.
+ * <p>
+ *
+ * Large batches are split into contiguous partitions that are processed concurrently by the given
+ * executor, with the first partition processed on the calling thread. Batches with fewer than
+ * twice the threshold items, and all batches when no executor is given, are processed on the
+ * calling thread. Either way, the results are returned in the order of the items, and if the
+ * operation fails for some items, the failure of the item with the lowest index is rethrown after
+ * all partitions have completed, which is the same failure the serial processing would surface.
+ */
+public class BatchProcessor
+{
+  public static final int DEFAULT_THRESHOLD = 256;
+
+  /**
+   * Processes all batches on the calling thread.
+   */
+  public static final BatchProcessor SERIAL = new BatchProcessor(null, DEFAULT_THRESHOLD);
+
+  /**
+   * Operation applied to each item of a batch. It must be safe to call it concurrently for different items.
+   *
+   * @param <I> type of the items.
+   * @param <O> type of the results.
+   */
+  public interface ItemProcessor<I, O>
+  {
+    O process(I item);
+  }
+
+  /**
+   * @param executor executor that processes the partitions of large batches, or null to process all batches on the calling thread
+   * @param threshold minimum number of items in each partition, must be positive
+   */
+  public BatchProcessor(ExecutorService executor, int threshold)
+  {
+    if (threshold <= 0)
+    {
+      throw new IllegalArgumentException("Threshold must be positive: " + threshold);
+    }
+
+    _executor = executor;
+    _threshold = threshold;
+  }
+
+  /**
+   * Apply the processor to each item.
+   *
+   * @param items items to process
+   * @param processor operation applied to each item
+   * @return new modifiable list of the results of the operation, in the same order as the items
+   */
+  public <I, O> List<O> process(List<? extends I> items, ItemProcessor<? super I, ? extends O> processor)
+  {
+    final int size = items.size();
+    final int partitionCount = _executor == null ?
+        1 : Math.min(size / _threshold, Runtime.getRuntime().availableProcessors());
+
+    final Object[] results = new Object[size];
+    if (partitionCount <= 1)
+    {
+      final Partition<I, O> partition = new Partition<I, O>(items, 0, size, processor, results);
+      partition.run();
+      partition.rethrowFailure();
+    }
+    else
+    {
+      final List<Partition<I, O>> partitions = new ArrayList<Partition<I, O>>(partitionCount);
+      final List<Future<?>> futures = new ArrayList<Future<?>>(partitionCount - 1);
+      for (int i = 0; i < partitionCount; ++i)
+      {
+        final int start = (int) ((long) size * i / partitionCount);
+        final int end = (int) ((long) size * (i + 1) / partitionCount);
+        partitions.add(new Partition<I, O>(items, start, end, processor, results));
+      }
+
+      for (int i = 1; i < partitionCount; ++i)
+      {
+        try
+        {
+          futures.add(_executor.submit(partitions.get(i)));
+        }
+        catch (RejectedExecutionException e)
+        {
+          partitions.get(i).run();
+        }
+      }
+      partitions.get(0).run();
+      awaitAll(futures);
+
+      // partitions are ordered, so the first failure found is the failure of the lowest index
+      for (Partition<I, O> partition : partitions)
+      {
+        partition.rethrowFailure();
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    final List<O> resultList = (List<O>) Arrays.asList(results);
+    return new ArrayList<O>(resultList);
+  }
+
+  private static void awaitAll(List<Future<?>> futures)
+  {
+    boolean interrupted = false;
+    for (Future<?> future : futures)
+    {
+      while (true)
+      {
+        try
+        {
+          future.get();
+          break;
+        }
+        catch (InterruptedException e)
+        {
+          // keep waiting, the partitions still reference the items and the results
+          interrupted = true;
+        }
+        catch (ExecutionException e)
+        {
+          // partitions capture their own failures
+          throw new IllegalStateException(e.getCause());
+        }
+      }
+    }
+
+    if (interrupted)
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static class Partition<I, O> implements Runnable
+  {
+    private Partition(List<? extends I> items, int start, int end, ItemProcessor<? super I, ? extends O> processor, Object[] results)
+    {
+      _items = items;
+      _start = start;
+      _end = end;
+      _processor = processor;
+      _results = results;
+    }
+
+    @Override
+    public void run()
+    {
+      for (int i = _start; i < _end; ++i)
+      {
+        try
+        {
+          _results[i] = _processor.process(_items.get(i));
+        }
+        catch (RuntimeException e)
+        {
+          _failure = e;
+          return;
+        }
+        catch (Error e)
+        {
+          _failure = e;
+          return;
+        }
+      }
+    }
+
+    private void rethrowFailure()
+    {
+      if (_failure instanceof RuntimeException)
+      {
+        throw (RuntimeException) _failure;
+      }
+      if (_failure instanceof Error)
+      {
+        throw (Error) _failure;
+      }
+    }
+
+    private final List<? extends I> _items;
+    private final int _start;
+    private final int _end;
+    private final ItemProcessor<? super I, ? extends O> _processor;
+    private final Object[] _results;
+    private volatile Throwable _failure;
+  }
+
+  private final ExecutorService _executor;
+  private final int _threshold;
+}
@@ -17,12 +17,15 @@
 package com.linkedin.restli.internal.server.util;
 
 
+import com.linkedin.data.ByteString;
 import com.linkedin.data.DataComplex;
 import com.linkedin.data.DataList;
 import com.linkedin.data.DataMap;
 import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.codec.SchemaBinaryDataCodec;
 import com.linkedin.data.schema.DataSchema;
+import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.DataTemplate;
 import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.data.template.JacksonDataTemplateCodec;
@@ -32,6 +35,7 @@ import com.linkedin.restli.common.CollectionResponse;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.server.RestLiInternalException;
+import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.server.RoutingException;
 
 import javax.mail.internet.ContentType;
@@ -48,6 +52,7 @@ public class DataMapUtils
 {
   private static final JacksonDataCodec CODEC = new JacksonDataCodec();
   private static final PsonDataCodec PSON_DATA_CODEC = new PsonDataCodec();
+  private static final SchemaBinaryDataCodec SCHEMA_BINARY_DATA_CODEC = new SchemaBinaryDataCodec();
   private static final JacksonDataTemplateCodec TEMPLATE_CODEC = new JacksonDataTemplateCodec();
   private static final Logger LOG = LoggerFactory.getLogger(DataMapUtils.class);
 
@@ -98,7 +103,28 @@ public class DataMapUtils
   {
     try
     {
-      return readMapWithExceptions(message);
+      return readMapWithExceptions(message, null, null);
+    }
+    catch (IOException e)
+    {
+      throw new RestLiInternalException(e);
+    }
+  }
+
+  /**
+   * Read {@link DataMap} from a {@link RestMessage} of a request to a resource method, using the message's
+   * headers to determine the correct encoding type.
+   *
+   * @param message {@link RestMessage}
+   * @param routingResult {@link RoutingResult} of the request, whose resource value schema the schema binary
+   *                      encoding may refer to
+   * @return {@link DataMap}
+   */
+  public static DataMap readMap(final RestMessage message, final RoutingResult routingResult)
+  {
+    try
+    {
+      return readMapWithExceptions(message, routingResult, null);
     }
     catch (IOException e)
     {
@@ -112,12 +138,14 @@ public class DataMapUtils
    *
    * @throws IOException if the message entity cannot be parsed.
    */
-  private static DataMap readMapWithExceptions(final RestMessage message) throws IOException
+  private static DataMap readMapWithExceptions(final RestMessage message,
+                                               final RoutingResult routingResult,
+                                               final Class<? extends RecordTemplate> recordClass) throws IOException
   {
     String header = message.getHeader(RestConstants.HEADER_CONTENT_TYPE);
     if (header == null)
     {
-      return CODEC.readMap(message.getEntity().asInputStream());
+      return readJson(message.getEntity());
     }
 
     ContentType contentType;
@@ -132,18 +160,43 @@ public class DataMapUtils
 
     if (contentType.getBaseType().equalsIgnoreCase(RestConstants.HEADER_VALUE_APPLICATION_JSON))
     {
-      return CODEC.readMap(message.getEntity().asInputStream());
+      return readJson(message.getEntity());
     }
     else if (contentType.getBaseType().equalsIgnoreCase(RestConstants.HEADER_VALUE_APPLICATION_PSON))
     {
       return PSON_DATA_CODEC.readMap(message.getEntity().asInputStream());
     }
+    else if (contentType.getBaseType().equalsIgnoreCase(RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY))
+    {
+      Class<? extends RecordTemplate> valueClass = recordClass;
+      if (valueClass == null && routingResult != null)
+      {
+        valueClass = routingResult.getResourceMethod().getResourceModel().getValueClass();
+      }
+      final RecordDataSchema valueSchema = valueClass == null ? null : (RecordDataSchema) DataTemplateUtil.getSchema(valueClass);
+      return SCHEMA_BINARY_DATA_CODEC.readMap(message.getEntity().asInputStream(), valueSchema);
+    }
     else
     {
       throw new RoutingException("Unknown Content-Type: " + contentType.toString(), HttpStatus.S_415_UNSUPPORTED_MEDIA_TYPE.getCode());
     }
   }
 
+  /**
+   * Decode a JSON entity, lazily if the {@link RestConstants#RESTLI_LAZY_JSON_DECODING_PROPERTY} system
+   * property is "true" (ignoring case).
+   *
+   * @see JacksonDataCodec#readLazyMap(ByteString)
+   */
+  private static DataMap readJson(final ByteString entity) throws IOException
+  {
+    if ("true".equalsIgnoreCase(System.getProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY)))
+    {
+      return CODEC.readLazyMap(entity);
+    }
+    return CODEC.readMap(entity.asInputStream());
+  }
+
   /**
    * Construct an object of a provided {@link RecordTemplate}-derived type from the
    * provided {@link DataMap}.
@@ -227,7 +280,7 @@ public class DataMapUtils
   {
     try
     {
-      DataMap dataMap = readMapWithExceptions(message);
+      DataMap dataMap = readMapWithExceptions(message, null, recordClass);
       return DataTemplateUtil.wrap(dataMap, recordClass);
     }
     catch (IllegalArgumentException e)
@@ -386,4 +439,23 @@ public class DataMapUtils
       throw new RestLiInternalException(e);
     }
   }
+
+  /**
+   * Encode the {@link DataMap} as a byte array using {@link SchemaBinaryDataCodec}.
+   *
+   * @param dataMap input {@link DataMap}
+   * @param entitySchema schema of the entities of the resource, may be null
+   * @return byte array
+   */
+  public static byte[] mapToSchemaBinaryBytes(final DataMap dataMap, final RecordDataSchema entitySchema)
+  {
+    try
+    {
+      return SCHEMA_BINARY_DATA_CODEC.mapToBytes(dataMap, entitySchema);
+    }
+    catch (IOException e)
+    {
+      throw new RestLiInternalException(e);
+    }
+  }
 }
@@ -18,7 +18,7 @@ package com.linkedin.restli.internal.server.util;
 
 
 import com.linkedin.data.DataMap;
-import com.linkedin.data.transform.filter.CopyFilter;
+import com.linkedin.data.transform.filter.ProjectionPlan;
 import com.linkedin.data.transform.filter.request.MaskTree;
 import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.restli.common.CollectionMetadata;
@@ -26,6 +26,7 @@ import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.Link;
 import com.linkedin.restli.common.LinkArray;
 import com.linkedin.restli.common.RestConstants;
+import com.linkedin.restli.internal.common.ProjectionMaskCache;
 import com.linkedin.restli.internal.server.RestLiInternalException;
 import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.model.Parameter;
@@ -39,6 +40,7 @@ import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.RoutingException;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +52,12 @@ import org.apache.commons.lang.StringUtils;
  */
 public class RestUtils
 {
+  // schema binary responses are only sent to clients that ask for them by name, so that wildcards and
+  // unsupported types are negotiated as before
+  private static final List<String> SUPPORTED_MIME_TYPES_WITH_SCHEMA_BINARY =
+    Arrays.asList(RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY,
+                  RestConstants.HEADER_VALUE_APPLICATION_PSON,
+                  RestConstants.HEADER_VALUE_APPLICATION_JSON);
 
   public static CollectionMetadata buildMetadata(final URI requestUri,
                                                  final ResourceContext resourceContext,
@@ -210,7 +218,10 @@ public class RestUtils
       return RestConstants.HEADER_VALUE_APPLICATION_JSON;
     try
     {
-      return MIMEParse.bestMatch(RestConstants.SUPPORTED_MIME_TYPES, acceptHeader);
+      final boolean schemaBinary =
+        acceptHeader.toLowerCase().contains(RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY);
+      return MIMEParse.bestMatch(schemaBinary ? SUPPORTED_MIME_TYPES_WITH_SCHEMA_BINARY : RestConstants.SUPPORTED_MIME_TYPES,
+                                 acceptHeader);
     }
     // Handle the case when an accept MIME type that was passed in along with the
     // request is invalid.
@@ -244,16 +255,50 @@ public class RestUtils
       return dataMap;
     }
 
-    final DataMap filterMap = projectionMask.getDataMap();
     //Special-case: when present, an empty filter should not return any fields.
     if (projectionMask.getDataMap().isEmpty())
     {
       return EMPTY_DATAMAP;
     }
 
+    return projectFields(dataMap, getProjectionPlan(projectionMode, projectionMask));
+  }
+
+  /**
+   * Resolve the {@link ProjectionPlan} of the projection mask from the {@link ResourceContext}, so that a response
+   * with many entities looks it up once and projects each entity with {@link #projectFields(DataMap, ProjectionPlan)}.
+   *
+   * @param projectionMode {@link ProjectionMode} to decide if restli should project or not
+   * @param projectionMask {@link MaskTree} the mask to use when projecting
+   * @return compiled plan of the mask, or null if restli should not project
+   */
+  public static ProjectionPlan getProjectionPlan(final ProjectionMode projectionMode, final MaskTree projectionMask)
+  {
+    if (projectionMode == ProjectionMode.MANUAL || projectionMask == null)
+    {
+      return null;
+    }
+
+    return ProjectionMaskCache.getDefault().getProjectionPlan(projectionMask.getDataMap());
+  }
+
+  /**
+   * Filter input {@link DataMap} by a plan from {@link #getProjectionPlan(ProjectionMode, MaskTree)}.
+   *
+   * @param dataMap {@link DataMap} to filter
+   * @param projectionPlan compiled plan of the projection mask, or null to return the input as is
+   * @return filtered DataMap. Empty one if the projection mask specifies no fields.
+   */
+  public static DataMap projectFields(final DataMap dataMap, final ProjectionPlan projectionPlan)
+  {
+    if (projectionPlan == null)
+    {
+      return dataMap;
+    }
+
     try
     {
-      return (DataMap) new CopyFilter().filter(dataMap, filterMap);
+      return (DataMap) projectionPlan.project(dataMap);
     }
     catch (Exception e)
     {
@@ -0,0 +1,107 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.server;
+
+
+/**
+ * Immutable snapshot of the requests of a resource run by the blocking resource executor.
+ *
+ * @see RestLiConfig#setBlockingResourceExecutor(java.util.concurrent.ExecutorService)
+ */
+public class BlockingResourceStats
+{
+  private final String _resource;
+  private final int _maxConcurrentRequests;
+  private final int _runningCount;
+  private final int _queuedCount;
+  private final long _completedCount;
+  private final long _rejectedCount;
+
+  public BlockingResourceStats(String resource,
+                               int maxConcurrentRequests,
+                               int runningCount,
+                               int queuedCount,
+                               long completedCount,
+                               long rejectedCount)
+  {
+    _resource = resource;
+    _maxConcurrentRequests = maxConcurrentRequests;
+    _runningCount = runningCount;
+    _queuedCount = queuedCount;
+    _completedCount = completedCount;
+    _rejectedCount = rejectedCount;
+  }
+
+  /**
+   * @return path of the resource, such as "greetings" or "greetings/subgreetings"
+   */
+  public String getResource()
+  {
+    return _resource;
+  }
+
+  /**
+   * @return maximum number of requests of the resource run concurrently, 0 for no limit
+   */
+  public int getMaxConcurrentRequests()
+  {
+    return _maxConcurrentRequests;
+  }
+
+  /**
+   * @return number of requests handed to the executor that have not completed
+   */
+  public int getRunningCount()
+  {
+    return _runningCount;
+  }
+
+  /**
+   * @return number of requests waiting for the resource to be under its limit
+   */
+  public int getQueuedCount()
+  {
+    return _queuedCount;
+  }
+
+  /**
+   * @return number of requests run by the executor
+   */
+  public long getCompletedCount()
+  {
+    return _completedCount;
+  }
+
+  /**
+   * @return number of requests rejected by the executor
+   */
+  public long getRejectedCount()
+  {
+    return _rejectedCount;
+  }
+
+  @Override
+  public String toString()
+  {
+    return "resource=" + _resource +
+        ", maxConcurrentRequests=" + _maxConcurrentRequests +
+        ", running=" + _runningCount +
+        ", queued=" + _queuedCount +
+        ", completed=" + _completedCount +
+        ", rejected=" + _rejectedCount;
+  }
+}
@@ -19,6 +19,8 @@ package com.linkedin.restli.server;
 
 import com.linkedin.parseq.trace.Trace;
 
+import java.util.Map;
+
 
 /**
  * The request execution report contains information about the execution of a Rest.li request such as
@@ -29,10 +31,12 @@ import com.linkedin.parseq.trace.Trace;
 public class RequestExecutionReport
 {
   private final Trace _parseqTrace;
+  private final Map<RequestPhase, Long> _phaseDurations;
 
-  RequestExecutionReport(Trace parseqTrace)
+  RequestExecutionReport(Trace parseqTrace, Map<RequestPhase, Long> phaseDurations)
   {
     _parseqTrace = parseqTrace;
+    _phaseDurations = phaseDurations;
   }
 
   /**
@@ -43,4 +47,13 @@ public class RequestExecutionReport
   {
     return _parseqTrace;
   }
+
+  /**
+   * Gets the time spent in each phase of the request, which is only known once the response is built.
+   * @return nanoseconds spent in each {@link RequestPhase} if the report is given with the response, otherwise null.
+   */
+  public Map<RequestPhase, Long> getPhaseDurations()
+  {
+    return _phaseDurations;
+  }
 }
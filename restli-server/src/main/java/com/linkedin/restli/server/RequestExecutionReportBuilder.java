@@ -19,6 +19,8 @@ package com.linkedin.restli.server;
 
 import com.linkedin.parseq.trace.Trace;
 
+import java.util.Map;
+
 
 /**
  * The builder class for {@link RequestExecutionReport} objects.
@@ -26,6 +28,7 @@ import com.linkedin.parseq.trace.Trace;
 public class RequestExecutionReportBuilder
 {
   private Trace _parseqTrace;
+  private Map<RequestPhase, Long> _phaseDurations;
 
   /**
    * Sets the Parseq trace.
@@ -36,12 +39,21 @@ public class RequestExecutionReportBuilder
     _parseqTrace = parseqTrace;
   }
 
+  /**
+   * Sets the phase durations.
+   * @param phaseDurations Nanoseconds spent in each {@link RequestPhase} of the request.
+   */
+  public void setPhaseDurations(Map<RequestPhase, Long> phaseDurations)
+  {
+    _phaseDurations = phaseDurations;
+  }
+
   /**
    * Builds a {@link RequestExecutionReport} object.
    * @return A {@link RequestExecutionReport} object.
    */
   public RequestExecutionReport build()
   {
-    return new RequestExecutionReport(_parseqTrace);
+    return new RequestExecutionReport(_parseqTrace, _phaseDurations);
   }
 }
@@ -0,0 +1,74 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.server;
+
+
+/**
+ * Phases of the processing of a Rest.li request by {@link RestLiServer}, in the order they run.
+ */
+public enum RequestPhase
+{
+  /**
+   * Protocol version check and matching the request to a resource method.
+   */
+  ROUTING("routing"),
+
+  /**
+   * Validation of the request headers, creation of the resource and conversion of the request to method arguments.
+   */
+  ARGUMENT_BUILDING("argumentBuilding"),
+
+  /**
+   * The {@link com.linkedin.restli.server.filter.RequestFilter}s.
+   */
+  REQUEST_FILTERS("requestFilters"),
+
+  /**
+   * The resource method, until it returns its result or completes its callback, promise or task.
+   */
+  RESOURCE("resource"),
+
+  /**
+   * Conversion of the result of the resource method to response data, including projection.
+   */
+  RESPONSE_BUILDING("responseBuilding"),
+
+  /**
+   * The {@link com.linkedin.restli.server.filter.ResponseFilter}s.
+   */
+  RESPONSE_FILTERS("responseFilters"),
+
+  /**
+   * Encoding of the response data into the response.
+   */
+  RESPONSE_ENCODING("responseEncoding");
+
+  private final String _name;
+
+  RequestPhase(String name)
+  {
+    _name = name;
+  }
+
+  /**
+   * @return name of the phase in the {@link com.linkedin.restli.common.RestConstants#HEADER_RESTLI_PHASE_TIMINGS} header
+   */
+  public String getName()
+  {
+    return _name;
+  }
+}
@@ -55,6 +55,7 @@ public interface ResourceContext
 
   /**
    * get the projection mask parsed from the query for root object entities.
+   * The masks are shared by the requests with the same query parameter and cannot be modified.
    *
    * @return MaskTree parsed from query, or null if no root object projection mask was requested.
    */
@@ -0,0 +1,110 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.server;
+
+
+import com.linkedin.common.stats.LongStats;
+
+import java.util.Collections;
+import java.util.Map;
+
+
+/**
+ * Immutable snapshot of the time spent in each {@link RequestPhase} by the requests of a resource method.
+ */
+public class ResourceMethodPhaseStats
+{
+  private final String _resource;
+  private final String _method;
+  private final LongStats _latency;
+  private final Map<RequestPhase, LongStats> _phaseLatencies;
+
+  public ResourceMethodPhaseStats(String resource,
+                                  String method,
+                                  LongStats latency,
+                                  Map<RequestPhase, LongStats> phaseLatencies)
+  {
+    _resource = resource;
+    _method = method;
+    _latency = latency;
+    _phaseLatencies = Collections.unmodifiableMap(phaseLatencies);
+  }
+
+  /**
+   * @return path of the resource, such as "greetings" or "greetings/subgreetings"
+   */
+  public String getResource()
+  {
+    return _resource;
+  }
+
+  /**
+   * @return operation name of the method, such as "get" or "finder:search"
+   */
+  public String getMethod()
+  {
+    return _method;
+  }
+
+  /**
+   * @return number of completed requests
+   */
+  public long getCount()
+  {
+    return _latency.getCount();
+  }
+
+  /**
+   * @return statistics of the time spent in all phases, in nanoseconds
+   */
+  public LongStats getLatency()
+  {
+    return _latency;
+  }
+
+  /**
+   * @return statistics of the time spent in each phase, in nanoseconds
+   */
+  public Map<RequestPhase, LongStats> getPhaseLatencies()
+  {
+    return _phaseLatencies;
+  }
+
+  @Override
+  public String toString()
+  {
+    final StringBuilder sb = new StringBuilder();
+    sb.append("resource=").append(_resource)
+      .append(", method=").append(_method)
+      .append(", count=").append(getCount())
+      .append(", latency=").append(format(_latency));
+    for (Map.Entry<RequestPhase, LongStats> entry : _phaseLatencies.entrySet())
+    {
+      sb.append(", ").append(entry.getKey().getName()).append('=').append(format(entry.getValue()));
+    }
+    return sb.toString();
+  }
+
+  private static String format(LongStats stats)
+  {
+    return "{average=" + stats.getAverage() +
+        ", 50pct=" + stats.get50Pct() +
+        ", 90pct=" + stats.get90Pct() +
+        ", 99pct=" + stats.get99Pct() +
+        ", max=" + stats.getMaximum() + "}";
+  }
+}
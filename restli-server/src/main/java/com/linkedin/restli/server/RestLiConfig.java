@@ -17,7 +17,10 @@
 package com.linkedin.restli.server;
 
 
+import com.linkedin.restli.internal.server.BatchGetCoalescer;
+import com.linkedin.restli.internal.server.BlockingResourceExecutor;
 import com.linkedin.restli.internal.server.methods.response.ErrorResponseBuilder;
+import com.linkedin.restli.internal.server.util.BatchProcessor;
 import com.linkedin.restli.server.filter.RequestFilter;
 import com.linkedin.restli.server.filter.ResponseFilter;
 
@@ -30,6 +33,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
 
 
 /**
@@ -64,6 +69,7 @@ public class RestLiConfig
 
   private final Set<String> _resourcePackageNames = new HashSet<String>();
   private final Set<String> _resourceClassNames = new HashSet<String>();
+  private boolean _resourceIndexEnabled = false;
   private URI _serverNodeUri = URI.create("");
   private RestLiDocumentationRequestHandler _documentationRequestHandler = null;
   private ErrorResponseFormat _errorResponseFormat = ErrorResponseFormat.FULL;
@@ -72,6 +78,14 @@ public class RestLiConfig
   private List<RestLiDebugRequestHandler> _debugRequestHandlers;
   private final List<RequestFilter> _requestFilters = new ArrayList<RequestFilter>();
   private final List<ResponseFilter> _responseFilters = new ArrayList<ResponseFilter>();
+  private ExecutorService _batchExecutor = null;
+  private int _parallelBatchThreshold = BatchProcessor.DEFAULT_THRESHOLD;
+  private boolean _phaseTimingsHeaderEnabled = false;
+  private ExecutorService _blockingResourceExecutor = null;
+  private int _maxQueuedBlockingRequests = BlockingResourceExecutor.DEFAULT_MAX_QUEUED_REQUESTS;
+  private int _multiplexerMaxParallelism = 0;
+  private ScheduledExecutorService _getCoalescingExecutor = null;
+  private long _getCoalescingDelayMicros = BatchGetCoalescer.DEFAULT_DELAY_MICROS;
 
   /**
    * Constructor.
@@ -168,6 +182,25 @@ public class RestLiConfig
     _resourceClassNames.addAll(Arrays.asList(classNames));
   }
 
+  public boolean isResourceIndexEnabled()
+  {
+    return _resourceIndexEnabled;
+  }
+
+  /**
+   * Set whether the classpath roots of the resource packages that contain the index written by
+   * {@link com.linkedin.restli.internal.server.model.RestLiResourceIndexProcessor} only load the classes listed in
+   * the index instead of being scanned. Only enable this when every resource class is compiled with that annotation
+   * processor and the index is kept in the packaged jars, since the resources missing from an index are not found.
+   * Disabled by default.
+   *
+   * @param resourceIndexEnabled whether to load resource classes from the index
+   */
+  public void setResourceIndexEnabled(boolean resourceIndexEnabled)
+  {
+    _resourceIndexEnabled = resourceIndexEnabled;
+  }
+
   public URI getServerNodeUri()
   {
     return _serverNodeUri;
@@ -340,4 +373,169 @@ public class RestLiConfig
       _responseFilters.addAll(responseFilters);
     }
   }
+
+  public ExecutorService getBatchExecutor()
+  {
+    return _batchExecutor;
+  }
+
+  /**
+   * Set the executor used to project and encode the entities of large batch and collection responses
+   * in parallel. The results keep the order of the entities. By default, all entities are processed
+   * on the request thread.
+   * <p/>
+   * The request thread waits for the entities processed by this executor, so it must be dedicated to batch
+   * processing. It must not be an executor that requests run on, such as the blocking resource executor or the
+   * container's request thread pool: once all of its threads wait for batch work queued behind them, the
+   * requests deadlock.
+   *
+   * @param batchExecutor executor shared by all requests, or null to process all entities on the request thread
+   */
+  public void setBatchExecutor(ExecutorService batchExecutor)
+  {
+    _batchExecutor = batchExecutor;
+  }
+
+  public int getParallelBatchThreshold()
+  {
+    return _parallelBatchThreshold;
+  }
+
+  /**
+   * Set the minimum number of entities handed to each task when a batch is processed in parallel.
+   * Batches with fewer than twice as many entities are processed on the request thread.
+   *
+   * @param parallelBatchThreshold positive number of entities
+   */
+  public void setParallelBatchThreshold(int parallelBatchThreshold)
+  {
+    if (parallelBatchThreshold <= 0)
+    {
+      throw new IllegalArgumentException("Parallel batch threshold must be positive: " + parallelBatchThreshold);
+    }
+    _parallelBatchThreshold = parallelBatchThreshold;
+  }
+
+  public ExecutorService getBlockingResourceExecutor()
+  {
+    return _blockingResourceExecutor;
+  }
+
+  /**
+   * Set the executor that runs the synchronous resource methods, which may block, so that they do not hold the
+   * threads of the server. Callback, promise and task based methods are not affected. The number of concurrent
+   * requests of each resource run by the executor can be limited with the maxConcurrentRequests attribute of its
+   * resource annotation, such as {@link com.linkedin.restli.server.annotations.RestLiCollection#maxConcurrentRequests()}.
+   * Requests over the limit wait in a queue of the resource, bounded by {@link #setMaxQueuedBlockingRequests}.
+   * Requests rejected by the executor or by a full queue fail with status 503.
+   *
+   * A bounded thread pool limits the total number of blocking requests. On JDKs with virtual threads, an executor
+   * that starts a virtual thread per task runs every blocking request without a pool.
+   *
+   * @param blockingResourceExecutor executor shared by all requests, or null to run synchronous methods on the
+   *          request thread
+   */
+  public void setBlockingResourceExecutor(ExecutorService blockingResourceExecutor)
+  {
+    _blockingResourceExecutor = blockingResourceExecutor;
+  }
+
+  public int getMaxQueuedBlockingRequests()
+  {
+    return _maxQueuedBlockingRequests;
+  }
+
+  /**
+   * Set the maximum number of requests of each resource that wait for the maxConcurrentRequests limit of the
+   * resource, when {@link #setBlockingResourceExecutor} is set. Requests beyond it fail with status 503.
+   *
+   * @param maxQueuedBlockingRequests positive number of requests
+   */
+  public void setMaxQueuedBlockingRequests(int maxQueuedBlockingRequests)
+  {
+    if (maxQueuedBlockingRequests <= 0)
+    {
+      throw new IllegalArgumentException("Max queued blocking requests must be positive: " + maxQueuedBlockingRequests);
+    }
+    _maxQueuedBlockingRequests = maxQueuedBlockingRequests;
+  }
+
+  public boolean isPhaseTimingsHeaderEnabled()
+  {
+    return _phaseTimingsHeaderEnabled;
+  }
+
+  /**
+   * Set whether responses carry the time spent in each {@link RequestPhase} of their request in the
+   * {@link com.linkedin.restli.common.RestConstants#HEADER_RESTLI_PHASE_TIMINGS} header. The phases are timed
+   * and aggregated by {@link RestLiServer} either way. Disabled by default.
+   *
+   * @param phaseTimingsHeaderEnabled whether to add the header to responses
+   */
+  public void setPhaseTimingsHeaderEnabled(boolean phaseTimingsHeaderEnabled)
+  {
+    _phaseTimingsHeaderEnabled = phaseTimingsHeaderEnabled;
+  }
+
+  public int getMultiplexerMaxParallelism()
+  {
+    return _multiplexerMaxParallelism;
+  }
+
+  /**
+   * Set the maximum number of individual requests of a multiplexed request that are handled concurrently.
+   * The other individual requests are queued until one of the running requests completes.
+   *
+   * @param multiplexerMaxParallelism positive number of individual requests, or 0 for no limit
+   */
+  public void setMultiplexerMaxParallelism(int multiplexerMaxParallelism)
+  {
+    if (multiplexerMaxParallelism < 0)
+    {
+      throw new IllegalArgumentException("Multiplexer max parallelism cannot be negative: " + multiplexerMaxParallelism);
+    }
+    _multiplexerMaxParallelism = multiplexerMaxParallelism;
+  }
+
+  public ScheduledExecutorService getGetCoalescingExecutor()
+  {
+    return _getCoalescingExecutor;
+  }
+
+  /**
+   * Set the executor that coalesces the concurrent GET requests of a resource into a single call of its BATCH_GET
+   * method, for resources whose backends are cheaper in batch. Only resources that opt in with the coalesceGets
+   * attribute of their annotation, such as {@link com.linkedin.restli.server.annotations.RestLiCollection#coalesceGets()},
+   * are coalesced. Each GET waits for {@link #getGetCoalescingDelayMicros()} for others to join its batch. The
+   * BATCH_GET methods are called on the blocking resource executor if it is set, and on the threads of this
+   * executor otherwise.
+   *
+   * Only synchronous GET and BATCH_GET methods of root resources that take nothing but the keys are coalesced,
+   * and only GETs with the same headers, query parameters and projection are coalesced together.
+   *
+   * @param getCoalescingExecutor executor shared by all requests, or null to invoke every GET by itself
+   */
+  public void setGetCoalescingExecutor(ScheduledExecutorService getCoalescingExecutor)
+  {
+    _getCoalescingExecutor = getCoalescingExecutor;
+  }
+
+  public long getGetCoalescingDelayMicros()
+  {
+    return _getCoalescingDelayMicros;
+  }
+
+  /**
+   * Set the time that a GET waits for other GETs to coalesce with, when {@link #setGetCoalescingExecutor} is set.
+   *
+   * @param getCoalescingDelayMicros non-negative number of microseconds
+   */
+  public void setGetCoalescingDelayMicros(long getCoalescingDelayMicros)
+  {
+    if (getCoalescingDelayMicros < 0)
+    {
+      throw new IllegalArgumentException("GET coalescing delay cannot be negative: " + getCoalescingDelayMicros);
+    }
+    _getCoalescingDelayMicros = getCoalescingDelayMicros;
+  }
 }
@@ -20,14 +20,21 @@ import com.linkedin.common.callback.Callback;
 import com.linkedin.jersey.api.uri.UriBuilder;
 import com.linkedin.parseq.Engine;
 import com.linkedin.r2.message.RequestContext;
+import com.linkedin.r2.message.rest.RestException;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
+import com.linkedin.r2.transport.common.RestRequestHandler;
 import com.linkedin.r2.util.URIUtil;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.ProtocolVersion;
+import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.common.AllProtocolVersions;
 import com.linkedin.restli.internal.common.ProtocolVersionUtil;
+import com.linkedin.restli.internal.server.BatchGetCoalescer;
+import com.linkedin.restli.internal.server.BlockingResourceExecutor;
+import com.linkedin.restli.internal.server.RequestPhaseMetrics;
+import com.linkedin.restli.internal.server.RequestPhaseTimer;
 import com.linkedin.restli.internal.server.RestLiCallback;
 import com.linkedin.restli.internal.server.RestLiMethodInvoker;
 import com.linkedin.restli.internal.server.RestLiResponseHandler;
@@ -36,11 +43,13 @@ import com.linkedin.restli.internal.server.RoutingResult;
 import com.linkedin.restli.internal.server.ServerResourceContext;
 import com.linkedin.restli.internal.server.filter.FilterRequestContextInternal;
 import com.linkedin.restli.internal.server.filter.FilterRequestContextInternalImpl;
+import com.linkedin.restli.internal.server.methods.MethodAdapterRegistry;
 import com.linkedin.restli.internal.server.methods.response.ErrorResponseBuilder;
 import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor;
 import com.linkedin.restli.internal.server.model.ResourceMethodDescriptor.InterfaceType;
 import com.linkedin.restli.internal.server.model.ResourceModel;
 import com.linkedin.restli.internal.server.model.RestLiApiBuilder;
+import com.linkedin.restli.internal.server.util.BatchProcessor;
 import com.linkedin.restli.server.filter.ResponseFilter;
 import com.linkedin.restli.server.multiplexer.MultiplexedRequestHandler;
 import com.linkedin.restli.server.multiplexer.MultiplexedRequestHandlerImpl;
@@ -52,6 +61,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -80,6 +90,8 @@ public class RestLiServer extends BaseRestServer
   private final Map<String, RestLiDebugRequestHandler> _debugHandlers;
   private final List<ResponseFilter> _responseFilters;
   private final List<InvokeAware> _invokeAwares;
+  private final RequestPhaseMetrics _phaseMetrics = new RequestPhaseMetrics();
+  private final BlockingResourceExecutor _blockingResourceExecutor;
   private boolean _isDocInitialized = false;
 
   public RestLiServer(final RestLiConfig config)
@@ -110,10 +122,23 @@ public class RestLiServer extends BaseRestServer
     _rootResources = new RestLiApiBuilder(config).build();
     _resourceFactory.setRootResources(_rootResources);
     _router = new RestLiRouter(_rootResources);
+    _blockingResourceExecutor = config.getBlockingResourceExecutor() == null ? null
+        : new BlockingResourceExecutor(config.getBlockingResourceExecutor(), config.getMaxQueuedBlockingRequests());
     _methodInvoker =
-        new RestLiMethodInvoker(_resourceFactory, engine, _errorResponseBuilder, config.getRequestFilters());
+        new RestLiMethodInvoker(_resourceFactory,
+                                engine,
+                                _errorResponseBuilder,
+                                new MethodAdapterRegistry(_errorResponseBuilder),
+                                config.getRequestFilters(),
+                                _blockingResourceExecutor,
+                                config.getGetCoalescingExecutor() == null ? null
+                                    : new BatchGetCoalescer(config.getGetCoalescingExecutor(),
+                                                            TimeUnit.MICROSECONDS.toNanos(config.getGetCoalescingDelayMicros()),
+                                                            _blockingResourceExecutor));
     _responseHandler =
         new RestLiResponseHandler.Builder().setErrorResponseBuilder(_errorResponseBuilder)
+                                           .setBatchProcessor(new BatchProcessor(config.getBatchExecutor(),
+                                                                                 config.getParallelBatchThreshold()))
                                            .build();
     _docRequestHandler = config.getDocumentationRequestHandler();
     _debugHandlers = new HashMap<String, RestLiDebugRequestHandler>();
@@ -130,7 +155,10 @@ public class RestLiServer extends BaseRestServer
       _debugHandlers.put(debugHandler.getHandlerId(), debugHandler);
     }
 
-    _multiplexedRequestHandler = new MultiplexedRequestHandlerImpl(this, engine);
+    final int multiplexerMaxParallelism = config.getMultiplexerMaxParallelism();
+    _multiplexedRequestHandler = new MultiplexedRequestHandlerImpl(new IndividualRequestHandler(multiplexerMaxParallelism),
+                                                                   engine,
+                                                                   multiplexerMaxParallelism);
     // verify that if there are resources using the engine, then the engine is not null
     if (engine == null)
     {
@@ -150,15 +178,54 @@ public class RestLiServer extends BaseRestServer
         }
       }
     }
+    // the concurrency limits of resources are enforced by the blocking resource executor only
+    if (_blockingResourceExecutor == null)
+    {
+      warnUnenforcedConcurrencyLimits(_rootResources.values());
+    }
     _invokeAwares =
         (invokeAwares == null) ? Collections.<InvokeAware> emptyList() : Collections.unmodifiableList(invokeAwares);
   }
 
+  private static void warnUnenforcedConcurrencyLimits(Iterable<ResourceModel> models)
+  {
+    for (ResourceModel model : models)
+    {
+      if (model.getMaxConcurrentRequests() > 0)
+      {
+        log.warn(String.format("Resource %s sets maxConcurrentRequests to %d, but no blocking resource executor given. "
+                                   + "The limit is ignored unless RestLiConfig.setBlockingResourceExecutor() is set.",
+                               model.getResourceClass().getName(),
+                               model.getMaxConcurrentRequests()));
+      }
+      warnUnenforcedConcurrencyLimits(model.getSubResources());
+    }
+  }
+
   public Map<String, ResourceModel> getRootResources()
   {
     return Collections.unmodifiableMap(_rootResources);
   }
 
+  /**
+   * @return statistics of the time spent in each {@link RequestPhase} by the requests of each resource method,
+   *         ordered by resource and method
+   */
+  public List<ResourceMethodPhaseStats> getPhaseStats()
+  {
+    return _phaseMetrics.getStats();
+  }
+
+  /**
+   * @return statistics of the requests of each resource run by the blocking resource executor, ordered by resource,
+   *         or an empty list if {@link RestLiConfig#setBlockingResourceExecutor} is not set
+   */
+  public List<BlockingResourceStats> getBlockingResourceStats()
+  {
+    return _blockingResourceExecutor == null ? Collections.<BlockingResourceStats>emptyList()
+        : _blockingResourceExecutor.getStats();
+  }
+
   /**
    * @see BaseRestServer#doHandleRequest(com.linkedin.r2.message.rest.RestRequest,
    *      com.linkedin.r2.message.RequestContext, com.linkedin.common.callback.Callback)
@@ -262,6 +329,7 @@ public class RestLiServer extends BaseRestServer
                                      final RequestExecutionCallback<RestResponse> callback,
                                      final boolean isDebugMode)
   {
+    final RequestPhaseTimer phaseTimer = new RequestPhaseTimer();
     try
     {
       ensureRequestUsesValidRestliProtocol(request);
@@ -285,12 +353,15 @@ public class RestLiServer extends BaseRestServer
       restLiCallback.onError(e, createEmptyExecutionReport());
       return;
     }
-    final RequestExecutionCallback<RestResponse> wrappedCallback = notifyInvokeAwares(method, callback);
+    phaseTimer.mark(RequestPhase.ROUTING);
+    requestContext.putLocalAttr(RequestPhaseTimer.KEY, phaseTimer);
+    final RequestExecutionCallback<RestResponse> wrappedCallback =
+        recordPhases(method, phaseTimer, notifyInvokeAwares(method, callback));
 
     final FilterRequestContextInternal filterContext =
         new FilterRequestContextInternalImpl((ServerResourceContext) method.getContext(), method.getResourceMethod());
     final RestLiCallback<Object> restLiCallback =
-        new RestLiCallback<Object>(request, method, _responseHandler, wrappedCallback, _responseFilters, filterContext);
+        new RestLiCallback<Object>(request, method, _responseHandler, wrappedCallback, _responseFilters, filterContext, phaseTimer);
     try
     {
       _methodInvoker.invoke(method, request, restLiCallback, isDebugMode, filterContext);
@@ -301,6 +372,64 @@ public class RestLiServer extends BaseRestServer
     }
   }
 
+  /**
+   * @return A new callback that wraps the originalCallback, which records the phase durations of the request once
+   * its response is built, and adds them to the execution report and, if enabled, to the response headers
+   */
+  private RequestExecutionCallback<RestResponse> recordPhases(final RoutingResult routingResult,
+                                                              final RequestPhaseTimer phaseTimer,
+                                                              final RequestExecutionCallback<RestResponse> originalCallback)
+  {
+    return new RequestExecutionCallback<RestResponse>()
+    {
+      @Override
+      public void onSuccess(RestResponse result, RequestExecutionReport executionReport)
+      {
+        _phaseMetrics.record(routingResult.getResourceMethod(), phaseTimer);
+        if (_config.isPhaseTimingsHeaderEnabled())
+        {
+          result = addPhaseTimingsHeader(result, phaseTimer);
+        }
+        originalCallback.onSuccess(result, addPhaseDurations(executionReport, phaseTimer));
+      }
+
+      @Override
+      public void onError(Throwable error, RequestExecutionReport executionReport)
+      {
+        _phaseMetrics.record(routingResult.getResourceMethod(), phaseTimer);
+        if (_config.isPhaseTimingsHeaderEnabled() && error instanceof RestException)
+        {
+          final RestException restException = (RestException) error;
+          error = new RestException(addPhaseTimingsHeader(restException.getResponse(), phaseTimer),
+                                    restException.getMessage(),
+                                    restException.getCause());
+          error.setStackTrace(restException.getStackTrace());
+        }
+        originalCallback.onError(error, addPhaseDurations(executionReport, phaseTimer));
+      }
+    };
+  }
+
+  private static RestResponse addPhaseTimingsHeader(RestResponse response, RequestPhaseTimer phaseTimer)
+  {
+    return response.builder().setHeader(RestConstants.HEADER_RESTLI_PHASE_TIMINGS, phaseTimer.toHeaderValue()).build();
+  }
+
+  private static RequestExecutionReport addPhaseDurations(RequestExecutionReport executionReport,
+                                                          RequestPhaseTimer phaseTimer)
+  {
+    // the report is only created for debug requests
+    if (executionReport == null)
+    {
+      return null;
+    }
+
+    final RequestExecutionReportBuilder builder = new RequestExecutionReportBuilder();
+    builder.setParseqTrace(executionReport.getParseqTrace());
+    builder.setPhaseDurations(phaseTimer.getDurations());
+    return builder.build();
+  }
+
   /**
    * Invoke {@link InvokeAware#onInvoke(ResourceContext, RestLiMethodContext)} of registered invokeAwares.
    * @return A new callback that wraps the originalCallback, which invokes desired callbacks of invokeAwares after the method invocation finishes
@@ -352,6 +481,36 @@ public class RestLiServer extends BaseRestServer
     _multiplexedRequestHandler.handleRequest(request, requestContext, callback);
   }
 
+  /**
+   * Dispatches the individual requests of multiplexed requests in process, without the uncaught exception handling
+   * of {@link BaseRestServer#handleRequest}, which the multiplexer already does for each individual request.
+   * When {@link RestLiConfig#getMultiplexerMaxParallelism()} is set, multiplexed requests cannot be nested, since the
+   * individual requests of a nested one would not count towards it.
+   */
+  private class IndividualRequestHandler implements RestRequestHandler
+  {
+    private final boolean _rejectNested;
+
+    private IndividualRequestHandler(int multiplexerMaxParallelism)
+    {
+      _rejectNested = multiplexerMaxParallelism > 0;
+    }
+
+    @Override
+    public void handleRequest(RestRequest request, RequestContext requestContext, Callback<RestResponse> callback)
+    {
+      if (_rejectNested && isMultiplexedRequest(request))
+      {
+        callback.onError(RestException.forError(HttpStatus.S_400_BAD_REQUEST.getCode(),
+                                                "Multiplexed requests cannot be nested"));
+      }
+      else
+      {
+        doHandleRequest(request, requestContext, callback);
+      }
+    }
+  }
+
   private boolean isDocumentationRequest(RestRequest request) {
     return _docRequestHandler != null && _docRequestHandler.isDocumentationRequest(request);
   }
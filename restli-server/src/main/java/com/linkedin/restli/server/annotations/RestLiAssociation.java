@@ -57,4 +57,14 @@ public @interface RestLiAssociation
 
   /** An ordered list of associative keys used in this association (required) */
   Key[] assocKeys();
+
+  /** Maximum number of requests of this resource run concurrently by the blocking resource executor, 0 for no limit.
+   * Only applies if {@link com.linkedin.restli.server.RestLiConfig#setBlockingResourceExecutor} is set */
+  int maxConcurrentRequests() default 0;
+
+  /** Whether concurrent GET requests of this resource with the same headers, query parameters and projection are
+   * coalesced into a single call of its BATCH_GET method. The BATCH_GET method is called on the resource instance,
+   * and therefore with the context, of one of the coalesced requests. Only applies if
+   * {@link com.linkedin.restli.server.RestLiConfig#setGetCoalescingExecutor} is set */
+  boolean coalesceGets() default false;
 }
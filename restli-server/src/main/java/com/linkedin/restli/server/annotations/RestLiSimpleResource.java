@@ -45,4 +45,10 @@ public @interface RestLiSimpleResource
    * The namespace of the resource, used to qualify the IDL name
    */
   String namespace() default "";
+
+  /**
+   * Maximum number of requests of this resource run concurrently by the blocking resource executor, 0 for no limit.
+   * Only applies if {@link com.linkedin.restli.server.RestLiConfig#setBlockingResourceExecutor} is set
+   */
+  int maxConcurrentRequests() default 0;
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.server.multiplexer;
+
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+
+
+/**
+ * Limits the number of individual requests of a multiplexed request that are handled concurrently.
+ * Requests over the limit are queued rather than blocking the thread, and are dispatched in order on the thread
+ * that completes a running request.
+ */
+/* package private */ class IndividualRequestLimiter
+{
+  private final int _maxParallelism;
+  private final Queue<Runnable> _pending = new ArrayDeque<Runnable>();
+  private int _running = 0;
+
+  /**
+   * @param maxParallelism positive maximum number of concurrent individual requests
+   */
+  /* package private */ IndividualRequestLimiter(int maxParallelism)
+  {
+    _maxParallelism = maxParallelism;
+  }
+
+  /**
+   * Dispatch the individual request now if the limit allows it, or once a running request is released.
+   * Every dispatched request must be followed by exactly one {@link #release()}.
+   */
+  /* package private */ void execute(Runnable request)
+  {
+    synchronized (this)
+    {
+      if (_running >= _maxParallelism)
+      {
+        _pending.add(request);
+        return;
+      }
+      ++_running;
+    }
+    request.run();
+  }
+
+  /**
+   * Mark a dispatched request as completed and dispatch the next queued request, if any.
+   */
+  /* package private */ void release()
+  {
+    final Runnable next;
+    synchronized (this)
+    {
+      next = _pending.poll();
+      if (next == null)
+      {
+        --_running;
+        return;
+      }
+    }
+    next.run();
+  }
+}
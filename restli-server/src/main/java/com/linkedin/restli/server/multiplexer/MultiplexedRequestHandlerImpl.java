@@ -65,6 +65,7 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
   private final Logger _log = LoggerFactory.getLogger(MultiplexedRequestHandlerImpl.class);
   private final RestRequestHandler _requestHandler;
   private final Engine _engine;
+  private final int _maxParallelism;
 
   /**
    * @param requestHandler the handler that will take care of individual requests
@@ -72,8 +73,24 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
    */
   public MultiplexedRequestHandlerImpl(RestRequestHandler requestHandler, Engine engine)
   {
+    this(requestHandler, engine, 0);
+  }
+
+  /**
+   * @param requestHandler the handler that will take care of individual requests
+   * @param engine         ParSeq engine to run request handling on
+   * @param maxParallelism maximum number of individual requests of a multiplexed request handled concurrently,
+   *                       or 0 for no limit
+   */
+  public MultiplexedRequestHandlerImpl(RestRequestHandler requestHandler, Engine engine, int maxParallelism)
+  {
+    if (maxParallelism < 0)
+    {
+      throw new IllegalArgumentException("Max parallelism cannot be negative: " + maxParallelism);
+    }
     _requestHandler = requestHandler;
     _engine = engine;
+    _maxParallelism = maxParallelism;
   }
 
   @Override
@@ -105,8 +122,11 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
     }
     // prepare the list of individual responses to be collected
     final List<IndividualResponse> individualResponses = new ArrayList<IndividualResponse>(individualRequests.size());
+    // the limiter is shared by all individual requests, including the dependent ones
+    IndividualRequestLimiter limiter = _maxParallelism > 0 ? new IndividualRequestLimiter(_maxParallelism) : null;
     // all tasks are Void and side effect based, that will be useful when we add streaming
-    Task<Void> requestProcessingTask = createParallelRequestsTask(requestContext, individualRequests, individualResponses);
+    Task<Void> requestProcessingTask =
+        createParallelRequestsTask(requestContext, limiter, individualRequests, individualResponses);
     Task<Void> responseAggregationTask = Tasks.action("send aggregated response", new Runnable()
     {
       @Override
@@ -148,6 +168,7 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
   }
 
   private Task<Void> createParallelRequestsTask(RequestContext requestContext,
+                                                IndividualRequestLimiter limiter,
                                                 List<IndividualRequest> individualRequests,
                                                 List<IndividualResponse> individualResponses)
   {
@@ -155,7 +176,8 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
     for (IndividualRequest individualRequest : individualRequests)
     {
       // create a task for the current request
-      Task<Void> individualRequestTask = createRequestHandlingTask(requestContext, individualRequest, individualResponses);
+      Task<Void> individualRequestTask =
+          createRequestHandlingTask(requestContext, limiter, individualRequest, individualResponses);
       List<IndividualRequest> dependentRequests = individualRequest.getDependentRequests();
       if (dependentRequests.isEmpty())
       {
@@ -164,7 +186,8 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
       else
       {
         // recursively process dependent requests
-        Task<Void> dependentRequestsTask = createParallelRequestsTask(requestContext, dependentRequests, individualResponses);
+        Task<Void> dependentRequestsTask =
+            createParallelRequestsTask(requestContext, limiter, dependentRequests, individualResponses);
         // tasks for dependant requests are executed after the current request's task
         tasks.add(Tasks.seq(individualRequestTask, dependentRequestsTask));
       }
@@ -173,11 +196,15 @@ public class MultiplexedRequestHandlerImpl implements MultiplexedRequestHandler
   }
 
   private Task<Void> createRequestHandlingTask(RequestContext requestContext,
+                                               IndividualRequestLimiter limiter,
                                                final IndividualRequest individualRequest,
                                                final List<IndividualResponse> individualResponses)
   {
     RestRequest individualRestRequest = createSyntheticRequest(individualRequest);
-    final RequestHandlingTask responseTask = new RequestHandlingTask(_requestHandler, individualRestRequest, requestContext);
+    // individual requests may run concurrently, so each of them gets its own copy of the local attributes
+    RequestContext individualRequestContext = new RequestContext(requestContext);
+    final RequestHandlingTask responseTask =
+        new RequestHandlingTask(_requestHandler, individualRestRequest, individualRequestContext, limiter);
     Task<Void> addResponseTask = Tasks.action("add response", new Runnable()
     {
       @Override
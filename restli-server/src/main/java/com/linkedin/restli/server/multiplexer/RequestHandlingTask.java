@@ -46,32 +46,66 @@ import com.linkedin.restli.common.HttpStatus;
 
   private final RequestContext _requestContext;
 
+  private final IndividualRequestLimiter _limiter;
+
   /* package private */ RequestHandlingTask(RestRequestHandler requestHandler, RestRequest request, RequestContext requestContext)
+  {
+    this(requestHandler, request, requestContext, null);
+  }
+
+  /**
+   * @param limiter limiter of the concurrent individual requests, or null to dispatch the request immediately
+   */
+  /* package private */ RequestHandlingTask(RestRequestHandler requestHandler,
+                                            RestRequest request,
+                                            RequestContext requestContext,
+                                            IndividualRequestLimiter limiter)
   {
     _requestHandler = requestHandler;
     _request = request;
     _requestContext = requestContext;
+    _limiter = limiter;
   }
 
   @Override
   protected Promise<RestResponse> run(Context context) throws Throwable
   {
     final SettablePromise<RestResponse> promise = Promises.settable();
-    Callback<RestResponse> callback = new Callback<RestResponse>()
+    final Callback<RestResponse> callback = new Callback<RestResponse>()
     {
       @Override
       public void onError(Throwable e)
       {
         RestResponse result = toErrorResponse(e);
-        promise.done(result);
+        complete(promise, result);
       }
 
       @Override
       public void onSuccess(RestResponse result)
       {
-        promise.done(result);
+        complete(promise, result);
       }
     };
+    if (_limiter == null)
+    {
+      handleRequest(callback);
+    }
+    else
+    {
+      _limiter.execute(new Runnable()
+      {
+        @Override
+        public void run()
+        {
+          handleRequest(callback);
+        }
+      });
+    }
+    return promise;
+  }
+
+  private void handleRequest(Callback<RestResponse> callback)
+  {
     // try invoking the handler
     try {
       _requestHandler.handleRequest(_request, _requestContext, callback);
@@ -80,7 +114,15 @@ import com.linkedin.restli.common.HttpStatus;
     {
       callback.onError(e);
     }
-    return promise;
+  }
+
+  private void complete(SettablePromise<RestResponse> promise, RestResponse result)
+  {
+    promise.done(result);
+    if (_limiter != null)
+    {
+      _limiter.release();
+    }
   }
 
   private RestResponse toErrorResponse(Throwable e)
@@ -22,12 +22,16 @@ import com.linkedin.data.template.RecordTemplate;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.ResourceMethod;
 import com.linkedin.restli.common.validation.RestLiDataValidator;
+import com.linkedin.restli.internal.server.util.BatchProcessor;
 import com.linkedin.restli.server.RestLiRequestData;
 import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.filter.FilterRequestContext;
 import com.linkedin.restli.server.filter.RequestFilter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Rest.li validation filter that validates incoming data automatically,
@@ -37,6 +41,26 @@ import java.util.Map;
  */
 public class RestLiInputValidationFilter implements RequestFilter
 {
+  private final BatchProcessor _batchProcessor;
+
+  public RestLiInputValidationFilter()
+  {
+    _batchProcessor = BatchProcessor.SERIAL;
+  }
+
+  /**
+   * Validate the entities of large batches in parallel. The error message lists the invalid entities
+   * in the same order as validating them one by one.
+   *
+   * @param executor executor that validates the partitions of large batches
+   * @param parallelThreshold minimum number of entities validated by each task, batches with fewer than
+   *                          twice as many entities are validated on the request thread
+   */
+  public RestLiInputValidationFilter(ExecutorService executor, int parallelThreshold)
+  {
+    _batchProcessor = new BatchProcessor(executor, parallelThreshold);
+  }
+
   @Override
   public void onRequest(final FilterRequestContext requestContext)
   {
@@ -55,9 +79,8 @@ public class RestLiInputValidationFilter implements RequestFilter
     else if (method == ResourceMethod.BATCH_CREATE)
     {
       StringBuilder sb = new StringBuilder();
-      for (RecordTemplate entity : requestData.getBatchEntities())
+      for (ValidationResult result : validate(requestData.getBatchEntities(), validator))
       {
-        ValidationResult result = validator.validate(entity);
         if (!result.isValid())
         {
           sb.append(result.getMessages().toString());
@@ -71,13 +94,21 @@ public class RestLiInputValidationFilter implements RequestFilter
     else if (method == ResourceMethod.BATCH_UPDATE || method == ResourceMethod.BATCH_PARTIAL_UPDATE)
     {
       StringBuilder sb = new StringBuilder();
+      List<Object> keys = new ArrayList<Object>(requestData.getBatchKeyEntityMap().size());
+      List<RecordTemplate> entities = new ArrayList<RecordTemplate>(requestData.getBatchKeyEntityMap().size());
       for (Map.Entry<?, ? extends RecordTemplate> entry : requestData.getBatchKeyEntityMap().entrySet())
       {
-        ValidationResult result = validator.validate(entry.getValue());
+        keys.add(entry.getKey());
+        entities.add(entry.getValue());
+      }
+      List<ValidationResult> results = validate(entities, validator);
+      for (int i = 0; i < results.size(); i++)
+      {
+        ValidationResult result = results.get(i);
         if (!result.isValid())
         {
           sb.append("Key: ");
-          sb.append(entry.getKey());
+          sb.append(keys.get(i));
           sb.append(", ");
           sb.append(result.getMessages().toString());
         }
@@ -88,4 +119,16 @@ public class RestLiInputValidationFilter implements RequestFilter
       }
     }
   }
+
+  private List<ValidationResult> validate(List<? extends RecordTemplate> entities, final RestLiDataValidator validator)
+  {
+    return _batchProcessor.process(entities, new BatchProcessor.ItemProcessor<RecordTemplate, ValidationResult>()
+    {
+      @Override
+      public ValidationResult process(RecordTemplate entity)
+      {
+        return validator.validate(entity);
+      }
+    });
+  }
 }
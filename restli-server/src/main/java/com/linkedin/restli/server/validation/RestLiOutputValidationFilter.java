@@ -23,13 +23,17 @@ import com.linkedin.restli.common.EntityResponse;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.ResourceMethod;
 import com.linkedin.restli.common.validation.RestLiDataValidator;
+import com.linkedin.restli.internal.server.util.BatchProcessor;
 import com.linkedin.restli.server.RestLiResponseData;
 import com.linkedin.restli.server.RestLiServiceException;
 import com.linkedin.restli.server.filter.FilterRequestContext;
 import com.linkedin.restli.server.filter.FilterResponseContext;
 import com.linkedin.restli.server.filter.ResponseFilter;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Rest.li validation filter that validates outgoing data automatically,
@@ -39,6 +43,26 @@ import java.util.Map;
  */
 public class RestLiOutputValidationFilter implements ResponseFilter
 {
+  private final BatchProcessor _batchProcessor;
+
+  public RestLiOutputValidationFilter()
+  {
+    _batchProcessor = BatchProcessor.SERIAL;
+  }
+
+  /**
+   * Validate the entities of large batches in parallel. The error message lists the invalid entities
+   * in the same order as validating them one by one.
+   *
+   * @param executor executor that validates the partitions of large batches
+   * @param parallelThreshold minimum number of entities validated by each task, batches with fewer than
+   *                          twice as many entities are validated on the request thread
+   */
+  public RestLiOutputValidationFilter(ExecutorService executor, int parallelThreshold)
+  {
+    _batchProcessor = new BatchProcessor(executor, parallelThreshold);
+  }
+
   @Override
   public void onResponse(final FilterRequestContext requestContext, final FilterResponseContext responseContext)
   {
@@ -61,9 +85,8 @@ public class RestLiOutputValidationFilter implements ResponseFilter
     else if (method == ResourceMethod.GET_ALL || method == ResourceMethod.FINDER)
     {
       StringBuilder sb = new StringBuilder();
-      for (RecordTemplate entity : responseData.getCollectionResponse())
+      for (ValidationResult result : validate(responseData.getCollectionResponse(), validator))
       {
-        ValidationResult result = validator.validate(entity);
         if (!result.isValid())
         {
           sb.append(result.getMessages().toString());
@@ -77,6 +100,8 @@ public class RestLiOutputValidationFilter implements ResponseFilter
     else if (method == ResourceMethod.BATCH_GET)
     {
       StringBuilder sb = new StringBuilder();
+      List<Object> keys = new ArrayList<Object>(responseData.getBatchResponseMap().size());
+      List<RecordTemplate> entities = new ArrayList<RecordTemplate>(responseData.getBatchResponseMap().size());
       for (Map.Entry<?, ? extends RecordTemplate> entry : responseData.getBatchResponseMap().entrySet())
       {
         EntityResponse<? extends RecordTemplate> entityResponse = (EntityResponse) entry.getValue();
@@ -84,11 +109,17 @@ public class RestLiOutputValidationFilter implements ResponseFilter
         {
           continue;
         }
-        ValidationResult result = validator.validate(entityResponse.getEntity());
+        keys.add(entry.getKey());
+        entities.add(entityResponse.getEntity());
+      }
+      List<ValidationResult> results = validate(entities, validator);
+      for (int i = 0; i < results.size(); i++)
+      {
+        ValidationResult result = results.get(i);
         if (!result.isValid())
         {
           sb.append("Key: ");
-          sb.append(entry.getKey());
+          sb.append(keys.get(i));
           sb.append(", ");
           sb.append(result.getMessages().toString());
         }
@@ -99,4 +130,16 @@ public class RestLiOutputValidationFilter implements ResponseFilter
       }
     }
   }
+
+  private List<ValidationResult> validate(List<? extends RecordTemplate> entities, final RestLiDataValidator validator)
+  {
+    return _batchProcessor.process(entities, new BatchProcessor.ItemProcessor<RecordTemplate, ValidationResult>()
+    {
+      @Override
+      public ValidationResult process(RecordTemplate entity)
+      {
+        return validator.validate(entity);
+      }
+    });
+  }
 }
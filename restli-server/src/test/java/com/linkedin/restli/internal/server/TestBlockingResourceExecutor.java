@@ -0,0 +1,218 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server;
+
+
+import com.linkedin.restli.common.EmptyRecord;
+import com.linkedin.restli.internal.server.model.ResourceModel;
+import com.linkedin.restli.server.BlockingResourceStats;
+import com.linkedin.restli.server.RestLiTestHelper;
+import com.linkedin.restli.server.annotations.RestLiCollection;
+import com.linkedin.restli.server.resources.CollectionResourceTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class TestBlockingResourceExecutor
+{
+  @Test
+  public void testConcurrencyLimit() throws Exception
+  {
+    final ResourceModel model = RestLiTestHelper.buildResourceModel(LimitedResource.class);
+    Assert.assertEquals(model.getMaxConcurrentRequests(), 2);
+
+    final ExecutorService executorService = Executors.newFixedThreadPool(4);
+    final BlockingResourceExecutor executor =
+        new BlockingResourceExecutor(executorService, BlockingResourceExecutor.DEFAULT_MAX_QUEUED_REQUESTS);
+    final CountDownLatch started = new CountDownLatch(2);
+    final CountDownLatch release = new CountDownLatch(1);
+    final AtomicInteger concurrency = new AtomicInteger();
+    final AtomicInteger maxConcurrency = new AtomicInteger();
+    for (int i = 0; i < 6; ++i)
+    {
+      executor.execute(model, new TestTask()
+      {
+        @Override
+        public void run()
+        {
+          final int current = concurrency.incrementAndGet();
+          int max = maxConcurrency.get();
+          while (current > max && !maxConcurrency.compareAndSet(max, current))
+          {
+            max = maxConcurrency.get();
+          }
+          started.countDown();
+          try
+          {
+            release.await();
+          }
+          catch (InterruptedException e)
+          {
+            Thread.currentThread().interrupt();
+          }
+          concurrency.decrementAndGet();
+        }
+      });
+    }
+
+    // release the tasks only once the first two run, so that they overlap
+    Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+    BlockingResourceStats stats = executor.getStats().get(0);
+    Assert.assertEquals(stats.getResource(), "limited");
+    Assert.assertEquals(stats.getMaxConcurrentRequests(), 2);
+    Assert.assertEquals(stats.getRunningCount(), 2);
+    Assert.assertEquals(stats.getQueuedCount(), 4);
+    Assert.assertEquals(stats.getCompletedCount(), 0);
+
+    release.countDown();
+    // the queued tasks are handed to the executor by the completed ones, so wait for all of them
+    for (int i = 0; i < 1000 && executor.getStats().get(0).getCompletedCount() < 6; ++i)
+    {
+      Thread.sleep(10);
+    }
+    executorService.shutdown();
+    Assert.assertTrue(executorService.awaitTermination(10, TimeUnit.SECONDS));
+
+    stats = executor.getStats().get(0);
+    Assert.assertEquals(stats.getRunningCount(), 0);
+    Assert.assertEquals(stats.getQueuedCount(), 0);
+    Assert.assertEquals(stats.getCompletedCount(), 6);
+    Assert.assertEquals(maxConcurrency.get(), 2);
+  }
+
+  @Test
+  public void testRejection()
+  {
+    final BlockingResourceExecutor executor = new BlockingResourceExecutor(new Executor()
+    {
+      @Override
+      public void execute(Runnable command)
+      {
+        throw new RejectedExecutionException("full");
+      }
+    }, BlockingResourceExecutor.DEFAULT_MAX_QUEUED_REQUESTS);
+
+    final AtomicReference<Throwable> rejection = new AtomicReference<Throwable>();
+    executor.execute(RestLiTestHelper.<ResourceModel>buildResourceModel(LimitedResource.class), new TestTask()
+    {
+      @Override
+      public void reject(Throwable cause)
+      {
+        rejection.set(cause);
+      }
+    });
+
+    Assert.assertTrue(rejection.get() instanceof RejectedExecutionException);
+    final List<BlockingResourceStats> stats = executor.getStats();
+    Assert.assertEquals(stats.size(), 1);
+    Assert.assertEquals(stats.get(0).getRejectedCount(), 1);
+    Assert.assertEquals(stats.get(0).getRunningCount(), 0);
+    Assert.assertEquals(stats.get(0).getQueuedCount(), 0);
+  }
+
+  @Test
+  public void testQueueLimit()
+  {
+    final List<Runnable> commands = new ArrayList<Runnable>();
+    final BlockingResourceExecutor executor = new BlockingResourceExecutor(new Executor()
+    {
+      @Override
+      public void execute(Runnable command)
+      {
+        commands.add(command);
+      }
+    }, 3);
+    final ResourceModel model = RestLiTestHelper.buildResourceModel(LimitedResource.class);
+
+    // 2 tasks run and 3 wait, so the sixth task is rejected
+    final AtomicInteger runCount = new AtomicInteger();
+    for (int i = 0; i < 5; ++i)
+    {
+      executor.execute(model, new TestTask()
+      {
+        @Override
+        public void run()
+        {
+          runCount.incrementAndGet();
+        }
+      });
+    }
+    final AtomicReference<Throwable> rejection = new AtomicReference<Throwable>();
+    executor.execute(model, new TestTask()
+    {
+      @Override
+      public void reject(Throwable cause)
+      {
+        rejection.set(cause);
+      }
+    });
+
+    Assert.assertTrue(rejection.get() instanceof RejectedExecutionException);
+    BlockingResourceStats stats = executor.getStats().get(0);
+    Assert.assertEquals(stats.getRunningCount(), 2);
+    Assert.assertEquals(stats.getQueuedCount(), 3);
+    Assert.assertEquals(stats.getRejectedCount(), 1);
+
+    // completing the tasks hands the queued ones to the executor
+    for (int i = 0; i < commands.size(); ++i)
+    {
+      commands.get(i).run();
+    }
+    Assert.assertEquals(runCount.get(), 5);
+    stats = executor.getStats().get(0);
+    Assert.assertEquals(stats.getRunningCount(), 0);
+    Assert.assertEquals(stats.getQueuedCount(), 0);
+    Assert.assertEquals(stats.getCompletedCount(), 5);
+  }
+
+  private static class TestTask implements BlockingResourceExecutor.Task
+  {
+    @Override
+    public void run()
+    {
+      Assert.fail("Unexpected run");
+    }
+
+    @Override
+    public void reject(Throwable cause)
+    {
+      Assert.fail("Unexpected rejection", cause);
+    }
+  }
+
+  @RestLiCollection(name = "limited", maxConcurrentRequests = 2)
+  public static class LimitedResource extends CollectionResourceTemplate<Long, EmptyRecord>
+  {
+    @Override
+    public EmptyRecord get(Long key)
+    {
+      return new EmptyRecord();
+    }
+  }
+}
@@ -312,8 +312,8 @@ public class TestBatchGetResponseBuilder
   {
     ServerResourceContext mockContext = EasyMock.createMock(ServerResourceContext.class);
     EasyMock.expect(mockContext.getBatchKeyErrors()).andReturn(exceptions).once();
-    EasyMock.expect(mockContext.getProjectionMode()).andReturn(projectionMode).times(2);
-    EasyMock.expect(mockContext.getProjectionMask()).andReturn(maskTree).times(2);
+    EasyMock.expect(mockContext.getProjectionMode()).andReturn(projectionMode).once();
+    EasyMock.expect(mockContext.getProjectionMask()).andReturn(maskTree).once();
     EasyMock.expect(mockContext.getRestliProtocolVersion()).andReturn(protocolVersion).once();
     EasyMock.replay(mockContext);
     return mockContext;
@@ -251,8 +251,8 @@ public class TestCollectionResponseBuilder
     EasyMock.expect(mockContext.getRawRequest()).andReturn(getRestRequest()).once();
 
     //Field Projection
-    EasyMock.expect(mockContext.getProjectionMode()).andReturn(dataProjectionMode).times(generateTestList().size());
-    EasyMock.expect(mockContext.getProjectionMask()).andReturn(dataMaskTree).times(generateTestList().size());
+    EasyMock.expect(mockContext.getProjectionMode()).andReturn(dataProjectionMode).once();
+    EasyMock.expect(mockContext.getProjectionMask()).andReturn(dataMaskTree).once();
 
     //Metadata Projection
     EasyMock.expect(mockContext.getMetadataProjectionMode()).andReturn(metadataProjectionMode).anyTimes();
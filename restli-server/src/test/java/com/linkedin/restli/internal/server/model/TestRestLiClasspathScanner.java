@@ -0,0 +1,158 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.model;
+
+
+import com.linkedin.restli.common.EmptyRecord;
+import com.linkedin.restli.server.annotations.RestLiCollection;
+import com.linkedin.restli.server.resources.CollectionResourceTemplate;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Enumeration;
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+
+public class TestRestLiClasspathScanner
+{
+  @RestLiCollection(name = "indexed")
+  public static class IndexedResource extends CollectionResourceTemplate<Long, EmptyRecord> {}
+
+  public static class NotAResource {}
+
+  private static final String PACKAGE_NAME = TestRestLiClasspathScanner.class.getPackage().getName();
+
+  private File _root;
+
+  @BeforeMethod
+  public void setUp() throws IOException
+  {
+    _root = File.createTempFile(getClass().getSimpleName(), "");
+    Assert.assertTrue(_root.delete() && _root.mkdir());
+    Assert.assertTrue(new File(_root, PACKAGE_NAME.replace('.', File.separatorChar)).mkdirs());
+  }
+
+  @AfterMethod
+  public void tearDown() throws IOException
+  {
+    FileUtils.deleteDirectory(_root);
+  }
+
+  @Test
+  public void testScanDirectory() throws IOException
+  {
+    final String classFile = IndexedResource.class.getName().replace('.', '/') + RestLiClasspathScanner.CLASS_SUFFIX;
+    final InputStream in = getClass().getClassLoader().getResourceAsStream(classFile);
+    final OutputStream out = new FileOutputStream(new File(_root, classFile));
+    try
+    {
+      IOUtils.copy(in, out);
+    }
+    finally
+    {
+      in.close();
+      out.close();
+    }
+
+    final RestLiClasspathScanner scanner = scan(false);
+    Assert.assertEquals(scanner.getMatchedClasses(), Collections.<Class<?>>singleton(IndexedResource.class));
+  }
+
+  @Test
+  public void testScanIndex() throws IOException
+  {
+    // the root has no class files, only the index
+    writeIndex();
+
+    final RestLiClasspathScanner scanner = scan(true);
+    Assert.assertEquals(scanner.getMatchedClasses(), Collections.<Class<?>>singleton(IndexedResource.class));
+  }
+
+  @Test
+  public void testIndexDisabled() throws IOException
+  {
+    // the index is ignored and the root, which has no class files, is scanned
+    writeIndex();
+
+    final RestLiClasspathScanner scanner = scan(false);
+    Assert.assertTrue(scanner.getMatchedClasses().isEmpty());
+  }
+
+  @Test
+  public void testIndexProcessor() throws IOException
+  {
+    final String className = PACKAGE_NAME + ".CompiledResource";
+    final File source = new File(_root, className.replace('.', File.separatorChar) + ".java");
+    FileUtils.writeStringToFile(source,
+                                "package " + PACKAGE_NAME + ";\n" +
+                                "@" + RestLiCollection.class.getName() + "(name = \"compiled\")\n" +
+                                "public class CompiledResource extends " + CollectionResourceTemplate.class.getName() +
+                                "<Long, " + EmptyRecord.class.getName() + "> {}\n",
+                                "UTF-8");
+
+    final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    final int result = compiler.run(null, null, null,
+                                    "-classpath", System.getProperty("java.class.path"),
+                                    "-processor", RestLiResourceIndexProcessor.class.getName(),
+                                    "-d", _root.getPath(),
+                                    source.getPath());
+    Assert.assertEquals(result, 0);
+
+    final File index = new File(_root, RestLiResourceIndexProcessor.INDEX_RESOURCE);
+    Assert.assertEquals(FileUtils.readLines(index, "UTF-8"), Collections.singletonList(className));
+  }
+
+  private void writeIndex() throws IOException
+  {
+    final File index = new File(_root, RestLiResourceIndexProcessor.INDEX_RESOURCE);
+    FileUtils.writeStringToFile(index,
+                                IndexedResource.class.getName() + "\n" + NotAResource.class.getName() + "\n" + "com.linkedin.other.Resource\n",
+                                "UTF-8");
+  }
+
+  private RestLiClasspathScanner scan(boolean resourceIndexEnabled) throws IOException
+  {
+    final URL packageUrl = new File(_root, PACKAGE_NAME.replace('.', File.separatorChar)).toURI().toURL();
+    final ClassLoader classLoader = new ClassLoader(getClass().getClassLoader())
+    {
+      @Override
+      public Enumeration<URL> getResources(String name)
+      {
+        return Collections.enumeration(Collections.singletonList(packageUrl));
+      }
+    };
+
+    final RestLiClasspathScanner scanner =
+        new RestLiClasspathScanner(Collections.singleton(PACKAGE_NAME),
+                                   Collections.<String>emptySet(),
+                                   classLoader,
+                                   resourceIndexEnabled);
+    scanner.scanPackages();
+    return scanner;
+  }
+}
@@ -0,0 +1,141 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.util;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestBatchProcessor
+{
+  @BeforeClass
+  public void setUp()
+  {
+    _executor = Executors.newFixedThreadPool(4);
+  }
+
+  @AfterClass
+  public void tearDown()
+  {
+    _executor.shutdownNow();
+  }
+
+  @DataProvider
+  public Object[][] batchSizes()
+  {
+    return new Object[][] { { 0 }, { 1 }, { 9 }, { 10 }, { 19 }, { 20 }, { 21 }, { 1000 }, { 1003 } };
+  }
+
+  @Test(dataProvider = "batchSizes")
+  public void testOrder(int size)
+  {
+    final List<Integer> items = new ArrayList<Integer>(size);
+    for (int i = 0; i < size; ++i)
+    {
+      items.add(i);
+    }
+
+    final List<String> results = new BatchProcessor(_executor, 10).process(items, new BatchProcessor.ItemProcessor<Integer, String>()
+    {
+      @Override
+      public String process(Integer item)
+      {
+        return "item" + item;
+      }
+    });
+
+    Assert.assertEquals(results.size(), size);
+    for (int i = 0; i < size; ++i)
+    {
+      Assert.assertEquals(results.get(i), "item" + i);
+    }
+    // results can be modified by the caller
+    results.add("extra");
+  }
+
+  @Test
+  public void testSmallBatchOnCallingThread()
+  {
+    final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+    final BatchProcessor.ItemProcessor<Integer, Integer> processor = new BatchProcessor.ItemProcessor<Integer, Integer>()
+    {
+      @Override
+      public Integer process(Integer item)
+      {
+        threads.add(Thread.currentThread());
+        return item;
+      }
+    };
+
+    new BatchProcessor(_executor, 10).process(Collections.nCopies(19, 1), processor);
+    Assert.assertEquals(threads, Collections.singleton(Thread.currentThread()));
+
+    new BatchProcessor(null, 10).process(Collections.nCopies(1000, 1), processor);
+    Assert.assertEquals(threads, Collections.singleton(Thread.currentThread()));
+  }
+
+  @Test
+  public void testFailureOfLowestIndex()
+  {
+    final List<Integer> items = new ArrayList<Integer>();
+    for (int i = 0; i < 1000; ++i)
+    {
+      items.add(i);
+    }
+
+    try
+    {
+      new BatchProcessor(_executor, 10).process(items, new BatchProcessor.ItemProcessor<Integer, Integer>()
+      {
+        @Override
+        public Integer process(Integer item)
+        {
+          if (item == 457 || item == 900)
+          {
+            throw new IllegalArgumentException("item" + item);
+          }
+          return item;
+        }
+      });
+      Assert.fail("Expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException e)
+    {
+      Assert.assertEquals(e.getMessage(), "item457");
+    }
+  }
+
+  @Test(expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidThreshold()
+  {
+    new BatchProcessor(_executor, 0);
+  }
+
+  private ExecutorService _executor;
+}
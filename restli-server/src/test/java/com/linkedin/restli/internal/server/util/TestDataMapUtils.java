@@ -0,0 +1,91 @@
+/*
+   Copyright (c) 2015 LinkedIn Corp.
+
+   Licensed under the Apache License, Version 2.0 (the "License");
+   you may not use this file except in compliance with the License.
+   You may obtain a copy of the License at
+
+       http://www.apache.org/licenses/LICENSE-2.0
+
+   Unless required by applicable law or agreed to in writing, software
+   distributed under the License is distributed on an "AS IS" BASIS,
+   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+   See the License for the specific language governing permissions and
+   limitations under the License.
+*/
+
+package com.linkedin.restli.internal.server.util;
+
+
+import com.linkedin.data.ByteString;
+import com.linkedin.data.Data;
+import com.linkedin.data.DataMap;
+import com.linkedin.r2.message.rest.RestRequest;
+import com.linkedin.r2.message.rest.RestRequestBuilder;
+import com.linkedin.restli.common.RestConstants;
+
+import java.net.URI;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class TestDataMapUtils
+{
+  private static final String JSON = "{ \"a\" : 1, \"b\" : { \"c\" : [ \"d\" ] } }";
+
+  private String _lazyJsonDecoding;
+
+  @BeforeMethod
+  public void clearProperty()
+  {
+    _lazyJsonDecoding = System.clearProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY);
+  }
+
+  @AfterMethod
+  public void restoreProperty()
+  {
+    if (_lazyJsonDecoding == null)
+    {
+      System.clearProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY);
+    }
+    else
+    {
+      System.setProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY, _lazyJsonDecoding);
+    }
+  }
+
+  @DataProvider
+  private static Object[][] jsonRequests()
+  {
+    final RestRequestBuilder builder = new RestRequestBuilder(URI.create("/foo"))
+      .setMethod("POST")
+      .setEntity(ByteString.copyString(JSON, Data.UTF_8_CHARSET));
+    return new Object[][] {
+      { builder.build() },
+      { builder.setHeader(RestConstants.HEADER_CONTENT_TYPE, "application/json; charset=UTF-8").build() }
+    };
+  }
+
+  @Test(dataProvider = "jsonRequests")
+  public void testEagerJsonDecoding(RestRequest request)
+  {
+    final DataMap map = DataMapUtils.readMap(request);
+    Assert.assertNull(map.getLazyStorage());
+    Assert.assertEquals(map.getDataMap("b").getDataList("c").get(0), "d");
+  }
+
+  @Test(dataProvider = "jsonRequests")
+  public void testLazyJsonDecoding(RestRequest request)
+  {
+    System.setProperty(RestConstants.RESTLI_LAZY_JSON_DECODING_PROPERTY, "true");
+    final DataMap map = DataMapUtils.readMap(request);
+    Assert.assertNotNull(map.getLazyStorage());
+    Assert.assertEquals(map.getInteger("a"), Integer.valueOf(1));
+    Assert.assertEquals(map.getDataMap("b").getDataList("c").get(0), "d");
+    Assert.assertEquals(map, DataMapUtils.readMap(request.getEntity().asInputStream()));
+  }
+}
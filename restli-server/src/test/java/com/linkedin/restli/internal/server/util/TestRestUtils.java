@@ -38,6 +38,7 @@ public class TestRestUtils
 {
   private static final String JSON_TYPE = "application/json";
   private static final String PSON_TYPE = "application/x-pson";
+  private static final String SCHEMA_BINARY_TYPE = "application/x-schema-binary";
   private static final String EMPTY_TYPE = "";
   private static final String HTML_HEADER = "text/html";
   private static final String UNKNOWN_TYPE_HEADER = "foo/bar";
@@ -50,6 +51,8 @@ public class TestRestUtils
   private static final String UNKNOWN_TYPE_HEADER_WITH_VALID_PARAMS_JSON = "foo/bar; level=1, application/json";
   private static final String JSON_HEADER = "application/json";
   private static final String PSON_HEADER = "application/x-pson";
+  private static final String SCHEMA_BINARY_HEADER = "application/x-schema-binary";
+  private static final String ANY_HEADER = "*/*";
   private static final String INVALID_TYPE_HEADER_1 = "foo";
   private static final String INVALID_TYPE_HEADER_2 = "foo, bar, baz";
   private static final String INVALID_TYPES_JSON_HEADER = "foo, bar, baz, application/json";
@@ -58,7 +61,8 @@ public class TestRestUtils
   @DataProvider(name = "successfulMatch")
   public Object[][] provideSuccessfulMatchData()
   {
-    return new Object[][] { { JSON_HEADER, JSON_TYPE }, { PSON_HEADER, PSON_TYPE }, { HTML_HEADER, EMPTY_TYPE },
+    return new Object[][] { { JSON_HEADER, JSON_TYPE }, { PSON_HEADER, PSON_TYPE },
+        { SCHEMA_BINARY_HEADER, SCHEMA_BINARY_TYPE }, { ANY_HEADER, JSON_TYPE }, { HTML_HEADER, EMPTY_TYPE },
         { UNKNOWN_TYPE_HEADER, EMPTY_TYPE }, { UNKNOWN_TYPE_HEADER_WITH_INVALID_PARAMS, EMPTY_TYPE },
         { UNKNOWN_TYPE_HEADER_WITH_UNKNOWN_PARAMS, EMPTY_TYPE }, { UNKNOWN_TYPE_HEADER_WITH_VALID_PARAMS, EMPTY_TYPE },
         { UNKNOWN_TYPE_HEADER_JSON, JSON_TYPE }, { UNKNOWN_TYPE_HEADER_WITH_INVALID_PARAMS_JSON, JSON_TYPE },
@@ -18,19 +18,30 @@
 package com.linkedin.restli.server;
 
 import com.linkedin.common.callback.Callback;
+import com.linkedin.common.callback.FutureCallback;
+import com.linkedin.common.stats.LongStats;
+import com.linkedin.data.ByteString;
 import com.linkedin.data.DataMap;
+import com.linkedin.data.template.StringMap;
 import com.linkedin.parseq.Engine;
+import com.linkedin.parseq.EngineBuilder;
 import com.linkedin.r2.message.RequestContext;
 import com.linkedin.r2.message.rest.RestException;
 import com.linkedin.r2.message.rest.RestRequest;
 import com.linkedin.r2.message.rest.RestRequestBuilder;
 import com.linkedin.r2.message.rest.RestResponse;
 import com.linkedin.r2.message.rest.RestResponseBuilder;
+import com.linkedin.restli.common.CompoundKey;
 import com.linkedin.restli.common.ErrorResponse;
+import com.linkedin.restli.common.HttpMethod;
 import com.linkedin.restli.common.HttpStatus;
 import com.linkedin.restli.common.ProtocolVersion;
 import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.common.TestProtocolVersionUtil;
+import com.linkedin.restli.common.multiplexer.IndividualRequest;
+import com.linkedin.restli.common.multiplexer.IndividualRequestArray;
+import com.linkedin.restli.common.multiplexer.MultiplexedRequestContent;
+import com.linkedin.restli.common.multiplexer.MultiplexedResponseContent;
 import com.linkedin.restli.internal.common.AllProtocolVersions;
 import com.linkedin.restli.internal.common.ProtocolVersionUtil;
 import com.linkedin.restli.internal.common.TestConstants;
@@ -43,7 +54,9 @@ import com.linkedin.restli.server.filter.ResponseFilter;
 import com.linkedin.restli.server.resources.BaseResource;
 import com.linkedin.restli.server.test.EasyMockResourceFactory;
 import com.linkedin.restli.server.twitter.AsyncStatusCollectionResource;
+import com.linkedin.restli.server.twitter.FollowsAssociativeResource;
 import com.linkedin.restli.server.twitter.StatusCollectionResource;
+import com.linkedin.restli.server.twitter.TwitterTestDataModels.Followed;
 import com.linkedin.restli.server.twitter.TwitterTestDataModels.Status;
 
 import java.io.ByteArrayOutputStream;
@@ -51,9 +64,22 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.io.IOUtils;
 import org.easymock.EasyMock;
@@ -775,6 +801,294 @@ public class TestRestLiServer
     _server.handleRequest(request, new RequestContext(), callback);
   }
 
+  @Test
+  public void testPhaseTimings() throws Exception
+  {
+    RestLiConfig config = new RestLiConfig();
+    config.addResourcePackageNames("com.linkedin.restli.server.twitter");
+    config.setPhaseTimingsHeaderEnabled(true);
+    RestLiServer server = new RestLiServer(config, _resourceFactory, EasyMock.createMock(Engine.class));
+    assertTrue(server.getPhaseStats().isEmpty());
+
+    final StatusCollectionResource statusResource = getMockResource(StatusCollectionResource.class);
+    EasyMock.expect(statusResource.get(eq(1L))).andReturn(buildStatusRecord()).once();
+    statusResource.setContext((ResourceContext) EasyMock.anyObject());
+    EasyMock.expectLastCall().once();
+    EasyMock.expect(statusResource.get(eq(2L))).andReturn(null).once();
+    EasyMock.replay(statusResource);
+
+    final String timingsPattern =
+        "routing;dur=\\d+\\.\\d{3}, argumentBuilding;dur=\\d+\\.\\d{3}, requestFilters;dur=\\d+\\.\\d{3}, " +
+        "resource;dur=\\d+\\.\\d{3}, responseBuilding;dur=\\d+\\.\\d{3}, responseFilters;dur=\\d+\\.\\d{3}, " +
+        "responseEncoding;dur=\\d+\\.\\d{3}";
+    final int[] responseCount = new int[1];
+    Callback<RestResponse> callback = new Callback<RestResponse>()
+    {
+      @Override
+      public void onSuccess(RestResponse restResponse)
+      {
+        assertEquals(restResponse.getStatus(), 200);
+        assertTrue(restResponse.getHeader(RestConstants.HEADER_RESTLI_PHASE_TIMINGS).matches(timingsPattern),
+                   restResponse.getHeader(RestConstants.HEADER_RESTLI_PHASE_TIMINGS));
+        ++responseCount[0];
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        RestResponse restResponse = ((RestException) e).getResponse();
+        assertEquals(restResponse.getStatus(), 404);
+        assertTrue(restResponse.getHeader(RestConstants.HEADER_RESTLI_PHASE_TIMINGS).matches(timingsPattern),
+                   restResponse.getHeader(RestConstants.HEADER_RESTLI_PHASE_TIMINGS));
+        ++responseCount[0];
+      }
+    };
+
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/1")).build(), new RequestContext(), callback);
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/2")).build(), new RequestContext(), callback);
+    assertEquals(responseCount[0], 2);
+    EasyMock.verify(statusResource);
+    EasyMock.reset(statusResource);
+
+    List<ResourceMethodPhaseStats> stats = server.getPhaseStats();
+    assertEquals(stats.size(), 1);
+    assertEquals(stats.get(0).getResource(), "statuses");
+    assertEquals(stats.get(0).getMethod(), "get");
+    assertEquals(stats.get(0).getCount(), 2);
+    assertEquals(stats.get(0).getPhaseLatencies().keySet(), EnumSet.allOf(RequestPhase.class));
+    for (LongStats phaseStats : stats.get(0).getPhaseLatencies().values())
+    {
+      assertEquals(phaseStats.getCount(), 2);
+      assertTrue(phaseStats.getMaximum() <= stats.get(0).getLatency().getMaximum());
+    }
+  }
+
+  @Test
+  public void testBlockingResourceExecutor() throws Exception
+  {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    RestLiConfig config = new RestLiConfig();
+    config.addResourcePackageNames("com.linkedin.restli.server.twitter");
+    config.setBlockingResourceExecutor(executor);
+    RestLiServer server = new RestLiServer(config, _resourceFactory, EasyMock.createMock(Engine.class));
+
+    final StatusCollectionResource statusResource = getMockResource(StatusCollectionResource.class);
+    final AtomicReference<Thread> resourceThread = new AtomicReference<Thread>();
+    EasyMock.expect(statusResource.get(eq(1L))).andAnswer(new IAnswer<Status>()
+    {
+      @Override
+      public Status answer() throws Throwable
+      {
+        resourceThread.set(Thread.currentThread());
+        return buildStatusRecord();
+      }
+    }).once();
+    EasyMock.replay(statusResource);
+
+    final BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/1")).build(), new RequestContext(), new Callback<RestResponse>()
+    {
+      @Override
+      public void onSuccess(RestResponse restResponse)
+      {
+        results.add(restResponse);
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        results.add(e);
+      }
+    });
+
+    Object result = results.poll(10, TimeUnit.SECONDS);
+    assertTrue(result instanceof RestResponse, String.valueOf(result));
+    assertEquals(((RestResponse) result).getStatus(), 200);
+    assertTrue(resourceThread.get() != Thread.currentThread());
+    EasyMock.verify(statusResource);
+    EasyMock.reset(statusResource);
+
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+    List<BlockingResourceStats> stats = server.getBlockingResourceStats();
+    assertEquals(stats.size(), 1);
+    assertEquals(stats.get(0).getResource(), "statuses");
+    assertEquals(stats.get(0).getCompletedCount(), 1);
+    assertEquals(stats.get(0).getRunningCount(), 0);
+  }
+
+  @Test
+  public void testGetCoalescing() throws Exception
+  {
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    RestLiConfig config = new RestLiConfig();
+    config.addResourcePackageNames("com.linkedin.restli.server.twitter");
+    config.setGetCoalescingExecutor(executor);
+    config.setGetCoalescingDelayMicros(TimeUnit.MILLISECONDS.toMicros(500));
+    RestLiServer server = new RestLiServer(config, _resourceFactory, EasyMock.createMock(Engine.class));
+
+    // concurrent GETs are coalesced into a BATCH_GET, a lone GET calls GET
+    final StatusCollectionResource statusResource = getMockResource(StatusCollectionResource.class);
+    statusResource.setContext((ResourceContext) EasyMock.anyObject());
+    EasyMock.expectLastCall().times(2);
+    Map<Long, Status> batchResult = new HashMap<Long, Status>();
+    batchResult.put(1L, buildStatusRecord());
+    EasyMock.expect(statusResource.batchGet(eq(new HashSet<Long>(Arrays.asList(1L, 2L))))).andReturn(batchResult).once();
+    EasyMock.expect(statusResource.get(eq(3L))).andReturn(buildStatusRecord()).once();
+    EasyMock.replay(statusResource);
+
+    final BlockingQueue<Object> results = new LinkedBlockingQueue<Object>();
+    Callback<RestResponse> callback = new Callback<RestResponse>()
+    {
+      @Override
+      public void onSuccess(RestResponse restResponse)
+      {
+        results.add(restResponse);
+      }
+
+      @Override
+      public void onError(Throwable e)
+      {
+        results.add(((RestException) e).getResponse());
+      }
+    };
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/1")).build(), new RequestContext(), callback);
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/2")).build(), new RequestContext(), callback);
+
+    Set<Integer> statuses = new HashSet<Integer>();
+    for (int i = 0; i < 2; i++)
+    {
+      Object result = results.poll(10, TimeUnit.SECONDS);
+      assertTrue(result instanceof RestResponse, String.valueOf(result));
+      statuses.add(((RestResponse) result).getStatus());
+    }
+    // the key missing from the BATCH_GET result is not found
+    assertEquals(statuses, new HashSet<Integer>(Arrays.asList(200, 404)));
+
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/3")).build(), new RequestContext(), callback);
+    Object result = results.poll(10, TimeUnit.SECONDS);
+    assertTrue(result instanceof RestResponse, String.valueOf(result));
+    assertEquals(((RestResponse) result).getStatus(), 200);
+
+    EasyMock.verify(statusResource);
+
+    // GETs with different headers do not share a context and are not coalesced
+    EasyMock.reset(statusResource);
+    statusResource.setContext((ResourceContext) EasyMock.anyObject());
+    EasyMock.expectLastCall().times(2);
+    EasyMock.expect(statusResource.get(eq(4L))).andReturn(buildStatusRecord()).once();
+    EasyMock.expect(statusResource.get(eq(5L))).andReturn(buildStatusRecord()).once();
+    EasyMock.replay(statusResource);
+
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/4")).setHeader("X-Test", "a").build(),
+                         new RequestContext(), callback);
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/5")).setHeader("X-Test", "b").build(),
+                         new RequestContext(), callback);
+    assertResponseStatuses(results, 200, 200);
+    EasyMock.verify(statusResource);
+
+    // a failing BATCH_GET fails every coalesced GET
+    EasyMock.reset(statusResource);
+    statusResource.setContext((ResourceContext) EasyMock.anyObject());
+    EasyMock.expectLastCall().times(2);
+    EasyMock.expect(statusResource.batchGet(eq(new HashSet<Long>(Arrays.asList(6L, 7L)))))
+        .andThrow(new IllegalStateException("broken")).once();
+    EasyMock.replay(statusResource);
+
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/6")).build(), new RequestContext(), callback);
+    server.handleRequest(new RestRequestBuilder(new URI("/statuses/7")).build(), new RequestContext(), callback);
+    assertResponseStatuses(results, 500, 500);
+    EasyMock.verify(statusResource);
+    EasyMock.reset(statusResource);
+
+    // resources that do not opt in are never coalesced
+    final FollowsAssociativeResource followsResource = getMockResource(FollowsAssociativeResource.class);
+    followsResource.setContext((ResourceContext) EasyMock.anyObject());
+    EasyMock.expectLastCall().once();
+    EasyMock.expect(followsResource.get((CompoundKey) EasyMock.anyObject())).andReturn(new Followed(new DataMap())).times(2);
+    EasyMock.replay(followsResource);
+
+    server.handleRequest(new RestRequestBuilder(new URI("/follows/followerID=1&followeeID=2")).build(),
+                         new RequestContext(), callback);
+    server.handleRequest(new RestRequestBuilder(new URI("/follows/followerID=1&followeeID=3")).build(),
+                         new RequestContext(), callback);
+    assertResponseStatuses(results, 200, 200);
+    EasyMock.verify(followsResource);
+    EasyMock.reset(followsResource);
+
+    executor.shutdown();
+  }
+
+  @Test
+  public void testNestedMultiplexedRequests() throws Exception
+  {
+    // the inner multiplexed request is handled when the parallelism is not limited, and rejected otherwise
+    assertEquals(handleNestedMultiplexedRequest(0), HttpStatus.S_200_OK.getCode());
+    assertEquals(handleNestedMultiplexedRequest(2), HttpStatus.S_400_BAD_REQUEST.getCode());
+  }
+
+  private int handleNestedMultiplexedRequest(int multiplexerMaxParallelism) throws Exception
+  {
+    ExecutorService taskScheduler = Executors.newFixedThreadPool(1);
+    ScheduledExecutorService timerScheduler = Executors.newSingleThreadScheduledExecutor();
+    Engine engine = new EngineBuilder().setTaskExecutor(taskScheduler).setTimerScheduler(timerScheduler).build();
+    RestLiConfig config = new RestLiConfig();
+    config.addResourcePackageNames("com.linkedin.restli.server.twitter");
+    config.setMultiplexerMaxParallelism(multiplexerMaxParallelism);
+    RestLiServer server = new RestLiServer(config, _resourceFactory, engine);
+
+    try
+    {
+      IndividualRequest innerRequest = new IndividualRequest();
+      innerRequest.setId(0);
+      innerRequest.setMethod(HttpMethod.GET.name());
+      innerRequest.setRelativeUrl("/nonexistent");
+      MultiplexedRequestContent innerContent = new MultiplexedRequestContent();
+      innerContent.setRequests(new IndividualRequestArray(Collections.singletonList(innerRequest)));
+
+      IndividualRequest outerRequest = new IndividualRequest();
+      outerRequest.setId(0);
+      outerRequest.setMethod(HttpMethod.POST.name());
+      outerRequest.setRelativeUrl("/mux");
+      outerRequest.setHeaders(new StringMap(Collections.singletonMap(RestConstants.HEADER_CONTENT_TYPE,
+                                                                     RestConstants.HEADER_VALUE_APPLICATION_JSON)));
+      outerRequest.setBody(ByteString.copy(DataMapUtils.mapToBytes(innerContent.data())));
+      MultiplexedRequestContent outerContent = new MultiplexedRequestContent();
+      outerContent.setRequests(new IndividualRequestArray(Collections.singletonList(outerRequest)));
+
+      RestRequest request = new RestRequestBuilder(new URI("/mux"))
+          .setMethod(HttpMethod.POST.name())
+          .setHeader(RestConstants.HEADER_CONTENT_TYPE, RestConstants.HEADER_VALUE_APPLICATION_JSON)
+          .setEntity(DataMapUtils.mapToBytes(outerContent.data()))
+          .build();
+      FutureCallback<RestResponse> callback = new FutureCallback<RestResponse>();
+      server.handleRequest(request, new RequestContext(), callback);
+
+      MultiplexedResponseContent responseContent =
+          new MultiplexedResponseContent(DataMapUtils.readMap(callback.get(10, TimeUnit.SECONDS)));
+      return responseContent.getResponses().get(0).getStatus();
+    }
+    finally
+    {
+      engine.shutdown();
+      taskScheduler.shutdownNow();
+      timerScheduler.shutdownNow();
+    }
+  }
+
+  private static void assertResponseStatuses(BlockingQueue<Object> results, Integer... expected)
+      throws InterruptedException
+  {
+    List<Integer> statuses = new ArrayList<Integer>();
+    for (int i = 0; i < expected.length; i++)
+    {
+      Object result = results.poll(10, TimeUnit.SECONDS);
+      assertTrue(result instanceof RestResponse, String.valueOf(result));
+      statuses.add(((RestResponse) result).getStatus());
+    }
+    assertEquals(statuses, Arrays.asList(expected));
+  }
+
   private <R extends BaseResource> R getMockResource(Class<R> resourceClass)
   {
     R resource = _resourceFactory.getMock(resourceClass);
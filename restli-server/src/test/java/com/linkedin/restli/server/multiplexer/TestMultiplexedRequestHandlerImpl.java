@@ -18,6 +18,7 @@ package com.linkedin.restli.server.multiplexer;
 
 
 import com.google.common.collect.ImmutableMap;
+import com.linkedin.common.callback.Callback;
 import com.linkedin.common.callback.FutureCallback;
 import com.linkedin.data.ByteString;
 import com.linkedin.data.DataMap;
@@ -47,12 +48,19 @@ import org.testng.annotations.Test;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import static org.easymock.EasyMock.*;
 import static org.testng.Assert.*;
@@ -233,6 +241,54 @@ public class TestMultiplexedRequestHandlerImpl
     verify(mockHandler);
   }
 
+  @Test
+  public void testMaxParallelism() throws Exception
+  {
+    AsyncRequestHandler handler = new AsyncRequestHandler();
+    MultiplexedRequestHandlerImpl multiplexer = createMultiplexer(handler, 1);
+    RequestContext requestContext = new RequestContext();
+
+    IndividualRequest indRequest0 = fakeIndRequest(0, FOO_URL);
+    IndividualRequest indRequest1 = fakeIndRequest(1, BAR_URL);
+    IndividualRequest indRequest2 = fakeIndRequest(2, FOO_URL);
+    indRequest0.setDependentRequests(new IndividualRequestArray(Collections.singleton(indRequest2)));
+    RestRequest request = fakeMuxRestRequest(indRequest0, indRequest1);
+
+    FutureCallback<RestResponse> callback = new FutureCallback<RestResponse>();
+
+    multiplexer.handleRequest(request, requestContext, callback);
+
+    // the other requests are not dispatched until the running one completes
+    List<PendingRequest> completed = new ArrayList<PendingRequest>();
+    for (int i = 0; i < 3; i++)
+    {
+      PendingRequest pending = handler.take();
+      assertNull(handler.poll());
+      boolean foo = FOO_URL.equals(pending._request.getURI().toString());
+      pending._callback.onSuccess(fakeIndRestResponse(foo ? FOO_ENTITY : BAR_ENTITY));
+      completed.add(pending);
+    }
+
+    RestResponse muxRestResponse = callback.get();
+    MultiplexedResponseContent content = new MultiplexedResponseContent(CODEC.bytesToMap(muxRestResponse.getEntity().copyBytes()));
+    Map<Integer, IndividualResponse> responses = new HashMap<Integer, IndividualResponse>();
+    for (IndividualResponse response : content.getResponses())
+    {
+      responses.put(response.getId(), response);
+    }
+    assertEquals(responses.size(), 3);
+    assertEquals(responses.get(0).getBody(), FOO_ENTITY);
+    assertEquals(responses.get(1).getBody(), BAR_ENTITY);
+    assertEquals(responses.get(2).getBody(), FOO_ENTITY);
+
+    // the individual requests do not share their local attributes
+    for (PendingRequest pending : completed)
+    {
+      assertEquals(pending._requestContext.getLocalAttr("url"), pending._request.getURI().toString());
+    }
+    assertTrue(requestContext.getLocalAttrs().isEmpty());
+  }
+
   private Throwable getError(FutureCallback<RestResponse> future) throws InterruptedException
   {
     try
@@ -255,6 +311,11 @@ public class TestMultiplexedRequestHandlerImpl
   }
 
   private MultiplexedRequestHandlerImpl createMultiplexer(RestRequestHandler requestHandler)
+  {
+    return createMultiplexer(requestHandler, 0);
+  }
+
+  private MultiplexedRequestHandlerImpl createMultiplexer(RestRequestHandler requestHandler, int maxParallelism)
   {
     ExecutorService taskScheduler = Executors.newFixedThreadPool(1);
     ScheduledExecutorService timerScheduler = Executors.newSingleThreadScheduledExecutor();
@@ -263,7 +324,7 @@ public class TestMultiplexedRequestHandlerImpl
         .setTimerScheduler(timerScheduler)
         .build();
 
-    return new MultiplexedRequestHandlerImpl(requestHandler, engine);
+    return new MultiplexedRequestHandlerImpl(requestHandler, engine, maxParallelism);
   }
 
   private IndividualRequest fakeIndRequest(int id, String url)
@@ -345,4 +406,45 @@ public class TestMultiplexedRequestHandlerImpl
       throw new RuntimeException(e);
     }
   }
+
+  /**
+   * Keeps the individual requests pending until the test completes their callbacks.
+   */
+  private static class AsyncRequestHandler implements RestRequestHandler
+  {
+    private final BlockingQueue<PendingRequest> _pendingRequests = new LinkedBlockingQueue<PendingRequest>();
+
+    @Override
+    public void handleRequest(RestRequest request, RequestContext requestContext, Callback<RestResponse> callback)
+    {
+      requestContext.putLocalAttr("url", request.getURI().toString());
+      _pendingRequests.add(new PendingRequest(request, requestContext, callback));
+    }
+
+    private PendingRequest take() throws InterruptedException
+    {
+      PendingRequest pending = _pendingRequests.poll(5, TimeUnit.SECONDS);
+      assertNotNull(pending);
+      return pending;
+    }
+
+    private PendingRequest poll() throws InterruptedException
+    {
+      return _pendingRequests.poll(100, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private static class PendingRequest
+  {
+    private final RestRequest _request;
+    private final RequestContext _requestContext;
+    private final Callback<RestResponse> _callback;
+
+    private PendingRequest(RestRequest request, RequestContext requestContext, Callback<RestResponse> callback)
+    {
+      _request = request;
+      _requestContext = requestContext;
+      _callback = callback;
+    }
+  }
 }
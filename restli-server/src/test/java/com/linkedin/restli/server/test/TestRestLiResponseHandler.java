@@ -22,6 +22,7 @@ import com.linkedin.data.DataMap;
 import com.linkedin.data.codec.DataCodec;
 import com.linkedin.data.codec.JacksonDataCodec;
 import com.linkedin.data.codec.PsonDataCodec;
+import com.linkedin.data.codec.SchemaBinaryDataCodec;
 import com.linkedin.data.schema.RecordDataSchema;
 import com.linkedin.data.template.DataTemplateUtil;
 import com.linkedin.data.template.DynamicRecordMetadata;
@@ -179,6 +180,29 @@ public class TestRestLiResponseHandler
     }
   }
 
+  @Test
+  public void testSchemaBinaryAcceptHeader() throws Exception
+  {
+    Map<String, String> acceptHeaders = Collections.singletonMap("Accept", RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY);
+    SchemaBinaryDataCodec codec = new SchemaBinaryDataCodec();
+    RecordDataSchema statusSchema = buildStatusRecord().schema();
+
+    RestResponse response = invokeResponseHandler("/test", buildStatusRecord(), ResourceMethod.GET,
+                                                  acceptHeaders, AllProtocolVersions.LATEST_PROTOCOL_VERSION);
+    assertEquals(response.getHeader(RestConstants.HEADER_CONTENT_TYPE), RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY);
+    assertEquals(codec.bytesToMap(response.getEntity().copyBytes(), statusSchema), buildStatusRecord().data());
+
+    Map<Long, Status> map = new HashMap<Long, Status>();
+    map.put(1L, buildStatusRecord());
+    map.put(2L, buildStatusRecord());
+    response = invokeResponseHandler("/test", map, ResourceMethod.BATCH_GET,
+                                     acceptHeaders, AllProtocolVersions.LATEST_PROTOCOL_VERSION);
+    assertEquals(response.getHeader(RestConstants.HEADER_CONTENT_TYPE), RestConstants.HEADER_VALUE_APPLICATION_SCHEMA_BINARY);
+    DataMap results = codec.bytesToMap(response.getEntity().copyBytes(), statusSchema).getDataMap(BatchResponse.RESULTS);
+    assertEquals(results.size(), 2);
+    assertEquals(results.getDataMap("1"), buildStatusRecord().data());
+  }
+
   @DataProvider(name = TestConstants.RESTLI_PROTOCOL_1_2_PREFIX + "statusData")
   public Object[][] statusData()
   {
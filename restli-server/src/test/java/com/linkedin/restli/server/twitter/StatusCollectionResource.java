@@ -48,7 +48,8 @@ import java.util.Set;
  * @author dellamag
  */
 @RestLiCollection(name="statuses",
-                    keyName="statusID")
+                    keyName="statusID",
+                    coalesceGets=true)
 public class StatusCollectionResource extends CollectionResourceTemplate<Long,Status>
 {
   /**
@@ -198,6 +198,11 @@ public class JavaRequestBuilderGenerator extends JavaCodeGeneratorBase
     return _generatedArrayClasses.contains(clazz);
   }
 
+  public DataSchemaResolver getSchemaResolver()
+  {
+    return _schemaResolver;
+  }
+
   public TemplateSpecGenerator getSpecGenerator()
   {
     return _specGenerator;
@@ -18,26 +18,37 @@ package com.linkedin.restli.tools.clientgen;
 
 
 import com.linkedin.common.Version;
+import com.linkedin.data.schema.DataSchemaLocation;
 import com.linkedin.data.schema.generator.AbstractGenerator;
 import com.linkedin.pegasus.generator.CodeUtil;
 import com.linkedin.pegasus.generator.DefaultGeneratorResult;
+import com.linkedin.pegasus.generator.GeneratorManifest;
 import com.linkedin.pegasus.generator.GeneratorResult;
+import com.linkedin.pegasus.generator.IncrementalFileCodeWriter;
 import com.linkedin.pegasus.generator.JavaCodeGeneratorBase;
 import com.linkedin.pegasus.generator.JavaCodeUtil;
 import com.linkedin.pegasus.generator.PegasusDataTemplateGenerator;
+import com.linkedin.restli.common.RestConstants;
 import com.linkedin.restli.internal.common.RestliVersion;
 import com.linkedin.restli.restspec.ResourceSchema;
 import com.linkedin.util.FileUtil;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JDefinedClass;
-import com.sun.codemodel.writer.FileCodeWriter;
+import com.sun.codemodel.JPackage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,6 +63,7 @@ public class RestRequestBuilderGenerator
   private static final String GENERATOR_REST_GENERATE_DATATEMPLATES = "generator.rest.generate.datatemplates";
   private static final String GENERATOR_REST_GENERATE_VERSION = "generator.rest.generate.version";
   private static final Logger _log = LoggerFactory.getLogger(RestRequestBuilderGenerator.class);
+  private static final String MANIFEST_NAME = "requestBuilders.";
 
   /**
    * @param args Usage: RestRequestBuilderGenerator targetDirectoryPath sourceFilePaths
@@ -96,15 +108,35 @@ public class RestRequestBuilderGenerator
                                     String[] sources)
       throws IOException
   {
+    final File targetDirectory = new File(targetDirectoryPath);
+    final GeneratorManifest manifest = GeneratorManifest.load(targetDirectory, MANIFEST_NAME + version,
+                                                              resolverPath + File.pathSeparator + defaultPackage + File.pathSeparator +
+                                                                  generateImported + File.pathSeparator + generateDataTemplates + File.pathSeparator +
+                                                                  deprecatedByVersion);
+    final Set<File> skippedSourceFiles = new LinkedHashSet<File>();
+    final Set<File> skippedTargetFiles = new LinkedHashSet<File>();
+    final List<String> changedSources = changedSources(sources, manifest, skippedSourceFiles, skippedTargetFiles);
+    if (changedSources.isEmpty())
+    {
+      _log.info("Source files are unchanged, target files are up-to-date: " + skippedTargetFiles);
+      return new DefaultGeneratorResult(skippedSourceFiles, skippedTargetFiles, Collections.<File>emptyList());
+    }
+    if (!skippedSourceFiles.isEmpty())
+    {
+      _log.info("Skipping " + skippedSourceFiles.size() + " unchanged source files: " + skippedSourceFiles);
+    }
+
     final RestSpecParser parser = new RestSpecParser();
     final JavaRequestBuilderGenerator generator = new JavaRequestBuilderGenerator(resolverPath, defaultPackage, generateDataTemplates, version, deprecatedByVersion);
     final ClassLoader classLoader = JavaCodeUtil.classLoaderFromResolverPath(resolverPath);
 
-    final RestSpecParser.ParseResult parseResult = parser.parseSources(sources);
+    final RestSpecParser.ParseResult parseResult = parser.parseSources(changedSources.toArray(new String[changedSources.size()]));
 
     final StringBuilder message = new StringBuilder();
+    final Map<File, Set<File>> sourceToClassFiles = new LinkedHashMap<File, Set<File>>();
     for (CodeUtil.Pair<ResourceSchema, File> pair : parseResult.getSchemaAndFiles())
     {
+      final Set<File> classFiles = classFiles(targetDirectory, generator);
       try
       {
         final JDefinedClass clazz = generator.generate(pair.first, pair.second);
@@ -113,6 +145,9 @@ public class RestRequestBuilderGenerator
       {
         message.append(e.getMessage() + "\n");
       }
+      final Set<File> sourceClassFiles = classFiles(targetDirectory, generator);
+      sourceClassFiles.removeAll(classFiles);
+      sourceToClassFiles.put(pair.second, sourceClassFiles);
     }
 
     if (message.length() > 0)
@@ -149,7 +184,6 @@ public class RestRequestBuilderGenerator
     final JCodeModel requestBuilderCodeModel = generator.getCodeModel();
     final JCodeModel dataTemplateCodeModel = generator.getJavaDataTemplateGenerator().getCodeModel();
 
-    final File targetDirectory = new File(targetDirectoryPath);
     final List<File> targetFiles = JavaCodeUtil.targetFiles(targetDirectory, requestBuilderCodeModel, classLoader, checker);
     targetFiles.addAll(JavaCodeUtil.targetFiles(targetDirectory, dataTemplateCodeModel, classLoader, checker));
 
@@ -161,11 +195,97 @@ public class RestRequestBuilderGenerator
     }
     else
     {
-      modifiedFiles = targetFiles;
       _log.info("Generating " + targetFiles.size() + " files: " + targetFiles);
-      requestBuilderCodeModel.build(new FileCodeWriter(targetDirectory, true));
-      dataTemplateCodeModel.build(new FileCodeWriter(targetDirectory, true));
+      final IncrementalFileCodeWriter codeWriter = new IncrementalFileCodeWriter(targetDirectory, true, CodeUtil.getParallelism());
+      requestBuilderCodeModel.build(codeWriter);
+      dataTemplateCodeModel.build(codeWriter);
+      modifiedFiles = codeWriter.getModifiedFiles();
+      _log.info("Modified " + modifiedFiles.size() + " files: " + modifiedFiles);
+    }
+    CodeUtil.saveSchemaFileCache();
+
+    // the data templates of a resource may refer to any of the resolved schemas, so a resource depends on all of them
+    final List<File> schemaFiles = new ArrayList<File>();
+    for (DataSchemaLocation location : generator.getSchemaResolver().nameToDataSchemaLocations().values())
+    {
+      if (location.getSourceFile() != null)
+      {
+        schemaFiles.add(location.getSourceFile());
+      }
+    }
+    for (Map.Entry<File, Set<File>> entry : sourceToClassFiles.entrySet())
+    {
+      final List<File> sourceTargetFiles = new ArrayList<File>(targetFiles);
+      sourceTargetFiles.retainAll(entry.getValue());
+      manifest.update(entry.getKey(), schemaFiles, sourceTargetFiles);
+    }
+    manifest.save();
+
+    final Set<File> allSourceFiles = new LinkedHashSet<File>(parseResult.getSourceFiles());
+    allSourceFiles.addAll(skippedSourceFiles);
+    final Set<File> allTargetFiles = new LinkedHashSet<File>(targetFiles);
+    allTargetFiles.addAll(skippedTargetFiles);
+    return new DefaultGeneratorResult(allSourceFiles, allTargetFiles, modifiedFiles);
+  }
+
+  /**
+   * Expand the source directories to idl files and drop the idl files that are up-to-date in the manifest.
+   *
+   * @return paths of the idl files to parse
+   */
+  private static List<String> changedSources(String[] sources,
+                                             GeneratorManifest manifest,
+                                             Set<File> skippedSourceFiles,
+                                             Set<File> skippedTargetFiles)
+      throws IOException
+  {
+    final List<String> changedSources = new ArrayList<String>();
+    for (String source : sources)
+    {
+      final File sourceFile = new File(source);
+      final List<File> files;
+      if (sourceFile.isDirectory())
+      {
+        final FileUtil.FileExtensionFilter filter = new FileUtil.FileExtensionFilter(RestConstants.RESOURCE_MODEL_FILENAME_EXTENSION);
+        files = FileUtil.listFiles(sourceFile, filter);
+      }
+      else
+      {
+        files = Collections.singletonList(sourceFile);
+      }
+
+      for (File file : files)
+      {
+        if (file.isFile() && manifest.isUpToDate(file))
+        {
+          skippedSourceFiles.add(file);
+          skippedTargetFiles.addAll(manifest.getTargetFiles(file));
+        }
+        else
+        {
+          changedSources.add(file.getPath());
+        }
+      }
+    }
+    return changedSources;
+  }
+
+  /**
+   * @return the files of the top-level classes the generator has defined so far
+   */
+  private static Set<File> classFiles(File targetDirectory, JavaRequestBuilderGenerator generator)
+  {
+    final Set<File> classFiles = new HashSet<File>();
+    for (JCodeModel codeModel : Arrays.asList(generator.getCodeModel(), generator.getJavaDataTemplateGenerator().getCodeModel()))
+    {
+      for (Iterator<JPackage> packageIterator = codeModel.packages(); packageIterator.hasNext(); )
+      {
+        for (Iterator<JDefinedClass> classIterator = packageIterator.next().classes(); classIterator.hasNext(); )
+        {
+          classFiles.add(new File(targetDirectory, classIterator.next().fullName().replace('.', File.separatorChar) + ".java"));
+        }
+      }
     }
-    return new DefaultGeneratorResult(parseResult.getSourceFiles(), targetFiles, modifiedFiles);
+    return classFiles;
   }
 }
@@ -17,9 +17,9 @@
 package com.linkedin.restli.tools.compatibility;
 
 import com.linkedin.data.schema.DataSchemaResolver;
-import com.linkedin.data.schema.SchemaParserFactory;
 import com.linkedin.data.schema.resolver.DefaultDataSchemaResolver;
 import com.linkedin.data.schema.resolver.FileDataSchemaResolver;
+import com.linkedin.pegasus.generator.CodeUtil;
 
 /**
  * Basic Utilities for Resource Compatibility.
@@ -37,13 +37,6 @@ public class CompatibilityUtil
    */
   public static DataSchemaResolver getDataSchemaResolver(String resolverPath)
   {
-    if (resolverPath != null)
-    {
-      return new FileDataSchemaResolver(SchemaParserFactory.instance(), resolverPath);
-    }
-    else
-    {
-      return new DefaultDataSchemaResolver();
-    }
+    return CodeUtil.createSchemaResolver(resolverPath);
   }
 }
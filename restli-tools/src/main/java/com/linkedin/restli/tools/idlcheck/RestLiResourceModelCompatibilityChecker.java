@@ -17,10 +17,8 @@
 package com.linkedin.restli.tools.idlcheck;
 
 import com.linkedin.data.schema.DataSchemaResolver;
-import com.linkedin.data.schema.SchemaParserFactory;
 import com.linkedin.data.schema.generator.AbstractGenerator;
-import com.linkedin.data.schema.resolver.DefaultDataSchemaResolver;
-import com.linkedin.data.schema.resolver.FileDataSchemaResolver;
+import com.linkedin.pegasus.generator.CodeUtil;
 import com.linkedin.restli.restspec.ResourceSchema;
 import com.linkedin.restli.restspec.RestSpecCodec;
 import com.linkedin.restli.tools.compatibility.CompatibilityInfoMap;
@@ -180,15 +178,7 @@ public class RestLiResourceModelCompatibilityChecker
       return _infoMap.isCompatible(compatLevel);
     }
 
-    final DataSchemaResolver resolver;
-    if (_resolverPath == null)
-    {
-      resolver = new DefaultDataSchemaResolver();
-    }
-    else
-    {
-      resolver = new FileDataSchemaResolver(SchemaParserFactory.instance(), _resolverPath);
-    }
+    final DataSchemaResolver resolver = CodeUtil.createSchemaResolver(_resolverPath);
 
     ResourceCompatibilityChecker checker = new ResourceCompatibilityChecker(prevRec, resolver, currRec, resolver);
     boolean check = checker.check(compatLevel);
@@ -1,6 +1,7 @@
 package com.linkedin.restli.tools.clientgen;
 
 
+import com.linkedin.pegasus.generator.GeneratorResult;
 import com.linkedin.restli.internal.common.RestliVersion;
 import com.linkedin.restli.tools.idlgen.TestRestLiResourceModelExporter;
 
@@ -8,7 +9,10 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.regex.Pattern;
 
 import org.apache.commons.io.IOUtils;
@@ -143,6 +147,79 @@ public class TestRestRequestBuilderGenerator
     newStyleReader.close();
   }
 
+  @Test
+  public void testIncrementalGeneration() throws Exception
+  {
+    final String pegasusDir = moduleDir + FS + RESOURCES_DIR + FS + "pegasus";
+    final File idlDir = TestRestLiResourceModelExporter.createTmpDir();
+    final File incrementalOutdir = TestRestLiResourceModelExporter.createTmpDir();
+    try
+    {
+      final File idl = new File(idlDir, "arrayDuplicateA.restspec.json");
+      final String content = IOUtils.toString(new FileInputStream(moduleDir + FS + RESOURCES_DIR + FS + "idls" + FS + idl.getName()));
+      writeFile(idl, content);
+
+      final GeneratorResult first = runIncremental(pegasusDir, idl, incrementalOutdir);
+      Assert.assertFalse(first.getTargetFiles().isEmpty());
+      Assert.assertEquals(first.getModifiedFiles().size(), first.getTargetFiles().size());
+
+      // unchanged sources are skipped and their targets are not touched, even if the targets are older
+      for (File targetFile : first.getTargetFiles())
+      {
+        Assert.assertTrue(targetFile.setLastModified(10000L));
+      }
+      final GeneratorResult second = runIncremental(pegasusDir, idl, incrementalOutdir);
+      Assert.assertEquals(new ArrayList<File>(second.getTargetFiles()), new ArrayList<File>(first.getTargetFiles()));
+      Assert.assertTrue(second.getModifiedFiles().isEmpty(), second.getModifiedFiles().toString());
+
+      // a changed source is generated again, but targets with the same content are not written
+      writeFile(idl, content + "\n");
+      final GeneratorResult third = runIncremental(pegasusDir, idl, incrementalOutdir);
+      Assert.assertEquals(new ArrayList<File>(third.getTargetFiles()), new ArrayList<File>(first.getTargetFiles()));
+      Assert.assertTrue(third.getModifiedFiles().isEmpty(), third.getModifiedFiles().toString());
+      for (File targetFile : first.getTargetFiles())
+      {
+        Assert.assertEquals(targetFile.lastModified(), 10000L);
+      }
+
+      // a deleted target is generated again
+      final File deleted = first.getTargetFiles().iterator().next();
+      Assert.assertTrue(deleted.delete());
+      final GeneratorResult fourth = runIncremental(pegasusDir, idl, incrementalOutdir);
+      Assert.assertEquals(new ArrayList<File>(fourth.getModifiedFiles()), Collections.singletonList(deleted));
+    }
+    finally
+    {
+      TestRestLiResourceModelExporter.rmdir(idlDir);
+      TestRestLiResourceModelExporter.rmdir(incrementalOutdir);
+    }
+  }
+
+  private static GeneratorResult runIncremental(String pegasusDir, File idl, File outdir) throws IOException
+  {
+    return RestRequestBuilderGenerator.run(pegasusDir,
+                                           null,
+                                           true,
+                                           false,
+                                           RestliVersion.RESTLI_2_0_0,
+                                           null,
+                                           outdir.getPath(),
+                                           new String[] { idl.getPath() });
+  }
+
+  private static void writeFile(File file, String content) throws IOException
+  {
+    final FileWriter writer = new FileWriter(file);
+    try
+    {
+      writer.write(content);
+    }
+    finally
+    {
+      writer.close();
+    }
+  }
+
   @DataProvider
   private static Object[][] arrayDuplicateDataProvider()
   {